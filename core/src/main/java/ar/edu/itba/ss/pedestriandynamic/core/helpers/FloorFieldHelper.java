@@ -0,0 +1,172 @@
+package ar.edu.itba.ss.pedestriandynamic.core.helpers;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Disc;
+import ar.edu.itba.ss.pedestriandynamic.models.Geometry;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
+import ar.edu.itba.ss.pedestriandynamic.models.Wall;
+import ar.edu.itba.ss.pedestriandynamic.services.IOService;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.FloorField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.List;
+
+import static ar.edu.itba.ss.pedestriandynamic.services.IOService.ExitStatus.UNEXPECTED_ERROR;
+
+/**
+ * Builds the {@link FloorField} of a room's {@link Geometry}, over the whole system.
+ * <P>
+ * Pedestrians go out of the system through its bottom, i.e., at y = 0, so the field's sources are the nodes of its
+ * bottom row: inside the room, the field leads to the nearest exit, and, after going through it, straight down.
+ * Nodes nearer to a wall than the clearance, the largest pedestrians' radio, are blocked, so as paths keep
+ * pedestrians off walls and corners; hence, passages narrower than the largest pedestrians are considered closed.
+ * As the clearance is not smaller than the nodes' side, two consecutive free nodes are never at opposite sides of
+ * a wall.
+ * <P>
+ * Fields are cached on disk, at a file named after a hash of the geometry and of the grid, so as each geometry's
+ * field is computed only once.
+ */
+public class FloorFieldHelper {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FloorFieldHelper.class);
+
+  private static final double SIDE = 0.1;
+  private static final String FILE_PREFIX = "floor_field_";
+  private static final String FILE_EXTENSION = ".dat";
+  private static final String SEPARATOR = " ";
+  private static final String NL = System.lineSeparator();
+  private static final int HASH_BYTES = 8;
+
+  /**
+   * @return the given geometry's floor field, computed with the fast marching method
+   */
+  public static FloorField floorField(final Geometry geometry, final StaticData staticData) {
+    final int nx = nNodes(staticData.width());
+    final int ny = nNodes(staticData.totalSystemLength());
+    final double clearance = clearance(staticData);
+
+    final boolean[] blocked = new boolean[nx * ny];
+    final boolean[] sources = new boolean[nx * ny];
+    for (int j = 0; j < ny; j++) {
+      for (int i = 0; i < nx; i++) {
+        blocked[j * nx + i] = isBlocked(geometry, i * SIDE, j * SIDE, clearance);
+      }
+    }
+    for (int i = 0; i < nx; i++) {
+      sources[i] = true;
+    }
+    return FloorField.fastMarching(nx, ny, SIDE, blocked, sources);
+  }
+
+  /**
+   * @return the given geometry's floor field, loaded from the given folder if it was already saved there;
+   * otherwise, it is computed and saved there
+   */
+  public static FloorField cachedFloorField(final Geometry geometry, final StaticData staticData,
+                                            final String cacheFolder) {
+    final String fileName = FILE_PREFIX + hash(geometry, staticData);
+    final Path cacheFile = Paths.get(cacheFolder, fileName + FILE_EXTENSION);
+    final FloorField cachedFloorField = load(cacheFile, nNodes(staticData.width()),
+            nNodes(staticData.totalSystemLength()));
+    if (cachedFloorField != null) {
+      return cachedFloorField;
+    }
+
+    final FloorField floorField = floorField(geometry, staticData);
+    final Path pathToFile = IOService.createOutputFile(cacheFolder, fileName, FILE_EXTENSION);
+    IOService.appendToFile(pathToFile, serialize(floorField));
+    IOService.closeOutputFile(pathToFile);
+    return floorField;
+  }
+
+  /**
+   * @return the floor field saved at the given file; null if it does not exist or is not valid,
+   * so as it is computed again
+   */
+  private static FloorField load(final Path cacheFile, final int nx, final int ny) {
+    if (!IOService.openInputFile(cacheFile)) {
+      return null;
+    }
+    try {
+      final Iterator<String> lines = IOService.readLines(cacheFile).iterator();
+      final String[] header = lines.next().split(SEPARATOR);
+      if (Integer.parseInt(header[0]) != nx || Integer.parseInt(header[1]) != ny
+              || Double.parseDouble(header[2]) != SIDE) {
+        return null;
+      }
+      final double[] distances = new double[nx * ny];
+      for (int node = 0; node < distances.length; node++) {
+        distances[node] = Double.parseDouble(lines.next());
+      }
+      return new FloorField(nx, ny, SIDE, distances);
+    } catch (final RuntimeException e) {
+      LOGGER.warn("Floor field's cache file {} is not valid; computing it again", cacheFile, e);
+      return null;
+    } finally {
+      IOService.closeInputFile(cacheFile);
+    }
+  }
+
+  // the grid's size, and then each node's distance, one per line
+  private static String serialize(final FloorField floorField) {
+    final StringBuilder sb = new StringBuilder();
+    sb.append(floorField.nx()).append(SEPARATOR).append(floorField.ny()).append(SEPARATOR)
+            .append(floorField.side()).append(NL);
+    for (final double distance : floorField.distances()) {
+      sb.append(distance).append(NL);
+    }
+    return sb.toString();
+  }
+
+  private static String hash(final Geometry geometry, final StaticData staticData) {
+    // geometry's string holds every value of it, with its full precision
+    final String key = geometry + SEPARATOR + staticData.width() + SEPARATOR + staticData.totalSystemLength()
+            + SEPARATOR + SIDE + SEPARATOR + clearance(staticData);
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+      final StringBuilder sb = new StringBuilder();
+      for (int b = 0; b < HASH_BYTES; b++) {
+        sb.append(String.format("%02x", digest[b]));
+      }
+      return sb.toString();
+    } catch (final NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      IOService.exit(UNEXPECTED_ERROR, e);
+      // should never reach here
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static boolean isBlocked(final Geometry geometry, final double x, final double y, final double clearance) {
+    for (final Wall wall : geometry.walls()) {
+      if (GeometryHelper.distanceToSegment(x, y, wall) < clearance) {
+        return true;
+      }
+    }
+    for (final List<Vector2D> obstacle : geometry.obstacles()) {
+      if (GeometryHelper.isInside(x, y, obstacle)) {
+        return true;
+      }
+    }
+    for (final Disc disc : geometry.discs()) {
+      if (Math.hypot(x - disc.x(), y - disc.y()) < disc.radio() + clearance) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static double clearance(final StaticData staticData) {
+    return Math.max(SIDE, staticData.maxDiameter() / 2);
+  }
+
+  private static int nNodes(final double length) {
+    return (int) Math.ceil(length / SIDE) + 1;
+  }
+}
@@ -0,0 +1,267 @@
+package ar.edu.itba.ss.pedestriandynamic.core.helpers;
+
+import ar.edu.itba.ss.pedestriandynamic.models.*;
+import ar.edu.itba.ss.pedestriandynamic.services.IOService;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static ar.edu.itba.ss.pedestriandynamic.services.IOService.ExitStatus.BAD_FILE_FORMAT;
+import static ar.edu.itba.ss.pedestriandynamic.services.IOService.ExitStatus.COULD_NOT_OPEN_INPUT_FILE;
+
+/**
+ * Builds the room's {@link Geometry}, either the default one or the one of a geometry file.
+ * <P>
+ * A geometry file has one element per line, with its values separated by spaces; empty lines and lines starting
+ * with {@code #} are ignored. Coordinates are relative to the room's bottom left corner, so the room spans from
+ * {@code (0, 0)} to {@code (width, length)}, and they are moved to the system's coordinates when loaded; elements
+ * out of that span are rejected.
+ * <pre>
+ *  wall &lt;x1&gt; &lt;y1&gt; &lt;x2&gt; &lt;y2&gt;           a wall segment
+ *  polygon &lt;x1&gt; &lt;y1&gt; ... &lt;xn&gt; &lt;yn&gt;   a closed obstacle, such as a column, with n &gt;= 3 vertices
+ *  disc &lt;x&gt; &lt;y&gt; &lt;radio&gt;            a round obstacle
+ *  exit &lt;x1&gt; &lt;x2&gt;                   an opening at the room's bottom, i.e., at y = 0
+ * </pre>
+ * The file describes the whole room, including its outline: no default wall is added, and pedestrians are only
+ * placed inside the outline, so it may be other than a rectangle. Discs are kept as round obstacles, not as walls.
+ * Walls' free ends and polygons' vertices are saved as the geometry's corners.
+ */
+public class GeometryHelper {
+  private static final double ZERO = 0;
+
+  private static final String COMMENT = "#";
+  private static final String SEPARATOR = "\\s+";
+  private static final String WALL = "wall";
+  private static final String POLYGON = "polygon";
+  private static final String DISC = "disc";
+  private static final String EXIT = "exit";
+  private static final int WALL_VALUES = 5;
+  private static final int MIN_POLYGON_VERTICES = 3;
+  private static final int DISC_VALUES = 4;
+  private static final int EXIT_VALUES = 3;
+
+  /**
+   * @return the default room: a rectangle with an opening of {@code diameterOpening} at the middle of its bottom;
+   * its side walls are replaced by periodic limits on a periodic x axis, and its bottom, by periodic limits on a
+   * periodic y axis
+   */
+  public static Geometry defaultGeometry(final StaticData staticData) {
+    final Geometry.Builder geometry = Geometry.builder();
+
+    final Wall leftVerticalWall = Wall.builder(ZERO, staticData.fallLength(), ZERO, staticData.totalSystemLength()).build();
+    final Wall rightVerticalWall = Wall.builder(staticData.width(), staticData.fallLength(), staticData.width(), staticData.totalSystemLength()).build();
+
+    final double horizontalWallWidth = (staticData.width()-staticData.diameterOpening()) / 2;
+
+    @SuppressWarnings("UnnecessaryLocalVariable")
+    final double xFromLeftHorizontalWall = ZERO;
+    final double xToLeftHorizontalWall = xFromLeftHorizontalWall + horizontalWallWidth;
+
+    final double xFromRightHorizontalWall = (staticData.width() + staticData.diameterOpening()) / 2;
+    final double xToRightHorizontalWall = xFromRightHorizontalWall + horizontalWallWidth;
+
+    final Wall leftBottomHorizontalWall =
+            Wall.builder(xFromLeftHorizontalWall, staticData.fallLength(),
+                    xToLeftHorizontalWall, staticData.fallLength()).build();
+    final Wall rightBottomHorizontalWall =
+            Wall.builder(xFromRightHorizontalWall, staticData.fallLength(),
+                    xToRightHorizontalWall, staticData.fallLength()).build();
+
+    // walls are replaced by the periodic limits on each periodic axis
+    if (!staticData.periodicX()) {
+      geometry.addWalls(leftVerticalWall, rightVerticalWall);
+    }
+    if (!staticData.periodicY()) {
+      geometry.addWalls(leftBottomHorizontalWall, rightBottomHorizontalWall);
+      geometry.addExits(Exit.builder(xToLeftHorizontalWall, xFromRightHorizontalWall, staticData.fallLength()).build());
+    }
+
+    return geometry.build();
+  }
+
+  public static Geometry loadGeometry(final String geometryFile, final StaticData staticData) {
+    final Path geometryFilePath = Paths.get(geometryFile);
+    if (!IOService.openInputFile(geometryFilePath)) {
+      IOService.exit(COULD_NOT_OPEN_INPUT_FILE, geometryFilePath);
+      // should never reach here
+      throw new IllegalStateException();
+    }
+
+    final Geometry.Builder geometry = Geometry.builder();
+    final Iterator<String> lines = IOService.readLines(geometryFilePath).iterator();
+    while (lines.hasNext()) {
+      final String line = lines.next().trim();
+      if (line.isEmpty() || line.startsWith(COMMENT)) {
+        continue;
+      }
+      final String[] values = line.split(SEPARATOR);
+      switch (values[0]) {
+        case WALL:
+          checkNValues(values.length == WALL_VALUES, line);
+          geometry.addWalls(wall(parseVertex(values, 1, staticData, line),
+                  parseVertex(values, 3, staticData, line), line));
+          break;
+        case POLYGON:
+          checkNValues(values.length % 2 == 1 && values.length >= 2 * MIN_POLYGON_VERTICES + 1, line);
+          final List<Vector2D> vertices = new ArrayList<>();
+          for (int i = 1; i < values.length; i += 2) {
+            vertices.add(parseVertex(values, i, staticData, line));
+          }
+          addObstacle(geometry, vertices, line);
+          break;
+        case DISC:
+          checkNValues(values.length == DISC_VALUES, line);
+          final double radio = IOService.parseAsDouble(values[3], "<radio>");
+          checkNValues(radio > 0, line);
+          final Vector2D center = parseVertex(values, 1, staticData, line);
+          checkInRoom(center.x() - radio, center.y() - radio - staticData.fallLength(), staticData, line);
+          checkInRoom(center.x() + radio, center.y() + radio - staticData.fallLength(), staticData, line);
+          geometry.addDiscs(Disc.builder(center.x(), center.y()).radio(radio).build());
+          break;
+        case EXIT:
+          checkNValues(values.length == EXIT_VALUES, line);
+          final double xFrom = IOService.parseAsDouble(values[1], "<x1>");
+          final double xTo = IOService.parseAsDouble(values[2], "<x2>");
+          checkNValues(xTo > xFrom, line);
+          checkInRoom(xFrom, ZERO, staticData, line);
+          checkInRoom(xTo, ZERO, staticData, line);
+          geometry.addExits(Exit.builder(xFrom, xTo, staticData.fallLength()).build());
+          break;
+        default:
+          IOService.exit(BAD_FILE_FORMAT, line);
+          // should never reach here
+          throw new IllegalStateException();
+      }
+    }
+    IOService.closeInputFile(geometryFilePath);
+
+    final Geometry geometryWithoutCorners = geometry.build();
+    return geometryWithoutCorners.withCorners(corners(geometryWithoutCorners));
+  }
+
+  /**
+   * @return true if the given particle is inside the room's outline, and does not overlap any wall nor disc, nor is
+   * inside any obstacle; false otherwise
+   */
+  public static boolean isFree(final Geometry geometry, final Particle particle) {
+    if (!isInsideRoom(particle.x(), particle.y(), geometry)) {
+      return false;
+    }
+    for (final Wall wall : geometry.walls()) {
+      if (distanceToSegment(particle.x(), particle.y(), wall) <= particle.radio()) {
+        return false;
+      }
+    }
+    for (final List<Vector2D> obstacle : geometry.obstacles()) {
+      if (isInside(particle.x(), particle.y(), obstacle)) {
+        return false;
+      }
+    }
+    for (final Disc disc : geometry.discs()) {
+      if (Math.hypot(particle.x() - disc.x(), particle.y() - disc.y()) <= disc.radio() + particle.radio()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void addObstacle(final Geometry.Builder geometry, final List<Vector2D> vertices, final String line) {
+    for (int i = 0; i < vertices.size(); i++) {
+      geometry.addWalls(wall(vertices.get(i), vertices.get((i + 1) % vertices.size()), line));
+    }
+    geometry.addObstacles(Collections.unmodifiableList(vertices));
+  }
+
+  private static List<Vector2D> corners(final Geometry geometry) {
+    final Map<Vector2D, Integer> wallsPerEnd = new HashMap<>();
+    for (final Wall wall : geometry.walls()) {
+      wallsPerEnd.merge(wall.c1(), 1, Integer::sum);
+      wallsPerEnd.merge(wall.c2(), 1, Integer::sum);
+    }
+
+    // kept following the file's order
+    final Set<Vector2D> corners = new LinkedHashSet<>();
+    for (final Wall wall : geometry.walls()) {
+      for (final Vector2D end : Arrays.asList(wall.c1(), wall.c2())) {
+        if (wallsPerEnd.get(end) == 1) {
+          corners.add(end);
+        }
+      }
+    }
+    for (final List<Vector2D> obstacle : geometry.obstacles()) {
+      corners.addAll(obstacle);
+    }
+    for (final Exit exit : geometry.exits()) {
+      corners.remove(Vector2D.builder(exit.xFrom(), exit.y()).build());
+      corners.remove(Vector2D.builder(exit.xTo(), exit.y()).build());
+    }
+    return new ArrayList<>(corners);
+  }
+
+  // the vertex whose x is at values[i] and whose y is at values[i + 1], moved to the system's coordinates
+  private static Vector2D parseVertex(final String[] values, final int i,
+                                      final StaticData staticData, final String line) {
+    final double x = IOService.parseAsDouble(values[i], "<x>");
+    final double y = IOService.parseAsDouble(values[i + 1], "<y>");
+    checkInRoom(x, y, staticData, line);
+    return Vector2D.builder(x, staticData.fallLength() + y).build();
+  }
+
+  private static Wall wall(final Vector2D from, final Vector2D to, final String line) {
+    // walls without length are rejected by Wall itself
+    checkNValues(from.x() != to.x() || from.y() != to.y(), line);
+    return Wall.builder(from.x(), from.y(), to.x(), to.y()).build();
+  }
+
+  private static void checkNValues(final boolean valid, final String line) {
+    if (!valid) {
+      IOService.exit(BAD_FILE_FORMAT, line);
+      // should never reach here
+      throw new IllegalStateException();
+    }
+  }
+
+  // whether the given point, relative to the room's bottom left corner, is within the room's span
+  private static void checkInRoom(final double x, final double y, final StaticData staticData, final String line) {
+    if (x < ZERO || x > staticData.width() || y < ZERO || y > staticData.length()) {
+      IOService.exit(BAD_FILE_FORMAT, line);
+      // should never reach here
+      throw new IllegalStateException();
+    }
+  }
+
+  // even-odd rule over all the walls: a ray from a point out of the obstacles crosses their edges in pairs, so only
+  // the outline's ones change the parity; exits are at the room's bottom, so a horizontal ray never crosses them
+  private static boolean isInsideRoom(final double x, final double y, final Geometry geometry) {
+    boolean inside = false;
+    for (final Wall wall : geometry.walls()) {
+      if ((wall.yFrom() > y) != (wall.yTo() > y)
+              && x < (wall.xTo() - wall.xFrom()) * (y - wall.yFrom()) / (wall.yTo() - wall.yFrom()) + wall.xFrom()) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  /* package-private */ static double distanceToSegment(final double x, final double y, final Wall wall) {
+    final double dx = wall.xTo() - wall.xFrom();
+    final double dy = wall.yTo() - wall.yFrom();
+    final double t = ((x - wall.xFrom()) * dx + (y - wall.yFrom()) * dy) / (dx * dx + dy * dy);
+    final double clampedT = Math.max(0, Math.min(1, t));
+    return Math.hypot(x - (wall.xFrom() + clampedT * dx), y - (wall.yFrom() + clampedT * dy));
+  }
+
+  // even-odd rule: a ray from the point crosses the polygon's edges an odd number of times if it is inside
+  /* package-private */ static boolean isInside(final double x, final double y, final List<Vector2D> polygon) {
+    boolean inside = false;
+    for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i++) {
+      final Vector2D vi = polygon.get(i);
+      final Vector2D vj = polygon.get(j);
+      if ((vi.y() > y) != (vj.y() > y) && x < (vj.x() - vi.x()) * (y - vi.y()) / (vj.y() - vi.y()) + vi.x()) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+}
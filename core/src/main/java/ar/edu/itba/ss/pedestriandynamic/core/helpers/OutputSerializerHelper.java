@@ -1,16 +1,24 @@
 package ar.edu.itba.ss.pedestriandynamic.core.helpers;
 
+import ar.edu.itba.ss.pedestriandynamic.models.Disc;
+import ar.edu.itba.ss.pedestriandynamic.models.Exit;
+import ar.edu.itba.ss.pedestriandynamic.models.Geometry;
 import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
 import ar.edu.itba.ss.pedestriandynamic.models.Wall;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 
 import static ar.edu.itba.ss.pedestriandynamic.models.ParticleType.BORDER;
+import static ar.edu.itba.ss.pedestriandynamic.models.ParticleType.OPENING_LEFT;
+import static ar.edu.itba.ss.pedestriandynamic.models.ParticleType.OPENING_RIGHT;
 import static ar.edu.itba.ss.pedestriandynamic.models.ParticleType.SPAWN;
+import static ar.edu.itba.ss.pedestriandynamic.models.ParticleType.WALL;
 
 @SuppressWarnings("StringBufferReplaceableByString")
 public class OutputSerializerHelper {
@@ -27,9 +35,14 @@ public class OutputSerializerHelper {
   private static int OVITO_ID_GEN = 0;
 
   private final Collection<Particle> ovitoBorderParticles;
+  /**
+   * The room's static discs, i.e., its exits' extremes, its corners and its round obstacles, shown as particles
+   */
+  private final Collection<Particle> ovitoDiscsParticles;
 
-  public OutputSerializerHelper(final StaticData staticData) {
+  public OutputSerializerHelper(final StaticData staticData, final Geometry geometry) {
     ovitoBorderParticles = generateOvitoBorderParticles(staticData);
+    ovitoDiscsParticles = generateOvitoDiscsParticles(geometry);
   }
 
   /**
@@ -46,7 +59,7 @@ public class OutputSerializerHelper {
                             long iteration) {
     final StringBuilder sb = new StringBuilder();
     // each wall represented with 2 particles
-    final int N = particles.size() + walls.size() * 2 + ovitoBorderParticles.size();
+    final int N = particles.size() + walls.size() * 2 + ovitoDiscsParticles.size() + ovitoBorderParticles.size();
 
     // (system + border) particles number
     sb.append(N).append(NL);
@@ -56,6 +69,8 @@ public class OutputSerializerHelper {
     serializeParticles(particles, sb);
     // system's walls' data
     serializeWalls(walls, sb);
+    // system's static discs' data
+    serializeParticles(ovitoDiscsParticles, sb);
     // ovito's border particles
     serializeParticles(ovitoBorderParticles, sb);
     return sb.toString();
@@ -131,6 +146,27 @@ public class OutputSerializerHelper {
     return particles;
   }
 
+  private Collection<Particle> generateOvitoDiscsParticles(final Geometry geometry) {
+    final Collection<Particle> particles = new ArrayList<>();
+
+    for (final Exit exit : geometry.exits()) {
+      particles.add(Particle.builder(exit.xFrom(), exit.y()).id(nextOvitoId())
+              .mass(Double.MAX_VALUE).type(OPENING_LEFT).build());
+      particles.add(Particle.builder(exit.xTo(), exit.y()).id(nextOvitoId())
+              .mass(Double.MAX_VALUE).type(OPENING_RIGHT).build());
+    }
+    for (final Vector2D corner : geometry.corners()) {
+      particles.add(Particle.builder(corner.x(), corner.y()).id(nextOvitoId())
+              .mass(Double.MAX_VALUE).type(WALL).build());
+    }
+    for (final Disc disc : geometry.discs()) {
+      particles.add(Particle.builder(disc.x(), disc.y()).id(nextOvitoId()).radio(disc.radio())
+              .mass(Double.MAX_VALUE).type(WALL).build());
+    }
+
+    return particles;
+  }
+
   private long nextOvitoId() {
     return --OVITO_ID_GEN;
   }
@@ -1,8 +1,10 @@
 package ar.edu.itba.ss.pedestriandynamic.core.system;
 
+import ar.edu.itba.ss.pedestriandynamic.core.helpers.GeometryHelper;
 import ar.edu.itba.ss.pedestriandynamic.core.helpers.InputSerializerHelper;
 import ar.edu.itba.ss.pedestriandynamic.core.helpers.OutputSerializerHelper;
 import ar.edu.itba.ss.pedestriandynamic.interfaces.MainProgram;
+import ar.edu.itba.ss.pedestriandynamic.models.Geometry;
 import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
 import ar.edu.itba.ss.pedestriandynamic.services.IOService;
@@ -11,6 +13,7 @@ import ar.edu.itba.ss.pedestriandynamic.services.factories.ParticleFactory;
 
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.function.Predicate;
 
 import static ar.edu.itba.ss.pedestriandynamic.services.IOService.ExitStatus.*;
 
@@ -28,6 +31,8 @@ public class GenerateDynamicFileProgram implements MainProgram {
 
   // gen static args indexes
   private static final int I_STATIC_FILE = 2;
+  // optional
+  private static final int I_GEOMETRY_FILE = 3;
 
   private static final int N_ARGS_EXPECTED = 3;
 
@@ -42,7 +47,15 @@ public class GenerateDynamicFileProgram implements MainProgram {
     }
 
     final StaticData staticData = InputSerializerHelper.loadStaticFile(args[I_STATIC_FILE]);
-    final Collection<Particle> particles = initializeSystemParticles(staticData);
+    // pedestrians are placed only where they do not overlap the room's walls and obstacles, if it has any
+    final Predicate<Particle> isFree;
+    if (args.length > I_GEOMETRY_FILE) {
+      final Geometry geometry = GeometryHelper.loadGeometry(args[I_GEOMETRY_FILE], staticData);
+      isFree = particle -> GeometryHelper.isFree(geometry, particle);
+    } else {
+      isFree = particle -> true;
+    }
+    final Collection<Particle> particles = initializeSystemParticles(staticData, isFree);
 
     final String serializedDynamicData = OutputSerializerHelper.dynamicOutput(particles);
     final Path pathToDynamicFile =
@@ -53,7 +66,8 @@ public class GenerateDynamicFileProgram implements MainProgram {
     System.out.println("[DONE]");
   }
 
-  private Collection<Particle> initializeSystemParticles(final StaticData staticData) {
+  private Collection<Particle> initializeSystemParticles(final StaticData staticData,
+                                                         final Predicate<Particle> isFree) {
     final ParticleFactory particleFactory = ParticleFactory.getInstance();
 
     if (!validParametersRange(staticData.width(), staticData.diameterOpening())) {
@@ -78,7 +92,8 @@ public class GenerateDynamicFileProgram implements MainProgram {
             rightTopParticle,
             radios, staticData.mass(),
             OVERLAP_ALLOWED,
-            MAX_OVERLAP_TRIES);
+            MAX_OVERLAP_TRIES,
+            isFree);
   }
 
   private boolean validParametersRange(final double width,
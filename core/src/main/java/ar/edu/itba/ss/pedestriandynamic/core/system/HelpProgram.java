@@ -8,10 +8,12 @@ public class HelpProgram implements MainProgram {
                   "Arguments: \n" +
                   "* gen static <n_particles> <width> <length> <diameter_opening> <min_diameter> <max_diameter> <mass> <kn> <kt> <A> <B> <tau> <driving_speed> : \n" +
                   "     generates an output/static.dat file with the desired parameters.\n" +
-                  "* gen dynamic <path/to/static.dat> : \n" +
+                  "* gen dynamic <path/to/static.dat> [<path/to/geometry.dat>] : \n" +
                   "     generates an output/dynamic.dat file with the information specified at the " +
                   "given static.dat file.\n" +
-                  "* sim <path/to/static.dat> <path/to/dynamic.dat> <simulationTime> <dt> <dt2> <print_ovito> <dated_file> <consider_dt>\n" +
+                  "     If a geometry file is given, pedestrians are only placed inside its outline, and not over its walls nor\n" +
+                  "     inside its obstacles.\n" +
+                  "* sim <path/to/static.dat> <path/to/dynamic.dat> <simulationTime> <dt> <dt2> <print_ovito> <dated_file> <consider_dt> [<option>=<value> ...]\n" +
                   "     runs the pedestrian-dynamic simulation and saves snapshots of the system in output/ovito.xyz.\n" +
                   "     - <simulationTime>: total time to simulate.\n" +
                   "     - <dt>: time step of the simulation.\n" +
@@ -19,7 +21,82 @@ public class HelpProgram implements MainProgram {
                   "     - <print_ovito>: true if ovito output is desired; false otherwise.\n" +
                   "     - <dated_file>: true if output should be saved in a folder with date appended; false otherwise.\n" +
                   "     - <consider_dt>: true if simulation should be stopped when reaching the given <dt>;\n" +
-                  "                      false if it should be stopped automatically when the room is empty";
+                  "                      false if it should be stopped automatically when the room is empty\n" +
+                  "     Options:\n" +
+                  "     - finder=<brute|cim|pcim|icim|quadtree|sap|verlet>: neighbours finder method; brute force,\n" +
+                  "                          cell index method, parallel cell index method, incremental cell index method\n" +
+                  "                          (only particles that changed cell are moved), quadtree (adapts to the\n" +
+                  "                          crowd's density; best for large, almost empty rooms), sweep and prune\n" +
+                  "                          (particles kept sorted along x between steps) or Verlet lists\n" +
+                  "                          built with the cell index method (default: cim).\n" +
+                  "     - skin=<distance>: extra distance used when building Verlet lists (default: 0.1).\n" +
+                  "                        Lists are rebuilt when any particle moves more than half of it.\n" +
+                  "     - threads=<n>: number of threads used by parallel methods (default: available processors).\n" +
+                  "     - periodic=<x|y|xy>: periodic limits on the given axes, instead of walls (default: none).\n" +
+                  "                          With periodic y limits, the system is an endless corridor that pedestrians\n" +
+                  "                          walk down along, and flow is measured each time one of them wraps around;\n" +
+                  "                          <consider_dt> must be true, as the room never gets empty.\n" +
+                  "                          Not supported by the brute force, quadtree nor sweep and prune finders.\n" +
+                  "     - reorder=<steps>: sort particles by the Morton key of their positions every <steps> steps,\n" +
+                  "                        so as to improve cache locality; 0 to never sort them (default: 0).\n" +
+                  "     - cutoff=<distance>: max border-to-border distance between two pedestrians so as to consider\n" +
+                  "                          their social force; pairs are found with the chosen neighbours finder\n" +
+                  "                          (default: none, i.e., all pairs are considered).\n" +
+                  "     - tolerance=<relative force>: min social force, relative to A, to be considered; it gives a cutoff\n" +
+                  "                                   of -B * ln(<relative force>). If both cutoff and tolerance are\n" +
+                  "                                   given, the shortest cutoff is used (default: none).\n" +
+                  "     - exp=<relative error>: calculate social forces' exponentials from a precomputed table, with\n" +
+                  "                             the given max relative error, from 1e-12 to 1; 0 to use the exact\n" +
+                  "                             exponential (default: 0).\n" +
+                  "     - forces=<particle|pair>: evaluate the total force of each particle at once, or each pair's\n" +
+                  "                               particles' and social forces only once, applying them to both\n" +
+                  "                               particles with opposite signs (default: particle).\n" +
+                  "     - primitive=<true|false>: calculate forces over primitive doubles, allocating no object per\n" +
+                  "                               force; results are exactly the same (default: false).\n" +
+                  "     - simd=<true|false>: calculate particles', social and driving forces with the SIMD kernel of\n" +
+                  "                          the simd module, if it is available at runtime, or with the equivalent\n" +
+                  "                          scalar one otherwise; results differ by rounding. Not supported with\n" +
+                  "                          forces=pair, periodic limits nor exp (default: false).\n" +
+                  "     - slow=<steps>: evaluate social and driving forces only every <steps> steps, holding them\n" +
+                  "                     in between, while granular forces are evaluated on every step; not\n" +
+                  "                     supported with forces=pair, simd=true nor adaptive=true\n" +
+                  "                     (default: 1, i.e., every step).\n" +
+                  "     - integrator=<gear|verlet|leapfrog>: integrate particles with a gear predictor corrector,\n" +
+                  "                                           a velocity Verlet or a leapfrog; Verlet methods save\n" +
+                  "                                           derivatives at arrays, up to the accelerations\n" +
+                  "                                           (default: gear).\n" +
+                  "     - arrays=<true|false>: save the gear predictor corrector's derivatives at arrays indexed by\n" +
+                  "                            particle, instead of at maps, and predict and fix them over primitive\n" +
+                  "                            doubles; results are exactly the same (default: false).\n" +
+                  "     - order=<2|3|4|5>: order of the gear predictor corrector; lower orders save fewer derivatives\n" +
+                  "                        and take fewer operations per step, but are less accurate (default: 5).\n" +
+                  "     - evaluation=<serial|parallel>: evaluate particles' forces one after the other, or in parallel\n" +
+                  "                                     with <threads> threads; results are exactly the same.\n" +
+                  "                                     With forces=pair, pairs are also evaluated in parallel, over\n" +
+                  "                                     grid cells of the same colour, which share no neighbour;\n" +
+                  "                                     results do not depend on <threads>, but differ from the\n" +
+                  "                                     serial ones by rounding (default: serial).\n" +
+                  "     - adaptive=<true|false>: choose delta time at each step, between <delta_1> and <maxdt>, from\n" +
+                  "                              the max overlap, the max normal speed between bodies in contact and\n" +
+                  "                              the max position's correction of the last step. Steps are shortened\n" +
+                  "                              so as to output the system exactly every <delta_2> (default: false).\n" +
+                  "     - maxdt=<seconds>: max delta time of an adaptive step (default: 0.1 * sqrt(m/kn)).\n" +
+                  "     - overlap=<distance>: max overlap between two bodies with which an adaptive step may be\n" +
+                  "                           larger than <delta_1>; no contact's overlap changes by more than a\n" +
+                  "                           tenth of it on one step (default: 1e-2).\n" +
+                  "     - dterror=<distance>: max position's correction of any pedestrian on one adaptive step; a larger\n" +
+                  "                           one only shortens the following step (default: 1e-7).\n" +
+                  "     - geometry=<path/to/geometry.dat>: room's walls, obstacles and exits, instead of the default\n" +
+                  "                                        rectangular room with one opening at its bottom. Each line\n" +
+                  "                                        is one of the following, with coordinates relative to the\n" +
+                  "                                        room's bottom left corner and within <width> x <length>; lines\n" +
+                  "                                        starting with # are ignored:\n" +
+                  "                                          wall <x1> <y1> <x2> <y2>\n" +
+                  "                                          polygon <x1> <y1> <x2> <y2> <x3> <y3> [...]\n" +
+                  "                                          disc <x> <y> <radio>\n" +
+                  "                                          exit <x1> <x2>\n" +
+                  "                                        Exits are at the room's bottom, and each pedestrian heads to\n" +
+                  "                                        the nearest one (default: none).";
 
   @Override
   public void run(final String[] args) {
@@ -1,13 +1,18 @@
 package ar.edu.itba.ss.pedestriandynamic.core.system;
 
+import ar.edu.itba.ss.pedestriandynamic.core.helpers.FloorFieldHelper;
+import ar.edu.itba.ss.pedestriandynamic.core.helpers.GeometryHelper;
 import ar.edu.itba.ss.pedestriandynamic.core.helpers.InputSerializerHelper;
 import ar.edu.itba.ss.pedestriandynamic.core.helpers.OutputSerializerHelper;
-import ar.edu.itba.ss.pedestriandynamic.core.system.integration.Gear5PedestrianDynamicsSystemData;
+import ar.edu.itba.ss.pedestriandynamic.core.system.integration.AdaptiveTimeStep;
+import ar.edu.itba.ss.pedestriandynamic.core.system.integration.PedestrianDynamicsSystemData;
 import ar.edu.itba.ss.pedestriandynamic.core.system.integration.GearPedestrianDynamicsSystem;
 import ar.edu.itba.ss.pedestriandynamic.interfaces.MainProgram;
 import ar.edu.itba.ss.pedestriandynamic.interfaces.TimeDrivenSimulationSystem;
 import ar.edu.itba.ss.pedestriandynamic.models.*;
 import ar.edu.itba.ss.pedestriandynamic.services.IOService;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.FloorField;
+import ar.edu.itba.ss.pedestriandynamic.services.gear.GearNSystemData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,6 +20,7 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
 
+import static ar.edu.itba.ss.pedestriandynamic.services.IOService.ExitStatus.BAD_ARGUMENT;
 import static ar.edu.itba.ss.pedestriandynamic.services.IOService.ExitStatus.BAD_N_ARGUMENTS;
 
 public class PedestrianDynamicsProgram implements MainProgram {
@@ -25,6 +31,8 @@ public class PedestrianDynamicsProgram implements MainProgram {
 
   // file constants
   private static final String DEFAULT_OUTPUT_FOLDER = "output";
+  // not timestamped, so as floor fields are kept among simulations
+  private static final String FLOOR_FIELDS_FOLDER = DEFAULT_OUTPUT_FOLDER + "/floor_fields";
   private static final String OVITO_FILE_EXTENSION = ".xyz";
   private static final String DEFAULT_OVITO_FILE_NAME = "ovito";
   private static final String STATISTICS_FILE_EXTENSION = ".csv";
@@ -48,6 +56,30 @@ public class PedestrianDynamicsProgram implements MainProgram {
   private static final int I_CONSIDER_DELTA_1 = 8;
   private static final int N_ARGS_EXPECTED = 9;
 
+  // optional run args, given as <option>=<value> after the expected ones
+  private static final String OPTION_SEPARATOR = "=";
+  private static final String OPT_NEIGHBOURS_FINDER = "finder";
+  private static final String OPT_VERLET_SKIN = "skin";
+  private static final String OPT_PARALLELISM = "threads";
+  private static final String OPT_PERIODIC = "periodic";
+  private static final String OPT_REORDER_INTERVAL = "reorder";
+  private static final String OPT_SOCIAL_CUTOFF = "cutoff";
+  private static final String OPT_SOCIAL_TOLERANCE = "tolerance";
+  private static final String OPT_SOCIAL_EXP_ERROR = "exp";
+  private static final String OPT_FORCE_EVALUATION = "forces";
+  private static final String OPT_PRIMITIVE_FORCES = "primitive";
+  private static final String OPT_SIMD_FORCES = "simd";
+  private static final String OPT_SLOW_FORCES_INTERVAL = "slow";
+  private static final String OPT_INTEGRATOR = "integrator";
+  private static final String OPT_GEAR_ARRAYS = "arrays";
+  private static final String OPT_GEAR_ORDER = "order";
+  private static final String OPT_EVALUATION = "evaluation";
+  private static final String OPT_ADAPTIVE_DELTA_1 = "adaptive";
+  private static final String OPT_MAX_DELTA_1 = "maxdt";
+  private static final String OPT_MAX_OVERLAP = "overlap";
+  private static final String OPT_MAX_DELTA_1_ERROR = "dterror";
+  private static final String OPT_GEOMETRY = "geometry";
+
   private final String defaultOutputFolder;
   private final Path pathToOvitoFile;
   private final Path pathToFlowFile;
@@ -87,23 +119,29 @@ public class PedestrianDynamicsProgram implements MainProgram {
 
     StaticData staticData = loadStaticData(args).withRealN(systemParticles.size());
 
-    // system's walls
-    final Collection<Wall> systemWalls = initializeSystemWalls(staticData);
+    // system's walls, obstacles and exits
+    final Geometry geometry = staticData.geometryFile().isEmpty()
+            ? GeometryHelper.defaultGeometry(staticData)
+            : GeometryHelper.loadGeometry(staticData.geometryFile(), staticData);
 
-    // add opening extremes that are inside the system as particles with
-    // infinite mass so as to improve collisions
-    systemParticles.addAll(getOpeningWallsParticles(systemWalls));
+    // directions to the nearest exit; pedestrians of a corridor just walk along it
+    final FloorField floorField = staticData.periodicY()
+            ? null : FloorFieldHelper.cachedFloorField(geometry, staticData, FLOOR_FIELDS_FOLDER);
 
-    final TimeDrivenSimulationSystem<Gear5PedestrianDynamicsSystemData> granularMediaSystem =
-            new GearPedestrianDynamicsSystem(systemParticles, systemWalls, staticData);
+    // opening extremes and walls' corners are not added as particles, but as the system's static discs
+    final TimeDrivenSimulationSystem<PedestrianDynamicsSystemData> granularMediaSystem =
+            newSystem(systemParticles, geometry, floorField, staticData);
 
     // helper to write ovito file
-    final OutputSerializerHelper outputSerializerHelper = new OutputSerializerHelper(staticData);
+    final OutputSerializerHelper outputSerializerHelper = new OutputSerializerHelper(staticData, geometry);
 
     // default delta time
     final double defaultDelta1 = .1 * Math.sqrt(staticData.mass()/staticData.kn());
     final double dt = Math.min(defaultDelta1, staticData.delta1());
     staticData = staticData.withDelta1(dt);
+    if (staticData.maxDelta1() == 0) {
+      staticData = staticData.withMaxDelta1(defaultDelta1);
+    }
     outputCompleteStaticData(staticData);
 
     // simulation itself
@@ -117,13 +155,18 @@ public class PedestrianDynamicsProgram implements MainProgram {
   }
 
   // private
-  private void startSimulation(final TimeDrivenSimulationSystem<Gear5PedestrianDynamicsSystemData> granularMediaSystem,
+  private void startSimulation(final TimeDrivenSimulationSystem<PedestrianDynamicsSystemData> granularMediaSystem,
                                final StaticData staticData,
                                final OutputSerializerHelper outputSerializerHelper) {
     final double startTime = System.currentTimeMillis();
     final double dt = staticData.delta1();
     final double simulationTime = staticData.simulationTime();
     final double delta2 = staticData.delta2();
+    // null if every step takes delta1
+    final AdaptiveTimeStep adaptiveTimeStep = staticData.adaptiveDelta1()
+            ? new AdaptiveTimeStep(dt, Math.max(dt, staticData.maxDelta1()), staticData.maxOverlap(),
+            staticData.maxDelta1Error(), AdaptiveTimeStep.errorOrder(staticData))
+            : null;
 
     long nPedestrians = granularMediaSystem.getSystemData().particles().stream()
             .filter(particle -> particle.type() == ParticleType.PEDESTRIAN).count();
@@ -146,16 +189,21 @@ public class PedestrianDynamicsProgram implements MainProgram {
         logStep ++;
       }
 
-      if (granularMediaSystem.getSystemData().nParticlesFlowed() >= nPedestrians) {
+      // on a corridor, pedestrians never leave the system, so it is stopped only by time
+      if (!staticData.periodicY() && granularMediaSystem.getSystemData().nParticlesFlowed() >= nPedestrians) {
         systemStopped(step, currentTime);
         break;
       }
 
-      // evolve system
-      granularMediaSystem.evolveSystem(dt);
+      if (adaptiveTimeStep != null) {
+        currentTime = evolveAdaptively(granularMediaSystem, adaptiveTimeStep, currentTime, delta2 * step);
+      } else {
+        // evolve system
+        granularMediaSystem.evolveSystem(dt);
 
-      // advance time and count the current step
-      currentTime += dt;
+        // advance time and count the current step
+        currentTime += dt;
+      }
 
       appendToFlow(pathToFlowFile, granularMediaSystem.getSystemData().nParticlesJustFlowed(),
               step, currentTime, outputSerializerHelper);
@@ -171,6 +219,36 @@ public class PedestrianDynamicsProgram implements MainProgram {
     System.out.printf("Total simulation time: %f s\n", simulationDuration * MS_TO_S);
   }
 
+  /**
+   * Evolves the system with the adaptive delta time, shortening the step if needed so as to reach the next output's
+   * time exactly
+   * @return the system's time after the step
+   */
+  private static double evolveAdaptively(
+          final TimeDrivenSimulationSystem<PedestrianDynamicsSystemData> granularMediaSystem,
+          final AdaptiveTimeStep adaptiveTimeStep, final double currentTime, final double nextOutputTime) {
+    final double stepDt = adaptiveTimeStep.stepDt(currentTime, nextOutputTime);
+    granularMediaSystem.evolveSystem(stepDt);
+    adaptiveTimeStep.stepped(stepDt, granularMediaSystem.getSystemData());
+    return AdaptiveTimeStep.timeAfter(currentTime, stepDt, nextOutputTime);
+  }
+
+  /**
+   * Options are validated at {@code validateOptions}; the ones that also depend on the room, e.g., a periodic axis
+   * too short for the neighbours finder's grid, are only found when the system is built
+   */
+  private static TimeDrivenSimulationSystem<PedestrianDynamicsSystemData> newSystem(
+          final Collection<Particle> systemParticles, final Geometry geometry, final FloorField floorField,
+          final StaticData staticData) {
+    try {
+      return new GearPedestrianDynamicsSystem(systemParticles, geometry, floorField, staticData);
+    } catch (final IllegalArgumentException e) {
+      IOService.exit(BAD_ARGUMENT, e.getMessage());
+      // should never reach here
+      throw new IllegalStateException(e);
+    }
+  }
+
   private void outputMediaFlow(final double mediaFlow) {
     final Path pathToOutputMediaFlowFile =
             IOService.createOutputFile(defaultOutputFolder, DEFAULT_MEDIA_FLOW_FILE_NAME, STATISTICS_FILE_EXTENSION);
@@ -199,20 +277,6 @@ public class PedestrianDynamicsProgram implements MainProgram {
     IOService.closeOutputFile(pathToSystemStoppedFile);
   }
 
-  private Collection<Particle> getOpeningWallsParticles(final Collection<Wall> walls) {
-    final Collection<Particle> openingParticles = new HashSet<>();
-
-    for (final Wall wall : walls) {
-      if (wall.type() == WallType.HORIZONTAL_LEFT) {
-        openingParticles.add(wall.end());
-      } else if (wall.type() == WallType.HORIZONTAL_RIGHT) {
-        openingParticles.add(wall.start());
-      }
-    }
-
-    return openingParticles;
-  }
-
   private StaticData loadStaticData(final String[] args) {
     final StaticData staticData = InputSerializerHelper.loadStaticFile(args[I_STATIC_DATA]);
     final double simulationTime = IOService.parseAsDouble(args[I_SIMULATION_TIME], "<simulation_time>");
@@ -221,12 +285,229 @@ public class PedestrianDynamicsProgram implements MainProgram {
     final boolean printOvito = IOService.parseAsBoolean(args[I_PRINT_OVITO], "<print_ovito>");
     final boolean considerDelta1 = IOService.parseAsBoolean(args[I_CONSIDER_DELTA_1], "<consider_delta_1>");
 
-    return staticData
+    final StaticData updatedStaticData = loadOptions(args, staticData
             .withSimulationTime(simulationTime).withDelta1(delta1)
-            .withDelta2(delta2).withPrintOvito(printOvito).withConsiderDelta1(considerDelta1);
+            .withDelta2(delta2).withPrintOvito(printOvito).withConsiderDelta1(considerDelta1));
+    validateOptions(updatedStaticData);
+    return updatedStaticData;
+  }
+
+  /**
+   * Exits with {@code BAD_ARGUMENT} if any option is out of its range, or if it is not supported with another one
+   */
+  private static void validateOptions(final StaticData staticData) {
+    final boolean periodic = staticData.periodicX() || staticData.periodicY();
+    final boolean perPair = staticData.forceEvaluation() == ForceEvaluationType.PER_PAIR;
+    switch (staticData.neighboursFinder()) {
+      case BRUTE_FORCE:
+      case QUAD_TREE:
+      case SWEEP_AND_PRUNE:
+        validateOption(!periodic, OPT_NEIGHBOURS_FINDER + " does not support " + OPT_PERIODIC);
+        break;
+      default:
+        break;
+    }
+    // pedestrians never leave a corridor, so it would never stop
+    validateOption(!staticData.periodicY() || staticData.considerDelta1(),
+            OPT_PERIODIC + " on the y axis needs <consider_delta_1> to be true");
+    validateOption(staticData.verletSkin() > 0, OPT_VERLET_SKIN + " should be > 0");
+    validateOption(staticData.parallelism() >= 1, OPT_PARALLELISM + " should be >= 1");
+    validateOption(staticData.reorderInterval() >= 0, OPT_REORDER_INTERVAL + " should be >= 0");
+    validateOption(staticData.socialCutoff() >= 0, OPT_SOCIAL_CUTOFF + " should be >= 0");
+    validateOption(staticData.socialTolerance() >= 0, OPT_SOCIAL_TOLERANCE + " should be >= 0");
+    validateOption(staticData.socialExpError() >= 0 && staticData.socialExpError() < 1,
+            OPT_SOCIAL_EXP_ERROR + " should be in [0, 1)");
+    validateOption(!staticData.simdForces() || !perPair, OPT_SIMD_FORCES + " does not support "
+            + OPT_FORCE_EVALUATION + "=pair");
+    validateOption(!staticData.simdForces() || !periodic, OPT_SIMD_FORCES + " does not support " + OPT_PERIODIC);
+    validateOption(!staticData.simdForces() || staticData.socialExpError() == 0,
+            OPT_SIMD_FORCES + " does not support " + OPT_SOCIAL_EXP_ERROR);
+    validateOption(staticData.slowForcesInterval() >= 1, OPT_SLOW_FORCES_INTERVAL + " should be >= 1");
+    validateOption(staticData.slowForcesInterval() == 1 || !(perPair || staticData.simdForces()),
+            OPT_SLOW_FORCES_INTERVAL + " does not support " + OPT_FORCE_EVALUATION + "=pair nor "
+                    + OPT_SIMD_FORCES);
+    // forces are held for a number of steps, so an adaptive delta time would hold them for a varying time
+    validateOption(staticData.slowForcesInterval() == 1 || !staticData.adaptiveDelta1(),
+            OPT_SLOW_FORCES_INTERVAL + " does not support " + OPT_ADAPTIVE_DELTA_1);
+    validateOption(staticData.gearOrder() >= GearNSystemData.MIN_ORDER
+            && staticData.gearOrder() <= GearNSystemData.MAX_ORDER,
+            OPT_GEAR_ORDER + " should be from " + GearNSystemData.MIN_ORDER + " to " + GearNSystemData.MAX_ORDER);
+    validateOption(staticData.maxDelta1() >= 0, OPT_MAX_DELTA_1 + " should be >= 0");
+    validateOption(staticData.maxOverlap() > 0, OPT_MAX_OVERLAP + " should be > 0");
+    validateOption(staticData.maxDelta1Error() > 0, OPT_MAX_DELTA_1_ERROR + " should be > 0");
+  }
+
+  private static void validateOption(final boolean valid, final String reason) {
+    if (!valid) {
+      IOService.exit(BAD_ARGUMENT, reason);
+      // should never reach here
+      throw new IllegalStateException();
+    }
+  }
+
+  private StaticData loadOptions(final String[] args, final StaticData staticData) {
+    StaticData updatedStaticData = staticData;
+    for (int i = N_ARGS_EXPECTED ; i < args.length ; i++) {
+      final String[] option = args[i].split(OPTION_SEPARATOR, 2);
+      if (option.length != 2) {
+        IOService.exit(BAD_ARGUMENT, args[i]);
+        // should never reach here
+        throw new IllegalStateException();
+      }
+      final String value = option[1];
+      switch (option[0]) {
+        case OPT_NEIGHBOURS_FINDER:
+          updatedStaticData = updatedStaticData.withNeighboursFinder(parseNeighboursFinder(value));
+          break;
+        case OPT_VERLET_SKIN:
+          updatedStaticData = updatedStaticData.withVerletSkin(IOService.parseAsDouble(value, "<skin>"));
+          break;
+        case OPT_PARALLELISM:
+          updatedStaticData = updatedStaticData.withParallelism(IOService.parseAsInt(value, "<threads>"));
+          break;
+        case OPT_PERIODIC:
+          updatedStaticData = withPeriodicLimits(updatedStaticData, value);
+          break;
+        case OPT_REORDER_INTERVAL:
+          updatedStaticData = updatedStaticData.withReorderInterval(IOService.parseAsInt(value, "<reorder>"));
+          break;
+        case OPT_SOCIAL_CUTOFF:
+          updatedStaticData = updatedStaticData.withSocialCutoff(IOService.parseAsDouble(value, "<cutoff>"));
+          break;
+        case OPT_SOCIAL_TOLERANCE:
+          updatedStaticData = updatedStaticData.withSocialTolerance(IOService.parseAsDouble(value, "<tolerance>"));
+          break;
+        case OPT_SOCIAL_EXP_ERROR:
+          updatedStaticData = updatedStaticData.withSocialExpError(IOService.parseAsDouble(value, "<exp>"));
+          break;
+        case OPT_FORCE_EVALUATION:
+          updatedStaticData = updatedStaticData.withForceEvaluation(parseForceEvaluation(value));
+          break;
+        case OPT_PRIMITIVE_FORCES:
+          updatedStaticData = updatedStaticData.withPrimitiveForces(IOService.parseAsBoolean(value, "<primitive>"));
+          break;
+        case OPT_SIMD_FORCES:
+          updatedStaticData = updatedStaticData.withSimdForces(IOService.parseAsBoolean(value, "<simd>"));
+          break;
+        case OPT_SLOW_FORCES_INTERVAL:
+          updatedStaticData = updatedStaticData.withSlowForcesInterval(IOService.parseAsInt(value, "<slow>"));
+          break;
+        case OPT_INTEGRATOR:
+          updatedStaticData = updatedStaticData.withIntegrator(parseIntegrator(value));
+          break;
+        case OPT_GEAR_ARRAYS:
+          updatedStaticData = updatedStaticData.withGearArrays(IOService.parseAsBoolean(value, "<arrays>"));
+          break;
+        case OPT_GEAR_ORDER:
+          updatedStaticData = updatedStaticData.withGearOrder(IOService.parseAsInt(value, "<order>"));
+          break;
+        case OPT_EVALUATION:
+          updatedStaticData = updatedStaticData.withParallelEvaluation(parseParallelEvaluation(value));
+          break;
+        case OPT_ADAPTIVE_DELTA_1:
+          updatedStaticData = updatedStaticData.withAdaptiveDelta1(IOService.parseAsBoolean(value, "<adaptive>"));
+          break;
+        case OPT_MAX_DELTA_1:
+          updatedStaticData = updatedStaticData.withMaxDelta1(IOService.parseAsDouble(value, "<maxdt>"));
+          break;
+        case OPT_MAX_OVERLAP:
+          updatedStaticData = updatedStaticData.withMaxOverlap(IOService.parseAsDouble(value, "<overlap>"));
+          break;
+        case OPT_MAX_DELTA_1_ERROR:
+          updatedStaticData = updatedStaticData.withMaxDelta1Error(IOService.parseAsDouble(value, "<dterror>"));
+          break;
+        case OPT_GEOMETRY:
+          updatedStaticData = updatedStaticData.withGeometryFile(value);
+          break;
+        default:
+          IOService.exit(BAD_ARGUMENT, args[i]);
+          // should never reach here
+          throw new IllegalStateException();
+      }
+    }
+    return updatedStaticData;
+  }
+
+  private NeighboursFinderType parseNeighboursFinder(final String value) {
+    switch (value) {
+      case "brute":
+        return NeighboursFinderType.BRUTE_FORCE;
+      case "cim":
+        return NeighboursFinderType.CELL_INDEX;
+      case "pcim":
+        return NeighboursFinderType.PARALLEL_CELL_INDEX;
+      case "icim":
+        return NeighboursFinderType.INCREMENTAL_CELL_INDEX;
+      case "quadtree":
+        return NeighboursFinderType.QUAD_TREE;
+      case "sap":
+        return NeighboursFinderType.SWEEP_AND_PRUNE;
+      case "verlet":
+        return NeighboursFinderType.VERLET_LIST;
+      default:
+        IOService.exit(BAD_ARGUMENT, value);
+        // should never reach here
+        throw new IllegalStateException();
+    }
+  }
+
+  private ForceEvaluationType parseForceEvaluation(final String value) {
+    switch (value) {
+      case "particle":
+        return ForceEvaluationType.PER_PARTICLE;
+      case "pair":
+        return ForceEvaluationType.PER_PAIR;
+      default:
+        IOService.exit(BAD_ARGUMENT, value);
+        // should never reach here
+        throw new IllegalStateException();
+    }
   }
 
-  private void outputSystem(final Gear5PedestrianDynamicsSystemData systemData,
+  private IntegratorType parseIntegrator(final String value) {
+    switch (value) {
+      case "gear":
+        return IntegratorType.GEAR;
+      case "verlet":
+        return IntegratorType.VELOCITY_VERLET;
+      case "leapfrog":
+        return IntegratorType.LEAPFROG;
+      default:
+        IOService.exit(BAD_ARGUMENT, value);
+        // should never reach here
+        throw new IllegalStateException();
+    }
+  }
+
+  private boolean parseParallelEvaluation(final String value) {
+    switch (value) {
+      case "serial":
+        return false;
+      case "parallel":
+        return true;
+      default:
+        IOService.exit(BAD_ARGUMENT, value);
+        // should never reach here
+        throw new IllegalStateException();
+    }
+  }
+
+  private StaticData withPeriodicLimits(final StaticData staticData, final String value) {
+    switch (value) {
+      case "x":
+        return staticData.withPeriodicX(true);
+      case "y":
+        return staticData.withPeriodicY(true);
+      case "xy":
+        return staticData.withPeriodicX(true).withPeriodicY(true);
+      default:
+        IOService.exit(BAD_ARGUMENT, value);
+        // should never reach here
+        throw new IllegalStateException();
+    }
+  }
+
+  private void outputSystem(final PedestrianDynamicsSystemData systemData,
                             final long step, @SuppressWarnings("UnusedParameters") final double currentTime,
                             final StaticData staticData, final OutputSerializerHelper outputSerializerHelper) {
     if (staticData.printOvito()) {
@@ -242,36 +523,6 @@ public class PedestrianDynamicsProgram implements MainProgram {
     IOService.appendToFile(pathToFlowFile, flowData);
   }
 
-  private Collection<Wall> initializeSystemWalls(final StaticData staticData) {
-    final Collection<Wall> systemWalls = new HashSet<>();
-
-    final Wall leftVerticalWall = Wall.builder(ZERO, staticData.fallLength(), ZERO, staticData.totalSystemLength()).build();
-    final Wall rightVerticalWall = Wall.builder(staticData.width(), staticData.fallLength(), staticData.width(), staticData.totalSystemLength()).build();
-
-    final double horizontalWallWidth = (staticData.width()-staticData.diameterOpening()) / 2;
-
-    @SuppressWarnings("UnnecessaryLocalVariable")
-    final double xFromLeftHorizontalWall = ZERO;
-    final double xToLeftHorizontalWall = xFromLeftHorizontalWall + horizontalWallWidth;
-
-    final double xFromRightHorizontalWall = (staticData.width() + staticData.diameterOpening()) / 2;
-    final double xToRightHorizontalWall = xFromRightHorizontalWall + horizontalWallWidth;
-
-    final Wall leftBottomHorizontalWall =
-            Wall.builder(xFromLeftHorizontalWall, staticData.fallLength(),
-                    xToLeftHorizontalWall, staticData.fallLength()).build();
-    final Wall rightBottomHorizontalWall =
-            Wall.builder(xFromRightHorizontalWall, staticData.fallLength(),
-                    xToRightHorizontalWall, staticData.fallLength()).build();
-
-    systemWalls.add(leftVerticalWall);
-    systemWalls.add(rightVerticalWall);
-    systemWalls.add(leftBottomHorizontalWall);
-    systemWalls.add(rightBottomHorizontalWall);
-
-    return systemWalls;
-  }
-
   private void appendToOvito(final Path ovitoFilePath,
                              final Collection<Particle> particleSet,
                              final Collection<Wall> walls,
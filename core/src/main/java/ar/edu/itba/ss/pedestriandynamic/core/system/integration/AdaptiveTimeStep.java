@@ -0,0 +1,137 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.models.IntegratorType;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+
+/**
+ * Chooses the delta time of each step of a pedestrian dynamics system, between a min and a max one, so as large steps
+ * are taken while pedestrians walk freely, and the min one only while the crowd is compressed.
+ * <P>
+ * After each step, the next delta time is limited by:
+ * <ul>
+ *   <li>the max overlap: if any pedestrian overlaps another one, a wall or a static disc by more than
+ *   {@code maxOverlap}, the crowd is compressed, and the min delta time is taken</li>
+ *   <li>the max normal speed between two bodies in contact, {@code v}: no contact's overlap should change by more
+ *   than a fraction of {@code maxOverlap} on one step, i.e., {@code Δt <= CONTACT_FRACTION * maxOverlap / v}</li>
+ *   <li>the corrector's error, i.e., the max delta R2 of the last step, which is
+ *   {@code (a_evaluated - a_predicted) * (Δt)^2 / 2}. A gear of order {@code q} predicts accelerations with an error
+ *   of {@code O((Δt)^(q-1))}, so delta R2 grows as {@code (Δt)^(q+1)}; Verlet methods predict the last step's
+ *   acceleration, so it grows as {@code (Δt)^3}. Being {@code p} that power,
+ *   {@code Δt <= SAFETY * Δt' * (maxError / ΔR2)^(1/p)}, being {@code Δt'} the last step's delta time</li>
+ * </ul>
+ * Delta time is decreased at once, but it grows at most {@code GROWTH} times per step.
+ * <P>
+ * These limits only steer the next step: steps are never rejected nor redone, so a step whose delta R2 exceeds
+ * {@code maxError} is still taken, and only the following one is shortened.
+ * <P>
+ * Steps are shortened so as to reach each output's time exactly; see {@code stepDt}.
+ */
+public final class AdaptiveTimeStep {
+  private static final double CONTACT_FRACTION = 0.1;
+  private static final double SAFETY = 0.9;
+  private static final double GROWTH = 2;
+  // relative excess over delta time accepted so as to reach an output's time on one step
+  private static final double OUTPUT_TIME_SLACK = 1e-6;
+
+  private final double minDt;
+  private final double maxDt;
+  private final double maxOverlap;
+  private final double maxError;
+  private final int errorOrder;
+  private double dt;
+
+  /**
+   * @param minDt delta time taken while the crowd is compressed; the first step's delta time
+   * @param maxDt max delta time of any step
+   * @param maxOverlap max overlap between two bodies with which a step may be larger than {@code minDt}
+   * @param maxError max delta R2 of any particle on one step
+   * @param errorOrder power of delta time as which delta R2 grows; see {@code errorOrder}
+   */
+  public AdaptiveTimeStep(final double minDt, final double maxDt, final double maxOverlap, final double maxError,
+                          final int errorOrder) {
+    if (!(minDt > 0) || maxDt < minDt) {
+      throw new IllegalArgumentException("Delta times should be 0 < minDt <= maxDt");
+    }
+    if (!(maxOverlap > 0) || !(maxError > 0)) {
+      throw new IllegalArgumentException("Max overlap and error should be > 0");
+    }
+    if (errorOrder < 1) {
+      throw new IllegalArgumentException("Error order should be >= 1");
+    }
+    this.minDt = minDt;
+    this.maxDt = maxDt;
+    this.maxOverlap = maxOverlap;
+    this.maxError = maxError;
+    this.errorOrder = errorOrder;
+    this.dt = minDt;
+  }
+
+  /**
+   * @return power of delta time as which delta R2 grows with the given integrator: {@code q + 1} for a gear of order
+   * {@code q}, and 3 for Verlet methods
+   */
+  public static int errorOrder(final StaticData staticData) {
+    return staticData.integrator() == IntegratorType.GEAR ? staticData.gearOrder() + 1 : 3;
+  }
+
+  /**
+   * @return delta time of the next step
+   */
+  public double dt() {
+    return dt;
+  }
+
+  /**
+   * @return delta time of the step from {@code time}: {@code dt()}, unless the next output's time is reached on it,
+   * in which case the step reaches it exactly. If it would be reached on the following step, but not exactly, two
+   * halves are taken instead of a full step and a short one. Hence, no step is shorter than a fourth of
+   * {@code dt()}, as it grows at most twice per step, apart from the ones given by outputs closer than that.
+   */
+  public double stepDt(final double time, final double nextOutputTime) {
+    final double timeToOutput = nextOutputTime - time;
+    // a step slightly larger than dt, instead of an extra one only as large as the rounding of the current time
+    final double maxStepDt = dt * (1 + OUTPUT_TIME_SLACK);
+    if (timeToOutput > 0 && timeToOutput <= maxStepDt) {
+      return timeToOutput;
+    }
+    return timeToOutput > maxStepDt && timeToOutput < 2 * dt ? timeToOutput / 2 : dt;
+  }
+
+  /**
+   * @return time after a step of {@code stepDt}, given by {@code stepDt(time, nextOutputTime)}; exactly the next
+   * output's time if the step reaches it, instead of {@code time + stepDt}, which may be rounded
+   */
+  public static double timeAfter(final double time, final double stepDt, final double nextOutputTime) {
+    return stepDt == nextOutputTime - time ? nextOutputTime : time + stepDt;
+  }
+
+  /**
+   * Chooses the next step's delta time from the system's state after the last step
+   * @param stepDt delta time of the last step; it may be smaller than {@code dt()}, so as to reach an output's time
+   */
+  public void stepped(final double stepDt, final PedestrianDynamicsSystemData systemData) {
+    stepped(stepDt, systemData.maxOverlap(), systemData.maxContactSpeed(), systemData.maxDeltaR2());
+  }
+
+  /**
+   * Same as {@code stepped}, but with the system's max overlap, contact speed and delta R2 after the last step
+   */
+  /* package-private */ void stepped(final double stepDt, final double overlap, final double contactSpeed,
+                                     final double deltaR2) {
+    dt = nextDt(stepDt, overlap, contactSpeed, deltaR2);
+  }
+
+  private double nextDt(final double stepDt, final double overlap, final double contactSpeed, final double deltaR2) {
+    if (overlap > maxOverlap) {
+      return minDt;
+    }
+    double nextDt = Math.min(maxDt, GROWTH * dt);
+    if (contactSpeed > 0) {
+      nextDt = Math.min(nextDt, CONTACT_FRACTION * maxOverlap / contactSpeed);
+    }
+    if (deltaR2 > 0) {
+      nextDt = Math.min(nextDt, SAFETY * stepDt * Math.pow(maxError / deltaR2, 1.0 / errorOrder));
+    }
+    return Math.max(minDt, nextDt);
+  }
+}
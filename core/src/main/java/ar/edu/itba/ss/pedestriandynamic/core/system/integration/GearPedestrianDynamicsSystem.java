@@ -2,31 +2,51 @@ package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
 
 import ar.edu.itba.ss.pedestriandynamic.interfaces.NumericIntegrationMethod;
 import ar.edu.itba.ss.pedestriandynamic.interfaces.TimeDrivenSimulationSystem;
+import ar.edu.itba.ss.pedestriandynamic.models.Geometry;
 import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
-import ar.edu.itba.ss.pedestriandynamic.models.Wall;
-import ar.edu.itba.ss.pedestriandynamic.services.gear.Gear5SystemData;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.FloorField;
+import ar.edu.itba.ss.pedestriandynamic.services.gear.GearNSystemData;
 import ar.edu.itba.ss.pedestriandynamic.services.gear.GearPredictorCorrector;
+import ar.edu.itba.ss.pedestriandynamic.services.gear.Leapfrog;
+import ar.edu.itba.ss.pedestriandynamic.services.gear.VelocityVerlet;
 
 import java.util.*;
 
 public class GearPedestrianDynamicsSystem
-        implements TimeDrivenSimulationSystem<Gear5PedestrianDynamicsSystemData> {
+        implements TimeDrivenSimulationSystem<PedestrianDynamicsSystemData> {
 
-  private final NumericIntegrationMethod<Gear5SystemData> integrationMethod;
-  private final Gear5PedestrianDynamicsSystemData systemData;
+  private final NumericIntegrationMethod<GearNSystemData> integrationMethod;
+  private final PedestrianDynamicsSystemData systemData;
 
-  public GearPedestrianDynamicsSystem(final Collection<Particle> systemParticles,
-                                      final Collection<Wall> systemWalls, final StaticData staticData) {
-    this.systemData = new Gear5PedestrianDynamicsSystemData(systemParticles, systemWalls, staticData);
-    this.integrationMethod = new GearPredictorCorrector<>();
+  /**
+   * @param floorField the geometry's floor field; see FloorFieldHelper. It may be null if y limits are periodic
+   */
+  public GearPedestrianDynamicsSystem(final Collection<Particle> systemParticles, final Geometry geometry,
+                                      final FloorField floorField, final StaticData staticData) {
+    this.systemData = new PedestrianDynamicsSystemData(systemParticles, geometry, floorField, staticData);
+    this.integrationMethod = chooseIntegrationMethod(staticData);
   }
 
   @Override
-  public Gear5PedestrianDynamicsSystemData getSystemData() {
+  public PedestrianDynamicsSystemData getSystemData() {
     return systemData;
   }
 
+  private static NumericIntegrationMethod<GearNSystemData> chooseIntegrationMethod(final StaticData staticData) {
+    final boolean parallel = staticData.parallelEvaluation();
+    switch (staticData.integrator()) {
+      case GEAR:
+        return parallel ? new GearPredictorCorrector<>(staticData.parallelism()) : new GearPredictorCorrector<>();
+      case VELOCITY_VERLET:
+        return parallel ? new VelocityVerlet<>(staticData.parallelism()) : new VelocityVerlet<>();
+      case LEAPFROG:
+        return parallel ? new Leapfrog<>(staticData.parallelism()) : new Leapfrog<>();
+      default:
+        throw new IllegalArgumentException("Unknown integrator: " + staticData.integrator());
+    }
+  }
+
   @Override
   public void evolveSystem(final double dt) {
     integrationMethod.evolveSystem(systemData, dt);
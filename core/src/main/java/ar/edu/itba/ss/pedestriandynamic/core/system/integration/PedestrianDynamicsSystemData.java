@@ -0,0 +1,1284 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.ForcesKernel;
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.*;
+import ar.edu.itba.ss.pedestriandynamic.services.IOService;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.FloorField;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.Space2DMaths;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.TabulatedExp;
+import ar.edu.itba.ss.pedestriandynamic.services.gear.GearNSystemData;
+import ar.edu.itba.ss.pedestriandynamic.services.kernels.ForcesKernels;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.BruteForceMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.ColouredCellsScheduler;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.DiscsCellIndex;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.IncrementalCellIndexMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.ParallelCellIndexMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.QuadTreeMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.SweepAndPruneMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.VerletListMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.WallsCellIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+import static ar.edu.itba.ss.pedestriandynamic.models.ParticleType.PEDESTRIAN;
+
+/**
+ * Pedestrian dynamics system's data, integrated with a gear predictor corrector of order {@code gearOrder()};
+ * of order 5 by default. When integrated with a Verlet method, only derivatives up to the accelerations are saved,
+ * at arrays indexed by slot.
+ */
+public class PedestrianDynamicsSystemData extends GearNSystemData {
+  @SuppressWarnings("unused")
+  private static final Logger LOGGER = LoggerFactory.getLogger(PedestrianDynamicsSystemData.class);
+
+  private static final double RC = 0;
+  private static final boolean PERIODIC_LIMIT = false;
+  private static final int QUAD_TREE_LEAF_CAPACITY = 8;
+
+  private static final int NORMAL = 0;
+  private static final int TANGENTIAL = 1;
+
+  private static final int VELOCITY_DERIVED_ORDER = 1;
+
+  private static final double ZERO = 0;
+
+  // desired direction of pedestrians walking along a corridor, i.e., when y limits are periodic
+  private static final Vector2D CORRIDOR_DIRECTION = Vector2D.builder(0, -1).build();
+
+  private final StaticData staticData;
+  private final Collection<Wall> walls;
+  /**
+   * Walls near each cell of the system, indexed as {@code walls}' iteration order, as {@code wallsArray} is
+   */
+  private final WallsCellIndex wallsIndex;
+  private final Wall[] wallsArray;
+  /**
+   * Static discs, i.e., exits' extremes, walls' corners and round obstacles, which only push the pedestrians that
+   * touch them; they are not system's particles, so they are neither predicted nor corrected
+   */
+  private final Disc[] discsArray;
+  /**
+   * Discs near each cell of the system, indexed as {@code discsArray}
+   */
+  private final DiscsCellIndex discsIndex;
+  private final NeighboursFinder neighboursFinder;
+  /**
+   * Finder of the pairs of pedestrians close enough to consider their social force;
+   * null if it should be considered between any pair of them, as when its cutoff is larger than the system
+   */
+  private final NeighboursFinder socialNeighboursFinder;
+  /**
+   * Directions that lead pedestrians to the nearest exit, and then out of the system; null on a corridor, where
+   * pedestrians just walk along it
+   */
+  private final FloorField floorField;
+
+  /**
+   * Neighbours of each predicted particle, indexed by slot
+   */
+  private final CompactNeighbours currentNeighbours;
+  /**
+   * Predicted particles, indexed by slot, so as to retrieve them from {@code currentNeighbours}
+   */
+  private final Particle[] predictedParticlesBySlot;
+  /**
+   * Neighbours of each current particle, within the social force's cutoff, indexed by slot
+   */
+  private final CompactNeighbours socialNeighbours;
+  /**
+   * Current particles, indexed by slot, so as to retrieve them from {@code socialNeighbours}
+   */
+  private final Particle[] particlesBySlot;
+  /**
+   * Whether particles' and social forces are evaluated once per pair, before evaluating each particle
+   */
+  private final boolean forcesPerPair;
+  /**
+   * Particles' and social forces, and normal forces' modules, accumulated by the pairs' pass, indexed by slot
+   */
+  private final double[] pairForcesX;
+  private final double[] pairForcesY;
+  private final double[] pairNormalForces;
+  private Particle[] allPredictedParticles;
+  /**
+   * Runs the pairs' pass in parallel, over the cells of a coloured grid; null if it is run sequentially
+   */
+  private final ColouredCellsScheduler pairsScheduler;
+  /**
+   * Exponential used by social forces; null if the exact {@code Math.exp} should be used
+   */
+  private final TabulatedExp socialExp;
+  /**
+   * Whether forces are calculated over primitive doubles, instead of {@code Vector2D}s
+   */
+  private final boolean primitiveForces;
+  /**
+   * Each thread has its own forces' calculator, as it saves the last calculated force; see PrimitiveForces
+   */
+  private final ThreadLocal<PrimitiveForces> forces;
+  /**
+   * Calculates particles', social and driving forces of all particles at once, before evaluating each of them;
+   * null if they are calculated while evaluating each particle
+   */
+  private final ForcesKernel kernel;
+  /**
+   * Predicted and current particles' values, and the forces calculated by {@code kernel}, indexed by slot
+   */
+  private final ParticlesArrays particlesArrays;
+  // last direction read from the floor field, when filling particlesArrays
+  private final double[] direction = new double[2];
+  /**
+   * Particles that have gone out through a periodic limit, and should enter again through the opposite one
+   */
+  private final Collection<Particle> particlesToRelocate;
+  /**
+   * Social plus driving force of each particle, indexed by slot, held while evaluating only granular forces; null if
+   * all forces are evaluated on every step
+   */
+  private final double[] slowForcesX;
+  private final double[] slowForcesY;
+  /**
+   * Number of steps between two evaluations of the social and driving forces; see {@code slowForcesInterval()}
+   */
+  private final int slowForcesInterval;
+  private long nSteps;
+  /**
+   * Whether social and driving forces are evaluated on the current step, or the held ones are taken
+   */
+  private boolean refreshSlowForces = true;
+  private double kineticEnergy;
+  /**
+   * Max overlap between two bodies, and max normal speed between two bodies in contact, on the last step;
+   * only updated when delta time is adaptive
+   */
+  private double maxOverlap;
+  private double maxContactSpeed;
+  private long nParticlesFlowed;
+  private long nParticlesJustFlowed;
+
+  /* package-private */ PedestrianDynamicsSystemData(final Collection<Particle> particles,
+                                                     final Geometry geometry,
+                                                     final FloorField floorField,
+                                                     final StaticData staticData) {
+    // slots are given at initWithSystemConditions, before initializing each particle
+    super(particles, derivativesOrder(staticData), staticData.gearArrays() || isVerlet(staticData));
+    this.staticData = staticData;
+    if (floorField == null && !staticData.periodicY()) {
+      throw new IllegalArgumentException("A floor field is needed, unless y limits are periodic");
+    }
+    this.floorField = floorField;
+
+    this.walls = Collections.unmodifiableCollection(geometry.walls());
+    this.wallsArray = this.walls.toArray(new Wall[this.walls.size()]);
+    this.wallsIndex = new WallsCellIndex(this.walls, staticData.width(), staticData.totalSystemLength(),
+            staticData.maxDiameter() / 2, staticData.maxDiameter());
+    final List<Disc> discs = staticDiscs(geometry);
+    this.discsArray = discs.toArray(new Disc[discs.size()]);
+    this.discsIndex = new DiscsCellIndex(discs, staticData.width(), staticData.totalSystemLength(),
+            staticData.maxDiameter() / 2, staticData.maxDiameter());
+    // each particle is given a slot at initWithSystemConditions, from 0 to particles.size() - 1
+    this.currentNeighbours = new CompactNeighbours(particles.size());
+    this.predictedParticlesBySlot = new Particle[particles.size()];
+    this.socialNeighbours = new CompactNeighbours(particles.size());
+    this.particlesBySlot = new Particle[particles.size()];
+    this.forcesPerPair = staticData.forceEvaluation() == ForceEvaluationType.PER_PAIR;
+    this.pairForcesX = new double[particles.size()];
+    this.pairForcesY = new double[particles.size()];
+    this.pairNormalForces = new double[particles.size()];
+    this.allPredictedParticles = new Particle[particles.size()];
+    this.socialExp = staticData.socialExpError() > 0 ? new TabulatedExp(staticData.socialExpError()) : null;
+    this.primitiveForces = staticData.primitiveForces();
+    this.forces = ThreadLocal.withInitial(() -> new PrimitiveForces(staticData, this.walls, discs, socialExp));
+    this.particlesToRelocate = new ArrayList<>();
+    this.slowForcesInterval = staticData.slowForcesInterval();
+    if (slowForcesInterval < 1) {
+      throw new IllegalArgumentException("Slow forces' interval should be >= 1");
+    }
+    if (slowForcesInterval > 1) {
+      if (forcesPerPair || staticData.simdForces()) {
+        throw new IllegalArgumentException("Slow forces can only be held when forces are evaluated per particle");
+      }
+      if (staticData.adaptiveDelta1()) {
+        throw new IllegalArgumentException("Slow forces can only be held over steps of a fixed delta time");
+      }
+      this.slowForcesX = new double[particles.size()];
+      this.slowForcesY = new double[particles.size()];
+    } else {
+      this.slowForcesX = null;
+      this.slowForcesY = null;
+    }
+    if (staticData.simdForces()) {
+      if (forcesPerPair) {
+        throw new IllegalArgumentException("Forces' kernels do not support forces evaluated per pair");
+      }
+      if (staticData.periodicX() || staticData.periodicY()) {
+        throw new IllegalArgumentException("Forces' kernels do not support periodic limits");
+      }
+      if (socialExp != null) {
+        throw new IllegalArgumentException("Forces' kernels do not support a tabulated social exponential");
+      }
+      this.kernel = ForcesKernels.load();
+      this.particlesArrays = new ParticlesArrays(particles.size());
+    } else {
+      this.kernel = null;
+      this.particlesArrays = null;
+    }
+
+    this.neighboursFinder = chooseNeighboursFinder(staticData, RC);
+    final double socialForceCutoff = staticData.socialForceCutoff();
+    // no two particles inside the system are farther than its diagonal => a larger cutoff takes all the pairs, which
+    // are then iterated as with no cutoff, in the same order, instead of searching them
+    final boolean allSocialPairs =
+            socialForceCutoff >= Math.hypot(staticData.width(), staticData.totalSystemLength());
+    this.socialNeighboursFinder = allSocialPairs ? null : chooseNeighboursFinder(staticData, socialForceCutoff);
+    // the scheduler's cells should hold both particles' and social pairs; see accumulateParticlePairForces
+    this.pairsScheduler = forcesPerPair && staticData.parallelEvaluation()
+            ? new ColouredCellsScheduler(staticData.width(), staticData.totalSystemLength(),
+            staticData.maxDiameter(), allSocialPairs ? RC : Math.max(RC, socialForceCutoff),
+            staticData.periodicX(), staticData.periodicY(), staticData.parallelism())
+            : null;
+    reorderInterval(staticData.reorderInterval());
+
+    // update particles to meet the force of a Social Force Model pedestrian dynamics system
+    initWithSystemConditions(particles);
+  }
+
+  public Collection<Wall> walls() {
+    return walls;
+  }
+
+  /**
+   * @return the given geometry's static discs: its exits' extremes and its corners, as points, and its discs
+   */
+  private static List<Disc> staticDiscs(final Geometry geometry) {
+    final List<Disc> discs = new ArrayList<>();
+    for (final Exit exit : geometry.exits()) {
+      discs.add(Disc.builder(exit.xFrom(), exit.y()).build());
+      discs.add(Disc.builder(exit.xTo(), exit.y()).build());
+    }
+    for (final Vector2D corner : geometry.corners()) {
+      discs.add(Disc.builder(corner.x(), corner.y()).build());
+    }
+    discs.addAll(geometry.discs());
+    return discs;
+  }
+
+  public double kineticEnergy() {
+    return kineticEnergy;
+  }
+
+  /**
+   * @return max overlap between two pedestrians, or between a pedestrian and a wall or a static disc, with the
+   * predicted values with which forces were evaluated on the last step; only updated when delta time is adaptive
+   */
+  public double maxOverlap() {
+    return maxOverlap;
+  }
+
+  /**
+   * @return max normal speed, approaching or separating, between two bodies in contact, with the same values as
+   * {@code maxOverlap}; only updated when delta time is adaptive
+   */
+  public double maxContactSpeed() {
+    return maxContactSpeed;
+  }
+
+
+  @Override
+  protected Map<Integer, Vector2D> setInitialDerivativeValues(final Particle particle) {
+    // it is considered that there is no interaction between any pair of particles, and
+    final Map<Integer, Vector2D> initialDerivativeValues = new HashMap<>(sVectors());
+
+    final Vector2D r0 = particle.r0();
+    final Vector2D r1 = particle.r1();
+    final Vector2D r2 = particle.r2();
+
+    initialDerivativeValues.put(0, r0);
+    initialDerivativeValues.put(1, r1);
+    initialDerivativeValues.put(2, r2);
+    // higher derivatives, if any, start at zero
+    for (int derivativeOrder = 3; derivativeOrder <= order(); derivativeOrder++) {
+      initialDerivativeValues.put(derivativeOrder, Space2DMaths.nullVector());
+    }
+
+    return initialDerivativeValues;
+  }
+
+  @Override
+  protected Vector2D getForceWithPredicted(final Particle particle) {
+    if (forcesPerPair) {
+      return primitiveForces ? getPrimitiveForceWithPairForces(particle) : getForceWithPairForces(particle);
+    }
+    if (kernel != null) {
+      return getKernelForce(particle);
+    }
+    if (primitiveForces) {
+      return getPrimitiveForce(particle);
+    }
+
+    particle.normalForce(0); // reset forces for this iteration
+
+    // granular force
+    final Vector2D totalGranularForce = totalGranularForce(particle);
+    if (slowForcesX != null && !refreshSlowForces) {
+      final int slot = particle.slot();
+      return totalGranularForce.add(Vector2D.builder(slowForcesX[slot], slowForcesY[slot]).build());
+    }
+    // social force
+    final Vector2D totalSocialForce = totalSocialForce(particle, particles());
+    // driving force
+    final Vector2D totalDrivingForce = totalDrivingForce(particle);
+
+    if (slowForcesX != null) {
+      // held until they are refreshed again
+      final Vector2D slowForce = totalSocialForce.add(totalDrivingForce);
+      slowForcesX[particle.slot()] = slowForce.x();
+      slowForcesY[particle.slot()] = slowForce.y();
+    }
+
+    return totalGranularForce.add(totalSocialForce).add(totalDrivingForce);
+  }
+
+  @Override
+  protected void prePredict() {
+    // reset kinetic energy
+    kineticEnergy = 0;
+
+    // reset maxPressure
+    Particle.setMaxPressure(0);
+
+    // reset nParticlesJustFlowed
+    nParticlesJustFlowed = 0;
+  }
+
+  @Override
+  protected void predicted(final Particle predictedParticle) {
+    // it is assumed that if the predicted particle.y() is < ZERO => the particle will be out soon =>
+    // => we remove that particle before evaluation for simplification on neighbours finder method usage
+    removeIfOut(predictedParticle);
+
+    super.predicted(predictedParticle);
+  }
+
+  @Override
+  protected void preEvaluate() {
+    // calculate neighbours with the system's particles updated with the predicted values
+    for (final Particle predictedParticle : predictedParticles()) {
+      predictedParticlesBySlot[predictedParticle.slot()] = predictedParticle;
+    }
+    neighboursFinder.run(predictedParticles(), currentNeighbours);
+    if (forcesPerPair) {
+      // both particles of each pair are taken with their predicted values, so as their forces are opposite
+      findSocialNeighbours(predictedParticles());
+      accumulatePairForces();
+    } else {
+      // social forces are calculated against the current particles; see totalSocialForce
+      refreshSlowForces = nSteps % slowForcesInterval == 0;
+      if (refreshSlowForces) {
+        findSocialNeighbours(particles());
+      }
+      if (kernel != null) {
+        runKernel();
+      }
+    }
+    super.preEvaluate();
+  }
+
+  public long nParticlesFlowed() {
+    return nParticlesFlowed;
+  }
+
+  public long nParticlesJustFlowed() {
+    return nParticlesJustFlowed;
+  }
+
+  @Override
+  public void fixed(final Particle particle) {
+    if (flowedOut(particle)) {
+      particle.hasFlowedOut(true);
+      nParticlesJustFlowed ++;
+      nParticlesFlowed ++;
+    }
+
+    if (!removeIfOut(particle)) {
+      kineticEnergy += particle.kineticEnergy();
+      relocateIfOut(particle);
+    }
+
+    super.fixed(particle);
+  }
+
+  @Override
+  protected void removed(final Particle particle) {
+    evict(neighboursFinder, particle);
+    evict(socialNeighboursFinder, particle);
+  }
+
+  private static void evict(final NeighboursFinder neighboursFinder, final Particle particle) {
+    // the incremental grid is kept along the simulation => removed particles should be taken out of it
+    if (neighboursFinder instanceof IncrementalCellIndexMethodImpl) {
+      ((IncrementalCellIndexMethodImpl) neighboursFinder).evict(particle);
+    }
+  }
+
+  @Override
+  protected void postFix() {
+    for (final Particle particle : particlesToRelocate) {
+      relocate(particle, wrappedPosition(particle));
+    }
+    particlesToRelocate.clear();
+
+    if (staticData.adaptiveDelta1()) {
+      updateContacts();
+    }
+    nSteps ++;
+
+    super.postFix();
+  }
+
+  /**
+   * Updates {@code maxOverlap} and {@code maxContactSpeed} with the contacts of the predicted particles, as found
+   * for evaluating their forces
+   */
+  private void updateContacts() {
+    maxOverlap = 0;
+    maxContactSpeed = 0;
+    for (final Particle particle : predictedParticles()) {
+      final int slot = particle.slot();
+      for (int k = currentNeighbours.from(slot); k < currentNeighbours.to(slot); k++) {
+        final Particle neighbour = nearestImage(particle, predictedParticlesBySlot[currentNeighbours.neighbour(k)]);
+        final double dx = neighbour.x() - particle.x();
+        final double dy = neighbour.y() - particle.y();
+        final double distance = Math.hypot(dx, dy);
+        contact(particle.radio() + neighbour.radio() - distance,
+                ((particle.vx() - neighbour.vx()) * dx + (particle.vy() - neighbour.vy()) * dy) / distance);
+      }
+
+      final int wallsCell = wallsIndex.cell(particle);
+      for (int k = wallsIndex.from(wallsCell); k < wallsIndex.to(wallsCell); k++) {
+        final Wall wall = wallsArray[wallsIndex.wall(k)];
+        final double superposition = Space2DMaths.superpositionBetween(particle, wall);
+        if (superposition > 0) {
+          final Vector2D normalVersor = Space2DMaths.normalAndTangentialVersors(particle, wall)[NORMAL];
+          contact(superposition, particle.vx() * normalVersor.x() + particle.vy() * normalVersor.y());
+        }
+      }
+
+      final int discsCell = discsIndex.cell(particle);
+      for (int k = discsIndex.from(discsCell); k < discsIndex.to(discsCell); k++) {
+        final Disc disc = discsArray[discsIndex.disc(k)];
+        final double dx = disc.x() - particle.x();
+        final double dy = disc.y() - particle.y();
+        final double distance = Math.hypot(dx, dy);
+        contact(particle.radio() + disc.radio() - distance, (particle.vx() * dx + particle.vy() * dy) / distance);
+      }
+    }
+  }
+
+  private void contact(final double overlap, final double normalSpeed) {
+    if (overlap > 0) {
+      maxOverlap = Math.max(maxOverlap, overlap);
+      maxContactSpeed = Math.max(maxContactSpeed, Math.abs(normalSpeed));
+    }
+  }
+
+  /**
+   *
+   * @param particle -
+   * @return true if removed; false otherwise
+   */
+  private boolean removeIfOut(final Particle particle) {
+    // on a corridor, particles going out through the bottom are not removed, but relocated at the top
+    if(!staticData.periodicY() && particle.y() < ZERO){
+      removeWhenFinish(particle);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Flags the given particle to be relocated if it has gone out through a periodic limit.
+   * On a corridor, each particle going out through the bottom is counted as flowed.
+   */
+  private void relocateIfOut(final Particle particle) {
+    final boolean outX = staticData.periodicX() && (particle.x() < ZERO || particle.x() >= staticData.width());
+    final boolean outY = staticData.periodicY()
+            && (particle.y() < ZERO || particle.y() >= staticData.totalSystemLength());
+    if (outY && particle.y() < ZERO) {
+      nParticlesJustFlowed ++;
+      nParticlesFlowed ++;
+    }
+    if (outX || outY) {
+      particlesToRelocate.add(particle);
+    }
+  }
+
+  private Vector2D wrappedPosition(final Particle particle) {
+    final double x = staticData.periodicX() ? wrap(particle.x(), staticData.width()) : particle.x();
+    final double y = staticData.periodicY() ? wrap(particle.y(), staticData.totalSystemLength()) : particle.y();
+    return Vector2D.builder(x, y).build();
+  }
+
+  private static double wrap(final double position, final double side) {
+    final double wrappedPosition = position - side * Math.floor(position / side);
+    // rounding may take a tiny negative position exactly to the side
+    return wrappedPosition < side ? wrappedPosition : ZERO;
+  }
+
+  /**
+   * @return the image of {@code other} that is the nearest to {@code particle}, considering periodic limits;
+   * {@code other} itself if limits are not periodic or if it is already the nearest image
+   */
+  private Particle nearestImage(final Particle particle, final Particle other) {
+    final double shiftX = nearestImageShiftX(particle, other);
+    final double shiftY = nearestImageShiftY(particle, other);
+    if (shiftX == ZERO && shiftY == ZERO) {
+      return other;
+    }
+    return other.withX(other.x() + shiftX).withY(other.y() + shiftY);
+  }
+
+  /**
+   * @return what should be added to {@code other}'s x so as to get its image that is the nearest to {@code particle}
+   */
+  private double nearestImageShiftX(final Particle particle, final Particle other) {
+    return staticData.periodicX()
+            ? - staticData.width() * Math.rint((other.x() - particle.x()) / staticData.width()) : ZERO;
+  }
+
+  /**
+   * @return what should be added to {@code other}'s y so as to get its image that is the nearest to {@code particle}
+   */
+  private double nearestImageShiftY(final Particle particle, final Particle other) {
+    return staticData.periodicY()
+            ? - staticData.totalSystemLength() * Math.rint((other.y() - particle.y()) / staticData.totalSystemLength())
+            : ZERO;
+  }
+
+  private void initWithSystemConditions(final Collection<Particle> particles) {
+    final Collection<Particle> slottedParticles = new ArrayList<>(particles.size());
+    int slot = 0;
+    for (final Particle particle : particles) {
+      slottedParticles.add(
+              particle
+                      .withTau(staticData.tau())
+                      .withDrivingSpeed(staticData.drivingSpeed())
+                      .withSlot(slot++)
+      );
+    }
+
+    // particles need their slots so as to find their social neighbours
+    findSocialNeighbours(slottedParticles);
+    final Collection<Particle> updatedParticles = new ArrayList<>(particles.size());
+    for (final Particle slottedParticle : slottedParticles) {
+      final Particle updatedParticle = particleWithInitialForce(slottedParticle, slottedParticles);
+      updatedParticles.add(updatedParticle);
+      initParticle(updatedParticle);
+    }
+
+    // update system data particles
+    super.particles(updatedParticles);
+  }
+
+  private static boolean isVerlet(final StaticData staticData) {
+    return staticData.integrator() != IntegratorType.GEAR;
+  }
+
+  /**
+   * @return order of the derivatives saved for each particle; Verlet methods only use them up to the accelerations
+   */
+  private static int derivativesOrder(final StaticData staticData) {
+    return isVerlet(staticData) ? MIN_ORDER : staticData.gearOrder();
+  }
+
+  /**
+   * @param rc max border-to-border distance between two neighbour particles
+   */
+  private NeighboursFinder chooseNeighboursFinder(final StaticData staticData, final double rc) {
+    final boolean periodicX = staticData.periodicX();
+    final boolean periodicY = staticData.periodicY();
+    switch (staticData.neighboursFinder()) {
+      case BRUTE_FORCE:
+        if (periodicX || periodicY) {
+          throw new IllegalArgumentException("Brute force neighbours finder does not support periodic limits");
+        }
+        return new BruteForceMethodImpl(PERIODIC_LIMIT, rc);
+      case CELL_INDEX:
+        return new CellIndexMethodImpl(staticData.width(), staticData.totalSystemLength(),
+                staticData.maxDiameter(), rc, periodicX, periodicY);
+      case PARALLEL_CELL_INDEX:
+        return new ParallelCellIndexMethodImpl(staticData.width(), staticData.totalSystemLength(),
+                staticData.maxDiameter(), rc, periodicX, periodicY, staticData.parallelism());
+      case INCREMENTAL_CELL_INDEX:
+        return new IncrementalCellIndexMethodImpl(staticData.width(), staticData.totalSystemLength(),
+                staticData.maxDiameter(), rc, periodicX, periodicY);
+      case QUAD_TREE:
+        if (periodicX || periodicY) {
+          throw new IllegalArgumentException("Quadtree neighbours finder does not support periodic limits");
+        }
+        return new QuadTreeMethodImpl(rc, QUAD_TREE_LEAF_CAPACITY);
+      case SWEEP_AND_PRUNE:
+        if (periodicX || periodicY) {
+          throw new IllegalArgumentException("Sweep and prune neighbours finder does not support periodic limits");
+        }
+        return new SweepAndPruneMethodImpl(rc);
+      case VERLET_LIST:
+        return new VerletListMethodImpl(staticData.width(), staticData.totalSystemLength(),
+                staticData.maxDiameter(), rc, staticData.verletSkin(), periodicX, periodicY);
+      default:
+        throw new IllegalArgumentException("Unsupported neighbours finder: " + staticData.neighboursFinder());
+    }
+  }
+
+  private Particle particleWithInitialForce(final Particle particle, final Collection<Particle> particles) {
+    // calculate social force and driving force
+    final Vector2D totalSocialForce = totalSocialForce(particle, particles);
+    final Vector2D totalDrivingForce = totalDrivingForce(particle);
+
+    final Vector2D totalInitialForce = totalSocialForce.add(totalDrivingForce);
+    return particle.withForceX(totalInitialForce.x()).withForceY(totalInitialForce.y());
+  }
+
+  /**
+   * @return the given particle's total force, adding its walls' and driving forces to the particles' and social
+   * forces already accumulated by {@code accumulatePairForces}
+   */
+  private Vector2D getForceWithPairForces(final Particle particle) {
+    final int slot = particle.slot();
+    particle.normalForce(pairNormalForces[slot]);
+
+    final Vector2D totalPairForce = Vector2D.builder(pairForcesX[slot], pairForcesY[slot]).build();
+    final Vector2D totalWallsForce = totalWallsForce(particle);
+    final Vector2D totalDrivingForce = totalDrivingForce(particle);
+
+    return totalPairForce.add(totalWallsForce).add(totalDrivingForce);
+  }
+
+  /**
+   * Same as {@code getForceWithPredicted}, but calculating each force over primitive doubles with
+   * {@link PrimitiveForces}, in the same order, so as no object is allocated but the returned one
+   */
+  private Vector2D getPrimitiveForce(final Particle particle) {
+    final PrimitiveForces forces = this.forces.get();
+    final int slot = particle.slot();
+    double normalForce = 0;
+
+    // granular (particles) force
+    double particlesForceX = 0;
+    double particlesForceY = 0;
+    for (int k = currentNeighbours.from(slot); k < currentNeighbours.to(slot); k++) {
+      final Particle neighbour = predictedParticlesBySlot[currentNeighbours.neighbour(k)];
+      if (forces.neighbourForce(particle, neighbour,
+              nearestImageShiftX(particle, neighbour), nearestImageShiftY(particle, neighbour))) {
+        normalForce += forces.normalForce();
+        particlesForceX += forces.forceX();
+        particlesForceY += forces.forceY();
+      }
+    }
+
+    // granular (walls) force
+    double wallsForceX = 0;
+    double wallsForceY = 0;
+    final int wallsCell = wallsIndex.cell(particle);
+    for (int k = wallsIndex.from(wallsCell); k < wallsIndex.to(wallsCell); k++) {
+      if (forces.wallForce(particle, wallsIndex.wall(k))) {
+        normalForce += forces.normalForce();
+        wallsForceX += forces.forceX();
+        wallsForceY += forces.forceY();
+      }
+    }
+    // static discs push as walls do
+    final int discsCell = discsIndex.cell(particle);
+    for (int k = discsIndex.from(discsCell); k < discsIndex.to(discsCell); k++) {
+      if (forces.discForce(particle, discsIndex.disc(k))) {
+        normalForce += forces.normalForce();
+        wallsForceX += forces.forceX();
+        wallsForceY += forces.forceY();
+      }
+    }
+    particle.normalForce(normalForce);
+
+    if (slowForcesX != null && !refreshSlowForces) {
+      return Vector2D.builder(
+              particlesForceX + wallsForceX + slowForcesX[slot],
+              particlesForceY + wallsForceY + slowForcesY[slot]
+      ).build();
+    }
+
+    // social force
+    double socialForceX = 0;
+    double socialForceY = 0;
+    if (particle.type() == PEDESTRIAN) {
+      if (socialNeighboursFinder == null) {
+        for (final Particle systemParticle : particles()) {
+          if (!systemParticle.equals(particle) && systemParticle.type() == PEDESTRIAN) {
+            forces.socialForce(particle, systemParticle,
+                    nearestImageShiftX(particle, systemParticle), nearestImageShiftY(particle, systemParticle));
+            socialForceX += forces.forceX();
+            socialForceY += forces.forceY();
+          }
+        }
+      } else {
+        for (int k = socialNeighbours.from(slot); k < socialNeighbours.to(slot); k++) {
+          final Particle socialNeighbour = particlesBySlot[socialNeighbours.neighbour(k)];
+          if (socialNeighbour.type() == PEDESTRIAN) {
+            forces.socialForce(particle, socialNeighbour,
+                    nearestImageShiftX(particle, socialNeighbour), nearestImageShiftY(particle, socialNeighbour));
+            socialForceX += forces.forceX();
+            socialForceY += forces.forceY();
+          }
+        }
+      }
+    }
+
+    // driving force
+    primitiveDrivingForce(forces, particle);
+
+    if (slowForcesX != null) {
+      // held until they are refreshed again
+      slowForcesX[slot] = socialForceX + forces.forceX();
+      slowForcesY[slot] = socialForceY + forces.forceY();
+    }
+
+    return Vector2D.builder(
+            particlesForceX + wallsForceX + socialForceX + forces.forceX(),
+            particlesForceY + wallsForceY + socialForceY + forces.forceY()
+    ).build();
+  }
+
+  /**
+   * Same as {@code getForceWithPairForces}, but calculating each force over primitive doubles
+   */
+  private Vector2D getPrimitiveForceWithPairForces(final Particle particle) {
+    final PrimitiveForces forces = this.forces.get();
+    final int slot = particle.slot();
+    double normalForce = pairNormalForces[slot];
+
+    double wallsForceX = 0;
+    double wallsForceY = 0;
+    final int wallsCell = wallsIndex.cell(particle);
+    for (int k = wallsIndex.from(wallsCell); k < wallsIndex.to(wallsCell); k++) {
+      if (forces.wallForce(particle, wallsIndex.wall(k))) {
+        normalForce += forces.normalForce();
+        wallsForceX += forces.forceX();
+        wallsForceY += forces.forceY();
+      }
+    }
+    // static discs push as walls do
+    final int discsCell = discsIndex.cell(particle);
+    for (int k = discsIndex.from(discsCell); k < discsIndex.to(discsCell); k++) {
+      if (forces.discForce(particle, discsIndex.disc(k))) {
+        normalForce += forces.normalForce();
+        wallsForceX += forces.forceX();
+        wallsForceY += forces.forceY();
+      }
+    }
+    particle.normalForce(normalForce);
+
+    primitiveDrivingForce(forces, particle);
+
+    return Vector2D.builder(
+            pairForcesX[slot] + wallsForceX + forces.forceX(),
+            pairForcesY[slot] + wallsForceY + forces.forceY()
+    ).build();
+  }
+
+  /**
+   * @return the given particle's total force, adding its walls' force to the particles', social and driving forces
+   * already calculated by {@code runKernel}
+   */
+  private Vector2D getKernelForce(final Particle particle) {
+    final int slot = particle.slot();
+    final double kernelForceX = particlesArrays.forceX()[slot];
+    final double kernelForceY = particlesArrays.forceY()[slot];
+    if (Double.isNaN(kernelForceX) || Double.isNaN(kernelForceY)) {
+      // the particle is at the exactly same position as another one => something is wrong...
+      // Abort program
+      IOService.exit(IOService.ExitStatus.PARTICLES_AT_SAME_POSITION, new Object[] {particle});
+    }
+
+    final PrimitiveForces forces = this.forces.get();
+    forces.wallsForce(particle, wallsIndex, discsIndex);
+    particle.normalForce(particlesArrays.normalForce()[slot] + forces.normalForce());
+
+    return Vector2D.builder(kernelForceX + forces.forceX(), kernelForceY + forces.forceY()).build();
+  }
+
+  /**
+   * Calculates the particles', social and driving forces of all the predicted particles with {@code kernel}.
+   * As with {@code getPrimitiveForce}, social forces are calculated against the current particles
+   */
+  private void runKernel() {
+    particlesArrays.clear();
+    for (final Particle particle : particles()) {
+      particlesArrays.setSocial(particle);
+    }
+    for (final Particle predictedParticle : predictedParticles()) {
+      particlesArrays.set(predictedParticle);
+      // the floor field leads to the nearest exit, around walls and obstacles
+      floorField.direction(predictedParticle.x(), predictedParticle.y(), direction);
+      particlesArrays.setDirection(predictedParticle.slot(), direction[0], direction[1]);
+    }
+    kernel.forces(staticData, particlesArrays, currentNeighbours,
+            socialNeighboursFinder == null ? null : socialNeighbours);
+  }
+
+  /**
+   * Calculates the given particle's driving force with {@code forces}; see {@code totalDrivingForce}
+   */
+  private void primitiveDrivingForce(final PrimitiveForces forces, final Particle particle) {
+    if (staticData.periodicY()) {
+      forces.drivingForceWithDirection(particle, CORRIDOR_DIRECTION.x(), CORRIDOR_DIRECTION.y());
+    } else {
+      forces.drivingForce(particle, floorField);
+    }
+  }
+
+  /**
+   * Calculates the particles' (normal and tangential) and social forces of each pair of predicted particles once,
+   * and accumulates them to both particles, with opposite signs, as of Newton's third law
+   */
+  private void accumulatePairForces() {
+    Arrays.fill(pairForcesX, ZERO);
+    Arrays.fill(pairForcesY, ZERO);
+    Arrays.fill(pairNormalForces, ZERO);
+
+    if (pairsScheduler != null) {
+      pairsScheduler.forEachParticle(predictedParticles(), this::accumulateParticlePairForces);
+      if (socialNeighboursFinder == null) {
+        accumulateAllPairsSocialForces();
+      }
+      return;
+    }
+
+    for (final Particle particle : predictedParticles()) {
+      final int slot = particle.slot();
+      for (int k = currentNeighbours.from(slot); k < currentNeighbours.to(slot); k++) {
+        final int neighbourSlot = currentNeighbours.neighbour(k);
+        // each pair is calculated only from the particle with the lowest slot
+        if (neighbourSlot > slot) {
+          accumulatePairNeighbourForce(particle, predictedParticlesBySlot[neighbourSlot]);
+        }
+      }
+    }
+
+    if (socialNeighboursFinder == null) {
+      accumulateAllPairsSocialForces();
+    } else {
+      for (final Particle particle : predictedParticles()) {
+        final int slot = particle.slot();
+        for (int k = socialNeighbours.from(slot); k < socialNeighbours.to(slot); k++) {
+          final int neighbourSlot = socialNeighbours.neighbour(k);
+          if (neighbourSlot > slot) {
+            accumulatePairSocialForce(particle, predictedParticlesBySlot[neighbourSlot]);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Calculates the particles' and social forces of the pairs of {@code particle} in which it has the lowest slot,
+   * and accumulates them to both particles of each pair.
+   * <P>
+   * It only writes to the given particle and to its neighbours, so it may run in parallel for particles which do not
+   * share any neighbour; see ColouredCellsScheduler. Each particle's accumulated forces are equal to the ones of the
+   * sequential pass but for rounding, as they are summed in a different order.
+   */
+  private void accumulateParticlePairForces(final Particle particle) {
+    final int slot = particle.slot();
+    for (int k = currentNeighbours.from(slot); k < currentNeighbours.to(slot); k++) {
+      final int neighbourSlot = currentNeighbours.neighbour(k);
+      if (neighbourSlot > slot) {
+        accumulatePairNeighbourForce(particle, predictedParticlesBySlot[neighbourSlot]);
+      }
+    }
+    if (socialNeighboursFinder != null) {
+      for (int k = socialNeighbours.from(slot); k < socialNeighbours.to(slot); k++) {
+        final int neighbourSlot = socialNeighbours.neighbour(k);
+        if (neighbourSlot > slot) {
+          accumulatePairSocialForce(particle, predictedParticlesBySlot[neighbourSlot]);
+        }
+      }
+    }
+  }
+
+  private void accumulatePairNeighbourForce(final Particle particle, final Particle neighbour) {
+    final double normalForceModule;
+    final double forceX;
+    final double forceY;
+    if (primitiveForces) {
+      final PrimitiveForces forces = this.forces.get();
+      if (!forces.neighbourForce(particle, neighbour,
+              nearestImageShiftX(particle, neighbour), nearestImageShiftY(particle, neighbour))) {
+        return;
+      }
+      normalForceModule = forces.normalForce();
+      forceX = forces.forceX();
+      forceY = forces.forceY();
+    } else {
+      final Vector2D[] neighbourForces = normalAndTangentialNeighbourForces(particle, nearestImage(particle, neighbour));
+      if (neighbourForces == null) {
+        return;
+      }
+      normalForceModule = neighbourForces[NORMAL].norm2();
+      final Vector2D neighbourForce = neighbourForces[NORMAL].add(neighbourForces[TANGENTIAL]);
+      forceX = neighbourForce.x();
+      forceY = neighbourForce.y();
+    }
+    pairNormalForces[particle.slot()] += normalForceModule;
+    pairNormalForces[neighbour.slot()] += normalForceModule;
+    accumulatePairForce(particle.slot(), neighbour.slot(), forceX, forceY);
+  }
+
+  private void accumulateAllPairsSocialForces() {
+    // the same array is reused on each step, so as not to allocate a new one
+    final int nParticles = predictedParticles().size();
+    allPredictedParticles = predictedParticles().toArray(allPredictedParticles);
+    for (int i = 0; i < nParticles; i++) {
+      for (int j = i + 1; j < nParticles; j++) {
+        accumulatePairSocialForce(allPredictedParticles[i], allPredictedParticles[j]);
+      }
+    }
+  }
+
+  private void accumulatePairSocialForce(final Particle particle, final Particle otherParticle) {
+    if (particle.type() != PEDESTRIAN || otherParticle.type() != PEDESTRIAN) {
+      return;
+    }
+    if (primitiveForces) {
+      final PrimitiveForces forces = this.forces.get();
+      forces.socialForce(particle, otherParticle,
+              nearestImageShiftX(particle, otherParticle), nearestImageShiftY(particle, otherParticle));
+      accumulatePairForce(particle.slot(), otherParticle.slot(), forces.forceX(), forces.forceY());
+    } else {
+      final Vector2D socialForce = socialForce(particle, nearestImage(particle, otherParticle));
+      accumulatePairForce(particle.slot(), otherParticle.slot(), socialForce.x(), socialForce.y());
+    }
+  }
+
+  /**
+   * Adds the given force to the particle with {@code slot}, and subtracts it from the one with {@code otherSlot}
+   */
+  private void accumulatePairForce(final int slot, final int otherSlot, final double forceX, final double forceY) {
+    pairForcesX[slot] += forceX;
+    pairForcesY[slot] += forceY;
+    pairForcesX[otherSlot] -= forceX;
+    pairForcesY[otherSlot] -= forceY;
+  }
+
+  /**
+   * @return the predicted particles with which forces were evaluated on the last step
+   */
+  /* package-private */ Collection<Particle> lastPredictedParticles() {
+    return predictedParticles();
+  }
+
+  /**
+   * @return the particles' and social forces accumulated to the particle with the given slot by
+   * {@code accumulatePairForces} on the last step
+   */
+  /* package-private */ Vector2D pairForce(final int slot) {
+    return Vector2D.builder(pairForcesX[slot], pairForcesY[slot]).build();
+  }
+
+  /**
+   * @return the particles' and social forces that the other predicted particles apply to the given predicted one,
+   * evaluated per particle as {@code getForceWithPredicted} does, but against the predicted particles for social
+   * forces too, as {@code accumulatePairForces} does; only valid when forces are evaluated per pair, as it takes
+   * the neighbours found for the last step
+   */
+  /* package-private */ Vector2D particleForce(final Particle predictedParticle) {
+    return totalParticlesForce(predictedParticle).add(totalSocialForce(predictedParticle, predictedParticles()));
+  }
+
+  private Vector2D totalGranularForce(final Particle particle) {
+    // granular (particles) force
+    // neighbours are supposed to be correctly updated
+    final Vector2D totalParticlesForce = totalParticlesForce(particle);
+    // granular (walls) force
+    final Vector2D totalWallsForce = totalWallsForce(particle);
+    return totalParticlesForce.add(totalWallsForce);
+  }
+
+  private Vector2D totalDrivingForce(final Particle particle) {
+    if (particle.type() != PEDESTRIAN) {
+      // only pedestrians walk towards an exit
+      return Space2DMaths.nullVector();
+    }
+    final double drivingForceModule = particle.mass() / particle.tau();
+    if (staticData.periodicY()) {
+      // on a corridor, pedestrians just walk down along it
+      final Vector2D drivingVelocity = CORRIDOR_DIRECTION.times(particle.drivingSpeed());
+      return drivingVelocity.sub(particle.r1()).times(drivingForceModule);
+    }
+    // the floor field leads to the nearest exit, around walls and obstacles
+    final Vector2D desiredDirection = floorField.direction(particle.x(), particle.y());
+
+    final Vector2D drivingVelocity = desiredDirection.times(particle.drivingSpeed());
+
+    return drivingVelocity.sub(particle.r1()).times(drivingForceModule);
+  }
+
+  /**
+   * Finds the pairs of the given particles that are close enough to consider their social force, if there is
+   * a cutoff for it
+   */
+  private void findSocialNeighbours(final Collection<Particle> particles) {
+    if (socialNeighboursFinder == null) {
+      return;
+    }
+    for (final Particle particle : particles) {
+      particlesBySlot[particle.slot()] = particle;
+    }
+    socialNeighboursFinder.run(particles, socialNeighbours);
+  }
+
+  /**
+   * @param particles the particles that {@code particle} interacts with; if there is a cutoff for the social force,
+   *                  their social neighbours should have been found with {@code findSocialNeighbours}
+   */
+  private Vector2D totalSocialForce(final Particle particle, final Collection<Particle> particles) {
+    Vector2D totalSocialForce = Space2DMaths.nullVector();
+    if (particle.type() != PEDESTRIAN) {
+      return totalSocialForce;
+    }
+    if (socialNeighboursFinder == null) {
+      for (final Particle systemParticle : particles) {
+        if (!systemParticle.equals(particle) && systemParticle.type() == PEDESTRIAN) {
+          totalSocialForce = totalSocialForce.add(socialForce(particle, nearestImage(particle, systemParticle)));
+        }
+      }
+    } else {
+      // only pedestrians within the cutoff; the rest's social force is negligible
+      final int slot = particle.slot();
+      for (int k = socialNeighbours.from(slot); k < socialNeighbours.to(slot); k++) {
+        final Particle socialNeighbour = particlesBySlot[socialNeighbours.neighbour(k)];
+        if (socialNeighbour.type() == PEDESTRIAN) {
+          totalSocialForce = totalSocialForce.add(socialForce(particle, nearestImage(particle, socialNeighbour)));
+        }
+      }
+    }
+    return totalSocialForce;
+  }
+
+  private Vector2D socialForce(final Particle particle, final Particle otherParticle) {
+    final Vector2D[] normalAndTangentialVersors
+            = Space2DMaths.normalAndTangentialVersors(particle.r0(), otherParticle.r0());
+
+    if (normalAndTangentialVersors == null) {
+      // both particles are at the exactly same position => something is wrong...
+      // abort program
+      IOService.exit(IOService.ExitStatus.PARTICLES_AT_SAME_POSITION, new Object[] {particle, otherParticle});
+
+      // should not reach here; written so as validators don't complain about possible null's access
+      return Space2DMaths.nullVector();
+    }
+
+    final Vector2D normalVersor = normalAndTangentialVersors[NORMAL];
+
+    // border-to-border distance
+    final double distanceBetween = Space2DMaths.distanceBetween(particle, otherParticle);
+    final double socialForceModule = - staticData.A() * socialExp(- distanceBetween / staticData.B());
+
+    return normalVersor.times(socialForceModule);
+  }
+
+  private double socialExp(final double x) {
+    return socialExp == null ? Math.exp(x) : socialExp.exp(x);
+  }
+
+  private boolean flowedOut(final Particle particle) {
+    // professor told us that it is OK to consider only when the particles' center have passed
+    // on a corridor, particles are counted when they go out through the bottom; see relocateIfOut
+    return !staticData.periodicY() && particle.y() < staticData.fallLength() && !particle.hasFlowedOut();
+  }
+
+  // Particle's total force
+  private Vector2D totalParticlesForce(final Particle particle) {
+    Vector2D totalParticlesForce = Space2DMaths.nullVector();
+    final int slot = particle.slot();
+    for (int k = currentNeighbours.from(slot); k < currentNeighbours.to(slot); k++) {
+      final Particle neighbour = nearestImage(particle, predictedParticlesBySlot[currentNeighbours.neighbour(k)]);
+      final Vector2D neighbourForce = neighbourForce(particle, neighbour);
+      totalParticlesForce = totalParticlesForce.add(neighbourForce);
+    }
+    return totalParticlesForce;
+  }
+
+  private Vector2D neighbourForce(final Particle particle, final Particle neighbour) {
+    final Vector2D[] neighbourForces = normalAndTangentialNeighbourForces(particle, neighbour);
+    if (neighbourForces == null) {
+      return Space2DMaths.nullVector();
+    }
+
+    final Vector2D normalNeighbourForce = neighbourForces[NORMAL];
+    final Vector2D tangentialNeighbourForce = neighbourForces[TANGENTIAL];
+
+    particle.increaseNormalForce(normalNeighbourForce.norm2());
+
+    return normalNeighbourForce.add(tangentialNeighbourForce);
+  }
+
+  /**
+   * @return the normal and tangential forces that {@code neighbour} applies to {@code particle}, saved at
+   * {@code NORMAL} and {@code TANGENTIAL} positions respectively; null if they are not colliding
+   */
+  private Vector2D[] normalAndTangentialNeighbourForces(final Particle particle, final Particle neighbour) {
+    final double superposition = Space2DMaths.superpositionBetween(particle, neighbour);
+    if (superposition < 0) {
+      return null;
+    }
+
+    final Vector2D[] normalAndTangentialVersors =
+            Space2DMaths.normalAndTangentialVersors(particle.r0(), neighbour.r0());
+
+    if (normalAndTangentialVersors == null) {
+      // both particles are at the exactly same position => something is wrong...
+      // Abort program
+      IOService.exit(IOService.ExitStatus.PARTICLES_AT_SAME_POSITION, new Object[] {particle, neighbour});
+
+      // should not reach here; written so as validators don't complain about possible null's access
+      return null;
+    }
+
+    final Vector2D normalVersor = normalAndTangentialVersors[NORMAL];
+    final Vector2D tangentialVersor = normalAndTangentialVersors[TANGENTIAL];
+
+    final Vector2D particlePredictedVelocity = getPredictedR(particle, VELOCITY_DERIVED_ORDER);
+    final Vector2D neighbourPredictedVelocity = getPredictedR(neighbour, VELOCITY_DERIVED_ORDER);
+    final Vector2D relativeVelocity = Space2DMaths.relativeVector(neighbourPredictedVelocity, particlePredictedVelocity);
+
+    final Vector2D normalNeighbourForce = normalForce(superposition, normalVersor);
+    final Vector2D tangentialNeighbourForce = tangentialForce(superposition, relativeVelocity, tangentialVersor);
+
+    final Vector2D[] neighbourForces = new Vector2D[2];
+    neighbourForces[NORMAL] = normalNeighbourForce;
+    neighbourForces[TANGENTIAL] = tangentialNeighbourForce;
+    return neighbourForces;
+  }
+
+  // Walls' and static discs' total force
+  private Vector2D totalWallsForce(final Particle particle) {
+    Vector2D totalWallsForce = Space2DMaths.nullVector();
+    // only walls near the particle's cell may touch it
+    final int wallsCell = wallsIndex.cell(particle);
+    for (int k = wallsIndex.from(wallsCell); k < wallsIndex.to(wallsCell); k++) {
+      final Vector2D wallForce = wallForce(particle, wallsArray[wallsIndex.wall(k)]);
+      totalWallsForce = totalWallsForce.add(wallForce);
+    }
+    // static discs push as walls do
+    final int discsCell = discsIndex.cell(particle);
+    for (int k = discsIndex.from(discsCell); k < discsIndex.to(discsCell); k++) {
+      final Vector2D discForce = discForce(particle, discsArray[discsIndex.disc(k)]);
+      totalWallsForce = totalWallsForce.add(discForce);
+    }
+
+    return totalWallsForce;
+  }
+
+  private Vector2D wallForce(final Particle particle, final Wall wall) {
+    final double superposition = Space2DMaths.superpositionBetween(particle, wall);
+    if (superposition <= 0) { // not colliding => no force
+      return Space2DMaths.nullVector();
+    }
+
+    final Vector2D[] normalAndTangentialVersors =
+            Space2DMaths.normalAndTangentialVersors(particle, wall);
+
+    if (normalAndTangentialVersors == null) {
+      // both particles are at the exactly same position => something is wrong...
+      // Abort program
+      IOService.exit(IOService.ExitStatus.PARTICLES_AT_SAME_POSITION, new Object[] {particle, wall});
+
+      // should not reach here; written so as validators don't complain about possible null's access
+      return Space2DMaths.nullVector();
+    }
+
+    final Vector2D normalVersor = normalAndTangentialVersors[NORMAL];
+    final Vector2D tangentialVersor = normalAndTangentialVersors[TANGENTIAL];
+
+    final Vector2D relativeVelocity = getPredictedR(particle, VELOCITY_DERIVED_ORDER);
+
+    final Vector2D normalForce = normalForce(superposition, normalVersor);
+    final Vector2D tangentialForce = tangentialForce(superposition, relativeVelocity, tangentialVersor);
+
+    particle.increaseNormalForce(normalForce.norm2()); // increase normal force
+
+    return normalForce.add(tangentialForce);
+  }
+
+  private Vector2D discForce(final Particle particle, final Disc disc) {
+    final double superposition = Space2DMaths.superpositionBetween(particle, disc);
+    if (superposition <= 0) { // not colliding => no force
+      return Space2DMaths.nullVector();
+    }
+
+    final Vector2D[] normalAndTangentialVersors =
+            Space2DMaths.normalAndTangentialVersors(particle.r0(), disc.center());
+
+    if (normalAndTangentialVersors == null) {
+      // particle's center is exactly at the disc's center => something is wrong...
+      // Abort program
+      IOService.exit(IOService.ExitStatus.PARTICLES_AT_SAME_POSITION, new Object[] {particle, disc});
+
+      // should not reach here; written so as validators don't complain about possible null's access
+      return Space2DMaths.nullVector();
+    }
+
+    final Vector2D normalVersor = normalAndTangentialVersors[NORMAL];
+    final Vector2D tangentialVersor = normalAndTangentialVersors[TANGENTIAL];
+
+    // discs do not move
+    final Vector2D relativeVelocity = getPredictedR(particle, VELOCITY_DERIVED_ORDER);
+
+    final Vector2D normalForce = normalForce(superposition, normalVersor);
+    final Vector2D tangentialForce = tangentialForce(superposition, relativeVelocity, tangentialVersor);
+
+    particle.increaseNormalForce(normalForce.norm2()); // increase normal force
+
+    return normalForce.add(tangentialForce);
+  }
+
+  @SuppressWarnings("unused")
+  private Vector2D socialForce(final Particle particle, final Wall wall) {
+    final Vector2D[] normalAndTangentialVersors =
+            Space2DMaths.normalAndTangentialVersors(particle, wall);
+
+    if (normalAndTangentialVersors == null) {
+      // both particles are at the exactly same position => something is wrong...
+      // Abort program
+      IOService.exit(IOService.ExitStatus.PARTICLES_AT_SAME_POSITION, new Object[] {particle, wall});
+
+      // should not reach here; written so as validators don't complain about possible null's access
+      return Space2DMaths.nullVector();
+    }
+
+    final Vector2D normalVersor = normalAndTangentialVersors[NORMAL];
+
+    final double distanceBetween = Space2DMaths.distanceBetween(particle, wall);
+    final double socialForceModule = - staticData.A() * socialExp(- distanceBetween / staticData.B());
+
+    return normalVersor.times(socialForceModule);
+  }
+
+  // system's force calculation for both normal and tangential components
+
+  private Vector2D normalForce(final double superposition, final Vector2D normalVersor) {
+    final double normalNeighbourForceModule = - staticData.kn() * superposition;
+    return normalVersor.times(normalNeighbourForceModule);
+  }
+
+  private Vector2D tangentialForce(final double superposition,
+                                   final Vector2D relativeVelocity,
+                                   final Vector2D tangentialVersor) {
+    final double tangentialRelativeVelocity = Space2DMaths.dotProduct(relativeVelocity, tangentialVersor);
+    final double tangentialNeighbourForceModule = - staticData.kt() * superposition *tangentialRelativeVelocity;
+
+    return tangentialVersor.times(tangentialNeighbourForceModule);
+  }
+}
@@ -0,0 +1,289 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Disc;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.models.Wall;
+import ar.edu.itba.ss.pedestriandynamic.services.IOService;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.FloorField;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.SocialForceModel;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.TabulatedExp;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.DiscsCellIndex;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.WallsCellIndex;
+
+import java.util.Collection;
+
+import static ar.edu.itba.ss.pedestriandynamic.models.ParticleType.PEDESTRIAN;
+import static ar.edu.itba.ss.pedestriandynamic.services.apis.SocialForceModel.norm2;
+
+/**
+ * Social Force Model's forces calculated over primitive doubles, so as no object is allocated per force.
+ * <P>
+ * Each method calculates a single force and saves its components, which are retrieved with {@link #forceX()} and
+ * {@link #forceY()}, instead of returning a new vector. Forces' arithmetic is the {@link SocialForceModel}'s, shared
+ * with the forces' kernels; this class takes particles' values, walls and discs to it, and aborts the program if
+ * two bodies are at exactly the same position. Both give exactly the same results as the {@code Vector2D} based
+ * forces of the {@link PedestrianDynamicsSystemData}.
+ * <P>
+ * Particles' velocities are taken from the given particles, so they should be the predicted ones.
+ * Positions of the other particle of a pair can be shifted, so as to consider its nearest image with periodic limits.
+ */
+/* package-private */ final class PrimitiveForces {
+  private final SocialForceModel model;
+
+  // walls' values used by the forces, indexed as the given walls' iteration order
+  private final double[] wallsC1X;
+  private final double[] wallsC1Y;
+  private final double[] wallsTangentialX;
+  private final double[] wallsTangentialY;
+  private final double[] wallsLeftNormalX;
+  private final double[] wallsLeftNormalY;
+  private final double[] wallsRightNormalX;
+  private final double[] wallsRightNormalY;
+  private final double[] wallsNorm;
+
+  // static discs' values, indexed as the given discs' iteration order
+  private final double[] discsX;
+  private final double[] discsY;
+  private final double[] discsRadio;
+
+  // last direction read from the floor field
+  private final double[] direction = new double[2];
+
+  // last calculated force
+  private double forceX;
+  private double forceY;
+  private double normalForceModule;
+
+  /**
+   * @param socialExp exponential used by social forces, shared with the {@code Vector2D} based ones;
+   *                  null if the exact {@code Math.exp} should be used
+   */
+  /* package-private */ PrimitiveForces(final StaticData staticData, final Collection<Wall> walls,
+                                        final Collection<Disc> discs, final TabulatedExp socialExp) {
+    this.model = new SocialForceModel(staticData, socialExp);
+
+    final Wall[] wallsArray = walls.toArray(new Wall[walls.size()]);
+    final int nWalls = wallsArray.length;
+    this.wallsC1X = new double[nWalls];
+    this.wallsC1Y = new double[nWalls];
+    this.wallsTangentialX = new double[nWalls];
+    this.wallsTangentialY = new double[nWalls];
+    this.wallsLeftNormalX = new double[nWalls];
+    this.wallsLeftNormalY = new double[nWalls];
+    this.wallsRightNormalX = new double[nWalls];
+    this.wallsRightNormalY = new double[nWalls];
+    this.wallsNorm = new double[nWalls];
+    for (int w = 0; w < nWalls; w++) {
+      final Wall wall = wallsArray[w];
+      wallsC1X[w] = wall.c1().x();
+      wallsC1Y[w] = wall.c1().y();
+      wallsTangentialX[w] = wall.tangentialVersor().x();
+      wallsTangentialY[w] = wall.tangentialVersor().y();
+      wallsLeftNormalX[w] = wall.leftNormalVersor().x();
+      wallsLeftNormalY[w] = wall.leftNormalVersor().y();
+      wallsRightNormalX[w] = wall.rightNormalVersor().x();
+      wallsRightNormalY[w] = wall.rightNormalVersor().y();
+      wallsNorm[w] = wall.asVector().norm2();
+    }
+
+    final Disc[] discsArray = discs.toArray(new Disc[discs.size()]);
+    this.discsX = new double[discsArray.length];
+    this.discsY = new double[discsArray.length];
+    this.discsRadio = new double[discsArray.length];
+    for (int d = 0; d < discsArray.length; d++) {
+      discsX[d] = discsArray[d].x();
+      discsY[d] = discsArray[d].y();
+      discsRadio[d] = discsArray[d].radio();
+    }
+  }
+
+  /* package-private */ double forceX() {
+    return forceX;
+  }
+
+  /* package-private */ double forceY() {
+    return forceY;
+  }
+
+  /**
+   * @return module of the normal component of the last calculated neighbour's, wall's or disc's force
+   */
+  /* package-private */ double normalForce() {
+    return normalForceModule;
+  }
+
+  /**
+   * Calculates the (normal + tangential) force that {@code neighbour} applies to {@code particle}
+   * @return true if they are colliding, and so the force has been calculated; false otherwise
+   */
+  /* package-private */ boolean neighbourForce(final Particle particle, final Particle neighbour,
+                                               final double shiftX, final double shiftY) {
+    final double relativeX = (neighbour.x() + shiftX) - particle.x();
+    final double relativeY = (neighbour.y() + shiftY) - particle.y();
+    if (!model.neighbourForce(relativeX, relativeY, particle.radio(), neighbour.radio(),
+            particle.vx() - neighbour.vx(), particle.vy() - neighbour.vy())) {
+      return false;
+    }
+
+    if (relativeX == 0 && relativeY == 0) {
+      // both particles are at the exactly same position => something is wrong...
+      // Abort program
+      IOService.exit(IOService.ExitStatus.PARTICLES_AT_SAME_POSITION, new Object[] {particle, neighbour});
+    }
+    saveModelContactForce();
+    return true;
+  }
+
+  /**
+   * Calculates the social force that {@code otherParticle} applies to {@code particle}
+   */
+  /* package-private */ void socialForce(final Particle particle, final Particle otherParticle,
+                                        final double shiftX, final double shiftY) {
+    final double relativeX = (otherParticle.x() + shiftX) - particle.x();
+    final double relativeY = (otherParticle.y() + shiftY) - particle.y();
+
+    if (relativeX == 0 && relativeY == 0) {
+      // both particles are at the exactly same position => something is wrong...
+      // abort program
+      IOService.exit(IOService.ExitStatus.PARTICLES_AT_SAME_POSITION, new Object[] {particle, otherParticle});
+    }
+    model.socialForce(relativeX, relativeY, particle.radio(), otherParticle.radio());
+    saveModelForce();
+  }
+
+  /**
+   * Calculates the (normal + tangential) force that the wall with index {@code w} applies to {@code particle}
+   * @return true if they are colliding, and so the force has been calculated; false otherwise
+   */
+  /* package-private */ boolean wallForce(final Particle particle, final int w) {
+    final double c1ParticleX = particle.x() - wallsC1X[w];
+    final double c1ParticleY = particle.y() - wallsC1Y[w];
+
+    // the normal versor is the one pointing from the particle to the wall; see Space2DMaths
+    final double normalX, normalY, tangentialX, tangentialY;
+    if (c1ParticleX * wallsLeftNormalX[w] + c1ParticleY * wallsLeftNormalY[w] < 0) {
+      normalX = wallsLeftNormalX[w];
+      normalY = wallsLeftNormalY[w];
+      tangentialX = wallsTangentialX[w] * -1;
+      tangentialY = wallsTangentialY[w] * -1;
+    } else {
+      normalX = wallsRightNormalX[w];
+      normalY = wallsRightNormalY[w];
+      tangentialX = wallsTangentialX[w];
+      tangentialY = wallsTangentialY[w];
+    }
+
+    final double normalProjectionModule = Math.abs(c1ParticleX * normalX + c1ParticleY * normalY);
+    final double tangentialProjectionModule = Math.abs(c1ParticleX * tangentialX + c1ParticleY * tangentialY);
+    final double distance = normalProjectionModule - particle.radio();
+    final double superposition = - distance;
+    final boolean colliding = distance <= 0
+            && c1ParticleX * wallsTangentialX[w] + c1ParticleY * wallsTangentialY[w] > 0
+            && tangentialProjectionModule < wallsNorm[w];
+    if (!colliding || superposition <= 0) { // not colliding => no force
+      return false;
+    }
+
+    model.contactForce(superposition, normalX, normalY, tangentialX, tangentialY, particle.vx(), particle.vy());
+    saveModelContactForce();
+    return true;
+  }
+
+  /**
+   * Calculates the (normal + tangential) force that the static disc with index {@code d} applies to {@code particle}
+   * @return true if they are colliding, and so the force has been calculated; false otherwise
+   */
+  /* package-private */ boolean discForce(final Particle particle, final int d) {
+    final double relativeX = discsX[d] - particle.x();
+    final double relativeY = discsY[d] - particle.y();
+    final double centersDistance = norm2(relativeX, relativeY);
+    final double superposition = - (centersDistance - particle.radio() - discsRadio[d]);
+    if (superposition <= 0) { // not colliding => no force
+      return false;
+    }
+
+    if (centersDistance == 0) {
+      // particle's center is exactly at the disc's center => something is wrong...
+      // Abort program
+      IOService.exit(IOService.ExitStatus.PARTICLES_AT_SAME_POSITION, new Object[] {particle, discsX[d], discsY[d]});
+    }
+    final double normalX = relativeX / centersDistance;
+    final double normalY = relativeY / centersDistance;
+
+    final double tangentialX = - normalY;
+    final double tangentialY = normalX;
+
+    // discs do not move
+    model.contactForce(superposition, normalX, normalY, tangentialX, tangentialY, particle.vx(), particle.vy());
+    saveModelContactForce();
+    return true;
+  }
+
+  /**
+   * Calculates the sum of the forces that the walls and static discs near {@code particle} apply to it;
+   * {@link #normalForce()} is the sum of their normal forces' modules
+   */
+  /* package-private */ void wallsForce(final Particle particle,
+                                       final WallsCellIndex wallsIndex, final DiscsCellIndex discsIndex) {
+    double wallsForceX = 0;
+    double wallsForceY = 0;
+    double wallsNormalForce = 0;
+    final int wallsCell = wallsIndex.cell(particle);
+    for (int k = wallsIndex.from(wallsCell); k < wallsIndex.to(wallsCell); k++) {
+      if (wallForce(particle, wallsIndex.wall(k))) {
+        wallsNormalForce += normalForceModule;
+        wallsForceX += forceX;
+        wallsForceY += forceY;
+      }
+    }
+    final int discsCell = discsIndex.cell(particle);
+    for (int k = discsIndex.from(discsCell); k < discsIndex.to(discsCell); k++) {
+      if (discForce(particle, discsIndex.disc(k))) {
+        wallsNormalForce += normalForceModule;
+        wallsForceX += forceX;
+        wallsForceY += forceY;
+      }
+    }
+    normalForceModule = wallsNormalForce;
+    forceX = wallsForceX;
+    forceY = wallsForceY;
+  }
+
+  /**
+   * Calculates the driving force of {@code particle} along the direction of the given floor field at its position
+   */
+  /* package-private */ void drivingForce(final Particle particle, final FloorField floorField) {
+    if (particle.type() != PEDESTRIAN) {
+      // only pedestrians walk towards an exit
+      forceX = forceY = 0;
+      return;
+    }
+    floorField.direction(particle.x(), particle.y(), direction);
+    drivingForceWithDirection(particle, direction[0], direction[1]);
+  }
+
+  /**
+   * Calculates the driving force of {@code particle} along the given direction's versor
+   */
+  /* package-private */ void drivingForceWithDirection(final Particle particle,
+                                                      final double directionX, final double directionY) {
+    if (particle.type() != PEDESTRIAN) {
+      forceX = forceY = 0;
+      return;
+    }
+    model.drivingForce(particle.mass(), particle.tau(), particle.drivingSpeed(), directionX, directionY,
+            particle.vx(), particle.vy());
+    saveModelForce();
+  }
+
+  private void saveModelForce() {
+    forceX = model.forceX();
+    forceY = model.forceY();
+  }
+
+  private void saveModelContactForce() {
+    saveModelForce();
+    normalForceModule = model.normalForce();
+  }
+}
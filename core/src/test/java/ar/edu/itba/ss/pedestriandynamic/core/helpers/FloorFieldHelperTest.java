@@ -0,0 +1,71 @@
+package ar.edu.itba.ss.pedestriandynamic.core.helpers;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Geometry;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.FloorField;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class FloorFieldHelperTest extends TestCase {
+  private static final double WIDTH = 20;
+  private static final double LENGTH = 20;
+  private static final double EPSILON = 1e-9;
+
+  private StaticData staticData;
+  private Geometry geometry;
+
+  @Override
+  protected void setUp() {
+    staticData = StaticData.builder(100, WIDTH, LENGTH, 1.2, 0.5, 0.7, 80, 1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2)
+            .build();
+    geometry = GeometryHelper.defaultGeometry(staticData);
+  }
+
+  public void testDirectionsToOpening() {
+    final FloorField floorField = FloorFieldHelper.floorField(geometry, staticData);
+    final double[] direction = new double[2];
+
+    // pedestrians at the room's bottom left corner go right, to the opening
+    floorField.direction(1, staticData.fallLength() + 0.5, direction);
+    assertTrue(direction[0] > 0.9);
+    // pedestrians over the opening go down, through it
+    floorField.direction(WIDTH / 2, staticData.fallLength() + 2, direction);
+    assertEquals(0, direction[0], 0.05);
+    assertTrue(direction[1] < -0.99);
+    // and they keep going down after going through it
+    floorField.direction(WIDTH / 2 + 3, staticData.fallLength() - 1, direction);
+    assertTrue(direction[1] < -0.99);
+  }
+
+  public void testCachedFloorField() throws IOException {
+    final Path cacheFolder = Files.createTempDirectory("floor_fields");
+    try {
+      final FloorField computed = FloorFieldHelper.cachedFloorField(geometry, staticData, cacheFolder.toString());
+      assertEquals(1, cacheFolder.toFile().list().length);
+      final FloorField loaded = FloorFieldHelper.cachedFloorField(geometry, staticData, cacheFolder.toString());
+      assertTrue(Arrays.equals(computed.distances(), loaded.distances()));
+
+      final double[] computedDirection = new double[2];
+      final double[] loadedDirection = new double[2];
+      computed.direction(3.3, 7.7, computedDirection);
+      loaded.direction(3.3, 7.7, loadedDirection);
+      assertEquals(computedDirection[0], loadedDirection[0], EPSILON);
+      assertEquals(computedDirection[1], loadedDirection[1], EPSILON);
+
+      // another geometry is saved at another file
+      FloorFieldHelper.cachedFloorField(GeometryHelper.defaultGeometry(staticData.withDiameterOpening(2)), staticData,
+              cacheFolder.toString());
+      assertEquals(2, cacheFolder.toFile().list().length);
+    } finally {
+      for (final File file : cacheFolder.toFile().listFiles()) {
+        Files.delete(file.toPath());
+      }
+      Files.delete(cacheFolder);
+    }
+  }
+}
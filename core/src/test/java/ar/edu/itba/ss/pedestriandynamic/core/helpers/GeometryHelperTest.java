@@ -0,0 +1,119 @@
+package ar.edu.itba.ss.pedestriandynamic.core.helpers;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Geometry;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.models.Wall;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class GeometryHelperTest extends TestCase {
+  private static final double WIDTH = 20;
+  private static final double LENGTH = 20;
+  private static final double RADIO = 0.3;
+  private static final double EPSILON = 1e-9;
+
+  private static final String[] GEOMETRY = {
+          "# room with two exits and two obstacles",
+          "wall 0 0 0 20",
+          "wall 20 0 20 20",
+          "",
+          "wall 0 0 4.4 0",
+          "exit 4.4 5.6",
+          "exit 14.4 15.6",
+          "polygon 9 4 11 4 11 6 9 6",
+          "disc 10 12 1"
+  };
+
+  private static final String[] L_SHAPED_GEOMETRY = {
+          "# room without its top right quarter",
+          "wall 0 0 0 20",
+          "wall 0 20 10 20",
+          "wall 10 20 10 10",
+          "wall 10 10 20 10",
+          "wall 20 10 20 0",
+          "wall 0 0 4.4 0",
+          "wall 5.6 0 20 0",
+          "exit 4.4 5.6"
+  };
+
+  private StaticData staticData;
+  private Geometry geometry;
+
+  @Override
+  protected void setUp() throws IOException {
+    staticData = StaticData.builder(100, WIDTH, LENGTH, 1.2, 0.5, 0.7, 80, 1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2)
+            .build();
+    geometry = loadGeometry(GEOMETRY);
+  }
+
+  public void testLoadGeometry() {
+    // 3 walls and 4 edges of the polygon; the disc is not made of walls
+    assertEquals(3 + 4, geometry.walls().size());
+    assertEquals(1, geometry.obstacles().size());
+    assertEquals(1, geometry.discs().size());
+    assertEquals(2, geometry.exits().size());
+    // free ends of the outline, but the first exit's extreme, and the polygon's vertices
+    assertEquals(3 + 4, geometry.corners().size());
+
+    // coordinates are moved to the system's ones
+    final Wall leftWall = geometry.walls().get(0);
+    assertEquals(staticData.fallLength(), leftWall.yFrom(), EPSILON);
+    assertEquals(staticData.fallLength() + LENGTH, leftWall.yTo(), EPSILON);
+    assertEquals(5, geometry.exits().get(0).center().x(), EPSILON);
+    assertEquals(staticData.fallLength(), geometry.exits().get(1).y(), EPSILON);
+    assertEquals(staticData.fallLength() + 12, geometry.discs().get(0).y(), EPSILON);
+  }
+
+  public void testIsFree() {
+    assertTrue(isFree(5, 10));
+    // over a wall
+    assertFalse(isFree(RADIO / 2, 10));
+    // inside the polygon, far from its edges
+    assertFalse(isFree(10, 5));
+    // inside the disc, and overlapping its border
+    assertFalse(isFree(10, 12));
+    assertFalse(isFree(10 + 1 + RADIO / 2, 12));
+    assertTrue(isFree(10 + 1 + 1.1 * RADIO, 12));
+  }
+
+  public void testIsFreeInsideOutline() throws IOException {
+    geometry = loadGeometry(L_SHAPED_GEOMETRY);
+    assertTrue(isFree(5, 15));
+    assertTrue(isFree(15, 5));
+    // within the room's span, but out of its outline
+    assertFalse(isFree(15, 15));
+    // in line with the outline's vertices
+    assertTrue(isFree(5, 10));
+    assertFalse(isFree(15, 10 + 2 * RADIO));
+  }
+
+  public void testDefaultGeometry() {
+    final Geometry defaultGeometry = GeometryHelper.defaultGeometry(staticData);
+    assertEquals(4, defaultGeometry.walls().size());
+    assertEquals(1, defaultGeometry.exits().size());
+    assertEquals(staticData.openingCenter(), defaultGeometry.exits().get(0).center());
+
+    // an endless corridor has neither walls nor exits at its bottom
+    final Geometry corridor = GeometryHelper.defaultGeometry(staticData.withPeriodicY(true));
+    assertEquals(2, corridor.walls().size());
+    assertTrue(corridor.exits().isEmpty());
+  }
+
+  private Geometry loadGeometry(final String[] lines) throws IOException {
+    final Path geometryFile = Files.createTempFile("geometry", ".dat");
+    Files.write(geometryFile, Arrays.asList(lines));
+    final Geometry loadedGeometry = GeometryHelper.loadGeometry(geometryFile.toString(), staticData);
+    Files.delete(geometryFile);
+    return loadedGeometry;
+  }
+
+  private boolean isFree(final double x, final double y) {
+    return GeometryHelper.isFree(geometry,
+            Particle.builder(x, staticData.fallLength() + y).radio(RADIO).build());
+  }
+}
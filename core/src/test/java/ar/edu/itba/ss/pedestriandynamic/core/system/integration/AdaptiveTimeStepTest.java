@@ -0,0 +1,119 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.models.IntegratorType;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class AdaptiveTimeStepTest extends TestCase {
+  private static final double MIN_DT = 1e-4;
+  private static final double MAX_DT = 1e-3;
+  private static final double MAX_OVERLAP = 1e-3;
+  private static final double MAX_ERROR = 1e-7;
+  // default gear's order plus 1
+  private static final int GEAR5_ERROR_ORDER = 6;
+  // not a multiple of any delta time
+  private static final double DELTA_2 = 0.0123;
+  private static final int N_OUTPUTS = 2000;
+  private static final long SEED = 7;
+
+  public void testGrowsUpToMaxDtWhileWalkingFreely() {
+    final AdaptiveTimeStep adaptiveTimeStep = new AdaptiveTimeStep(MIN_DT, MAX_DT, MAX_OVERLAP, MAX_ERROR, GEAR5_ERROR_ORDER);
+    assertEquals(MIN_DT, adaptiveTimeStep.dt());
+
+    for (int i = 0; i < 10; i++) {
+      final double dt = adaptiveTimeStep.dt();
+      adaptiveTimeStep.stepped(dt, 0, 0, 0);
+      // at most twice as large on each step
+      assertTrue(adaptiveTimeStep.dt() <= 2 * dt);
+    }
+    assertEquals(MAX_DT, adaptiveTimeStep.dt());
+  }
+
+  public void testMinDtWhileCompressed() {
+    final AdaptiveTimeStep adaptiveTimeStep = walkingFreely();
+    adaptiveTimeStep.stepped(MAX_DT, 2 * MAX_OVERLAP, 0, 0);
+    assertEquals(MIN_DT, adaptiveTimeStep.dt());
+  }
+
+  public void testContactSpeedLimit() {
+    final AdaptiveTimeStep adaptiveTimeStep = walkingFreely();
+    // overlaps should not change by more than a tenth of the max overlap on one step
+    final double contactSpeed = 0.5;
+    adaptiveTimeStep.stepped(MAX_DT, MAX_OVERLAP / 2, contactSpeed, 0);
+    assertEquals(0.1 * MAX_OVERLAP / contactSpeed, adaptiveTimeStep.dt(), 1e-15);
+  }
+
+  public void testErrorLimit() {
+    final AdaptiveTimeStep adaptiveTimeStep = walkingFreely();
+    // delta R2 of gear 5 grows as dt^6 => 64 times the max error needs half the delta time
+    adaptiveTimeStep.stepped(MAX_DT, 0, 0, 64 * MAX_ERROR);
+    assertEquals(0.9 * MAX_DT / 2, adaptiveTimeStep.dt(), 1e-15);
+    // never below the min delta time
+    adaptiveTimeStep.stepped(MAX_DT, 0, 0, 1e12 * MAX_ERROR);
+    assertEquals(MIN_DT, adaptiveTimeStep.dt());
+  }
+
+  public void testVerletErrorLimit() {
+    final StaticData staticData = StaticData.builder(10, 5, 5, 1.2, 0.5, 0.7, 80, 1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2)
+            .integrator(IntegratorType.VELOCITY_VERLET).build();
+    final AdaptiveTimeStep adaptiveTimeStep = walkingFreely(AdaptiveTimeStep.errorOrder(staticData));
+    // delta R2 of Verlet methods grows as dt^3 => 8 times the max error needs half the delta time
+    adaptiveTimeStep.stepped(MAX_DT, 0, 0, 8 * MAX_ERROR);
+    assertEquals(0.9 * MAX_DT / 2, adaptiveTimeStep.dt(), 1e-15);
+  }
+
+  public void testErrorOrders() {
+    final StaticData staticData = StaticData.builder(10, 5, 5, 1.2, 0.5, 0.7, 80, 1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2)
+            .build();
+    assertEquals(GEAR5_ERROR_ORDER, AdaptiveTimeStep.errorOrder(staticData));
+    assertEquals(3, AdaptiveTimeStep.errorOrder(staticData.withGearOrder(2)));
+    assertEquals(3, AdaptiveTimeStep.errorOrder(staticData.withIntegrator(IntegratorType.LEAPFROG)));
+  }
+
+  public void testOutputsReachedExactly() {
+    final AdaptiveTimeStep adaptiveTimeStep = new AdaptiveTimeStep(MIN_DT, MAX_DT, MAX_OVERLAP, MAX_ERROR, GEAR5_ERROR_ORDER);
+    final Random random = new Random(SEED);
+    double time = 0;
+    long output = 1;
+    while (output <= N_OUTPUTS) {
+      // same as the simulation: the next output's time is not accumulated, so as it is not rounded
+      final double nextOutputTime = DELTA_2 * output;
+      final double dt = adaptiveTimeStep.dt();
+      final double stepDt = adaptiveTimeStep.stepDt(time, nextOutputTime);
+      assertTrue(stepDt > 0 && stepDt <= dt * (1 + 1e-6));
+      // no tiny step only so as to reach an output
+      assertTrue(stepDt >= dt / 4);
+      time = AdaptiveTimeStep.timeAfter(time, stepDt, nextOutputTime);
+      assertTrue(time <= nextOutputTime);
+      if (time == nextOutputTime) {
+        output++;
+      }
+      // compressed, in contact or walking freely, so as delta time changes often
+      switch (random.nextInt(3)) {
+        case 0:
+          adaptiveTimeStep.stepped(stepDt, 2 * MAX_OVERLAP, 0, 0);
+          break;
+        case 1:
+          adaptiveTimeStep.stepped(stepDt, MAX_OVERLAP / 2, random.nextDouble(), 0);
+          break;
+        default:
+          adaptiveTimeStep.stepped(stepDt, 0, 0, 0);
+          break;
+      }
+    }
+  }
+
+  private static AdaptiveTimeStep walkingFreely() {
+    return walkingFreely(GEAR5_ERROR_ORDER);
+  }
+
+  private static AdaptiveTimeStep walkingFreely(final int errorOrder) {
+    final AdaptiveTimeStep adaptiveTimeStep = new AdaptiveTimeStep(MIN_DT, MAX_DT, MAX_OVERLAP, MAX_ERROR, errorOrder);
+    while (adaptiveTimeStep.dt() < MAX_DT) {
+      adaptiveTimeStep.stepped(adaptiveTimeStep.dt(), 0, 0, 0);
+    }
+    return adaptiveTimeStep;
+  }
+}
@@ -0,0 +1,133 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.core.helpers.FloorFieldHelper;
+import ar.edu.itba.ss.pedestriandynamic.core.helpers.GeometryHelper;
+import ar.edu.itba.ss.pedestriandynamic.models.Geometry;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import junit.framework.Assert;
+
+import java.util.*;
+
+/**
+ * Default rooms with {@code N} pedestrians placed at random, evacuated with a fixed delta time, {@code delta1}.
+ * <P>
+ * Pedestrians' dynamics is chaotic, so any change on forces, even by rounding, makes single evacuations diverge.
+ * Hence, settings are compared with the statistics of the evacuations of several rooms.
+ */
+/* package-private */ final class EvacuationRooms {
+  private static final double MAX_SIMULATION_TIME = 60;
+
+  private EvacuationRooms() {
+  }
+
+  /**
+   * @return system of the room whose pedestrians are placed at random with the given seed
+   */
+  /* package-private */ static GearPedestrianDynamicsSystem system(final StaticData staticData, final long seed) {
+    final Geometry geometry = GeometryHelper.defaultGeometry(staticData);
+    return new GearPedestrianDynamicsSystem(pedestrians(staticData, new Random(seed)), geometry,
+            FloorFieldHelper.floorField(geometry, staticData), staticData.withRealN(staticData.N()));
+  }
+
+  /**
+   * @return time taken by all the pedestrians of a room, placed at random with the given seed, to go out of it
+   */
+  /* package-private */ static double evacuationTime(final StaticData staticData, final long seed) {
+    return flowTimes(staticData, seed)[staticData.N() - 1];
+  }
+
+  /**
+   * @return times at which each of the pedestrians of a room, placed at random with the given seed, went out of it,
+   * in the order they did
+   */
+  /* package-private */ static double[] flowTimes(final StaticData staticData, final long seed) {
+    final GearPedestrianDynamicsSystem system = system(staticData, seed);
+    final double[] flowTimes = new double[staticData.N()];
+    int nFlowed = 0;
+    double time = 0;
+    while (nFlowed < staticData.N()) {
+      Assert.assertTrue("Room was not evacuated", time < MAX_SIMULATION_TIME);
+      system.evolveSystem(staticData.delta1());
+      time += staticData.delta1();
+      for (long i = system.getSystemData().nParticlesJustFlowed(); i > 0; i--) {
+        flowTimes[nFlowed++] = time;
+      }
+    }
+    return flowTimes;
+  }
+
+  /**
+   * @return pedestrians per second going out of a room while they do steadily, i.e., from the time the first fifth
+   * of them has gone out to the time the last fifth starts doing so; unlike the evacuation time, it does not depend
+   * on the time pedestrians take to reach the exit
+   */
+  /* package-private */ static double steadyFlow(final double[] flowTimes) {
+    final int first = flowTimes.length / 5;
+    final int last = flowTimes.length - 1 - flowTimes.length / 5;
+    return (last - first) / (flowTimes[last] - flowTimes[first]);
+  }
+
+  /* package-private */ static double mean(final double[] values) {
+    double sum = 0;
+    for (final double value : values) {
+      sum += value;
+    }
+    return sum / values.length;
+  }
+
+  /* package-private */ static double variance(final double[] values) {
+    final double mean = mean(values);
+    double sum = 0;
+    for (final double value : values) {
+      sum += (value - mean) * (value - mean);
+    }
+    return sum / (values.length - 1);
+  }
+
+  /**
+   * Asserts that both systems' particles of each slot are exactly at the same position, with exactly the same velocity
+   */
+  /* package-private */ static void assertSameParticles(final GearPedestrianDynamicsSystem expected,
+                                                       final GearPedestrianDynamicsSystem actual) {
+    final Particle[] expectedParticles = bySlot(expected);
+    final Particle[] actualParticles = bySlot(actual);
+    for (int slot = 0; slot < expectedParticles.length; slot++) {
+      Assert.assertEquals(expectedParticles[slot].x(), actualParticles[slot].x(), 0);
+      Assert.assertEquals(expectedParticles[slot].y(), actualParticles[slot].y(), 0);
+      Assert.assertEquals(expectedParticles[slot].vx(), actualParticles[slot].vx(), 0);
+      Assert.assertEquals(expectedParticles[slot].vy(), actualParticles[slot].vy(), 0);
+    }
+  }
+
+  /**
+   * @return the given system's particles, indexed by their slot
+   */
+  /* package-private */ static Particle[] bySlot(final GearPedestrianDynamicsSystem system) {
+    final Particle[] particles = new Particle[system.getSystemData().particles().size()];
+    for (final Particle particle : system.getSystemData().particles()) {
+      particles[particle.slot()] = particle;
+    }
+    return particles;
+  }
+
+  // pedestrians at random, not overlapping each other nor the walls, in the order they were placed, so as rooms of
+  // the same seed are iterated in the same order, and their forces summed in it
+  private static Collection<Particle> pedestrians(final StaticData staticData, final Random random) {
+    final List<Particle> pedestrians = new ArrayList<>(staticData.N());
+    while (pedestrians.size() < staticData.N()) {
+      final double radio = (staticData.minDiameter()
+              + random.nextDouble() * (staticData.maxDiameter() - staticData.minDiameter())) / 2;
+      final double x = radio + random.nextDouble() * (staticData.width() - 2 * radio);
+      final double y = staticData.fallLength() + radio + random.nextDouble() * (staticData.length() - 2 * radio);
+      boolean overlaps = false;
+      for (final Particle pedestrian : pedestrians) {
+        overlaps |= Math.hypot(pedestrian.x() - x, pedestrian.y() - y) < pedestrian.radio() + radio;
+      }
+      if (!overlaps) {
+        pedestrians.add(Particle.builder(x, y).radio(radio).mass(staticData.mass()).build());
+      }
+    }
+    return pedestrians;
+  }
+}
@@ -0,0 +1,73 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.models.ForceEvaluationType;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
+import junit.framework.TestCase;
+
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.system;
+
+/**
+ * Validates the particles' and social forces accumulated per pair against Newton's third law, and against the ones
+ * evaluated per particle with the same predicted particles, on each step of a room.
+ */
+public class ForcesPerPairTest extends TestCase {
+  private static final int N = 30;
+  private static final double DT = 1e-3;
+  private static final long SEED = 11;
+  private static final int N_STEPS = 300;
+  private static final double SOCIAL_CUTOFF = 0.5;
+  // forces are sums of up to N terms of up to a few thousands newtons => their rounding errors are far below it
+  private static final double ROUNDING_DELTA = 1e-8;
+
+  public void testZeroNetForce() {
+    for (final boolean primitiveForces : new boolean[] {false, true}) {
+      assertZeroNetForce(staticData().withPrimitiveForces(primitiveForces));
+      assertZeroNetForce(staticData().withPrimitiveForces(primitiveForces).withSocialCutoff(SOCIAL_CUTOFF));
+    }
+  }
+
+  public void testSameAsPerParticle() {
+    // walls' forces are not accumulated per pair, so a room without walls is taken: a periodic one on both axes
+    final StaticData staticData = staticData().withPeriodicX(true).withPeriodicY(true);
+    for (final boolean primitiveForces : new boolean[] {false, true}) {
+      assertSameAsPerParticle(staticData.withPrimitiveForces(primitiveForces));
+      assertSameAsPerParticle(staticData.withPrimitiveForces(primitiveForces).withSocialCutoff(SOCIAL_CUTOFF));
+    }
+  }
+
+  private static void assertZeroNetForce(final StaticData staticData) {
+    final GearPedestrianDynamicsSystem system = system(staticData, SEED);
+    for (int i = 0; i < N_STEPS; i++) {
+      system.evolveSystem(DT);
+      double netForceX = 0;
+      double netForceY = 0;
+      for (final Particle particle : system.getSystemData().lastPredictedParticles()) {
+        final Vector2D pairForce = system.getSystemData().pairForce(particle.slot());
+        netForceX += pairForce.x();
+        netForceY += pairForce.y();
+      }
+      assertEquals(0, netForceX, ROUNDING_DELTA);
+      assertEquals(0, netForceY, ROUNDING_DELTA);
+    }
+  }
+
+  private static void assertSameAsPerParticle(final StaticData staticData) {
+    final GearPedestrianDynamicsSystem system = system(staticData, SEED);
+    for (int i = 0; i < N_STEPS; i++) {
+      system.evolveSystem(DT);
+      for (final Particle particle : system.getSystemData().lastPredictedParticles()) {
+        final Vector2D pairForce = system.getSystemData().pairForce(particle.slot());
+        final Vector2D particleForce = system.getSystemData().particleForce(particle);
+        assertEquals(particleForce.x(), pairForce.x(), ROUNDING_DELTA);
+        assertEquals(particleForce.y(), pairForce.y(), ROUNDING_DELTA);
+      }
+    }
+  }
+
+  private static StaticData staticData() {
+    return StaticData.builder(N, 5, 5, 1.2, 0.5, 0.7, 80, 1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2).delta1(DT)
+            .forceEvaluation(ForceEvaluationType.PER_PAIR).build();
+  }
+}
@@ -0,0 +1,54 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.models.ForceEvaluationType;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import junit.framework.TestCase;
+
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.assertSameParticles;
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.system;
+
+/**
+ * Validates that forces calculated over primitive doubles give exactly the same particles as the ones calculated
+ * over {@code Vector2D}s, step after step, as pedestrians' dynamics is chaotic and any rounding difference would
+ * make both rooms diverge.
+ */
+public class PrimitiveForcesTest extends TestCase {
+  private static final int N = 30;
+  private static final double DT = 1e-3;
+  private static final long SEED = 11;
+  private static final int N_STEPS = 1000;
+  private static final double SOCIAL_CUTOFF = 0.5;
+
+  public void testPerParticle() {
+    assertSameAsVectorForces(staticData());
+  }
+
+  public void testPerPair() {
+    assertSameAsVectorForces(staticData().withForceEvaluation(ForceEvaluationType.PER_PAIR));
+  }
+
+  public void testSocialCutoff() {
+    assertSameAsVectorForces(staticData().withSocialCutoff(SOCIAL_CUTOFF));
+    assertSameAsVectorForces(staticData().withSocialCutoff(SOCIAL_CUTOFF)
+            .withForceEvaluation(ForceEvaluationType.PER_PAIR));
+  }
+
+  public void testPeriodicX() {
+    assertSameAsVectorForces(staticData().withPeriodicX(true));
+    assertSameAsVectorForces(staticData().withPeriodicX(true).withForceEvaluation(ForceEvaluationType.PER_PAIR));
+  }
+
+  private static void assertSameAsVectorForces(final StaticData staticData) {
+    final GearPedestrianDynamicsSystem vectorSystem = system(staticData.withPrimitiveForces(false), SEED);
+    final GearPedestrianDynamicsSystem primitiveSystem = system(staticData.withPrimitiveForces(true), SEED);
+    for (int i = 0; i < N_STEPS; i++) {
+      vectorSystem.evolveSystem(DT);
+      primitiveSystem.evolveSystem(DT);
+    }
+    assertSameParticles(vectorSystem, primitiveSystem);
+  }
+
+  private static StaticData staticData() {
+    return StaticData.builder(N, 5, 5, 1.2, 0.5, 0.7, 80, 1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2).delta1(DT).build();
+  }
+}
@@ -0,0 +1,98 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.ParticleType;
+import ar.edu.itba.ss.pedestriandynamic.models.ParticlesArrays;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.services.kernels.ScalarForcesKernel;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that the {@link ScalarForcesKernel} calculates the same forces as {@link PrimitiveForces} does
+ */
+public class ScalarForcesKernelTest extends TestCase {
+  private static final double SIDE = 10;
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.58;
+  private static final double SOCIAL_CUTOFF = 1;
+  private static final int N_PARTICLES = 300;
+  private static final double MAX_SPEED = 1.5;
+  private static final double MAX_SHIFT = 0.01;
+  // forces are exactly the same, but they are summed in another order
+  private static final double MAX_RELATIVE_ERROR = 1e-12;
+  private static final long SEED = 42;
+
+  public void testSameForcesAsPrimitiveForces() {
+    final StaticData staticData = StaticData.builder(N_PARTICLES, SIDE, SIDE, 1.2, MIN_DIAMETER, MAX_DIAMETER, 80,
+            1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2).build();
+    final Random random = new Random(SEED);
+    final Particle[] predictedParticles = new Particle[N_PARTICLES];
+    final Particle[] currentParticles = new Particle[N_PARTICLES];
+    final ParticlesArrays particles = new ParticlesArrays(N_PARTICLES);
+    for (int slot = 0; slot < N_PARTICLES; slot++) {
+      final double diameter = MIN_DIAMETER + random.nextDouble() * (MAX_DIAMETER - MIN_DIAMETER);
+      currentParticles[slot] = Particle.builder(random.nextDouble() * SIDE, random.nextDouble() * SIDE)
+              .radio(diameter / 2).slot(slot).mass(80).tau(0.5).drivingSpeed(1.2)
+              .type(slot % 7 == 0 ? ParticleType.WALL : ParticleType.PEDESTRIAN)
+              .vx((2 * random.nextDouble() - 1) * MAX_SPEED).vy((2 * random.nextDouble() - 1) * MAX_SPEED)
+              .build();
+      predictedParticles[slot] = currentParticles[slot]
+              .withX(currentParticles[slot].x() + (2 * random.nextDouble() - 1) * MAX_SHIFT)
+              .withY(currentParticles[slot].y() + (2 * random.nextDouble() - 1) * MAX_SHIFT);
+      particles.setSocial(currentParticles[slot]);
+      particles.set(predictedParticles[slot]);
+      particles.setDirection(slot, 0.6, -0.8);
+    }
+    final CompactNeighbours neighbours = new CompactNeighbours(N_PARTICLES);
+    final List<Particle> predicted = new ArrayList<>();
+    Collections.addAll(predicted, predictedParticles);
+    new CellIndexMethodImpl(SIDE, SIDE, MAX_DIAMETER, 0).run(predicted, neighbours);
+    final CompactNeighbours socialNeighbours = new CompactNeighbours(N_PARTICLES);
+    final List<Particle> current = new ArrayList<>();
+    Collections.addAll(current, currentParticles);
+    new CellIndexMethodImpl(SIDE, SIDE, MAX_DIAMETER, SOCIAL_CUTOFF).run(current, socialNeighbours);
+
+    new ScalarForcesKernel().forces(staticData, particles, neighbours, socialNeighbours);
+
+    final PrimitiveForces forces = new PrimitiveForces(staticData, Collections.emptyList(), Collections.emptyList(),
+            null);
+    for (int slot = 0; slot < N_PARTICLES; slot++) {
+      final Particle particle = predictedParticles[slot];
+      double normalForce = 0;
+      double forceX = 0;
+      double forceY = 0;
+      for (int k = neighbours.from(slot); k < neighbours.to(slot); k++) {
+        if (forces.neighbourForce(particle, predictedParticles[neighbours.neighbour(k)], 0, 0)) {
+          normalForce += forces.normalForce();
+          forceX += forces.forceX();
+          forceY += forces.forceY();
+        }
+      }
+      if (particle.type() == ParticleType.PEDESTRIAN) {
+        for (int k = socialNeighbours.from(slot); k < socialNeighbours.to(slot); k++) {
+          final Particle socialNeighbour = currentParticles[socialNeighbours.neighbour(k)];
+          if (socialNeighbour.type() == ParticleType.PEDESTRIAN) {
+            forces.socialForce(particle, socialNeighbour, 0, 0);
+            forceX += forces.forceX();
+            forceY += forces.forceY();
+          }
+        }
+      }
+      forces.drivingForceWithDirection(particle, 0.6, -0.8);
+      forceX += forces.forceX();
+      forceY += forces.forceY();
+
+      assertEquals(normalForce, particles.normalForce()[slot], 0);
+      final double maxError = MAX_RELATIVE_ERROR * Math.max(1, Math.hypot(forceX, forceY));
+      assertEquals(forceX, particles.forceX()[slot], maxError);
+      assertEquals(forceY, particles.forceY()[slot], maxError);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.models.ForceEvaluationType;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import junit.framework.TestCase;
+
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.assertSameParticles;
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.evacuationTime;
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.mean;
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.system;
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.variance;
+
+/**
+ * Validates holding social and driving forces over several steps against evaluating them on every step, with the
+ * statistics of the evacuations of several rooms; see {@link EvacuationRooms}.
+ */
+public class SlowForcesIntervalEvacuationTest extends TestCase {
+  private static final int N = 30;
+  private static final double DT = 1e-3;
+  private static final int SLOW_FORCES_INTERVAL = 10;
+  private static final long[] SEEDS = {11, 22, 33, 44, 55};
+  private static final int N_STEPS = 1000;
+
+  public void testEvacuationStatistics() {
+    final StaticData staticData = staticData();
+
+    final double[] everyStepTimes = new double[SEEDS.length];
+    final double[] heldTimes = new double[SEEDS.length];
+    for (int i = 0; i < SEEDS.length; i++) {
+      everyStepTimes[i] = evacuationTime(staticData, SEEDS[i]);
+      heldTimes[i] = evacuationTime(staticData.withSlowForcesInterval(SLOW_FORCES_INTERVAL), SEEDS[i]);
+    }
+
+    final double everyStepMeanTime = mean(everyStepTimes);
+    final double heldMeanTime = mean(heldTimes);
+    final double standardError = Math.sqrt(variance(everyStepTimes) / SEEDS.length);
+    assertEquals(everyStepMeanTime, heldMeanTime, 2 * standardError);
+  }
+
+  public void testRefreshedAsOnEveryStep() {
+    // forces are refreshed on the first step, so it is exactly the same as when they are evaluated on every step
+    for (final boolean primitiveForces : new boolean[] {false, true}) {
+      final StaticData staticData = staticData().withPrimitiveForces(primitiveForces);
+      final GearPedestrianDynamicsSystem everyStepSystem = system(staticData, SEEDS[0]);
+      final GearPedestrianDynamicsSystem heldSystem =
+              system(staticData.withSlowForcesInterval(SLOW_FORCES_INTERVAL), SEEDS[0]);
+      everyStepSystem.evolveSystem(DT);
+      heldSystem.evolveSystem(DT);
+      assertSameParticles(everyStepSystem, heldSystem);
+    }
+  }
+
+  public void testPrimitiveHeldForces() {
+    final StaticData staticData = staticData().withSlowForcesInterval(SLOW_FORCES_INTERVAL);
+    final GearPedestrianDynamicsSystem system = system(staticData, SEEDS[0]);
+    final GearPedestrianDynamicsSystem primitiveSystem = system(staticData.withPrimitiveForces(true), SEEDS[0]);
+    for (int i = 0; i < N_STEPS; i++) {
+      system.evolveSystem(DT);
+      primitiveSystem.evolveSystem(DT);
+    }
+    assertSameParticles(system, primitiveSystem);
+  }
+
+  public void testForcesPerPairAreNotHeld() {
+    final StaticData staticData = staticData().withSlowForcesInterval(SLOW_FORCES_INTERVAL)
+            .withForceEvaluation(ForceEvaluationType.PER_PAIR);
+    try {
+      system(staticData, SEEDS[0]);
+      fail("Slow forces should not be held when forces are evaluated per pair");
+    } catch (final IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+  public void testAdaptiveDeltaTimeIsNotHeld() {
+    final StaticData staticData = staticData().withSlowForcesInterval(SLOW_FORCES_INTERVAL).withAdaptiveDelta1(true);
+    try {
+      system(staticData, SEEDS[0]);
+      fail("Slow forces should not be held when delta time is adaptive");
+    } catch (final IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+  private static StaticData staticData() {
+    return StaticData.builder(N, 5, 5, 1.2, 0.5, 0.7, 80, 1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2).delta1(DT).build();
+  }
+}
@@ -0,0 +1,58 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.models.ForceEvaluationType;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import junit.framework.TestCase;
+
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.assertSameParticles;
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.system;
+
+/**
+ * Validates that a social force's cutoff larger than the room gives exactly the same particles as considering the
+ * social force between all the pairs of pedestrians, step after step.
+ */
+public class SocialForceCutoffTest extends TestCase {
+  private static final int N = 30;
+  private static final double WIDTH = 5;
+  private static final double LENGTH = 5;
+  private static final double DT = 1e-3;
+  private static final long SEED = 11;
+  private static final int N_STEPS = 1000;
+
+  public void testCutoffLargerThanRoom() {
+    final StaticData staticData = staticData();
+    // larger than the room's diagonal, including the space below its exit
+    final double cutoff = 2 * Math.hypot(WIDTH, staticData.totalSystemLength());
+    assertSameAsAllPairs(staticData, cutoff);
+    assertSameAsAllPairs(staticData.withPrimitiveForces(true), cutoff);
+    assertSameAsAllPairs(staticData.withForceEvaluation(ForceEvaluationType.PER_PAIR), cutoff);
+  }
+
+  public void testToleranceLargerThanRoom() {
+    // a tolerance so low that its cutoff, - B * ln(tolerance), is larger than the room
+    final StaticData staticData = staticData().withSocialTolerance(Double.MIN_VALUE);
+    assertTrue(staticData.socialForceCutoff() > Math.hypot(WIDTH, staticData.totalSystemLength()));
+    final GearPedestrianDynamicsSystem allPairsSystem = system(staticData(), SEED);
+    final GearPedestrianDynamicsSystem toleranceSystem = system(staticData, SEED);
+    for (int i = 0; i < N_STEPS; i++) {
+      allPairsSystem.evolveSystem(DT);
+      toleranceSystem.evolveSystem(DT);
+    }
+    assertSameParticles(allPairsSystem, toleranceSystem);
+  }
+
+  private static void assertSameAsAllPairs(final StaticData staticData, final double cutoff) {
+    final GearPedestrianDynamicsSystem allPairsSystem = system(staticData, SEED);
+    final GearPedestrianDynamicsSystem cutoffSystem = system(staticData.withSocialCutoff(cutoff), SEED);
+    for (int i = 0; i < N_STEPS; i++) {
+      allPairsSystem.evolveSystem(DT);
+      cutoffSystem.evolveSystem(DT);
+    }
+    assertSameParticles(allPairsSystem, cutoffSystem);
+  }
+
+  private static StaticData staticData() {
+    return StaticData.builder(N, WIDTH, LENGTH, 1.2, 0.5, 0.7, 80, 1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2)
+            .delta1(DT).build();
+  }
+}
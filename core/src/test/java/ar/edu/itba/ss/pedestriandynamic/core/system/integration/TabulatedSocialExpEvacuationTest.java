@@ -0,0 +1,59 @@
+package ar.edu.itba.ss.pedestriandynamic.core.system.integration;
+
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import junit.framework.TestCase;
+
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.flowTimes;
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.mean;
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.steadyFlow;
+import static ar.edu.itba.ss.pedestriandynamic.core.system.integration.EvacuationRooms.variance;
+
+/**
+ * Validates the tabulated exponential of social forces against the exact one with evacuation statistics.
+ * <P>
+ * Pedestrians' dynamics is chaotic, so any change on forces, even by rounding, makes single evacuations diverge.
+ * Hence, evacuation times and mean flows are compared over several rooms: the tabulated exponential should not
+ * change them more than the dispersion between the evacuations of the different rooms. Mean flows are measured while
+ * pedestrians go out steadily, so they are not just the evacuation times' inverses.
+ */
+public class TabulatedSocialExpEvacuationTest extends TestCase {
+  private static final int N = 30;
+  private static final double WIDTH = 5;
+  private static final double LENGTH = 5;
+  private static final double DIAMETER_OPENING = 1.2;
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.7;
+  private static final double MASS = 80;
+  private static final double KN = 1.2e5;
+  private static final double KT = 2.4e5;
+  private static final double A = 2000;
+  private static final double B = 0.08;
+  private static final double TAU = 0.5;
+  private static final double DRIVING_SPEED = 1.2;
+
+  private static final double MAX_RELATIVE_ERROR = 1e-4;
+  private static final long[] SEEDS = {11, 22, 33, 44, 55};
+  private static final double DT = 1e-3;
+
+  public void testEvacuationStatistics() {
+    final StaticData staticData = StaticData.builder(N, WIDTH, LENGTH, DIAMETER_OPENING, MIN_DIAMETER, MAX_DIAMETER,
+            MASS, KN, KT, A, B, TAU, DRIVING_SPEED).delta1(DT).build();
+
+    final double[] exactTimes = new double[SEEDS.length];
+    final double[] tabulatedTimes = new double[SEEDS.length];
+    final double[] exactFlows = new double[SEEDS.length];
+    final double[] tabulatedFlows = new double[SEEDS.length];
+    for (int i = 0; i < SEEDS.length; i++) {
+      final double[] exactFlowTimes = flowTimes(staticData, SEEDS[i]);
+      final double[] tabulatedFlowTimes = flowTimes(staticData.withSocialExpError(MAX_RELATIVE_ERROR), SEEDS[i]);
+      exactTimes[i] = exactFlowTimes[N - 1];
+      tabulatedTimes[i] = tabulatedFlowTimes[N - 1];
+      exactFlows[i] = steadyFlow(exactFlowTimes);
+      tabulatedFlows[i] = steadyFlow(tabulatedFlowTimes);
+    }
+
+    assertEquals(mean(exactTimes), mean(tabulatedTimes), 2 * Math.sqrt(variance(exactTimes) / SEEDS.length));
+    // pedestrians per second
+    assertEquals(mean(exactFlows), mean(tabulatedFlows), 2 * Math.sqrt(variance(exactFlows) / SEEDS.length));
+  }
+}
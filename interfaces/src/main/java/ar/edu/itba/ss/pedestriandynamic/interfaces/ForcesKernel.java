@@ -0,0 +1,36 @@
+package ar.edu.itba.ss.pedestriandynamic.interfaces;
+
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.ParticlesArrays;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+
+/**
+ * Calculates the forces that particles apply to each other, and each pedestrian's driving force, over a structure
+ * of arrays, so as implementations may calculate several of them at once.
+ * <P>
+ * Implementations are loaded with {@link java.util.ServiceLoader}, so they may come from an optional module;
+ * they should have a public constructor without arguments.
+ */
+public interface ForcesKernel {
+
+  /**
+   * For each slot of {@code particles}, calculates and saves at its {@code forceX} and {@code forceY} the sum of:
+   * <ul>
+   *   <li>the (normal + tangential) forces that its neighbours apply to it, between predicted particles;</li>
+   *   <li>if it is a pedestrian, the social forces that its social neighbours which are pedestrians apply to it,
+   *   against their current positions;</li>
+   *   <li>if it is a pedestrian, its driving force along its desired direction.</li>
+   * </ul>
+   * The sum of the modules of the normal forces is saved at its {@code normalForce}.
+   * <P>
+   * Limits are not periodic. If two particles are at exactly the same position, the forces of both are NaN.
+   *
+   * @param staticData system's constants
+   * @param particles values of the particles, and where forces are saved
+   * @param neighbours neighbours of each predicted particle
+   * @param socialNeighbours neighbours of each current particle within the social force's cutoff;
+   *                         null if the social force should be considered between any pair of pedestrians
+   */
+  void forces(StaticData staticData, ParticlesArrays particles,
+              CompactNeighbours neighbours, CompactNeighbours socialNeighbours);
+}
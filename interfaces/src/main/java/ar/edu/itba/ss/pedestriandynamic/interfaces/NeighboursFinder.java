@@ -1,10 +1,10 @@
 package ar.edu.itba.ss.pedestriandynamic.interfaces;
 
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
 import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 
 import java.util.Collection;
 import java.util.Map;
-import java.util.Set;
 
 public interface NeighboursFinder {
 
@@ -19,4 +19,28 @@ public interface NeighboursFinder {
    * each point collides
    */
   Map<Particle,Collection<Particle>> run(Collection<Particle> particles);
+
+  /**
+   * Same as {@link #run(Collection)}, but the result is saved in the given {@code neighbours} structure,
+   * indexed by each particle's {@code slot()}.
+   * <p>
+   * The default implementation is derived from {@link #run(Collection)}; implementations are encouraged to
+   * override it so as not to allocate any memory per call.
+   *
+   * @param particles collection containing the particles for the algorithm; all of them should have a slot
+   *                  lower than {@code neighbours.nSlots()}
+   * @param neighbours structure where the result is saved; it is cleared before being filled
+   */
+  default void run(final Collection<Particle> particles, final CompactNeighbours neighbours) {
+    neighbours.clear();
+    run(particles).forEach((particle, particleNeighbours) -> {
+      for (final Particle neighbour : particleNeighbours) {
+        // each pair is present twice at the map => add it once
+        if (particle.slot() < neighbour.slot()) {
+          neighbours.addPair(particle.slot(), neighbour.slot());
+        }
+      }
+    });
+    neighbours.build();
+  }
 }
@@ -0,0 +1,144 @@
+package ar.edu.itba.ss.pedestriandynamic.models;
+
+import java.util.Arrays;
+
+/**
+ * Neighbours of each particle saved in compressed sparse row (CSR) format, indexed by each particle's
+ * {@code slot()}.
+ * <P>
+ * The neighbours' slots of the particle with slot {@code i} are the ones saved at positions
+ * {@code from(i)} (inclusive) to {@code to(i)} (exclusive), and can be retrieved with {@code neighbour(k)}.
+ * <pre>
+ * {@code
+ *  for (int k = neighbours.from(slot) ; k < neighbours.to(slot) ; k++) {
+ *    final int neighbourSlot = neighbours.neighbour(k);
+ *    // ...
+ *  }
+ * }
+ * </pre>
+ * <P>
+ * This structure is meant to be reused between steps: once its arrays have grown to fit the system,
+ * clearing and filling it again does not allocate any memory.
+ * It is filled by adding each pair of neighbours once, with {@code addPair}, and then calling {@code build}.
+ */
+public final class CompactNeighbours {
+  private static final int INITIAL_PAIRS_CAPACITY = 128;
+
+  private final int nSlots;
+  private final int[] offsets;
+  private int[] neighbours;
+
+  /**
+   * Pairs added since the last {@code clear}, saved as consecutive slots
+   */
+  private int[] pairs;
+  private int nPairs;
+
+  /**
+   * @param nSlots number of slots, i.e., max particle's slot + 1
+   */
+  public CompactNeighbours(final int nSlots) {
+    if (nSlots < 0) {
+      throw new IllegalArgumentException("Number of slots should be >= 0");
+    }
+    this.nSlots = nSlots;
+    this.offsets = new int[nSlots + 1];
+    this.neighbours = new int[INITIAL_PAIRS_CAPACITY];
+    this.pairs = new int[INITIAL_PAIRS_CAPACITY];
+  }
+
+  public int nSlots() {
+    return nSlots;
+  }
+
+  /**
+   * @param slot a particle's slot
+   * @return the position of the first neighbour of the given slot
+   */
+  public int from(final int slot) {
+    return offsets[slot];
+  }
+
+  /**
+   * @param slot a particle's slot
+   * @return the position after the last neighbour of the given slot
+   */
+  public int to(final int slot) {
+    return offsets[slot + 1];
+  }
+
+  /**
+   * @param k a position between {@code from(slot)} and {@code to(slot)}
+   * @return the slot of the neighbour at the given position
+   */
+  public int neighbour(final int k) {
+    return neighbours[k];
+  }
+
+  public int nNeighbours(final int slot) {
+    return to(slot) - from(slot);
+  }
+
+  /**
+   * @return number of pairs of neighbours; each pair is counted once
+   */
+  public int nPairs() {
+    return nPairs;
+  }
+
+  /**
+   * Removes all the neighbours, so as the structure can be filled again
+   */
+  public void clear() {
+    nPairs = 0;
+    Arrays.fill(offsets, 0);
+  }
+
+  /**
+   * Adds a pair of neighbours. Each pair should be added only once.
+   * @param slot1 a particle's slot
+   * @param slot2 the slot of a neighbour of the particle with {@code slot1}
+   */
+  public void addPair(final int slot1, final int slot2) {
+    if (slot1 < 0 || slot1 >= nSlots || slot2 < 0 || slot2 >= nSlots) {
+      throw new IllegalArgumentException("Slots should be between 0 and " + (nSlots - 1));
+    }
+    if (2 * nPairs + 1 >= pairs.length) {
+      pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+    }
+    pairs[2 * nPairs] = slot1;
+    pairs[2 * nPairs + 1] = slot2;
+    nPairs ++;
+  }
+
+  /**
+   * Builds the rows with all the pairs added since the last {@code clear}.
+   * Neighbours of each row keep the order in which their pairs were added.
+   */
+  public void build() {
+    if (neighbours.length < 2 * nPairs) {
+      neighbours = new int[pairs.length];
+    }
+
+    // count neighbours of each slot...
+    for (int k = 0; k < 2 * nPairs; k++) {
+      offsets[pairs[k] + 1] ++;
+    }
+    // ... accumulate them so as each offset points to the start of its row...
+    for (int slot = 0; slot < nSlots; slot++) {
+      offsets[slot + 1] += offsets[slot];
+    }
+    // ... and fill rows, using each row's start as its cursor
+    for (int k = 0; k < nPairs; k++) {
+      final int slot1 = pairs[2 * k];
+      final int slot2 = pairs[2 * k + 1];
+      neighbours[offsets[slot1] ++] = slot2;
+      neighbours[offsets[slot2] ++] = slot1;
+    }
+    // cursors ended at the start of the next row => shift them back
+    for (int slot = nSlots; slot > 0; slot--) {
+      offsets[slot] = offsets[slot - 1];
+    }
+    offsets[0] = 0;
+  }
+}
@@ -0,0 +1,40 @@
+package ar.edu.itba.ss.pedestriandynamic.models;
+
+import org.immutables.builder.Builder;
+import org.immutables.value.Value;
+
+/**
+ * Static round obstacle of the room, as a column; a point if its radio is 0, as an exit's extreme.
+ * <P>
+ * It never moves, so it only pushes the pedestrians that touch it, as walls do.
+ */
+@Value.Immutable
+@Value.Style(
+        typeAbstract = "*Abs",
+        typeImmutable = "*",
+        get = ""
+)
+public abstract class DiscAbs {
+  @Builder.Parameter
+  public abstract double x();
+
+  @Builder.Parameter
+  public abstract double y();
+
+  @Value.Default
+  public double radio() {
+    return 0;
+  }
+
+  @Value.Derived
+  public Vector2D center() {
+    return Vector2D.builder(x(), y()).build();
+  }
+
+  @Value.Check
+  void checkParameters() {
+    if (radio() < 0) {
+      throw new IllegalArgumentException("Disc's radio should be >= 0");
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package ar.edu.itba.ss.pedestriandynamic.models;
+
+import org.immutables.builder.Builder;
+import org.immutables.value.Value;
+
+/**
+ * Opening of the room, at its bottom, through which pedestrians go out
+ */
+@Value.Immutable
+@Value.Style(
+        typeAbstract = "*Abs",
+        typeImmutable = "*",
+        get = ""
+)
+public abstract class ExitAbs {
+  @Builder.Parameter
+  public abstract double xFrom();
+
+  @Builder.Parameter
+  public abstract double xTo();
+
+  /**
+   * @return y of the room's bottom, where the exit is
+   */
+  @Builder.Parameter
+  public abstract double y();
+
+  @Value.Derived
+  public Vector2D center() {
+    return Vector2D.builder((xFrom() + xTo()) / 2, y()).build();
+  }
+
+  @Value.Check
+  void checkParameters() {
+    if (!(xTo() > xFrom())) {
+      throw new IllegalArgumentException("Exit's xTo should be > xFrom");
+    }
+  }
+}
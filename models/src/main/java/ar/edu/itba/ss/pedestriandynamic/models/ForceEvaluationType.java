@@ -0,0 +1,6 @@
+package ar.edu.itba.ss.pedestriandynamic.models;
+
+public enum ForceEvaluationType {
+  PER_PARTICLE,
+  PER_PAIR
+}
@@ -0,0 +1,44 @@
+package ar.edu.itba.ss.pedestriandynamic.models;
+
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * Room's walls, obstacles and exits
+ */
+@Value.Immutable
+@Value.Style(
+        typeAbstract = "*Abs",
+        typeImmutable = "*",
+        get = ""
+)
+public abstract class GeometryAbs {
+  /**
+   * @return the walls of the room and the edges of its obstacles
+   */
+  public abstract List<Wall> walls();
+
+  /**
+   * @return closed polygons that pedestrians can not enter, as their vertices; their edges are also at {@code walls}
+   */
+  public abstract List<List<Vector2D>> obstacles();
+
+  /**
+   * @return points where a wall ends without meeting another one, and obstacles' vertices, but exits' extremes;
+   * a pedestrian touching only one of them touches no wall, so they push pedestrians as static points, as exits'
+   * extremes do
+   */
+  public abstract List<Vector2D> corners();
+
+  /**
+   * @return round obstacles, as columns
+   */
+  public abstract List<Disc> discs();
+
+  /**
+   * @return the openings through which pedestrians go out of the room; empty if pedestrians should head to the
+   * default opening's center
+   */
+  public abstract List<Exit> exits();
+}
@@ -0,0 +1,7 @@
+package ar.edu.itba.ss.pedestriandynamic.models;
+
+public enum IntegratorType {
+  GEAR,
+  VELOCITY_VERLET,
+  LEAPFROG
+}
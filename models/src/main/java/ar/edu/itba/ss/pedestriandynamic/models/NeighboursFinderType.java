@@ -0,0 +1,11 @@
+package ar.edu.itba.ss.pedestriandynamic.models;
+
+public enum NeighboursFinderType {
+  BRUTE_FORCE,
+  CELL_INDEX,
+  PARALLEL_CELL_INDEX,
+  INCREMENTAL_CELL_INDEX,
+  QUAD_TREE,
+  SWEEP_AND_PRUNE,
+  VERLET_LIST
+}
@@ -3,8 +3,7 @@ package ar.edu.itba.ss.pedestriandynamic.models;
 import org.immutables.builder.Builder;
 import org.immutables.value.Value;
 
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.concurrent.atomic.DoubleAccumulator;
 
 @Value.Immutable
 @Value.Style(
@@ -19,7 +18,9 @@ public abstract class ParticleAbs {
     *************************************************************************************
    */
 
-  private static double maxPressure = 0;
+  // updated atomically, as particles may be updated from several threads at once
+  private static final DoubleAccumulator maxPressure =
+          new DoubleAccumulator((max, pressure) -> pressure > max ? pressure : max, 0);
 
   private static long idGen = 1;
 
@@ -44,6 +45,16 @@ public abstract class ParticleAbs {
   @Value.Auxiliary
   public ParticleType type() { return ParticleType.PEDESTRIAN; }
 
+  /**
+   * @return stable index of this particle among the system's particles, kept along all the simulation;
+   * -1 if none has been assigned
+   */
+  @Value.Default
+  @Value.Auxiliary
+  public int slot() {
+    return -1;
+  }
+
   @Value.Default
   @Value.Auxiliary
   public boolean isColliding() { return false; }
@@ -121,10 +132,20 @@ public abstract class ParticleAbs {
     return normalForce;
   }
 
+  /**
+   * Sets the particle's normal force.
+   * <P>
+   * Not synchronized: the normal force of a particle should only be modified by the thread evaluating it.
+   */
   public void normalForce(final double normalForce) {
     this.normalForce = normalForce;
   }
 
+  /**
+   * Increases the particle's normal force.
+   * <P>
+   * Not synchronized: the normal force of a particle should only be modified by the thread evaluating it.
+   */
   public void increaseNormalForce(final double normalForce) {
     this.normalForce += normalForce;
   }
@@ -181,18 +202,16 @@ public abstract class ParticleAbs {
   }
 
   public static double getMaxPressure() {
-    return maxPressure;
+    return maxPressure.get();
   }
 
+  /**
+   * Sets the max pressure.
+   * @implNote it should not be called while particles are being updated
+   */
   public static void setMaxPressure(final double maxPressure) {
-    ParticleAbs.maxPressure = maxPressure;
-  }
-
-
-  @Value.Default
-  @Value.Auxiliary
-  public Deque<Target> targets() {
-    return new LinkedList<>();
+    ParticleAbs.maxPressure.reset();
+    ParticleAbs.maxPressure.accumulate(maxPressure);
   }
 
   /*
@@ -203,21 +222,27 @@ public abstract class ParticleAbs {
 
 
   public Particle update(final Vector2DAbs uP, final Vector2DAbs uV, final Vector2DAbs uF) {
-    if (pressure() > maxPressure) {
-      maxPressure = pressure();
-    }
+    return update(uP.x(), uP.y(), uV.x(), uV.y(), uF.x(), uF.y());
+  }
+
+  /**
+   * Same as {@code update}, but with each vector's components, so as no vector has to be built
+   */
+  public Particle update(final double x, final double y, final double vx, final double vy,
+                         final double forceX, final double forceY) {
+    maxPressure.accumulate(pressure());
 
-    final Particle particle = Particle.builder(uP.x(), uP.y())
-            .vx(uV.x()).vy(uV.y())
-            .forceX(uF.x()).forceY(uF.y())
+    final Particle particle = Particle.builder(x, y)
+            .vx(vx).vy(vy)
+            .forceX(forceX).forceY(forceY)
             .id(id())
             .type(type())
+            .slot(slot())
             .isColliding(isColliding())
             .mass(mass())
             .radio(radio())
             .tau(tau())
             .drivingSpeed(drivingSpeed())
-            .targets(targets())
             .build();
     particle.normalForce(normalForce()); // update normal force
     particle.hasFlowedOut(hasFlowedOut()); // update has flowed out
@@ -0,0 +1,184 @@
+package ar.edu.itba.ss.pedestriandynamic.models;
+
+import java.util.Arrays;
+
+/**
+ * Particles' values saved as a structure of arrays, indexed by each particle's {@code slot()}, so as forces can be
+ * calculated over contiguous primitive doubles; see {@code ForcesKernel}.
+ * <P>
+ * Each slot holds the predicted particle's position, velocity and walking values, set with {@code set}, and the
+ * current particle's position, set with {@code setSocial}, as social forces are calculated against the current
+ * particles. The desired direction of each pedestrian is set with {@code setDirection}. Calculated forces are saved
+ * at {@code forceX}, {@code forceY} and {@code normalForce}.
+ * <P>
+ * As {@link CompactNeighbours}, this structure is meant to be reused between steps, so it does not allocate any
+ * memory once created. Slots of particles that are not part of the system anymore should be cleared with
+ * {@code clear}, so as they are not considered pedestrians.
+ */
+public final class ParticlesArrays {
+  private final int nSlots;
+
+  // predicted particles' values
+  private final double[] x;
+  private final double[] y;
+  private final double[] vx;
+  private final double[] vy;
+  private final double[] radio;
+  private final double[] mass;
+  private final double[] tau;
+  private final double[] drivingSpeed;
+  private final boolean[] pedestrian;
+
+  // current particles' positions
+  private final double[] socialX;
+  private final double[] socialY;
+
+  // desired direction's versor of each pedestrian
+  private final double[] directionX;
+  private final double[] directionY;
+
+  // calculated forces
+  private final double[] forceX;
+  private final double[] forceY;
+  private final double[] normalForce;
+
+  /**
+   * @param nSlots number of slots, i.e., max particle's slot + 1
+   */
+  public ParticlesArrays(final int nSlots) {
+    if (nSlots < 0) {
+      throw new IllegalArgumentException("Number of slots should be >= 0");
+    }
+    this.nSlots = nSlots;
+    this.x = new double[nSlots];
+    this.y = new double[nSlots];
+    this.vx = new double[nSlots];
+    this.vy = new double[nSlots];
+    this.radio = new double[nSlots];
+    this.mass = new double[nSlots];
+    this.tau = new double[nSlots];
+    this.drivingSpeed = new double[nSlots];
+    this.pedestrian = new boolean[nSlots];
+    this.socialX = new double[nSlots];
+    this.socialY = new double[nSlots];
+    this.directionX = new double[nSlots];
+    this.directionY = new double[nSlots];
+    this.forceX = new double[nSlots];
+    this.forceY = new double[nSlots];
+    this.normalForce = new double[nSlots];
+  }
+
+  public int nSlots() {
+    return nSlots;
+  }
+
+  /**
+   * Marks every slot as not being a pedestrian, so as only the ones set afterwards are considered
+   */
+  public void clear() {
+    Arrays.fill(pedestrian, false);
+  }
+
+  /**
+   * Saves the given predicted particle's values at its slot
+   */
+  public void set(final Particle particle) {
+    final int slot = particle.slot();
+    x[slot] = particle.x();
+    y[slot] = particle.y();
+    vx[slot] = particle.vx();
+    vy[slot] = particle.vy();
+    radio[slot] = particle.radio();
+    mass[slot] = particle.mass();
+    tau[slot] = particle.tau();
+    drivingSpeed[slot] = particle.drivingSpeed();
+    pedestrian[slot] = particle.type() == ParticleType.PEDESTRIAN;
+  }
+
+  /**
+   * Saves the given current particle's position at its slot, so as to calculate social forces against it
+   */
+  public void setSocial(final Particle particle) {
+    final int slot = particle.slot();
+    socialX[slot] = particle.x();
+    socialY[slot] = particle.y();
+    radio[slot] = particle.radio();
+    pedestrian[slot] = particle.type() == ParticleType.PEDESTRIAN;
+  }
+
+  /**
+   * Saves the desired direction's versor of the pedestrian with the given slot
+   */
+  public void setDirection(final int slot, final double directionX, final double directionY) {
+    this.directionX[slot] = directionX;
+    this.directionY[slot] = directionY;
+  }
+
+  /*
+   * Arrays are returned as they are, with no copy, so as kernels can read and write them directly
+   */
+
+  public double[] x() {
+    return x;
+  }
+
+  public double[] y() {
+    return y;
+  }
+
+  public double[] vx() {
+    return vx;
+  }
+
+  public double[] vy() {
+    return vy;
+  }
+
+  public double[] radio() {
+    return radio;
+  }
+
+  public double[] mass() {
+    return mass;
+  }
+
+  public double[] tau() {
+    return tau;
+  }
+
+  public double[] drivingSpeed() {
+    return drivingSpeed;
+  }
+
+  public boolean[] pedestrian() {
+    return pedestrian;
+  }
+
+  public double[] socialX() {
+    return socialX;
+  }
+
+  public double[] socialY() {
+    return socialY;
+  }
+
+  public double[] directionX() {
+    return directionX;
+  }
+
+  public double[] directionY() {
+    return directionY;
+  }
+
+  public double[] forceX() {
+    return forceX;
+  }
+
+  public double[] forceY() {
+    return forceY;
+  }
+
+  public double[] normalForce() {
+    return normalForce;
+  }
+}
@@ -87,6 +87,41 @@ public abstract class StaticDataAbs {
     return 0;
   }
 
+  /**
+   * @return whether delta time is chosen at each step, between {@code delta1} and {@code maxDelta1}, instead of
+   * being {@code delta1} along all the simulation
+   */
+  @Value.Default
+  public boolean adaptiveDelta1() {
+    return false;
+  }
+
+  /**
+   * @return max delta time of an adaptive step; 0 if it should be the default delta time, {@code 0.1 * sqrt(m/kn)}
+   */
+  @Value.Default
+  public double maxDelta1() {
+    return 0;
+  }
+
+  /**
+   * @return max overlap between two bodies with which an adaptive step may be larger than {@code delta1}; contacts'
+   * overlaps should not change by more than a fraction of it on one step either
+   */
+  @Value.Default
+  public double maxOverlap() {
+    return 1e-2;
+  }
+
+  /**
+   * @return max position's correction of any particle on one adaptive step; steps are not redone, so a step with
+   * a larger one is kept, and only the following step is shortened
+   */
+  @Value.Default
+  public double maxDelta1Error() {
+    return 1e-7;
+  }
+
   @Value.Derived
   public double respawnMinY() {
     return fallLength() + length();
@@ -120,6 +155,174 @@ public abstract class StaticDataAbs {
   @Value.Default
   public boolean considerDelta1() { return true; }
 
+  @Value.Default
+  public NeighboursFinderType neighboursFinder() {
+    return NeighboursFinderType.CELL_INDEX;
+  }
+
+  /**
+   * @return extra distance added to the interaction radio when building Verlet lists
+   */
+  @Value.Default
+  public double verletSkin() {
+    return 0.1;
+  }
+
+  /**
+   * @return number of threads used by the parallel algorithms of the simulation
+   */
+  @Value.Default
+  public int parallelism() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * @return whether the system's limits are periodic on the x axis, i.e., whether particles leaving the system
+   * through one side enter it again through the opposite one, instead of being stopped by side walls
+   */
+  @Value.Default
+  public boolean periodicX() {
+    return false;
+  }
+
+  /**
+   * @return whether the system's limits are periodic on the y axis, i.e., whether the system is an endless corridor
+   * where particles that go out through the bottom enter again through the top, instead of exiting by the opening
+   */
+  @Value.Default
+  public boolean periodicY() {
+    return false;
+  }
+
+  /**
+   * @return number of steps between each sorting of the system's particles by their position's Morton key,
+   * so as to improve cache locality; 0 if particles should never be sorted
+   */
+  @Value.Default
+  public int reorderInterval() {
+    return 0;
+  }
+
+  /**
+   * @return max border-to-border distance between two pedestrians so as to consider their social force;
+   * infinite if it should always be considered
+   */
+  @Value.Default
+  public double socialCutoff() {
+    return Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * @return min social force, relative to the one between two pedestrians in contact ({@code A}), to be considered;
+   * 0 if it should always be considered
+   */
+  @Value.Default
+  public double socialTolerance() {
+    return 0;
+  }
+
+  /**
+   * @return max border-to-border distance between two pedestrians so as to consider their social force, given
+   * by both {@code socialCutoff} and {@code socialTolerance}; infinite if it should always be considered
+   */
+  @Value.Derived
+  public double socialForceCutoff() {
+    // A * exp(- d / B) < socialTolerance * A <=> d > - B * ln(socialTolerance)
+    final double toleranceCutoff = socialTolerance() > 0
+            ? Math.max(0, - B() * Math.log(socialTolerance())) : Double.POSITIVE_INFINITY;
+    return Math.min(socialCutoff(), toleranceCutoff);
+  }
+
+  /**
+   * @return max relative error of the tabulated exponential used by social forces;
+   * 0 if the exact {@code Math.exp} should be used
+   */
+  @Value.Default
+  public double socialExpError() {
+    return 0;
+  }
+
+  /**
+   * @return path to the file describing the room's walls, obstacles and exits;
+   * empty if the default room should be used
+   */
+  @Value.Default
+  public String geometryFile() {
+    return "";
+  }
+
+  /**
+   * @return how particles' forces are evaluated: either each particle's total force at once, or each pair's
+   * interaction once, applying it to both particles of the pair with opposite signs
+   */
+  @Value.Default
+  public ForceEvaluationType forceEvaluation() {
+    return ForceEvaluationType.PER_PARTICLE;
+  }
+
+  /**
+   * @return whether forces are calculated over primitive doubles, so as not to allocate any object per force,
+   * instead of over {@code Vector2D}s; both give exactly the same results
+   */
+  @Value.Default
+  public boolean primitiveForces() {
+    return false;
+  }
+
+  /**
+   * @return number of steps between two evaluations of the social and driving forces, which are held in between,
+   * while granular forces are evaluated on every step; 1 to evaluate all of them on every step. Forces are held for a
+   * number of steps, so it is not supported with an adaptive delta time
+   */
+  @Value.Default
+  public int slowForcesInterval() {
+    return 1;
+  }
+
+  /**
+   * @return whether particles', social and driving forces are calculated by a SIMD kernel over arrays, when it is
+   * available at runtime, or by the equivalent scalar one otherwise; results only differ by rounding
+   */
+  @Value.Default
+  public boolean simdForces() {
+    return false;
+  }
+
+  /**
+   * @return method with which particles are integrated; Verlet methods always save particles' derivatives at arrays
+   * indexed by slot, and only up to their accelerations
+   */
+  @Value.Default
+  public IntegratorType integrator() {
+    return IntegratorType.GEAR;
+  }
+
+  /**
+   * @return order of the gear predictor corrector, from 2 to 5; lower orders are faster, but less accurate
+   */
+  @Value.Default
+  public int gearOrder() {
+    return 5;
+  }
+
+  /**
+   * @return whether the gear predictor corrector saves particles' derivatives at arrays indexed by slot, instead of
+   * at maps, so as to predict and fix them over primitive doubles; both give exactly the same results
+   */
+  @Value.Default
+  public boolean gearArrays() {
+    return false;
+  }
+
+  /**
+   * @return whether particles are evaluated in parallel, with {@code parallelism} threads, at each step;
+   * when forces are evaluated per pair, pairs are also evaluated in parallel
+   */
+  @Value.Default
+  public boolean parallelEvaluation() {
+    return false;
+  }
+
   @Value.Derived
   public Vector2D openingCenter() {
     return Vector2D.builder(width() / 2, fallLength()).build();
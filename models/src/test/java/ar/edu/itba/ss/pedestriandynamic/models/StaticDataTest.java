@@ -0,0 +1,46 @@
+package ar.edu.itba.ss.pedestriandynamic.models;
+
+import junit.framework.TestCase;
+
+/**
+ * Validates the social force's cutoff derived from {@code socialCutoff} and {@code socialTolerance}
+ */
+public class StaticDataTest extends TestCase {
+  private static final double B = 0.08;
+  private static final double TOLERANCE = 1e-6;
+  private static final double DELTA = 1e-12;
+
+  public void testNoCutoff() {
+    assertEquals(Double.POSITIVE_INFINITY, staticData().socialForceCutoff());
+  }
+
+  public void testToleranceCutoff() {
+    final StaticData staticData = staticData().withSocialTolerance(TOLERANCE);
+    final double cutoff = - B * Math.log(TOLERANCE);
+    assertEquals(cutoff, staticData.socialForceCutoff(), DELTA);
+    // the social force at the cutoff is exactly the tolerated one
+    assertEquals(TOLERANCE, Math.exp(- staticData.socialForceCutoff() / B), DELTA);
+  }
+
+  public void testToleranceOfAtLeastOne() {
+    // not even pedestrians in contact would be considered, but the cutoff is not negative
+    assertEquals(0, staticData().withSocialTolerance(1).socialForceCutoff(), 0);
+    assertEquals(0, staticData().withSocialTolerance(2).socialForceCutoff(), 0);
+  }
+
+  public void testMinOfBothCutoffs() {
+    final double toleranceCutoff = - B * Math.log(TOLERANCE);
+    final double lowerCutoff = toleranceCutoff / 2;
+    final double higherCutoff = toleranceCutoff * 2;
+
+    assertEquals(lowerCutoff, staticData().withSocialCutoff(lowerCutoff).socialForceCutoff(), 0);
+    assertEquals(lowerCutoff,
+            staticData().withSocialCutoff(lowerCutoff).withSocialTolerance(TOLERANCE).socialForceCutoff(), 0);
+    assertEquals(toleranceCutoff,
+            staticData().withSocialCutoff(higherCutoff).withSocialTolerance(TOLERANCE).socialForceCutoff(), DELTA);
+  }
+
+  private static StaticData staticData() {
+    return StaticData.builder(30, 5, 5, 1.2, 0.5, 0.7, 80, 1.2e5, 2.4e5, 2000, B, 0.5, 1.2).build();
+  }
+}
@@ -37,7 +37,9 @@ public class IOService {
             "[FAIL] - Invalid argument. Try 'help' for more information." + ABORTING),
     NOT_A_FILE(-5, "", ""),
     UNEXPECTED_ERROR(-6, "", ""),
-    BAD_FILE_FORMAT(-7, "", ""),
+    BAD_FILE_FORMAT(-7,
+            "[FAIL] - Bad file format at: '{}'",
+            "[FAIL] - Bad file format." + ABORTING),
     MKDIRS_FAILED(-8,
             "[FAIL] - Create directory operation failed while trying to create dir: '{}'",
             "[FAIL] - Create directory operation failed." + ABORTING),
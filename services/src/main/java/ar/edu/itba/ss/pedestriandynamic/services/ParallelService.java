@@ -0,0 +1,28 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelService {
+  private static final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+  /**
+   * Don't let anyone instantiate this class.
+   */
+  private ParallelService() {}
+
+  /**
+   * Gets the pool shared by all the parallel algorithms run with the given parallelism level, so as a simulation
+   * keeps only one set of threads, however many of its algorithms are parallel. Pools are never shut down, but their
+   * threads are daemon ones, which are terminated after being idle for a while.
+   * @param parallelism number of threads of the pool
+   * @return the pool with the given parallelism level
+   */
+  public static ForkJoinPool pool(final int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism should be >= 1");
+    }
+    return pools.computeIfAbsent(parallelism, ForkJoinPool::new);
+  }
+}
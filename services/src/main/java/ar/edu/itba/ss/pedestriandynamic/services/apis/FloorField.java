@@ -0,0 +1,253 @@
+package ar.edu.itba.ss.pedestriandynamic.services.apis;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.PriorityQueue;
+
+/**
+ * Static floor field: the walking distance from each node of a uniform grid to the nearest way out, and the direction
+ * that a pedestrian should walk along so as to follow the shortest path to it.
+ * <P>
+ * Nodes are placed at {@code (i * side, j * side)}, for {@code i} from 0 to {@code nx - 1} and {@code j} from 0 to
+ * {@code ny - 1}, and are indexed as {@code j * nx + i}. Distances are computed once with the fast marching method,
+ * i.e., by solving the eikonal equation {@code |grad(T)| = 1} with first order upwind differences, from the source
+ * nodes outwards, as Dijkstra's algorithm does, so as they do not suffer from the grid's directions as Dijkstra's
+ * distances over the grid's edges do.
+ * <P>
+ * Each node's direction is the opposite of the distance's gradient, by central differences. The direction at any point
+ * is calculated in O(1) by bilinear interpolation of the directions of the 4 nodes around it, normalized.
+ * <P>
+ * Blocked nodes, i.e., the ones over walls and obstacles, have a NaN distance, and take the direction of the nearest
+ * reachable node, so as pedestrians pushed over them still know where to go. Nodes that can not reach any source,
+ * as the ones of a room without exits, have an infinite distance and no direction.
+ */
+public class FloorField {
+  private static final double BLOCKED = Double.NaN;
+  private static final double UNREACHABLE = Double.POSITIVE_INFINITY;
+
+  private final int nx;
+  private final int ny;
+  private final double side;
+  private final double[] distances;
+  private final double[] directionsX;
+  private final double[] directionsY;
+
+  /**
+   * @param nx number of nodes along the x axis, >= 2
+   * @param ny number of nodes along the y axis, >= 2
+   * @param side distance between two consecutive nodes
+   * @param distances each node's distance, as returned by {@link #distances()}; NaN if it is blocked
+   */
+  public FloorField(final int nx, final int ny, final double side, final double[] distances) {
+    if (nx < 2 || ny < 2 || !(side > 0)) {
+      throw new IllegalArgumentException("Floor field should have at least 2 x 2 nodes, with side > 0");
+    }
+    if (distances.length != nx * ny) {
+      throw new IllegalArgumentException("Floor field should have one distance per node");
+    }
+    this.nx = nx;
+    this.ny = ny;
+    this.side = side;
+    this.distances = distances.clone();
+    this.directionsX = new double[nx * ny];
+    this.directionsY = new double[nx * ny];
+    initDirections();
+  }
+
+  /**
+   * Computes the floor field's distances with the fast marching method
+   * @param blocked whether each node is blocked
+   * @param sources whether each node is a way out, i.e., has a 0 distance; blocked sources are ignored
+   */
+  public static FloorField fastMarching(final int nx, final int ny, final double side,
+                                        final boolean[] blocked, final boolean[] sources) {
+    final double[] distances = new double[nx * ny];
+    final boolean[] accepted = new boolean[nx * ny];
+    // nodes with their tentative distance when queued; a node may be queued several times, its last one being the best
+    final PriorityQueue<double[]> narrowBand = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+    for (int node = 0; node < distances.length; node++) {
+      if (blocked[node]) {
+        distances[node] = BLOCKED;
+        accepted[node] = true;
+      } else if (sources[node]) {
+        distances[node] = 0;
+        narrowBand.add(new double[] {0, node});
+      } else {
+        distances[node] = UNREACHABLE;
+      }
+    }
+
+    while (!narrowBand.isEmpty()) {
+      final int node = (int) narrowBand.poll()[1];
+      if (accepted[node]) {
+        continue;
+      }
+      accepted[node] = true;
+      final int i = node % nx;
+      final int j = node / nx;
+      final int[] neighbours = {
+              i > 0 ? node - 1 : -1, i < nx - 1 ? node + 1 : -1,
+              j > 0 ? node - nx : -1, j < ny - 1 ? node + nx : -1
+      };
+      for (final int neighbour : neighbours) {
+        if (neighbour >= 0 && !accepted[neighbour]) {
+          final double distance = upwindDistance(distances, accepted, nx, ny, side, neighbour);
+          if (distance < distances[neighbour]) {
+            distances[neighbour] = distance;
+            narrowBand.add(new double[] {distance, neighbour});
+          }
+        }
+      }
+    }
+    return new FloorField(nx, ny, side, distances);
+  }
+
+  public int nx() {
+    return nx;
+  }
+
+  public int ny() {
+    return ny;
+  }
+
+  public double side() {
+    return side;
+  }
+
+  /**
+   * @return a copy of each node's distance; NaN if it is blocked, and infinite if it can not reach any source
+   */
+  public double[] distances() {
+    return distances.clone();
+  }
+
+  /**
+   * Saves, at the given array, the direction that a pedestrian at the given position should walk along; (0, 0) if
+   * there is no way out from it. Positions out of the grid take the direction of the nearest point of it.
+   * <P>
+   * No object is allocated, so as it can be called from primitive forces' calculations.
+   * @param direction array of size 2 where the direction's x and y are saved, respectively
+   */
+  public void direction(final double x, final double y, final double[] direction) {
+    final double fx = Math.max(0, Math.min(nx - 1, x / side));
+    final double fy = Math.max(0, Math.min(ny - 1, y / side));
+    final int i = Math.min(nx - 2, (int) fx);
+    final int j = Math.min(ny - 2, (int) fy);
+    final double tx = fx - i;
+    final double ty = fy - j;
+
+    final int node = j * nx + i;
+    final double w00 = (1 - tx) * (1 - ty);
+    final double w10 = tx * (1 - ty);
+    final double w01 = (1 - tx) * ty;
+    final double w11 = tx * ty;
+    final double directionX = w00 * directionsX[node] + w10 * directionsX[node + 1]
+            + w01 * directionsX[node + nx] + w11 * directionsX[node + nx + 1];
+    final double directionY = w00 * directionsY[node] + w10 * directionsY[node + 1]
+            + w01 * directionsY[node + nx] + w11 * directionsY[node + nx + 1];
+
+    final double norm = Math.sqrt(directionX * directionX + directionY * directionY);
+    if (norm == 0) {
+      direction[0] = direction[1] = 0;
+    } else {
+      direction[0] = directionX / norm;
+      direction[1] = directionY / norm;
+    }
+  }
+
+  /**
+   * @return the direction that a pedestrian at the given position should walk along; see
+   * {@link #direction(double, double, double[])}
+   */
+  public Vector2D direction(final double x, final double y) {
+    final double[] direction = new double[2];
+    direction(x, y, direction);
+    return Vector2D.builder(direction[0], direction[1]).build();
+  }
+
+  /**
+   * @return the eikonal equation's solution at {@code node}, from its accepted neighbours
+   */
+  private static double upwindDistance(final double[] distances, final boolean[] accepted,
+                                       final int nx, final int ny, final double side, final int node) {
+    final int i = node % nx;
+    final int j = node / nx;
+    final double a = Math.min(acceptedDistance(distances, accepted, i > 0 ? node - 1 : -1),
+            acceptedDistance(distances, accepted, i < nx - 1 ? node + 1 : -1));
+    final double b = Math.min(acceptedDistance(distances, accepted, j > 0 ? node - nx : -1),
+            acceptedDistance(distances, accepted, j < ny - 1 ? node + nx : -1));
+    if (Math.abs(a - b) >= side) {
+      // the front only comes from one axis; also if any of them is infinite
+      return Math.min(a, b) + side;
+    }
+    return (a + b + Math.sqrt(2 * side * side - (a - b) * (a - b))) / 2;
+  }
+
+  private static double acceptedDistance(final double[] distances, final boolean[] accepted, final int node) {
+    // blocked nodes are accepted, but their distance is not known
+    return node >= 0 && accepted[node] && !Double.isNaN(distances[node]) ? distances[node] : UNREACHABLE;
+  }
+
+  private void initDirections() {
+    final Deque<Integer> toVisit = new ArrayDeque<>();
+    final boolean[] visited = new boolean[nx * ny];
+    for (int j = 0; j < ny; j++) {
+      for (int i = 0; i < nx; i++) {
+        final int node = j * nx + i;
+        if (Double.isNaN(distances[node])) {
+          continue;
+        }
+        visited[node] = true;
+        if (Double.isInfinite(distances[node])) {
+          continue;
+        }
+        final double gradientX = derivative(i > 0 ? node - 1 : -1, node, i < nx - 1 ? node + 1 : -1);
+        final double gradientY = derivative(j > 0 ? node - nx : -1, node, j < ny - 1 ? node + nx : -1);
+        final double norm = Math.sqrt(gradientX * gradientX + gradientY * gradientY);
+        if (norm > 0) {
+          directionsX[node] = - gradientX / norm;
+          directionsY[node] = - gradientY / norm;
+        }
+        toVisit.add(node);
+      }
+    }
+
+    // blocked nodes take the direction of the nearest reachable node, by breadth first search
+    while (!toVisit.isEmpty()) {
+      final int node = toVisit.poll();
+      final int i = node % nx;
+      final int j = node / nx;
+      for (final int neighbour : Arrays.asList(i > 0 ? node - 1 : -1, i < nx - 1 ? node + 1 : -1,
+              j > 0 ? node - nx : -1, j < ny - 1 ? node + nx : -1)) {
+        if (neighbour >= 0 && !visited[neighbour]) {
+          visited[neighbour] = true;
+          directionsX[neighbour] = directionsX[node];
+          directionsY[neighbour] = directionsY[node];
+          toVisit.add(neighbour);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the distance's derivative at {@code node} along the axis of the given previous and next nodes, by central
+   * differences, or by one sided ones if any of them is not reachable; -1 if there is no such node
+   */
+  private double derivative(final int previous, final int node, final int next) {
+    final boolean hasPrevious = previous >= 0 && Double.isFinite(distances[previous]);
+    final boolean hasNext = next >= 0 && Double.isFinite(distances[next]);
+    if (hasPrevious && hasNext) {
+      return (distances[next] - distances[previous]) / (2 * side);
+    }
+    if (hasPrevious) {
+      return (distances[node] - distances[previous]) / side;
+    }
+    if (hasNext) {
+      return (distances[next] - distances[node]) / side;
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,150 @@
+package ar.edu.itba.ss.pedestriandynamic.services.apis;
+
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+
+/**
+ * Social Force Model's contact, social and driving forces, calculated over primitive doubles, so as no object is
+ * allocated per force.
+ * <P>
+ * Each method calculates a single force and saves its components, which are retrieved with {@link #forceX()} and
+ * {@link #forceY()}, instead of returning a new vector. Operations are the same, and are done in the same order,
+ * as the ones of the {@code Vector2D} based forces of the pedestrians' system, so both give exactly the same results.
+ * It is shared by the system's primitive forces and by the forces' kernels that calculate one force at a time.
+ * <P>
+ * Forces are taken from the given relative positions, so if two bodies are at exactly the same position, their force
+ * is NaN; it is up to the caller to check it.
+ * <P>
+ * It is not thread safe, as it saves the last calculated force.
+ */
+public class SocialForceModel {
+  private final double kn;
+  private final double kt;
+  private final double A;
+  private final double B;
+  // null if the exact Math.exp should be used
+  private final TabulatedExp socialExp;
+
+  // last calculated force
+  private double forceX;
+  private double forceY;
+  private double normalForceModule;
+
+  /**
+   * @param socialExp exponential used by social forces; null if the exact {@code Math.exp} should be used
+   */
+  public SocialForceModel(final StaticData staticData, final TabulatedExp socialExp) {
+    this.kn = staticData.kn();
+    this.kt = staticData.kt();
+    this.A = staticData.A();
+    this.B = staticData.B();
+    this.socialExp = socialExp;
+  }
+
+  public double forceX() {
+    return forceX;
+  }
+
+  public double forceY() {
+    return forceY;
+  }
+
+  /**
+   * @return module of the normal component of the last calculated contact force
+   */
+  public double normalForce() {
+    return normalForceModule;
+  }
+
+  /**
+   * Calculates the (normal + tangential) force that a neighbour applies to a particle
+   * @param relativeX x of the neighbour's position relative to the particle's
+   * @param relativeY y of the neighbour's position relative to the particle's
+   * @param relativeVelocityX x of the particle's velocity relative to the neighbour's
+   * @param relativeVelocityY y of the particle's velocity relative to the neighbour's
+   * @return true if they are colliding, and so the force has been calculated; false otherwise
+   */
+  public boolean neighbourForce(final double relativeX, final double relativeY,
+                                final double radio, final double neighbourRadio,
+                                final double relativeVelocityX, final double relativeVelocityY) {
+    final double centersDistance = norm2(relativeX, relativeY);
+    final double superposition = - (centersDistance - radio - neighbourRadio);
+    if (superposition < 0) {
+      return false;
+    }
+
+    final double normalX = relativeX / centersDistance;
+    final double normalY = relativeY / centersDistance;
+
+    final double tangentialX = - normalY;
+    final double tangentialY = normalX;
+
+    contactForce(superposition, normalX, normalY, tangentialX, tangentialY, relativeVelocityX, relativeVelocityY);
+    return true;
+  }
+
+  /**
+   * Calculates the social force that another pedestrian applies to a pedestrian
+   * @param relativeX x of the other pedestrian's position relative to the pedestrian's
+   * @param relativeY y of the other pedestrian's position relative to the pedestrian's
+   */
+  public void socialForce(final double relativeX, final double relativeY,
+                          final double radio, final double otherRadio) {
+    final double centersDistance = norm2(relativeX, relativeY);
+
+    final double normalX = relativeX / centersDistance;
+    final double normalY = relativeY / centersDistance;
+
+    // border-to-border distance
+    final double distanceBetween = centersDistance - radio - otherRadio;
+    final double x = - distanceBetween / B;
+    final double socialForceModule = - A * (socialExp == null ? Math.exp(x) : socialExp.exp(x));
+
+    forceX = normalX * socialForceModule;
+    forceY = normalY * socialForceModule;
+  }
+
+  /**
+   * Calculates the force that leads a pedestrian, of the given velocity, to walk along the given direction's versor
+   * at its driving speed
+   */
+  public void drivingForce(final double mass, final double tau, final double drivingSpeed,
+                           final double directionX, final double directionY,
+                           final double vx, final double vy) {
+    final double drivingForceModule = mass / tau;
+    final double drivingVelocityX = directionX * drivingSpeed;
+    final double drivingVelocityY = directionY * drivingSpeed;
+
+    forceX = (drivingVelocityX - vx) * drivingForceModule;
+    forceY = (drivingVelocityY - vy) * drivingForceModule;
+  }
+
+  /**
+   * Calculates the (normal + tangential) force of a contact, for both normal and tangential components
+   * @param normalX x of the normal versor, pointing from the particle to the body it is in contact with
+   * @param normalY y of the normal versor
+   * @param relativeVelocityX x of the particle's velocity relative to the body's
+   * @param relativeVelocityY y of the particle's velocity relative to the body's
+   */
+  public void contactForce(final double superposition,
+                           final double normalX, final double normalY,
+                           final double tangentialX, final double tangentialY,
+                           final double relativeVelocityX, final double relativeVelocityY) {
+    final double normalForceModule = - kn * superposition;
+    final double normalForceX = normalX * normalForceModule;
+    final double normalForceY = normalY * normalForceModule;
+
+    final double tangentialRelativeVelocity = relativeVelocityX * tangentialX + relativeVelocityY * tangentialY;
+    final double tangentialForceModule = - kt * superposition * tangentialRelativeVelocity;
+
+    this.normalForceModule = norm2(normalForceX, normalForceY);
+    forceX = normalForceX + tangentialX * tangentialForceModule;
+    forceY = normalForceY + tangentialY * tangentialForceModule;
+  }
+
+  /**
+   * @return the norm of the given vector, calculated as {@code Vector2D}'s norm2 does
+   */
+  public static double norm2(final double x, final double y) {
+    return Math.sqrt(Math.pow(x, 2) + Math.pow(y, 2));
+  }
+}
@@ -1,5 +1,6 @@
 package ar.edu.itba.ss.pedestriandynamic.services.apis;
 
+import ar.edu.itba.ss.pedestriandynamic.models.Disc;
 import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
 import ar.edu.itba.ss.pedestriandynamic.models.Wall;
@@ -25,6 +26,18 @@ public abstract class Space2DMaths {
     return - distanceBetween(particle, neighbour);
   }
 
+  public static double distanceBetween(final Particle p, final Disc d) {
+    return sqrt(pow(d.x() - p.x(), 2) + pow(d.y() - p.y(), 2)) - p.radio() - d.radio();
+  }
+
+  /**
+   * @return superposition value >= 0 if particle {@code p} and disc {@code d} are colliding;
+   * otherwise, a negative value is returned
+   */
+  public static double superpositionBetween(final Particle p, final Disc d) {
+    return - distanceBetween(p, d);
+  }
+
   /**
    *
    * @param p a particle
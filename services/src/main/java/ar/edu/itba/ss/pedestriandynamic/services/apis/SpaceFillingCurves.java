@@ -0,0 +1,78 @@
+package ar.edu.itba.ss.pedestriandynamic.services.apis;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Space-filling curves helpers, used to sort particles so as the ones that are close in space are also
+ * close in memory and in iteration order.
+ */
+public abstract class SpaceFillingCurves {
+  // bits used for each coordinate, so as the key of both coordinates fits in a non-negative int
+  private static final int BITS_PER_COORDINATE = 15;
+  private static final int MAX_COORDINATE = (1 << BITS_PER_COORDINATE) - 1;
+  private static final int INDEX_BITS = 32;
+  private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+  /**
+   * Interleaves the bits of both coordinates, the x's at the even positions and the y's at the odd ones
+   * @param x a coordinate between 0 and {@code 2^15 - 1}
+   * @param y a coordinate between 0 and {@code 2^15 - 1}
+   * @return the Morton (Z-order) key of the given coordinates
+   */
+  public static long mortonKey(final int x, final int y) {
+    return spreadBits(x) | (spreadBits(y) << 1);
+  }
+
+  /**
+   * Sorts the given particles by the Morton key of their positions, quantized inside the particles' bounding box.
+   * Particles with the same key keep their relative order.
+   * @param particles the particles to be sorted
+   * @return a new list with the given particles, sorted
+   */
+  public static List<Particle> sortedByMortonKey(final Collection<Particle> particles) {
+    final Particle[] points = particles.toArray(new Particle[particles.size()]);
+
+    double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    for (final Particle point : points) {
+      minX = Math.min(minX, point.x());
+      minY = Math.min(minY, point.y());
+      maxX = Math.max(maxX, point.x());
+      maxY = Math.max(maxY, point.y());
+    }
+    final double scaleX = maxX > minX ? MAX_COORDINATE / (maxX - minX) : 0;
+    final double scaleY = maxY > minY ? MAX_COORDINATE / (maxY - minY) : 0;
+
+    // each key is saved with its particle's index at its lower bits, so as to sort primitives only
+    final long[] keys = new long[points.length];
+    for (int i = 0; i < points.length; i++) {
+      final int x = (int) ((points[i].x() - minX) * scaleX);
+      final int y = (int) ((points[i].y() - minY) * scaleY);
+      keys[i] = (mortonKey(x, y) << INDEX_BITS) | i;
+    }
+    Arrays.sort(keys);
+
+    final List<Particle> sortedParticles = new ArrayList<>(points.length);
+    for (final long key : keys) {
+      sortedParticles.add(points[(int) (key & INDEX_MASK)]);
+    }
+    return sortedParticles;
+  }
+
+  /**
+   * @return the given 15 bits value with a 0 bit inserted before each of its bits
+   */
+  private static long spreadBits(final int value) {
+    long bits = value & MAX_COORDINATE;
+    bits = (bits | (bits << 8)) & 0x00FF00FFL;
+    bits = (bits | (bits << 4)) & 0x0F0F0F0FL;
+    bits = (bits | (bits << 2)) & 0x33333333L;
+    bits = (bits | (bits << 1)) & 0x55555555L;
+    return bits;
+  }
+}
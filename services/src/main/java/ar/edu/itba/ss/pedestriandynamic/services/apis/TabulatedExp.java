@@ -0,0 +1,90 @@
+package ar.edu.itba.ss.pedestriandynamic.services.apis;
+
+/**
+ * Exponential function calculated from precomputed tables, with a bounded relative error.
+ * <P>
+ * The argument is split into its integer and fractional parts, {@code x = k + f}, with {@code 0 <= f < 1}, so as
+ * {@code e^x = e^k * e^f}. Exponentials of the integer parts are tabulated exactly, and the ones of the fractional parts
+ * are linearly interpolated over a table with step {@code h}. Linear interpolation's error over an interval is at most
+ * {@code h^2 / 8} times the max second derivative on it, which for the exponential is {@code e^h} times the value being
+ * approximated. Hence, the table's step is chosen so as {@code h^2 / 8 * e^h <= maxRelativeError}, i.e.,
+ * {@code h ~ sqrt(8 * maxRelativeError)}. As the exponential is convex, results are never below the exact ones,
+ * apart from rounding.
+ * <P>
+ * Arguments out of {@code [-708, 709)}, where the result is not a normal double, and NaN's are delegated to
+ * {@link Math#exp(double)}.
+ */
+public class TabulatedExp {
+  private static final int MIN_EXPONENT = -708;
+  private static final int MAX_EXPONENT = 709;
+  // below this, rounding errors are of the same order as interpolation ones
+  private static final double MIN_RELATIVE_ERROR = 1e-12;
+
+  private final double maxRelativeError;
+  private final int nIntervals;
+  /**
+   * {@code e^k}, for {@code k} from {@code MIN_EXPONENT} to {@code MAX_EXPONENT - 1}
+   */
+  private final double[] integerExps;
+  /**
+   * {@code e^(i / nIntervals)}, for {@code i} from 0 to {@code nIntervals}
+   */
+  private final double[] fractionExps;
+
+  /**
+   * @param maxRelativeError max relative error of the results, from {@code 1e-12} to 1 (exclusive)
+   */
+  public TabulatedExp(final double maxRelativeError) {
+    if (!(maxRelativeError >= MIN_RELATIVE_ERROR && maxRelativeError < 1)) {
+      throw new IllegalArgumentException("Max relative error should be in [" + MIN_RELATIVE_ERROR + ", 1)");
+    }
+    this.maxRelativeError = maxRelativeError;
+
+    int nIntervals = (int) Math.ceil(1 / Math.sqrt(8 * maxRelativeError));
+    while (interpolationError(1.0 / nIntervals) > maxRelativeError) {
+      nIntervals++;
+    }
+    this.nIntervals = nIntervals;
+
+    this.integerExps = new double[MAX_EXPONENT - MIN_EXPONENT];
+    for (int k = MIN_EXPONENT; k < MAX_EXPONENT; k++) {
+      integerExps[k - MIN_EXPONENT] = Math.exp(k);
+    }
+    this.fractionExps = new double[nIntervals + 1];
+    for (int i = 0; i <= nIntervals; i++) {
+      fractionExps[i] = Math.exp((double) i / nIntervals);
+    }
+  }
+
+  public double maxRelativeError() {
+    return maxRelativeError;
+  }
+
+  /**
+   * @return number of entries of the fractional parts' table
+   */
+  public int tableSize() {
+    return fractionExps.length;
+  }
+
+  /**
+   * @return {@code e^x}, with a relative error of at most {@code maxRelativeError}
+   */
+  public double exp(final double x) {
+    if (!(x >= MIN_EXPONENT && x < MAX_EXPONENT)) {
+      return Math.exp(x);
+    }
+    final double integerPart = Math.floor(x);
+    final double scaledFraction = (x - integerPart) * nIntervals;
+    // just below an integer, x - floor(x) may round up to 1; the last interval is interpolated at its end then
+    final int i = Math.min((int) scaledFraction, nIntervals - 1);
+    final double t = scaledFraction - i;
+    final double fractionExp = fractionExps[i] + t * (fractionExps[i + 1] - fractionExps[i]);
+    return integerExps[(int) integerPart - MIN_EXPONENT] * fractionExp;
+  }
+
+  // max relative error of interpolating linearly the exponential over an interval of length h
+  private static double interpolationError(final double h) {
+    return h * h / 8 * Math.exp(h);
+  }
+}
@@ -4,8 +4,10 @@ import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 import ar.edu.itba.ss.pedestriandynamic.services.RandomService;
 import ar.edu.itba.ss.pedestriandynamic.services.apis.Space2DMaths;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Predicate;
 
 public class ParticleFactory {
   private static ParticleFactory particleFactory;
@@ -50,6 +52,24 @@ public class ParticleFactory {
                              final double mass,
                              final boolean overlapAllowed,
                              final int maxTries) {
+    return randomPoints(leftBottomParticle, rightTopParticle, radios, mass, overlapAllowed, maxTries,
+            particle -> true);
+  }
+
+  /**
+   * Same as {@link #randomPoints(Particle, Particle, double[], double, boolean, int)}, but only accepting the
+   * particles for which {@code isValid} holds, as those that do not overlap the room's walls and obstacles.
+   * Invalid particles count as failed tries, as overlapped ones do.
+   *
+   * @param isValid whether a generated particle may be placed where it is
+   */
+  public Set<Particle> randomPoints(final Particle leftBottomParticle,
+                                    final Particle rightTopParticle,
+                                    final double[] radios,
+                                    final double mass,
+                                    final boolean overlapAllowed,
+                                    final int maxTries,
+                                    final Predicate<Particle> isValid) {
     final double minX, minY, maxX, maxY;
     if (leftBottomParticle != null) {
       minX = leftBottomParticle.x();
@@ -80,14 +100,11 @@ public class ParticleFactory {
       currMinY = minY + radio;
       currMaxY = maxY - radio;
 
-      if (overlapAllowed) {
-        currentParticle = createOverlappedParticle(currMinX, currMaxX, currMinY, currMaxY, radio, mass);
-      } else {
-        currentParticle = createNonOverlappedParticle(
-                currMinX, currMaxX, currMinY, currMaxY, radio, mass, generatedParticles, maxTries);
-        if (currentParticle == null) { // could not generate a new particle that does not overlap
-          return generatedParticles;
-        }
+      // when overlap is allowed, particles are only checked against isValid
+      currentParticle = createNonOverlappedParticle(currMinX, currMaxX, currMinY, currMaxY, radio, mass,
+              overlapAllowed ? Collections.emptySet() : generatedParticles, maxTries, isValid);
+      if (currentParticle == null) { // could not generate a new valid particle that does not overlap
+        return generatedParticles;
       }
 
       // for sure that the particle is not at the set; if it were, it would have overlapped with itself
@@ -97,22 +114,6 @@ public class ParticleFactory {
     return generatedParticles;
   }
 
-  /**
-   * Creates a new particle that can overlap all the previous generated ones
-   * @param minX min x position the particle can have
-   * @param maxX max x position the particle can have
-   * @param minY min y position the particle can have
-   * @param maxY max y position the particle can have
-   * @param radio particle's radio
-   * @param mass particle's mass
-   * @return the new particle
-   */
-  private Particle createOverlappedParticle(final double minX, final double maxX,
-                                            final double minY, final double maxY,
-                                            final double radio, final double mass) {
-    return createParticle(minX, maxX, minY, maxY, radio, mass);
-  }
-
   /**
    *
    * Creates a new particle checking that it does not overlap with any of the previous generated ones.
@@ -128,14 +129,16 @@ public class ParticleFactory {
    * @param mass particle's mass
    * @param generatedParticles all the previous generated particles
    * @param maxTries how many times it will try to create a new non-overlapping particle
-   * @return the created particle if it does not overlap with any of the previous generated ones and
-   * {@code maxTries}; null otherwise
+   * @param isValid whether the created particle may be placed where it is
+   * @return the created particle if it is valid and does not overlap with any of the previous generated ones
+   * within {@code maxTries}; null otherwise
    */
   private Particle createNonOverlappedParticle(final double minX, final double maxX,
                                                final double minY, final double maxY,
                                                final double radio, final double mass,
                                                final Set<Particle> generatedParticles,
-                                               final int maxTries) {
+                                               final int maxTries,
+                                               final Predicate<Particle> isValid) {
     int tries = 0;
     Particle createdParticle;
     do {
@@ -145,7 +148,7 @@ public class ParticleFactory {
       if (tries > maxTries) {
         return null;
       }
-    } while (overlaps(createdParticle, generatedParticles));
+    } while (!isValid.test(createdParticle) || overlaps(createdParticle, generatedParticles));
 
     return createdParticle;
   }
@@ -0,0 +1,98 @@
+package ar.edu.itba.ss.pedestriandynamic.services.gear;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
+
+/**
+ * Current and predicted derivatives of the particles of a gear predictor corrector, and their deltas R2, saved as
+ * dense arrays per derivative order and axis, indexed by each particle's {@code slot()}.
+ * <P>
+ * It is the alternative to the maps of {@link GearSystemData}: {@link GearPredictorCorrector} predicts, evaluates and
+ * fixes each particle directly over these arrays, with no map lookup, boxing nor {@code Vector2D} allocation.
+ * <P>
+ * Slots are kept along all the simulation, so the slot of a removed particle is just left unused.
+ */
+/* package-private */ final class GearArrays {
+  private final int nSlots;
+
+  // derivatives, indexed as [derivative order][slot]
+  private final double[][] x;
+  private final double[][] y;
+  private final double[][] predictedX;
+  private final double[][] predictedY;
+
+  // deltas R2, indexed by slot
+  private final double[] deltaR2X;
+  private final double[] deltaR2Y;
+
+  /**
+   * @param nSlots number of slots, i.e., max particle's slot + 1
+   * @param sVectors number of derivatives saved for each particle, i.e., gear's order + 1
+   */
+  /* package-private */ GearArrays(final int nSlots, final int sVectors) {
+    if (nSlots < 0) {
+      throw new IllegalArgumentException("Number of slots should be >= 0");
+    }
+    this.nSlots = nSlots;
+    this.x = new double[sVectors][nSlots];
+    this.y = new double[sVectors][nSlots];
+    this.predictedX = new double[sVectors][nSlots];
+    this.predictedY = new double[sVectors][nSlots];
+    this.deltaR2X = new double[nSlots];
+    this.deltaR2Y = new double[nSlots];
+  }
+
+  /* package-private */ int nSlots() {
+    return nSlots;
+  }
+
+  /* package-private */ double[][] x() {
+    return x;
+  }
+
+  /* package-private */ double[][] y() {
+    return y;
+  }
+
+  /* package-private */ double[][] predictedX() {
+    return predictedX;
+  }
+
+  /* package-private */ double[][] predictedY() {
+    return predictedY;
+  }
+
+  /* package-private */ double[] deltaR2X() {
+    return deltaR2X;
+  }
+
+  /* package-private */ double[] deltaR2Y() {
+    return deltaR2Y;
+  }
+
+  /* package-private */ Vector2D r(final int slot, final int derivativeOrder) {
+    return Vector2D.builder(x[derivativeOrder][slot], y[derivativeOrder][slot]).build();
+  }
+
+  /* package-private */ void r(final int slot, final int derivativeOrder, final Vector2D r) {
+    x[derivativeOrder][slot] = r.x();
+    y[derivativeOrder][slot] = r.y();
+  }
+
+  /* package-private */ Vector2D predictedR(final int slot, final int derivativeOrder) {
+    return Vector2D.builder(predictedX[derivativeOrder][slot], predictedY[derivativeOrder][slot]).build();
+  }
+
+  /* package-private */ void predictedR(final int slot, final int derivativeOrder, final Vector2D predictedR) {
+    predictedX[derivativeOrder][slot] = predictedR.x();
+    predictedY[derivativeOrder][slot] = predictedR.y();
+  }
+
+  /* package-private */ Vector2D deltaR2(final int slot) {
+    return Vector2D.builder(deltaR2X[slot], deltaR2Y[slot]).build();
+  }
+
+  /* package-private */ void deltaR2(final int slot, final Vector2D deltaR2) {
+    deltaR2X[slot] = deltaR2.x();
+    deltaR2Y[slot] = deltaR2.y();
+  }
+}
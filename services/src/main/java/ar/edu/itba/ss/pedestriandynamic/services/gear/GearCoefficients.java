@@ -0,0 +1,62 @@
+package ar.edu.itba.ss.pedestriandynamic.services.gear;
+
+import static java.lang.Math.pow;
+
+/**
+ * Coefficients of the predict, evaluate and fix steps of a gear predictor corrector of a given order, for a given dt.
+ * <P>
+ * They are computed once, when dt is set, so as the integrator applies them with no lookup nor {@code pow} per term:
+ * <ul>
+ *   <li>{@code prediction} is the Taylor (Pascal) matrix: {@code r^(p)_k(t+Δt) = Σ_(i=k to ORDER) prediction[k][i] *
+ *   r_i(t)}, with {@code prediction[k][i] = (Δt)^(i-k) / (i-k)!}</li>
+ *   <li>{@code evaluation} turns the difference between the evaluated and predicted accelerations into ΔR2:
+ *   {@code (Δt)^2 / 2!}</li>
+ *   <li>{@code correction} is the alpha vector, scaled for each derivative:
+ *   {@code r_k(t+Δt) = r^(p)_k(t+Δt) + correction[k] * ΔR2}, with {@code correction[k] = α_k * k! / (Δt)^k}</li>
+ * </ul>
+ * Each one is calculated with the same operations as the gear's formulas, so results do not change.
+ */
+/* package-private */ final class GearCoefficients {
+  private final double dt;
+  private final double[][] prediction;
+  private final double evaluation;
+  private final double[] correction;
+
+  /* package-private */ GearCoefficients(final GearSystemData systemData, final double dt) {
+    final int sVectors = systemData.sVectors();
+    this.dt = dt;
+    this.prediction = new double[sVectors][sVectors];
+    this.correction = new double[sVectors];
+    for (int k = 0; k < sVectors; k++) {
+      for (int i = k; i < sVectors; i++) {
+        prediction[k][i] = pow(dt, i - k) / systemData.factorial(i - k);
+      }
+      correction[k] = systemData.alpha(k) * systemData.factorial(k) / pow(dt, k);
+    }
+    // taken from Gear Predictor Corrector theory
+    this.evaluation = pow(dt, 2) / systemData.factorial(2);
+  }
+
+  /* package-private */ double dt() {
+    return dt;
+  }
+
+  /**
+   * @return the prediction matrix, indexed as [predicted derivative's order][current derivative's order];
+   * it is upper triangular
+   */
+  /* package-private */ double[][] prediction() {
+    return prediction;
+  }
+
+  /* package-private */ double evaluation() {
+    return evaluation;
+  }
+
+  /**
+   * @return the correction vector, indexed by derivative's order
+   */
+  /* package-private */ double[] correction() {
+    return correction;
+  }
+}
@@ -0,0 +1,66 @@
+package ar.edu.itba.ss.pedestriandynamic.services.gear;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+
+import java.util.Collection;
+
+/**
+ * Data manager of a Gear Predictor Corrector numeric integration method of any order from {@code MIN_ORDER} to
+ * {@code MAX_ORDER}, for second order differential equations, i.e., where forces give the second derivative.
+ * <P>
+ * Lower orders save fewer derivatives per particle and take fewer operations per step, at the cost of accuracy;
+ * see {@link GearCoefficients} for the constants of each step.
+ */
+public abstract class GearNSystemData extends GearSystemData {
+  public static final int MIN_ORDER = 2;
+  public static final int MAX_ORDER = 5;
+
+  private static final long[] factorial = new long[MAX_ORDER + 1];
+  /**
+   * Alpha values of each order, indexed as [order][derivative order]
+   */
+  private static final double[][] alpha = new double[MAX_ORDER + 1][];
+
+  static {
+    for(int i = 0; i <= MAX_ORDER; i++) {
+      factorial[i] = staticFactorial(i);
+    }
+
+    // Gear's alpha values for second order equations whose forces depend on velocities, as the pedestrians' ones,
+    // through tangential friction and driving forces; only orders 4 and 5 have a different alpha0 if they do not
+    // no alpha0 either way
+    alpha[2] = new double[] {0.0, 1.0, 1.0};
+    // same alpha0 either way
+    alpha[3] = new double[] {1.0/6.0, 5.0/6.0, 1.0, 1.0/3.0};
+    // alpha0 would be 19/120 if forces did not depend on velocities
+    alpha[4] = new double[] {19.0/90.0, 3.0/4.0, 1.0, 1.0/2.0, 1.0/12.0};
+    // as taken from class presentation; alpha0 would be 3/20 if forces did not depend on velocities
+    alpha[5] = new double[] {3.0/16.0, 251.0/360.0, 1.0, 11.0/18.0, 1.0/6.0, 1.0/60.0};
+  }
+
+  /**
+   * @param order order of the gear predictor corrector, from {@code MIN_ORDER} to {@code MAX_ORDER}
+   * @param slotArrays whether particles' derivatives are saved at arrays indexed by slot, instead of at maps;
+   *                   see {@link GearSystemData}
+   */
+  public GearNSystemData(final Collection<Particle> particles, final int order, final boolean slotArrays) {
+    super(particles, checkedOrder(order), slotArrays);
+  }
+
+  private static int checkedOrder(final int order) {
+    if (order < MIN_ORDER || order > MAX_ORDER) {
+      throw new IllegalArgumentException("Gear's order should be between " + MIN_ORDER + " and " + MAX_ORDER);
+    }
+    return order;
+  }
+
+  @Override
+  /* package-private */ long factorial(final int n) {
+    return factorial[n];
+  }
+
+  @Override
+  /* package-private */ double alpha(final int n) {
+    return alpha[order()][n];
+  }
+}
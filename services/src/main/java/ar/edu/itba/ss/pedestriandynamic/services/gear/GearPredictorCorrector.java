@@ -3,25 +3,91 @@ package ar.edu.itba.ss.pedestriandynamic.services.gear;
 import ar.edu.itba.ss.pedestriandynamic.interfaces.NumericIntegrationMethod;
 import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
+import ar.edu.itba.ss.pedestriandynamic.services.ParallelService;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * Gear predictor corrector integration method.
+ * <P>
+ * By default, each particle is evaluated and fixed right after the previous one. If a parallelism level is given,
+ * the evaluation of all the particles is done first, on a {@link ForkJoinPool}, and then each particle is fixed,
+ * sequentially and in the same order as it would be in the serial mode. Forces of all the particles are
+ * calculated with the same predicted values in both modes, so results are exactly the same, whatever
+ * the parallelism level.
+ * <P>
+ * On the parallel mode, {@code getForceWithPredicted} is called from several threads at once, so it should only
+ * read the system's predicted values and modify nothing but the given particle. All the other hooks are called
+ * from the integrating thread.
+ * <P>
+ * If the system's data saves particles' derivatives at arrays indexed by slot, instead of at maps, each particle is
+ * predicted, evaluated and fixed directly over those arrays; see {@link GearArrays}. Results are exactly the same.
+ */
 public class GearPredictorCorrector<K extends GearSystemData> implements NumericIntegrationMethod<K> {
+  // more tasks than threads, so as to balance load when some particles have more neighbours than others
+  private static final int TASKS_PER_THREAD = 4;
+
+  private final int parallelism;
+  /**
+   * Pool where particles are evaluated, shared with the other parallel algorithms; null on the serial mode
+   */
+  private final ForkJoinPool pool;
+
+  // reused between steps, so as not to allocate them on each one
+  private Particle[] evaluatedParticles;
+  private Vector2D[] evaluatedDeltasR2;
+
+  /**
+   * Creates a serial gear predictor corrector
+   */
+  public GearPredictorCorrector() {
+    this.parallelism = 1;
+    this.pool = null;
+  }
+
+  /**
+   * Creates a gear predictor corrector that evaluates particles in parallel
+   * @param parallelism number of threads used to evaluate particles
+   */
+  public GearPredictorCorrector(final int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism should be >= 1");
+    }
+    this.parallelism = parallelism;
+    this.pool = ParallelService.pool(parallelism);
+    this.evaluatedParticles = new Particle[0];
+    this.evaluatedDeltasR2 = new Vector2D[0];
+  }
+
   @Override
   public void evolveSystem(final GearSystemData systemData, final double dt) {
+    systemData.reorderIfNeeded();
     final int nParticles = systemData.nParticles();
 
+    // computed only when dt changes
+    final GearCoefficients coefficients = systemData.coefficients(dt);
+    final GearArrays arrays = systemData.arrays();
+
     systemData.prePredict();
 
-    final Collection<Particle> predictedSystemParticles = new HashSet<>(nParticles);
+    // lists, so as particles keep the system's iteration order along the whole step
+    final Collection<Particle> predictedSystemParticles = new ArrayList<>(nParticles);
 
     systemData.particles().forEach(cParticle -> {
-      // predict
-      predict(systemData, dt, cParticle);
+      final Particle cPredictedSystemParticle;
+      if (arrays != null) {
+        predict(arrays, coefficients, systemData.order(), cParticle.slot());
+        cPredictedSystemParticle = predictedSystemParticle(arrays, cParticle);
+      } else {
+        // predict
+        predict(systemData, coefficients, cParticle);
 
-      // update the currently predicting values
-      final Particle cPredictedSystemParticle = predictedSystemParticle(systemData, cParticle);
+        // update the currently predicting values
+        cPredictedSystemParticle = predictedSystemParticle(systemData, cParticle);
+      }
       predictedSystemParticles.add(cPredictedSystemParticle);
 
       // inform that this particle has just been predicted
@@ -34,31 +100,94 @@ public class GearPredictorCorrector<K extends GearSystemData> implements Numeric
     systemData.postPredict();
 
 
-    final Collection<Particle> updatedSystemParticles = new HashSet<>(nParticles);
+    final Collection<Particle> updatedSystemParticles = new ArrayList<>(nParticles);
 
     // fix and evaluate, all at once
     systemData.preEvaluate();
 
+    if (pool != null) {
+      evaluateAndFixInParallel(systemData, coefficients, updatedSystemParticles);
+    } else {
+      evaluateAndFix(systemData, coefficients, updatedSystemParticles);
+    }
+
+    // update all system's particles
+    systemData.particles(updatedSystemParticles);
+    systemData.postFix();
+  }
+
+  // private methods
+
+  private void evaluateAndFix(final GearSystemData systemData, final GearCoefficients coefficients,
+                              final Collection<Particle> updatedSystemParticles) {
+    final GearArrays arrays = systemData.arrays();
     systemData.predictedParticles().forEach(cParticle -> {
-      evaluate(systemData, dt, cParticle);
+      if (arrays != null) {
+        evaluate(arrays, systemData, coefficients.evaluation(), cParticle);
+      } else {
+        evaluate(systemData, coefficients, cParticle);
+      }
 
       // fix cycle
       systemData.preFix();
-      fix(systemData, dt, cParticle);
-      // update system's particle
-      final Particle cUpdatedSystemParticle = updatedParticle(systemData, cParticle);
+      final Particle cUpdatedSystemParticle = fixedParticle(systemData, coefficients, cParticle);
       updatedSystemParticles.add(cUpdatedSystemParticle);
 
       // inform that this particle has just been predicted
       systemData.fixed(cUpdatedSystemParticle);
     });
+  }
 
-    // update all system's particles
-    systemData.particles(updatedSystemParticles);
-    systemData.postFix();
+  /**
+   * Evaluates all the predicted particles in parallel, and then fixes them sequentially, in the same order
+   * as {@code evaluateAndFix} does
+   */
+  private void evaluateAndFixInParallel(final GearSystemData systemData, final GearCoefficients coefficients,
+                                        final Collection<Particle> updatedSystemParticles) {
+    final Collection<Particle> predictedParticles = systemData.predictedParticles();
+    final int nParticles = predictedParticles.size();
+    if (evaluatedParticles.length < nParticles) {
+      evaluatedParticles = new Particle[nParticles];
+      evaluatedDeltasR2 = new Vector2D[nParticles];
+    }
+    predictedParticles.toArray(evaluatedParticles);
+
+    final double constant = coefficients.evaluation();
+    final int particlesPerTask = Math.max(1, nParticles / (parallelism * TASKS_PER_THREAD));
+    pool.invoke(new EvaluateTask(systemData, constant, 0, nParticles, particlesPerTask));
+
+    for (int i = 0; i < nParticles; i++) {
+      final Particle cParticle = evaluatedParticles[i];
+      if (systemData.arrays() == null) {
+        // with arrays, each task has already saved its particles' deltas R2, at their own slots
+        systemData.setDeltaR2(cParticle, evaluatedDeltasR2[i]);
+      }
+
+      // fix cycle
+      systemData.preFix();
+      final Particle cUpdatedSystemParticle = fixedParticle(systemData, coefficients, cParticle);
+      updatedSystemParticles.add(cUpdatedSystemParticle);
+
+      // inform that this particle has just been predicted
+      systemData.fixed(cUpdatedSystemParticle);
+    }
   }
 
-  // private methods
+  /**
+   * Fixes the given particle, over the system's data arrays if it has them
+   * @return the system's particle updated with its fixed values
+   */
+  private Particle fixedParticle(final GearSystemData systemData, final GearCoefficients coefficients,
+                                 final Particle particle) {
+    final GearArrays arrays = systemData.arrays();
+    if (arrays != null) {
+      fix(arrays, coefficients, systemData.order(), particle.slot());
+      return updatedParticle(arrays, particle);
+    }
+    fix(systemData, coefficients, particle);
+    // update system's particle
+    return updatedParticle(systemData, particle);
+  }
 
   private Particle predictedSystemParticle(final GearSystemData systemData, final Particle cSystemParticle) {
     final Vector2D uP = systemData.getPredictedR(cSystemParticle, 0);
@@ -80,10 +209,11 @@ public class GearPredictorCorrector<K extends GearSystemData> implements Numeric
     Variables within this method associated with the above formula
     cTermDerivativeOrder := i
     cTermDerivativeValue := r_i(t)
-    cTermConstantValue := (Δt)^(term) / term!
+    cTermConstantValue := (Δt)^(term) / term!, precomputed at the prediction matrix; see GearCoefficients
     ---------------------------------------------------------
    */
-  private void predict(final GearSystemData systemData, final double dt, final Particle particle) {
+  private void predict(final GearSystemData systemData, final GearCoefficients coefficients,
+                       final Particle particle) {
     // we are going to update the values of all the orders of the derivative for this particle
     // we start iterating over all orders, from the first to the last
     for (int cDerivativeOrder = 0; cDerivativeOrder <= systemData.order() ; cDerivativeOrder++) {
@@ -104,7 +234,7 @@ public class GearPredictorCorrector<K extends GearSystemData> implements Numeric
         // we get the value of the derivative with the above order of the current particle
         final Vector2D cTermDerivativeValue = systemData.getR(particle, cTermDerivativeOrder);
         // we get the constant value that goes along with the current term being calculated
-        final double cTermConstantValue = systemData.getPredictedConstantTerm(cTerm, dt);
+        final double cTermConstantValue = coefficients.prediction()[cDerivativeOrder][cTermDerivativeOrder];
         // we append this term to all the previous terms
         cUpdatedDerivativeValue = cUpdatedDerivativeValue.add(cTermDerivativeValue.times(cTermConstantValue));
         // we go on with the next term, if any
@@ -118,23 +248,96 @@ public class GearPredictorCorrector<K extends GearSystemData> implements Numeric
     }
   }
 
+  /**
+   * Same as {@code predict}, but over the particle's derivatives saved at {@code arrays}, multiplying them by each
+   * row of the prediction matrix. Terms are summed in the same order, so results are exactly the same.
+   */
+  private static void predict(final GearArrays arrays, final GearCoefficients coefficients, final int order,
+                              final int slot) {
+    final double[][] x = arrays.x();
+    final double[][] y = arrays.y();
+    final double[][] predictedX = arrays.predictedX();
+    final double[][] predictedY = arrays.predictedY();
+    final double[][] prediction = coefficients.prediction();
+    for (int cDerivativeOrder = 0; cDerivativeOrder <= order; cDerivativeOrder++) {
+      final double[] row = prediction[cDerivativeOrder];
+      double predictedRX = 0;
+      double predictedRY = 0;
+      for (int cTermDerivativeOrder = cDerivativeOrder; cTermDerivativeOrder <= order; cTermDerivativeOrder++) {
+        predictedRX += x[cTermDerivativeOrder][slot] * row[cTermDerivativeOrder];
+        predictedRY += y[cTermDerivativeOrder][slot] * row[cTermDerivativeOrder];
+      }
+      predictedX[cDerivativeOrder][slot] = predictedRX;
+      predictedY[cDerivativeOrder][slot] = predictedRY;
+    }
+  }
+
+  private static Particle predictedSystemParticle(final GearArrays arrays, final Particle cSystemParticle) {
+    final int slot = cSystemParticle.slot();
+    final double mass = cSystemParticle.mass();
+    final double[][] predictedX = arrays.predictedX();
+    final double[][] predictedY = arrays.predictedY();
+    return cSystemParticle.update(predictedX[0][slot], predictedY[0][slot], predictedX[1][slot], predictedY[1][slot],
+            predictedX[2][slot] * mass, predictedY[2][slot] * mass);
+  }
+
   private void evaluate(final GearSystemData systemData,
-                        final double dt,
+                        final GearCoefficients coefficients,
                         final Particle particle) {
+    final Vector2D deltaR2 = deltaR2(systemData, coefficients.evaluation(), particle);
+    systemData.setDeltaR2(particle, deltaR2);
+  }
+
+  private static Vector2D deltaR2(final GearSystemData systemData, final double constant, final Particle particle) {
     final Vector2D accelerationWithPredictedVariables = systemData.getForceWithPredicted(particle).div(particle.mass());
     // '2' value taken from Gear Predictor Corrector theory
     final Vector2D predictedAcceleration = systemData.getPredictedR(particle, 2);
     final Vector2D deltaAcceleration = accelerationWithPredictedVariables.sub(predictedAcceleration);
-    final double constant = systemData.getEvaluateConstant(dt);
-    final Vector2D deltaR2 = deltaAcceleration.times(constant);
-    systemData.setDeltaR2(particle, deltaR2);
+    return deltaAcceleration.times(constant);
   }
 
-  private void fix(final GearSystemData systemData, final double dt, final Particle particle) {
+  /**
+   * Same as {@code evaluate}, but saving the particle's delta R2 at {@code arrays}.
+   * It only writes to the particle's own slot, so it may be called from several threads at once.
+   */
+  private static void evaluate(final GearArrays arrays, final GearSystemData systemData, final double constant,
+                               final Particle particle) {
+    final Vector2D force = systemData.getForceWithPredicted(particle);
+    final int slot = particle.slot();
+    final double mass = particle.mass();
+    // '2' value taken from Gear Predictor Corrector theory
+    arrays.deltaR2X()[slot] = (force.x() / mass - arrays.predictedX()[2][slot]) * constant;
+    arrays.deltaR2Y()[slot] = (force.y() / mass - arrays.predictedY()[2][slot]) * constant;
+  }
+
+  private static void fix(final GearArrays arrays, final GearCoefficients coefficients, final int order,
+                          final int slot) {
+    final double[][] x = arrays.x();
+    final double[][] y = arrays.y();
+    final double[][] predictedX = arrays.predictedX();
+    final double[][] predictedY = arrays.predictedY();
+    final double deltaR2X = arrays.deltaR2X()[slot];
+    final double deltaR2Y = arrays.deltaR2Y()[slot];
+    final double[] correction = coefficients.correction();
+    for (int cDerivativeOrder = 0; cDerivativeOrder <= order; cDerivativeOrder++) {
+      x[cDerivativeOrder][slot] = predictedX[cDerivativeOrder][slot] + deltaR2X * correction[cDerivativeOrder];
+      y[cDerivativeOrder][slot] = predictedY[cDerivativeOrder][slot] + deltaR2Y * correction[cDerivativeOrder];
+    }
+  }
+
+  private static Particle updatedParticle(final GearArrays arrays, final Particle particle) {
+    final int slot = particle.slot();
+    final double mass = particle.mass();
+    final double[][] x = arrays.x();
+    final double[][] y = arrays.y();
+    return particle.update(x[0][slot], y[0][slot], x[1][slot], y[1][slot], x[2][slot] * mass, y[2][slot] * mass);
+  }
+
+  private void fix(final GearSystemData systemData, final GearCoefficients coefficients, final Particle particle) {
     for(int cDerivativeOrder = 0; cDerivativeOrder <= systemData.order() ; cDerivativeOrder++) {
       final Vector2D predictedR = systemData.getPredictedR(particle, cDerivativeOrder);
       final Vector2D deltaR2 = systemData.getDeltaR2(particle);
-      final double constant = systemData.getFixConstantOrder(cDerivativeOrder, dt);
+      final double constant = coefficients.correction()[cDerivativeOrder];
       final Vector2D secondTerm = deltaR2.times(constant);
       final Vector2D updatedR = predictedR.add(secondTerm);
       systemData.setR(particle, cDerivativeOrder, updatedR);
@@ -147,4 +350,44 @@ public class GearPredictorCorrector<K extends GearSystemData> implements Numeric
     final Vector2D uForce = systemData.getR(particle, 2).times(particle.mass());
     return particle.update(uPosition, uVelocity, uForce);
   }
+
+  /**
+   * Evaluates the given range of {@code evaluatedParticles}, splitting it in halves until it is small enough
+   */
+  private class EvaluateTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final GearSystemData systemData;
+    private final double constant;
+    private final int from;
+    private final int to;
+    private final int particlesPerTask;
+
+    private EvaluateTask(final GearSystemData systemData, final double constant,
+                         final int from, final int to, final int particlesPerTask) {
+      this.systemData = systemData;
+      this.constant = constant;
+      this.from = from;
+      this.to = to;
+      this.particlesPerTask = particlesPerTask;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= particlesPerTask) {
+        final GearArrays arrays = systemData.arrays();
+        for (int i = from; i < to; i++) {
+          if (arrays != null) {
+            evaluate(arrays, systemData, constant, evaluatedParticles[i]);
+          } else {
+            evaluatedDeltasR2[i] = deltaR2(systemData, constant, evaluatedParticles[i]);
+          }
+        }
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      invokeAll(new EvaluateTask(systemData, constant, from, middle, particlesPerTask),
+              new EvaluateTask(systemData, constant, middle, to, particlesPerTask));
+    }
+  }
 }
@@ -4,11 +4,10 @@ package ar.edu.itba.ss.pedestriandynamic.services.gear;
 import ar.edu.itba.ss.pedestriandynamic.interfaces.SystemData;
 import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.SpaceFillingCurves;
 
 import java.util.*;
 
-import static java.lang.Math.pow;
-
 /* package-private */ abstract class GearSystemData implements SystemData {
     /*
       General notes:
@@ -37,18 +36,21 @@ import static java.lang.Math.pow;
    *  #particle => delta_R2_value }
    */
   private final Map<Particle, Vector2D> deltasR2;
-  private final Map<Integer, Map<Double, Double>> predictedConstants;
-  private final Map<Integer, Map<Double, Double>> fixConstants;
-  private final Map<Double, Double> evaluateConstants;
-  /* init */ {
-    predictedConstants = new HashMap<>();
-    fixConstants = new HashMap<>();
-    for (int order = 0 ; order < sVectors() ; order++) {
-      predictedConstants.put(order, new HashMap<>());
-      fixConstants.put(order, new HashMap<>());
-    }
-    evaluateConstants = new HashMap<>();
-  }
+
+  /**
+   * Current and predicted derivatives, and deltas R2, of each particle, indexed by slot; null if they are saved at
+   * the above maps instead
+   */
+  private final GearArrays arrays;
+
+  /**
+   * Order of the gear predictor corrector
+   */
+  private final int order;
+  /**
+   * Coefficients for the last used dt; null if none has been used yet
+   */
+  private GearCoefficients coefficients;
 
   /**
    * System's particles
@@ -58,16 +60,38 @@ import static java.lang.Math.pow;
 
   private Collection<Particle> particlesToRemove;
 
-  /* package-private */ GearSystemData(final Collection<Particle> particles) {
+  /**
+   * Number of steps between each sorting of the system's particles; 0 if they should never be sorted
+   */
+  private int reorderInterval;
+  private long nSteps;
+
+  /**
+   * @param order order of the gear predictor corrector
+   * @param slotArrays whether particles' derivatives are saved at arrays indexed by slot, instead of at maps;
+   *                   if so, each particle should have a slot between 0 and {@code particles.size() - 1} by the time
+   *                   it is initialized with {@code initParticle}. Both give exactly the same results.
+   */
+  /* package-private */ GearSystemData(final Collection<Particle> particles, final int order,
+                                       final boolean slotArrays) {
+    this.order = order;
     this.particles = particles;
-    this.predictedParticles = new HashSet<>();
+    this.predictedParticles = new ArrayList<>();
     this.particlesToRemove = new HashSet<>();
 
     final int nParticles = particles.size();
 
-    this.predictedRs = new HashMap<>(nParticles);
-    this.currentRs = new HashMap<>(nParticles);
-    this.deltasR2 = new HashMap<>(nParticles);
+    if (slotArrays) {
+      this.predictedRs = null;
+      this.currentRs = null;
+      this.deltasR2 = null;
+      this.arrays = new GearArrays(nParticles, sVectors());
+    } else {
+      this.predictedRs = new HashMap<>(nParticles);
+      this.currentRs = new HashMap<>(nParticles);
+      this.deltasR2 = new HashMap<>(nParticles);
+      this.arrays = null;
+    }
   }
 
   @Override
@@ -75,10 +99,37 @@ import static java.lang.Math.pow;
     return particles;
   }
 
+  /**
+   * @return max module of the deltas R2 of the system's particles on the last step, i.e., of the difference between
+   * their evaluated and predicted accelerations times {@code (Δt)^2 / 2}; it estimates how far the predicted
+   * positions were from the corrected ones, so it is an estimation of the step's error
+   */
+  public double maxDeltaR2() {
+    double maxDeltaR2 = 0;
+    for (final Particle particle : particles) {
+      if (arrays != null) {
+        final int slot = particle.slot();
+        maxDeltaR2 = Math.max(maxDeltaR2, Math.hypot(arrays.deltaR2X()[slot], arrays.deltaR2Y()[slot]));
+        continue;
+      }
+      final Vector2D deltaR2 = getDeltaR2(particle);
+      if (deltaR2 != null) {
+        maxDeltaR2 = Math.max(maxDeltaR2, deltaR2.norm2());
+      }
+    }
+    return maxDeltaR2;
+  }
+
+  /**
+   * @return each particle's current derivatives; null if they are saved at arrays indexed by slot
+   */
   protected Map<Particle, Map<Integer, Vector2D>> currentRs(){
     return this.currentRs;
   }
 
+  /**
+   * @return each particle's predicted derivatives; null if they are saved at arrays indexed by slot
+   */
   protected Map<Particle, Map<Integer, Vector2D>> predictedRs(){
     return this.predictedRs;
   }
@@ -111,6 +162,8 @@ import static java.lang.Math.pow;
    * @return a force vector calculated with the predicted values
    * @implNote
    * - if there is the need to use the rest of the system's particles just call particles() method
+   * - it may be called from several threads at once, if particles are evaluated in parallel; see
+   * {@link GearPredictorCorrector}
    */
   protected abstract Vector2D getForceWithPredicted(final Particle particle);
 
@@ -125,6 +178,17 @@ import static java.lang.Math.pow;
    * before the usage of the gear method
    */
   protected void initParticle(final Particle particle) {
+    if (arrays != null) {
+      final int slot = particle.slot();
+      if (slot < 0 || slot >= arrays.nSlots()) {
+        throw new IllegalArgumentException("Particles should have a slot between 0 and " + (arrays.nSlots() - 1));
+      }
+      final Map<Integer, Vector2D> initialDerivativeValues = setInitialDerivativeValues(particle);
+      for (int order = 0; order < sVectors(); order++) {
+        arrays.r(slot, order, initialDerivativeValues.get(order));
+      }
+      return;
+    }
     // initialize maps
     // create internal predicted map
     this.predictedRs.put(particle, new HashMap<>(sVectors()));
@@ -136,12 +200,16 @@ import static java.lang.Math.pow;
    *
    * @return the order of the data manager
    */
-  protected abstract int order();
+  protected int order() {
+    return order;
+  }
 
   /**
    * @return the size of the memory structures to be used when using this data manager
    */
-  protected abstract int sVectors();
+  protected int sVectors() {
+    return order + 1;
+  }
 
   /**
    * Gets the predicted R value of order {@code derivativeOrder} of the given {@code particle}
@@ -150,6 +218,9 @@ import static java.lang.Math.pow;
    * @return the predicted R value of order {@code derivativeOrder} of the given {@code particle}; null if none
    */
   protected Vector2D getPredictedR(final Particle particle, final int derivativeOrder) {
+    if (arrays != null) {
+      return arrays.predictedR(particle.slot(), derivativeOrder);
+    }
     return predictedRs.get(particle).get(derivativeOrder);
   }
 
@@ -161,6 +232,38 @@ import static java.lang.Math.pow;
     particlesToRemove.add(particle);
   }
 
+  /**
+   * Sets how often the system's particles are sorted by the Morton key of their positions, so as particles that
+   * are close in space are also close in the integrator's and neighbours finder's iteration order.
+   * @param reorderInterval number of steps between each sorting; 0 if particles should never be sorted
+   */
+  protected void reorderInterval(final int reorderInterval) {
+    if (reorderInterval < 0) {
+      throw new IllegalArgumentException("Reorder interval should be >= 0");
+    }
+    this.reorderInterval = reorderInterval;
+  }
+
+  /**
+   * Moves the given {@code particle} to the given {@code position}, keeping all its other values.
+   * <P>
+   * Useful for systems with periodic limits, where particles that leave the system through one side
+   * enter it again through the opposite one.
+   * @param particle the particle to be moved
+   * @param position the new position of the particle
+   * @implNote This method should be called once the particle has been fixed, i.e., from {@code postFix}
+   */
+  protected void relocate(final Particle particle, final Vector2D position) {
+    if (arrays != null) {
+      arrays.r(particle.slot(), 0, position);
+    } else {
+      currentRs.get(particle).put(0, position);
+    }
+    particles.remove(particle);
+    final Vector2D force = Vector2D.builder(particle.forceX(), particle.forceY()).build();
+    particles.add(particle.update(position, particle.r1(), force));
+  }
+
   /**
    * Execute some statements before prediction step
    */
@@ -224,6 +327,14 @@ import static java.lang.Math.pow;
     removeParticles();
   }
 
+  /**
+   * Execute some statements just after the given particle has been removed from the system
+   */
+  @SuppressWarnings("WeakerAccess")
+  protected void removed(@SuppressWarnings("UnusedParameters") final Particle particle) {
+
+  }
+
   /* package-private */
   protected Collection<Particle> predictedParticles() {
     return this.predictedParticles;
@@ -242,29 +353,40 @@ import static java.lang.Math.pow;
   // access allowed from this module and gear package only, i.e., from Gear implementations only
 
   /**
-   * Retrieves the constant for the predicted step of the specified term and the given dt
-   * @param cTerm the term whose constant is needed
-   * @param dt the dt used to calculate the constant
-   * @return the constant for the predicted step for the specified parameters
+   * Retrieves the coefficients of the predict, evaluate and fix steps for the given dt, computing them only if dt
+   * has changed since the last step
+   * @param dt the dt used to calculate the coefficients
+   * @return the coefficients for the given dt
    */
-  /* package-private */ double getPredictedConstantTerm(final int cTerm, final double dt) {
-    return predictedConstants.get(cTerm).computeIfAbsent(dt, aDouble -> pow(dt, cTerm) / factorial(cTerm));
-  }
-
-  /* package-private */ double getEvaluateConstant(final double dt) {
-    // taken from Gear Predictor Corrector theory
-    return evaluateConstants.computeIfAbsent(dt, aDouble -> pow(dt, 2)/factorial(2));
+  /* package-private */ GearCoefficients coefficients(final double dt) {
+    if (coefficients == null || coefficients.dt() != dt) {
+      coefficients = new GearCoefficients(this, dt);
+    }
+    return coefficients;
   }
 
-  /* package-private */ double getFixConstantOrder(final int order, final double dt) {
-    return fixConstants.get(order).computeIfAbsent(dt,
-            aDouble -> alpha(order) * factorial(order) / pow(dt, order));
+  /**
+   * @return particles' derivatives, indexed by slot; null if they are saved at maps
+   */
+  /* package-private */ GearArrays arrays() {
+    return arrays;
   }
 
   /* package-private */ void predictedParticles(final Collection<Particle> predictedParticles) {
     this.predictedParticles = predictedParticles;
   }
 
+  /**
+   * Sorts the system's particles by the Morton key of their positions if {@code reorderInterval} steps
+   * have passed since the last sorting
+   * @implNote This method should be called at the beginning of each step
+   */
+  /* package-private */ void reorderIfNeeded() {
+    if (reorderInterval > 0 && nSteps++ % reorderInterval == 0) {
+      particles = SpaceFillingCurves.sortedByMortonKey(particles);
+    }
+  }
+
   /* package-private */ int nParticles() {
     return particles.size();
   }
@@ -274,11 +396,15 @@ import static java.lang.Math.pow;
    * @param particle the particle whose predicted R value of order {@code derivativeOrder} wants to be set
    * @param derivativeOrder the order of the predicted R value to be set for the given {@code particle}
    * @param updatedR the updated predicted R value
-   * @return the previous predicted R value; null if none
+   * @return the previous predicted R value; null if none, or if derivatives are saved at arrays
    */
   /* package-private */ Vector2D setPredictedR(final Particle particle,
                                                final int derivativeOrder,
                                                final Vector2D updatedR) {
+    if (arrays != null) {
+      arrays.predictedR(particle.slot(), derivativeOrder, updatedR);
+      return null;
+    }
     return predictedRs.get(particle).put(derivativeOrder, updatedR);
   }
 
@@ -289,6 +415,9 @@ import static java.lang.Math.pow;
    * @return the R value of order {@code derivativeOrder} of the given {@code particle}; null if none
    */
   /* package-private */ Vector2D getR(final Particle particle, final int derivativeOrder) {
+    if (arrays != null) {
+      return arrays.r(particle.slot(), derivativeOrder);
+    }
     return currentRs.get(particle).get(derivativeOrder);
   }
 
@@ -297,9 +426,13 @@ import static java.lang.Math.pow;
    * @param particle the particle whose R value of order {@code derivativeOrder} wants to be set
    * @param derivativeOrder the order of the R value to be set for the given {@code particle}
    * @param updatedR the updated R value
-   * @return the previous R value; null if none
+   * @return the previous R value; null if none, or if derivatives are saved at arrays
    */
   /* package-private */ Vector2D setR(final Particle particle, final int derivativeOrder, final Vector2D updatedR) {
+    if (arrays != null) {
+      arrays.r(particle.slot(), derivativeOrder, updatedR);
+      return null;
+    }
     return currentRs.get(particle).put(derivativeOrder, updatedR);
   }
 
@@ -309,15 +442,22 @@ import static java.lang.Math.pow;
    * @return the {@code deltaR2} value of the given {@code particle}; null if none
    */
   /* package-private */ Vector2D getDeltaR2(final Particle particle) {
+    if (arrays != null) {
+      return arrays.deltaR2(particle.slot());
+    }
     return deltasR2.get(particle);
   }
 
   /**
    * Sets the new {@code deltaR2} value - {@code updatedDeltaR2} - of the given {@code particle}
    * @param particle the particle whose {@code deltaR2} value wants to be set
-   * @return the previous {@code deltaR2} value; null if none
+   * @return the previous {@code deltaR2} value; null if none, or if derivatives are saved at arrays
    */
   /* package-private */ Vector2D setDeltaR2(final Particle particle, final Vector2D updatedDeltaR2) {
+    if (arrays != null) {
+      arrays.deltaR2(particle.slot(), updatedDeltaR2);
+      return null;
+    }
     return deltasR2.put(particle, updatedDeltaR2);
   }
 
@@ -331,11 +471,10 @@ import static java.lang.Math.pow;
   /* package-private */ abstract long factorial(final int n);
 
   /**
-   * Retrieves the precomputed factorial of {@code n}
-   * @param n number to be used
-   * @return the precomputed factorial of {@code n}
-   * @implNote n should be <= order() as there is no need to use greater values
-   * in any Gear Predict Corrector implementations
+   * Retrieves the corrector's alpha constant of the derivative of order {@code n}
+   * @param n derivative's order
+   * @return the alpha constant of the derivative of order {@code n}
+   * @implNote n should be <= order(), as there is one alpha constant per derivative
    */
   /* package-private */ abstract double alpha(final int n);
 
@@ -369,7 +508,11 @@ import static java.lang.Math.pow;
   private void remove(final Particle particle) {
     particles.remove(particle);
     predictedParticles.remove(particle);
-    predictedRs.remove(particle);
-    currentRs.remove(particle);
+    // a removed particle's slot is just left unused
+    if (arrays == null) {
+      predictedRs.remove(particle);
+      currentRs.remove(particle);
+    }
+    removed(particle);
   }
 }
@@ -0,0 +1,75 @@
+package ar.edu.itba.ss.pedestriandynamic.services.gear;
+
+/**
+ * Leapfrog integration method, on its kick-drift form:
+ * <ul>
+ *   <li>{@code v(t+Δt/2) = v(t-Δt'/2) + a(t) * (Δt' + Δt) / 2}, being {@code Δt'} the previous step's dt</li>
+ *   <li>{@code r(t+Δt) = r(t) + v(t+Δt/2) * Δt}</li>
+ * </ul>
+ * The first derivative saved for each particle is its velocity at the half step; the velocity of the particles
+ * reported to the system, and with which velocity dependent forces are evaluated, is the one at the end of the step,
+ * {@code v(t+Δt/2) + a * Δt / 2}, with the acceleration at the start and at the end of the step respectively.
+ * <P>
+ * Trajectories are the same as the ones of {@link VelocityVerlet} but for rounding: it only saves one velocity per
+ * particle, updating it once per step. As it keeps the previous step's dt, an instance should only integrate
+ * one system's data.
+ */
+public class Leapfrog<K extends GearSystemData> extends VerletIntegrationMethod<K> {
+  /**
+   * dt of the previous step; 0 before the first one, as the saved velocity is then the one at {@code t = 0}
+   */
+  private double previousDt;
+
+  /**
+   * Creates a serial leapfrog
+   */
+  public Leapfrog() {
+    super();
+  }
+
+  /**
+   * Creates a leapfrog that evaluates particles in parallel
+   * @param parallelism number of threads used to evaluate particles
+   */
+  public Leapfrog(final int parallelism) {
+    super(parallelism);
+  }
+
+  @Override
+  public void evolveSystem(final GearSystemData systemData, final double dt) {
+    super.evolveSystem(systemData, dt);
+    previousDt = dt;
+  }
+
+  @Override
+  /* package-private */ void drift(final GearArrays arrays, final int slot, final double dt) {
+    drift(arrays.x(), arrays.predictedX(), slot, previousDt, dt);
+    drift(arrays.y(), arrays.predictedY(), slot, previousDt, dt);
+  }
+
+  @Override
+  /* package-private */ void kick(final GearArrays arrays, final int slot, final double dt) {
+    kick(arrays.x(), arrays.predictedX(), slot);
+    kick(arrays.y(), arrays.predictedY(), slot);
+  }
+
+  @Override
+  /* package-private */ double velocity(final double[][] r, final int slot, final double dt) {
+    return r[1][slot] + r[2][slot] * dt / 2;
+  }
+
+  private static void drift(final double[][] r, final double[][] predictedR, final int slot,
+                            final double previousDt, final double dt) {
+    // velocity at the half step
+    r[1][slot] = r[1][slot] + r[2][slot] * (previousDt + dt) / 2;
+
+    predictedR[0][slot] = r[0][slot] + r[1][slot] * dt;
+    predictedR[1][slot] = r[1][slot] + r[2][slot] * dt / 2;
+    predictedR[2][slot] = r[2][slot];
+  }
+
+  private static void kick(final double[][] r, final double[][] predictedR, final int slot) {
+    r[0][slot] = predictedR[0][slot];
+    r[2][slot] = predictedR[2][slot];
+  }
+}
@@ -0,0 +1,59 @@
+package ar.edu.itba.ss.pedestriandynamic.services.gear;
+
+/**
+ * Velocity Verlet integration method:
+ * <ul>
+ *   <li>{@code r(t+Δt) = r(t) + v(t) * Δt + a(t) * (Δt)^2 / 2}</li>
+ *   <li>{@code v(t+Δt) = v(t) + (a(t) + a(t+Δt)) * Δt / 2}</li>
+ * </ul>
+ * Forces that depend on velocity are evaluated with the velocity extrapolated to the end of the step,
+ * {@code v(t) + a(t) * Δt}, as the gear's predicted one.
+ * <P>
+ * It evaluates forces once per step, as the gear predictor corrector does, but it is symplectic for position
+ * dependent forces and only saves derivatives of orders 0 to 2; see {@link VerletIntegrationMethod}.
+ */
+public class VelocityVerlet<K extends GearSystemData> extends VerletIntegrationMethod<K> {
+  /**
+   * Creates a serial velocity Verlet
+   */
+  public VelocityVerlet() {
+    super();
+  }
+
+  /**
+   * Creates a velocity Verlet that evaluates particles in parallel
+   * @param parallelism number of threads used to evaluate particles
+   */
+  public VelocityVerlet(final int parallelism) {
+    super(parallelism);
+  }
+
+  @Override
+  /* package-private */ void drift(final GearArrays arrays, final int slot, final double dt) {
+    drift(arrays.x(), arrays.predictedX(), slot, dt);
+    drift(arrays.y(), arrays.predictedY(), slot, dt);
+  }
+
+  @Override
+  /* package-private */ void kick(final GearArrays arrays, final int slot, final double dt) {
+    kick(arrays.x(), arrays.predictedX(), slot, dt);
+    kick(arrays.y(), arrays.predictedY(), slot, dt);
+  }
+
+  @Override
+  /* package-private */ double velocity(final double[][] r, final int slot, final double dt) {
+    return r[1][slot];
+  }
+
+  private static void drift(final double[][] r, final double[][] predictedR, final int slot, final double dt) {
+    predictedR[0][slot] = r[0][slot] + r[1][slot] * dt + r[2][slot] * dt * dt / 2;
+    predictedR[1][slot] = r[1][slot] + r[2][slot] * dt;
+    predictedR[2][slot] = r[2][slot];
+  }
+
+  private static void kick(final double[][] r, final double[][] predictedR, final int slot, final double dt) {
+    r[0][slot] = predictedR[0][slot];
+    r[1][slot] = r[1][slot] + (r[2][slot] + predictedR[2][slot]) * dt / 2;
+    r[2][slot] = predictedR[2][slot];
+  }
+}
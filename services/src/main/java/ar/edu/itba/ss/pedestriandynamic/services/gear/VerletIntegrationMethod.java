@@ -0,0 +1,211 @@
+package ar.edu.itba.ss.pedestriandynamic.services.gear;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NumericIntegrationMethod;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
+import ar.edu.itba.ss.pedestriandynamic.services.ParallelService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Second order integration methods of the Verlet family, driven by the same system's data hooks as
+ * {@link GearPredictorCorrector}, so as any gear's system data can also be integrated by them.
+ * <P>
+ * Each step moves all the particles to their new positions first (drift), which are saved as their predicted values;
+ * then each particle's force is evaluated with those values, through {@code getForceWithPredicted}, and its velocity
+ * is updated (kick). The evaluated acceleration is saved as the predicted one, over the predicted value of the
+ * extrapolated acceleration, so only derivatives of orders 0 to 2 are used: a gear's data manager of order 2 saves
+ * exactly those. Derivatives should be saved at arrays indexed by slot; see {@link GearArrays}. As the gear does, the
+ * difference between the evaluated and predicted accelerations, times {@code (Δt)^2 / 2}, is saved as delta R2.
+ * <P>
+ * As with {@code GearPredictorCorrector}, particles may be evaluated in parallel, with the same results as the serial
+ * mode, and each integrator should be used with only one system's data.
+ */
+/* package-private */ abstract class VerletIntegrationMethod<K extends GearSystemData>
+        implements NumericIntegrationMethod<K> {
+  // more tasks than threads, so as to balance load when some particles have more neighbours than others
+  private static final int TASKS_PER_THREAD = 4;
+
+  private final int parallelism;
+  /**
+   * Pool where particles are evaluated, shared with the other parallel algorithms; null on the serial mode
+   */
+  private final ForkJoinPool pool;
+
+  // reused between steps, so as not to allocate it on each one
+  private Particle[] evaluatedParticles;
+
+  /* package-private */ VerletIntegrationMethod() {
+    this.parallelism = 1;
+    this.pool = null;
+  }
+
+  /* package-private */ VerletIntegrationMethod(final int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism should be >= 1");
+    }
+    this.parallelism = parallelism;
+    this.pool = ParallelService.pool(parallelism);
+    this.evaluatedParticles = new Particle[0];
+  }
+
+  @Override
+  public void evolveSystem(final GearSystemData systemData, final double dt) {
+    final GearArrays arrays = systemData.arrays();
+    if (arrays == null) {
+      throw new IllegalArgumentException("Verlet methods need derivatives saved at arrays indexed by slot");
+    }
+    systemData.reorderIfNeeded();
+    final int nParticles = systemData.nParticles();
+
+    systemData.prePredict();
+
+    // lists, so as particles keep the system's iteration order along the whole step
+    final Collection<Particle> predictedSystemParticles = new ArrayList<>(nParticles);
+    for (final Particle cParticle : systemData.particles()) {
+      drift(arrays, cParticle.slot(), dt);
+      final Particle cPredictedSystemParticle = predictedSystemParticle(arrays, cParticle);
+      predictedSystemParticles.add(cPredictedSystemParticle);
+
+      // inform that this particle has just been predicted
+      systemData.predicted(cPredictedSystemParticle);
+    }
+    systemData.predictedParticles(predictedSystemParticles);
+    systemData.postPredict();
+
+    final Collection<Particle> updatedSystemParticles = new ArrayList<>(nParticles);
+
+    systemData.preEvaluate();
+
+    if (pool != null) {
+      evaluateInParallel(systemData, arrays, dt);
+      for (final Particle cParticle : systemData.predictedParticles()) {
+        updatedSystemParticles.add(kicked(systemData, arrays, dt, cParticle));
+      }
+    } else {
+      for (final Particle cParticle : systemData.predictedParticles()) {
+        evaluate(systemData, arrays, dt, cParticle);
+        updatedSystemParticles.add(kicked(systemData, arrays, dt, cParticle));
+      }
+    }
+
+    // update all system's particles
+    systemData.particles(updatedSystemParticles);
+    systemData.postFix();
+  }
+
+  /**
+   * Moves the particle with the given slot to its new position, saving it as its predicted position; also saves the
+   * predicted velocity and acceleration with which its force is evaluated
+   */
+  /* package-private */ abstract void drift(final GearArrays arrays, final int slot, final double dt);
+
+  /**
+   * Updates the particle with the given slot with its position, and its acceleration evaluated at that position,
+   * already saved as its predicted values
+   */
+  /* package-private */ abstract void kick(final GearArrays arrays, final int slot, final double dt);
+
+  /**
+   * @return the particle's velocity at the end of the step, along the given axis' derivatives
+   */
+  /* package-private */ abstract double velocity(final double[][] r, final int slot, final double dt);
+
+  private Particle kicked(final GearSystemData systemData, final GearArrays arrays, final double dt,
+                         final Particle cParticle) {
+    // fix cycle
+    systemData.preFix();
+    kick(arrays, cParticle.slot(), dt);
+    final Particle cUpdatedSystemParticle = updatedParticle(arrays, cParticle, dt);
+
+    // inform that this particle has just been fixed
+    systemData.fixed(cUpdatedSystemParticle);
+    return cUpdatedSystemParticle;
+  }
+
+  private static Particle predictedSystemParticle(final GearArrays arrays, final Particle cSystemParticle) {
+    final int slot = cSystemParticle.slot();
+    final double mass = cSystemParticle.mass();
+    final double[][] predictedX = arrays.predictedX();
+    final double[][] predictedY = arrays.predictedY();
+    return cSystemParticle.update(predictedX[0][slot], predictedY[0][slot], predictedX[1][slot], predictedY[1][slot],
+            predictedX[2][slot] * mass, predictedY[2][slot] * mass);
+  }
+
+  private Particle updatedParticle(final GearArrays arrays, final Particle particle, final double dt) {
+    final int slot = particle.slot();
+    final double mass = particle.mass();
+    final double[][] x = arrays.x();
+    final double[][] y = arrays.y();
+    return particle.update(x[0][slot], y[0][slot], velocity(x, slot, dt), velocity(y, slot, dt),
+            x[2][slot] * mass, y[2][slot] * mass);
+  }
+
+  /**
+   * Saves the acceleration of the given particle, evaluated with its predicted values, as its predicted acceleration,
+   * and its delta R2. It only writes to the particle's own slot, so it may be called from several threads at once.
+   */
+  private static void evaluate(final GearSystemData systemData, final GearArrays arrays, final double dt,
+                               final Particle particle) {
+    final Vector2D force = systemData.getForceWithPredicted(particle);
+    final int slot = particle.slot();
+    final double ax = force.x() / particle.mass();
+    final double ay = force.y() / particle.mass();
+    arrays.deltaR2X()[slot] = (ax - arrays.predictedX()[2][slot]) * dt * dt / 2;
+    arrays.deltaR2Y()[slot] = (ay - arrays.predictedY()[2][slot]) * dt * dt / 2;
+    arrays.predictedX()[2][slot] = ax;
+    arrays.predictedY()[2][slot] = ay;
+  }
+
+  private void evaluateInParallel(final GearSystemData systemData, final GearArrays arrays, final double dt) {
+    final Collection<Particle> predictedParticles = systemData.predictedParticles();
+    final int nParticles = predictedParticles.size();
+    if (evaluatedParticles.length < nParticles) {
+      evaluatedParticles = new Particle[nParticles];
+    }
+    predictedParticles.toArray(evaluatedParticles);
+
+    final int particlesPerTask = Math.max(1, nParticles / (parallelism * TASKS_PER_THREAD));
+    pool.invoke(new EvaluateTask(systemData, arrays, dt, 0, nParticles, particlesPerTask));
+  }
+
+  /**
+   * Evaluates the given range of {@code evaluatedParticles}, splitting it in halves until it is small enough
+   */
+  private class EvaluateTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final GearSystemData systemData;
+    private final GearArrays arrays;
+    private final double dt;
+    private final int from;
+    private final int to;
+    private final int particlesPerTask;
+
+    private EvaluateTask(final GearSystemData systemData, final GearArrays arrays, final double dt,
+                         final int from, final int to, final int particlesPerTask) {
+      this.systemData = systemData;
+      this.arrays = arrays;
+      this.dt = dt;
+      this.from = from;
+      this.to = to;
+      this.particlesPerTask = particlesPerTask;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= particlesPerTask) {
+        for (int i = from; i < to; i++) {
+          evaluate(systemData, arrays, dt, evaluatedParticles[i]);
+        }
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      invokeAll(new EvaluateTask(systemData, arrays, dt, from, middle, particlesPerTask),
+              new EvaluateTask(systemData, arrays, dt, middle, to, particlesPerTask));
+    }
+  }
+}
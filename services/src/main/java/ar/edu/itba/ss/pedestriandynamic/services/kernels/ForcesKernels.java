@@ -0,0 +1,43 @@
+package ar.edu.itba.ss.pedestriandynamic.services.kernels;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.ForcesKernel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Chooses the {@link ForcesKernel} to use at runtime.
+ * <P>
+ * Kernels provided by other modules, as the SIMD one of the {@code simd} module, are preferred. They may not be
+ * available: their module may not be at the classpath, or the running JVM may not support them, as it happens with
+ * the SIMD kernel on a JVM older than 17 or started without {@code --add-modules jdk.incubator.vector}.
+ * In that case, the {@link ScalarForcesKernel} is used.
+ */
+public class ForcesKernels {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ForcesKernels.class);
+
+  /**
+   * @return the first available kernel provided by another module; the scalar one if there is none
+   */
+  public static ForcesKernel load() {
+    final Iterator<ForcesKernel> kernels = ServiceLoader.load(ForcesKernel.class).iterator();
+    while (true) {
+      try {
+        if (!kernels.hasNext()) {
+          break;
+        }
+        final ForcesKernel kernel = kernels.next();
+        LOGGER.info("Using forces' kernel: {}", kernel.getClass().getName());
+        return kernel;
+      } catch (final ServiceConfigurationError | LinkageError e) {
+        // the kernel's classes can not be loaded by this JVM => try with the next one
+        LOGGER.warn("Forces' kernel is not available: {}", e.toString());
+      }
+    }
+    LOGGER.info("Using forces' kernel: {}", ScalarForcesKernel.class.getName());
+    return new ScalarForcesKernel();
+  }
+}
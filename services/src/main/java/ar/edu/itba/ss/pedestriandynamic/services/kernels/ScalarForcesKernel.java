@@ -0,0 +1,81 @@
+package ar.edu.itba.ss.pedestriandynamic.services.kernels;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.ForcesKernel;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.ParticlesArrays;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.SocialForceModel;
+
+/**
+ * Forces' kernel that calculates one force at a time.
+ * <P>
+ * Each force is calculated by the {@link SocialForceModel}, as the primitive forces of the
+ * {@code PedestrianDynamicsSystemData} are, so each particles' and social force is exactly the same as theirs with
+ * the exact exponential; only their sums may differ by rounding, as they are summed in another order.
+ * It is the kernel used when no other one is available; see {@link ForcesKernels}.
+ */
+public class ScalarForcesKernel implements ForcesKernel {
+
+  @Override
+  public void forces(final StaticData staticData, final ParticlesArrays particles,
+                     final CompactNeighbours neighbours, final CompactNeighbours socialNeighbours) {
+    // kernels do not support a tabulated social exponential
+    final SocialForceModel model = new SocialForceModel(staticData, null);
+
+    final double[] x = particles.x();
+    final double[] y = particles.y();
+    final double[] vx = particles.vx();
+    final double[] vy = particles.vy();
+    final double[] radio = particles.radio();
+    final double[] socialX = particles.socialX();
+    final double[] socialY = particles.socialY();
+    final boolean[] pedestrian = particles.pedestrian();
+    final double[] forceX = particles.forceX();
+    final double[] forceY = particles.forceY();
+    final double[] normalForce = particles.normalForce();
+
+    for (int i = 0; i < particles.nSlots(); i++) {
+      // particles' force
+      double particlesForceX = 0;
+      double particlesForceY = 0;
+      double normalForceModule = 0;
+      for (int k = neighbours.from(i); k < neighbours.to(i); k++) {
+        final int j = neighbours.neighbour(k);
+        if (model.neighbourForce(x[j] - x[i], y[j] - y[i], radio[i], radio[j], vx[i] - vx[j], vy[i] - vy[j])) {
+          normalForceModule += model.normalForce();
+          particlesForceX += model.forceX();
+          particlesForceY += model.forceY();
+        }
+      }
+
+      // social and driving forces
+      double socialForceX = 0;
+      double socialForceY = 0;
+      double drivingForceX = 0;
+      double drivingForceY = 0;
+      if (pedestrian[i]) {
+        // without a cutoff, every other pedestrian is a social neighbour
+        final int from = socialNeighbours == null ? 0 : socialNeighbours.from(i);
+        final int to = socialNeighbours == null ? particles.nSlots() : socialNeighbours.to(i);
+        for (int k = from; k < to; k++) {
+          final int j = socialNeighbours == null ? k : socialNeighbours.neighbour(k);
+          if (j == i || !pedestrian[j]) {
+            continue;
+          }
+          model.socialForce(socialX[j] - x[i], socialY[j] - y[i], radio[i], radio[j]);
+          socialForceX += model.forceX();
+          socialForceY += model.forceY();
+        }
+
+        model.drivingForce(particles.mass()[i], particles.tau()[i], particles.drivingSpeed()[i],
+                particles.directionX()[i], particles.directionY()[i], vx[i], vy[i]);
+        drivingForceX = model.forceX();
+        drivingForceY = model.forceY();
+      }
+
+      normalForce[i] = normalForceModule;
+      forceX[i] = particlesForceX + socialForceX + drivingForceX;
+      forceY[i] = particlesForceY + socialForceY + drivingForceY;
+    }
+  }
+}
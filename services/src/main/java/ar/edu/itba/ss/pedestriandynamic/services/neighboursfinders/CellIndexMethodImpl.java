@@ -0,0 +1,287 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.Space2DMaths;
+
+import java.util.*;
+
+/**
+ * Cell Index Method implementation of the {@link NeighboursFinder}.
+ * <P>
+ * The {@code width x height} domain is split into a grid of square-like cells whose side is, at least,
+ * the maximum center-to-center distance at which two particles can be neighbours,
+ * i.e., {@code maxDiameter + rc}.
+ * This way, each particle needs to be compared only against the particles of its own cell and of
+ * the 8 surrounding cells.
+ * <P>
+ * Collision condition is the same as the one of the {@link BruteForceMethodImpl}: two particles are neighbours
+ * if their border-to-border distance is <= {@code rc}.
+ * <P>
+ * Particles out of the domain (for example, particles that have just started to overlap a wall) are placed at the
+ * nearest border cell. As border cells are at least as wide as the interaction range, no neighbour is missed.
+ * <P>
+ * Limits can be periodic on the x and/or y axis. On a periodic axis, cells at one border are neighbours of the cells
+ * at the opposite one, particles out of the domain are placed at the cell of their image inside it, and distances are
+ * measured with the minimum image convention, i.e., against the nearest image of each particle.
+ */
+public class CellIndexMethodImpl implements NeighboursFinder {
+  /* package-private */ static final int EMPTY = -1;
+  // with less cells, a periodic cell would be its own neighbour, or the same neighbour twice
+  private static final int MIN_PERIODIC_CELLS = 3;
+
+  private final double width;
+  private final double height;
+  private final boolean periodicX;
+  private final boolean periodicY;
+  private final double rc;
+  private final int mx;
+  private final int my;
+  private final double cellWidth;
+  private final double cellHeight;
+
+  /**
+   * First particle of each cell's linked list; {@code EMPTY} if none
+   */
+  private final int[] heads;
+  /**
+   * Next particle of each particle's linked list; {@code EMPTY} if none
+   */
+  private int[] nexts;
+
+  private Particle[] points;
+  private int nPoints;
+
+  /**
+   * @param width width of the domain, starting at x = 0
+   * @param height height of the domain, starting at y = 0
+   * @param maxDiameter max diameter that a particle of the system can have
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   */
+  public CellIndexMethodImpl(final double width, final double height, final double maxDiameter, final double rc) {
+    this(width, height, maxDiameter, rc, false, false);
+  }
+
+  /**
+   * @param width width of the domain, starting at x = 0
+   * @param height height of the domain, starting at y = 0
+   * @param maxDiameter max diameter that a particle of the system can have
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   * @param periodicX whether the domain's limits are periodic on the x axis
+   * @param periodicY whether the domain's limits are periodic on the y axis
+   */
+  public CellIndexMethodImpl(final double width, final double height, final double maxDiameter, final double rc,
+                             final boolean periodicX, final boolean periodicY) {
+    if (!(width > 0) || !(height > 0)) {
+      throw new IllegalArgumentException("Domain's width and height should be > 0");
+    }
+    if (maxDiameter < 0 || rc < 0) {
+      throw new IllegalArgumentException("Max diameter and rc should be >= 0");
+    }
+
+    this.width = width;
+    this.height = height;
+    this.periodicX = periodicX;
+    this.periodicY = periodicY;
+    this.rc = rc;
+    final double minCellSide = maxDiameter + rc;
+    this.mx = nCells(width, minCellSide);
+    this.my = nCells(height, minCellSide);
+    if ((periodicX && mx < MIN_PERIODIC_CELLS) || (periodicY && my < MIN_PERIODIC_CELLS)) {
+      throw new IllegalArgumentException("A periodic axis should be at least "
+              + MIN_PERIODIC_CELLS + " times maxDiameter + rc long");
+    }
+    this.cellWidth = width / mx;
+    this.cellHeight = height / my;
+
+    this.heads = new int[mx * my];
+    this.nexts = new int[0];
+    this.points = new Particle[0];
+  }
+
+  @Override
+  public Map<Particle, Collection<Particle>> run(final Collection<Particle> particles) {
+    final Map<Particle, Collection<Particle>> collisionPerParticle = new HashMap<>(particles.size());
+
+    for (final Particle particle : particles) {
+      // add the point to the map to be returned, with a new empty set
+      collisionPerParticle.put(particle, new HashSet<>());
+    }
+
+    fillCells(particles);
+    forEachPair((i, j) -> {
+      collisionPerParticle.get(points[i]).add(points[j]);
+      collisionPerParticle.get(points[j]).add(points[i]);
+    });
+
+    return collisionPerParticle;
+  }
+
+  @Override
+  public void run(final Collection<Particle> particles, final CompactNeighbours neighbours) {
+    neighbours.clear();
+    fillCells(particles);
+    forEachPair((i, j) -> neighbours.addPair(points[i].slot(), points[j].slot()));
+    neighbours.build();
+  }
+
+  /**
+   * Places the given particles at the grid's cells, so as {@code forEachPair} can be called
+   * @param particles the particles to be placed; their positions at this collection's iteration order are
+   *                  the ones given to the {@code forEachPair}'s consumer
+   */
+  /* package-private */ void fillCells(final Collection<Particle> particles) {
+    nPoints = particles.size();
+    if (points.length < nPoints) {
+      points = new Particle[nPoints];
+      nexts = new int[nPoints];
+    }
+    particles.toArray(points);
+    Arrays.fill(heads, EMPTY);
+
+    // insert backwards so as each cell's list keeps the particles' original order
+    for (int i = nPoints - 1; i >= 0; i--) {
+      final int cell = cellIndex(points[i]);
+      nexts[i] = heads[cell];
+      heads[cell] = i;
+    }
+  }
+
+  /**
+   * Gives each pair of neighbours of the last filled particles, once, to the given consumer
+   * @param consumer the consumer of the pairs
+   */
+  /* package-private */ void forEachPair(final PairConsumer consumer) {
+    forEachPairInRows(0, my, consumer);
+  }
+
+  /**
+   * Same as {@code forEachPair}, but only for the particles placed at the grid's rows
+   * from {@code fromRow} (inclusive) to {@code toRow} (exclusive); their neighbours may be placed at the next row.
+   * <P>
+   * The grid is only read, so this method can be called concurrently for disjoint ranges of rows.
+   */
+  /* package-private */ void forEachPairInRows(final int fromRow, final int toRow, final PairConsumer consumer) {
+    forEachPairInRows(heads, nexts, points, fromRow, toRow, consumer);
+  }
+
+  /**
+   * Same as {@code forEachPairInRows}, but for the particles placed at the given linked lists, instead of at the
+   * ones of the last {@code fillCells}, so as other finders can keep their own lists over this grid's cells
+   * @param heads first particle of each cell's list, indexed as this grid's cells; {@code EMPTY} if none
+   * @param nexts next particle of each particle's list; {@code EMPTY} if none
+   * @param points particles of the lists; their positions are the ones given to the consumer
+   */
+  /* package-private */ void forEachPairInRows(final int[] heads, final int[] nexts, final Particle[] points,
+                                             final int fromRow, final int toRow, final PairConsumer consumer) {
+    for (int cy = fromRow; cy < toRow; cy++) {
+      for (int cx = 0; cx < mx; cx++) {
+        for (int i = heads[cy * mx + cx]; i != EMPTY; i = nexts[i]) {
+          // same cell: only the particles after the current one, so as each pair is checked once
+          checkList(nexts, points, consumer, i, nexts[i]);
+          // neighbour cells: only half of them (right, upper-left, upper, upper-right), for the same reason
+          checkCell(heads, nexts, points, consumer, i, cx + 1, cy);
+          checkCell(heads, nexts, points, consumer, i, cx - 1, cy + 1);
+          checkCell(heads, nexts, points, consumer, i, cx, cy + 1);
+          checkCell(heads, nexts, points, consumer, i, cx + 1, cy + 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return number of columns of the grid
+   */
+  /* package-private */ int nColumns() {
+    return mx;
+  }
+
+  /**
+   * @return number of rows of the grid
+   */
+  /* package-private */ int nRows() {
+    return my;
+  }
+
+  /**
+   * @param cx column of a cell; it may be out of the grid by one column
+   * @param cy row of a cell; it may be out of the grid by one row
+   * @return the index of the given cell, wrapped around periodic limits; {@code EMPTY} if out of a non periodic limit
+   */
+  /* package-private */ int neighbourCell(final int cx, final int cy) {
+    final int wrappedCx;
+    if (cx >= 0 && cx < mx) {
+      wrappedCx = cx;
+    } else if (periodicX) {
+      wrappedCx = Math.floorMod(cx, mx);
+    } else {
+      return EMPTY;
+    }
+
+    final int wrappedCy;
+    if (cy >= 0 && cy < my) {
+      wrappedCy = cy;
+    } else if (periodicY) {
+      wrappedCy = Math.floorMod(cy, my);
+    } else {
+      return EMPTY;
+    }
+    return wrappedCy * mx + wrappedCx;
+  }
+
+  /**
+   * @return the index of the cell where the given particle is placed
+   */
+  /* package-private */ int cellIndex(final Particle particle) {
+    final int cx = (int) Math.floor(particle.x() / cellWidth);
+    final int cy = (int) Math.floor(particle.y() / cellHeight);
+    final int wrappedCx = periodicX ? Math.floorMod(cx, mx) : clamp(cx, mx);
+    final int wrappedCy = periodicY ? Math.floorMod(cy, my) : clamp(cy, my);
+    return wrappedCy * mx + wrappedCx;
+  }
+
+  /**
+   * Border-to-border distance between the given particles; on periodic axes, the nearest image is considered
+   */
+  /* package-private */ double distanceBetween(final Particle p1, final Particle p2) {
+    if (!periodicX && !periodicY) {
+      return Space2DMaths.distanceBetween(p1, p2);
+    }
+    final double dx = periodicX ? minimumImage(p2.x() - p1.x(), width) : p2.x() - p1.x();
+    final double dy = periodicY ? minimumImage(p2.y() - p1.y(), height) : p2.y() - p1.y();
+    return Math.sqrt(dx * dx + dy * dy) - p1.radio() - p2.radio();
+  }
+
+  private void checkCell(final int[] heads, final int[] nexts, final Particle[] points,
+                         final PairConsumer consumer, final int i, final int cx, final int cy) {
+    final int cell = neighbourCell(cx, cy);
+    if (cell != EMPTY) {
+      checkList(nexts, points, consumer, i, heads[cell]);
+    }
+  }
+
+  private void checkList(final int[] nexts, final Particle[] points,
+                         final PairConsumer consumer, final int i, final int first) {
+    for (int j = first; j != EMPTY; j = nexts[j]) {
+      if (distanceBetween(points[i], points[j]) <= rc) {
+        consumer.accept(i, j);
+      }
+    }
+  }
+
+  private static double minimumImage(final double d, final double side) {
+    return d - side * Math.rint(d / side);
+  }
+
+  private static int clamp(final int c, final int m) {
+    return c < 0 ? 0 : (c >= m ? m - 1 : c);
+  }
+
+  private static int nCells(final double side, final double minCellSide) {
+    if (!(minCellSide > 0)) {
+      return 1;
+    }
+    return Math.max(1, (int) Math.floor(side / minCellSide));
+  }
+}
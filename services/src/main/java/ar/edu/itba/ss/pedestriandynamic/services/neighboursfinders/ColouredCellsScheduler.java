@@ -0,0 +1,220 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.ParallelService;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Runs an action for each particle in parallel, so as the action may write both to the particle and to its
+ * neighbours without any lock nor atomic operation.
+ * <P>
+ * Particles are placed at the cells of a {@link CellIndexMethodImpl}'s grid, whose cells are at least as wide as the
+ * maximum center-to-center distance between two neighbour particles. Hence, all the neighbours of a particle lay at its
+ * own cell or at one of the 8 surrounding ones. Cells are coloured so as any two cells with the same colour are,
+ * at least, 3 cells apart on some axis, and so their 3x3 neighbourhoods do not overlap. Colours are processed one
+ * after the other, and the cells of each colour are processed in parallel on a {@link ForkJoinPool}.
+ * <P>
+ * Each particle receives the writes of each colour from a single cell, and the particles of a cell are processed
+ * following the given collection's order, so results do not depend on the parallelism level nor on threads'
+ * scheduling.
+ */
+public class ColouredCellsScheduler {
+  // a cell and its neighbours span 3 cells on each axis
+  private static final int NEIGHBOURHOOD_CELLS = 3;
+  // more tasks than threads, so as to balance load when particles are not uniformly distributed
+  private static final int TASKS_PER_THREAD = 4;
+
+  private final CellIndexMethodImpl grid;
+  private final int parallelism;
+  private final ForkJoinPool pool;
+
+  /**
+   * Cells of each colour
+   */
+  private final int[][] coloursCells;
+
+  /**
+   * First particle of each cell at {@code sortedParticles}; the last value is the number of particles
+   */
+  private final int[] cellsStarts;
+  private int[] particlesCells;
+  private Particle[] sortedParticles;
+
+  /**
+   * @param width width of the domain, starting at x = 0
+   * @param height height of the domain, starting at y = 0
+   * @param maxDiameter max diameter that a particle of the system can have
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   * @param periodicX whether the domain's limits are periodic on the x axis
+   * @param periodicY whether the domain's limits are periodic on the y axis
+   * @param parallelism number of threads used to process the cells of each colour
+   */
+  public ColouredCellsScheduler(final double width, final double height, final double maxDiameter, final double rc,
+                                final boolean periodicX, final boolean periodicY, final int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism should be >= 1");
+    }
+    this.grid = new CellIndexMethodImpl(width, height, maxDiameter, rc, periodicX, periodicY);
+    this.parallelism = parallelism;
+    this.pool = ParallelService.pool(parallelism);
+
+    final int mx = grid.nColumns();
+    final int my = grid.nRows();
+    final int nColoursX = nColours(mx, periodicX);
+    final int nColoursY = nColours(my, periodicY);
+    final int[] cellsColours = new int[mx * my];
+    final int[] coloursSizes = new int[nColoursX * nColoursY];
+    for (int cy = 0; cy < my; cy++) {
+      for (int cx = 0; cx < mx; cx++) {
+        final int colour = colour(cy, my, periodicY) * nColoursX + colour(cx, mx, periodicX);
+        cellsColours[cy * mx + cx] = colour;
+        coloursSizes[colour]++;
+      }
+    }
+    this.coloursCells = new int[coloursSizes.length][];
+    for (int colour = 0; colour < coloursSizes.length; colour++) {
+      coloursCells[colour] = new int[coloursSizes[colour]];
+    }
+    Arrays.fill(coloursSizes, 0);
+    for (int cell = 0; cell < cellsColours.length; cell++) {
+      final int colour = cellsColours[cell];
+      coloursCells[colour][coloursSizes[colour]++] = cell;
+    }
+
+    this.cellsStarts = new int[mx * my + 1];
+    this.particlesCells = new int[0];
+    this.sortedParticles = new Particle[0];
+  }
+
+  public int parallelism() {
+    return parallelism;
+  }
+
+  /**
+   * @return number of colours of the grid's cells, i.e., number of sequential phases of each run
+   */
+  public int nColours() {
+    return coloursCells.length;
+  }
+
+  /**
+   * Runs {@code action} once for each of the given particles. The action of a particle may run concurrently with
+   * the ones of other particles, but never with the one of a particle at the same or at a surrounding cell, i.e.,
+   * never with the one of a particle that may share a neighbour with it.
+   * @param particles the particles for which the action is run; the particles of each cell are given to the action
+   *                  following this collection's iteration order
+   * @param action the action to be run for each particle; it may only write to the given particle and its neighbours
+   */
+  public void forEachParticle(final Collection<Particle> particles, final Consumer<Particle> action) {
+    sortByCell(particles);
+
+    for (final int[] colourCells : coloursCells) {
+      if (parallelism == 1 || colourCells.length == 1) {
+        // no need to pay for the pool's overhead
+        runCells(colourCells, 0, colourCells.length, action);
+      } else {
+        final int minCellsPerTask = Math.max(1, colourCells.length / (parallelism * TASKS_PER_THREAD));
+        pool.invoke(new CellsTask(colourCells, 0, colourCells.length, minCellsPerTask, action));
+      }
+    }
+  }
+
+  // counting sort, so as particles of a cell are consecutive and keep the given order
+  private void sortByCell(final Collection<Particle> particles) {
+    final int nParticles = particles.size();
+    if (sortedParticles.length < nParticles) {
+      sortedParticles = new Particle[nParticles];
+      particlesCells = new int[nParticles];
+    }
+
+    Arrays.fill(cellsStarts, 0);
+    int i = 0;
+    for (final Particle particle : particles) {
+      final int cell = grid.cellIndex(particle);
+      particlesCells[i++] = cell;
+      cellsStarts[cell + 1]++;
+    }
+    for (int cell = 1; cell < cellsStarts.length; cell++) {
+      cellsStarts[cell] += cellsStarts[cell - 1];
+    }
+
+    // cellsStarts[cell] is used as the next free position of each cell, and restored afterwards
+    i = 0;
+    for (final Particle particle : particles) {
+      sortedParticles[cellsStarts[particlesCells[i++]]++] = particle;
+    }
+    for (int cell = cellsStarts.length - 1; cell > 0; cell--) {
+      cellsStarts[cell] = cellsStarts[cell - 1];
+    }
+    cellsStarts[0] = 0;
+  }
+
+  private void runCells(final int[] cells, final int from, final int to, final Consumer<Particle> action) {
+    for (int k = from; k < to; k++) {
+      final int cell = cells[k];
+      for (int i = cellsStarts[cell]; i < cellsStarts[cell + 1]; i++) {
+        action.accept(sortedParticles[i]);
+      }
+    }
+  }
+
+  /**
+   * @return the number of colours needed on an axis with {@code m} cells
+   */
+  private static int nColours(final int m, final boolean periodic) {
+    if (!periodic || m % NEIGHBOURHOOD_CELLS == 0) {
+      return Math.min(m, NEIGHBOURHOOD_CELLS);
+    }
+    // the last cells would share neighbours with the first ones through the periodic limit => a colour for each
+    return NEIGHBOURHOOD_CELLS + m % NEIGHBOURHOOD_CELLS;
+  }
+
+  /**
+   * @return the colour of the cell {@code c} on an axis with {@code m} cells
+   */
+  private static int colour(final int c, final int m, final boolean periodic) {
+    final int lastCompleteCells = m - m % NEIGHBOURHOOD_CELLS;
+    if (!periodic || c < lastCompleteCells) {
+      return c % NEIGHBOURHOOD_CELLS;
+    }
+    return NEIGHBOURHOOD_CELLS + c - lastCompleteCells;
+  }
+
+  /**
+   * Splits the given range of cells in halves until it has no more than {@code minCellsPerTask} cells
+   */
+  private class CellsTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] cells;
+    private final int from;
+    private final int to;
+    private final int minCellsPerTask;
+    private final Consumer<Particle> action;
+
+    private CellsTask(final int[] cells, final int from, final int to, final int minCellsPerTask,
+                      final Consumer<Particle> action) {
+      this.cells = cells;
+      this.from = from;
+      this.to = to;
+      this.minCellsPerTask = minCellsPerTask;
+      this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= minCellsPerTask) {
+        runCells(cells, from, to, action);
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      invokeAll(new CellsTask(cells, from, middle, minCellsPerTask, action),
+              new CellsTask(cells, middle, to, minCellsPerTask, action));
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Disc;
+
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link StaticItemsCellIndex} of static discs: a disc is saved at a cell if its center is inside the cell's
+ * rectangle expanded by {@code maxRadio} plus the disc's radio on each side.
+ * <pre>
+ * {@code
+ *  final int cell = discsIndex.cell(particle);
+ *  for (int k = discsIndex.from(cell) ; k < discsIndex.to(cell) ; k++) {
+ *    final int d = discsIndex.disc(k);
+ *    // ...
+ *  }
+ * }
+ * </pre>
+ */
+public class DiscsCellIndex extends StaticItemsCellIndex<Disc> {
+  /**
+   * @param discs the discs to be indexed
+   * @param width width of the grid, starting at x = 0
+   * @param height height of the grid, starting at y = 0
+   * @param maxRadio max radio that a particle of the system can have
+   * @param minCellSide min side of the grid's cells
+   */
+  public DiscsCellIndex(final Collection<Disc> discs, final double width, final double height,
+                        final double maxRadio, final double minCellSide) {
+    super(discs, width, height, maxRadio, minCellSide, DiscsCellIndex::forEachNearCell);
+  }
+
+  /**
+   * @param k a position from {@code from(cell)} (inclusive) to {@code to(cell)} (exclusive)
+   * @return the index of the disc at the given position
+   */
+  public int disc(final int k) {
+    return item(k);
+  }
+
+  private static void forEachNearCell(final Disc disc, final StaticItemsCellIndex<Disc> index,
+                                      final IntConsumer consumer) {
+    // all the cells that the disc's bounding box overlaps
+    index.forEachCell(disc.x() - disc.radio(), disc.y() - disc.radio(), disc.x() + disc.radio(),
+            disc.y() + disc.radio(), (minX, minY, maxX, maxY) -> true, consumer);
+  }
+}
@@ -0,0 +1,184 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+
+import java.util.*;
+
+import static ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl.EMPTY;
+
+/**
+ * Cell Index Method implementation of the {@link NeighboursFinder} whose grid is kept between calls.
+ * <P>
+ * Each cell keeps a doubly linked list of the particles' slots placed at it. On each call, only the particles
+ * whose cell has changed since the previous call are moved from one list to the other, so the cost of updating
+ * the grid scales with the number of particles that have crossed a cell's border, instead of with the number of
+ * particles of the system.
+ * <P>
+ * Particles are identified by their {@code slot()}, so all of them should have one assigned.
+ * Particles that leave the system should be removed from the grid with {@link #evict(Particle)}.
+ * <P>
+ * Grid's geometry, periodic limits and collision condition are the same as the ones of the
+ * {@link CellIndexMethodImpl}.
+ */
+public class IncrementalCellIndexMethodImpl implements NeighboursFinder {
+  private static final int INITIAL_SLOTS_CAPACITY = 128;
+
+  private final CellIndexMethodImpl grid;
+
+  /**
+   * First slot of each cell's linked list; {@code EMPTY} if none
+   */
+  private final int[] heads;
+  /**
+   * Next and previous slots of each slot's linked list; {@code EMPTY} if none
+   */
+  private int[] nexts;
+  private int[] prevs;
+  /**
+   * Cell where each slot is placed; {@code EMPTY} if it is not at the grid
+   */
+  private int[] cells;
+  /**
+   * Last given particle of each slot
+   */
+  private Particle[] particlesBySlot;
+
+  private long nRelinks;
+
+  /**
+   * @param width width of the domain, starting at x = 0
+   * @param height height of the domain, starting at y = 0
+   * @param maxDiameter max diameter that a particle of the system can have
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   * @param periodicX whether the domain's limits are periodic on the x axis
+   * @param periodicY whether the domain's limits are periodic on the y axis
+   */
+  public IncrementalCellIndexMethodImpl(final double width, final double height,
+                                        final double maxDiameter, final double rc,
+                                        final boolean periodicX, final boolean periodicY) {
+    this.grid = new CellIndexMethodImpl(width, height, maxDiameter, rc, periodicX, periodicY);
+
+    this.heads = new int[grid.nColumns() * grid.nRows()];
+    Arrays.fill(heads, EMPTY);
+    this.nexts = new int[0];
+    this.prevs = new int[0];
+    this.cells = new int[0];
+    this.particlesBySlot = new Particle[0];
+    ensureCapacity(INITIAL_SLOTS_CAPACITY);
+  }
+
+  @Override
+  public Map<Particle, Collection<Particle>> run(final Collection<Particle> particles) {
+    final Map<Particle, Collection<Particle>> collisionPerParticle = new HashMap<>(particles.size());
+    for (final Particle particle : particles) {
+      // add the point to the map to be returned, with a new empty set
+      collisionPerParticle.put(particle, new HashSet<>());
+    }
+
+    update(particles);
+    forEachPair((slot1, slot2) -> {
+      collisionPerParticle.get(particlesBySlot[slot1]).add(particlesBySlot[slot2]);
+      collisionPerParticle.get(particlesBySlot[slot2]).add(particlesBySlot[slot1]);
+    });
+
+    return collisionPerParticle;
+  }
+
+  @Override
+  public void run(final Collection<Particle> particles, final CompactNeighbours neighbours) {
+    neighbours.clear();
+    update(particles);
+    forEachPair(neighbours::addPair);
+    neighbours.build();
+  }
+
+  /**
+   * Removes the given particle from the grid, so as it is no longer considered as anyone's neighbour
+   * @param particle the particle to be removed; nothing is done if it is not at the grid
+   */
+  public void evict(final Particle particle) {
+    final int slot = particle.slot();
+    if (slot < cells.length && cells[slot] != EMPTY) {
+      unlink(slot);
+      particlesBySlot[slot] = null;
+    }
+  }
+
+  /**
+   * @return how many times a particle has been moved from one cell to another, including its first placement
+   */
+  public long nRelinks() {
+    return nRelinks;
+  }
+
+  /**
+   * Saves the given particles and moves the ones whose cell has changed
+   */
+  private void update(final Collection<Particle> particles) {
+    for (final Particle particle : particles) {
+      final int slot = particle.slot();
+      if (slot < 0) {
+        throw new IllegalArgumentException("Particles should have a slot assigned: " + particle);
+      }
+      ensureCapacity(slot + 1);
+
+      particlesBySlot[slot] = particle;
+      final int cell = grid.cellIndex(particle);
+      if (cells[slot] != cell) {
+        if (cells[slot] != EMPTY) {
+          unlink(slot);
+        }
+        link(slot, cell);
+        nRelinks ++;
+      }
+    }
+  }
+
+  /**
+   * Gives each pair of neighbours' slots, once, to the given consumer; pairs are checked by the grid, over the lists
+   * kept here
+   */
+  private void forEachPair(final PairConsumer consumer) {
+    grid.forEachPairInRows(heads, nexts, particlesBySlot, 0, grid.nRows(), consumer);
+  }
+
+  private void link(final int slot, final int cell) {
+    final int head = heads[cell];
+    nexts[slot] = head;
+    prevs[slot] = EMPTY;
+    if (head != EMPTY) {
+      prevs[head] = slot;
+    }
+    heads[cell] = slot;
+    cells[slot] = cell;
+  }
+
+  private void unlink(final int slot) {
+    final int next = nexts[slot];
+    final int prev = prevs[slot];
+    if (prev != EMPTY) {
+      nexts[prev] = next;
+    } else {
+      heads[cells[slot]] = next;
+    }
+    if (next != EMPTY) {
+      prevs[next] = prev;
+    }
+    cells[slot] = EMPTY;
+  }
+
+  private void ensureCapacity(final int nSlots) {
+    if (cells.length >= nSlots) {
+      return;
+    }
+    final int oldLength = cells.length;
+    final int newLength = Math.max(nSlots, 2 * oldLength);
+    nexts = Arrays.copyOf(nexts, newLength);
+    prevs = Arrays.copyOf(prevs, newLength);
+    cells = Arrays.copyOf(cells, newLength);
+    Arrays.fill(cells, oldLength, newLength, EMPTY);
+    particlesBySlot = Arrays.copyOf(particlesBySlot, newLength);
+  }
+}
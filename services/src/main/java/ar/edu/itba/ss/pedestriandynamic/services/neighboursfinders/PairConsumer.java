@@ -0,0 +1,9 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+/**
+ * Receives pairs of neighbour particles, identified by their position at the collection given to the finder
+ */
+@FunctionalInterface
+/* package-private */ interface PairConsumer {
+  void accept(int i, int j);
+}
@@ -0,0 +1,137 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.services.ParallelService;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel version of the {@link CellIndexMethodImpl}.
+ * <P>
+ * The grid's rows are split into horizontal stripes that are processed on a {@link ForkJoinPool}.
+ * Each stripe saves its pairs at its own buffer, so no lock is needed, and buffers are then merged
+ * following the stripes' order. This way, pairs are given exactly in the same order as the sequential
+ * {@link CellIndexMethodImpl} would do, so results do not depend on the parallelism level nor on
+ * threads' scheduling.
+ */
+public class ParallelCellIndexMethodImpl extends CellIndexMethodImpl {
+  private static final int INITIAL_PAIRS_CAPACITY = 128;
+  // more stripes than threads, so as to balance load when particles are not uniformly distributed
+  private static final int STRIPES_PER_THREAD = 4;
+
+  private final int parallelism;
+  private final ForkJoinPool pool;
+
+  /**
+   * First row of each stripe; the last value is the number of rows
+   */
+  private final int[] stripesRows;
+  /**
+   * Pairs of each stripe, saved as consecutive indexes
+   */
+  private final int[][] stripesPairs;
+  private final int[] stripesNPairs;
+
+  /**
+   * @param width width of the domain, starting at x = 0
+   * @param height height of the domain, starting at y = 0
+   * @param maxDiameter max diameter that a particle of the system can have
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   * @param parallelism number of threads used to find the neighbours
+   */
+  public ParallelCellIndexMethodImpl(final double width, final double height,
+                                     final double maxDiameter, final double rc, final int parallelism) {
+    this(width, height, maxDiameter, rc, false, false, parallelism);
+  }
+
+  /**
+   * @param width width of the domain, starting at x = 0
+   * @param height height of the domain, starting at y = 0
+   * @param maxDiameter max diameter that a particle of the system can have
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   * @param periodicX whether the domain's limits are periodic on the x axis
+   * @param periodicY whether the domain's limits are periodic on the y axis
+   * @param parallelism number of threads used to find the neighbours
+   */
+  public ParallelCellIndexMethodImpl(final double width, final double height,
+                                     final double maxDiameter, final double rc,
+                                     final boolean periodicX, final boolean periodicY, final int parallelism) {
+    super(width, height, maxDiameter, rc, periodicX, periodicY);
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism should be >= 1");
+    }
+    this.parallelism = parallelism;
+    this.pool = ParallelService.pool(parallelism);
+
+    final int nRows = nRows();
+    final int nStripes = Math.min(nRows, parallelism * STRIPES_PER_THREAD);
+    this.stripesRows = new int[nStripes + 1];
+    for (int stripe = 0; stripe <= nStripes; stripe++) {
+      stripesRows[stripe] = stripe * nRows / nStripes;
+    }
+    this.stripesPairs = new int[nStripes][INITIAL_PAIRS_CAPACITY];
+    this.stripesNPairs = new int[nStripes];
+  }
+
+  public int parallelism() {
+    return parallelism;
+  }
+
+  @Override
+  /* package-private */ void forEachPair(final PairConsumer consumer) {
+    if (parallelism == 1) {
+      // no need to pay for the pool's overhead
+      super.forEachPair(consumer);
+      return;
+    }
+
+    pool.invoke(new StripesTask(0, stripesNPairs.length));
+
+    // merge buffers following the stripes' order
+    for (int stripe = 0; stripe < stripesNPairs.length; stripe++) {
+      final int[] pairs = stripesPairs[stripe];
+      for (int k = 0; k < stripesNPairs[stripe]; k++) {
+        consumer.accept(pairs[2 * k], pairs[2 * k + 1]);
+      }
+    }
+  }
+
+  private void findStripePairs(final int stripe) {
+    stripesNPairs[stripe] = 0;
+    forEachPairInRows(stripesRows[stripe], stripesRows[stripe + 1], (i, j) -> {
+      final int nPairs = stripesNPairs[stripe];
+      if (2 * nPairs + 1 >= stripesPairs[stripe].length) {
+        stripesPairs[stripe] = Arrays.copyOf(stripesPairs[stripe], 2 * stripesPairs[stripe].length);
+      }
+      stripesPairs[stripe][2 * nPairs] = i;
+      stripesPairs[stripe][2 * nPairs + 1] = j;
+      stripesNPairs[stripe] = nPairs + 1;
+    });
+  }
+
+  /**
+   * Splits the given range of stripes in halves until a single stripe is left
+   */
+  private class StripesTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int fromStripe;
+    private final int toStripe;
+
+    private StripesTask(final int fromStripe, final int toStripe) {
+      this.fromStripe = fromStripe;
+      this.toStripe = toStripe;
+    }
+
+    @Override
+    protected void compute() {
+      if (toStripe - fromStripe == 1) {
+        findStripePairs(fromStripe);
+        return;
+      }
+      final int middleStripe = (fromStripe + toStripe) >>> 1;
+      invokeAll(new StripesTask(fromStripe, middleStripe), new StripesTask(middleStripe, toStripe));
+    }
+  }
+}
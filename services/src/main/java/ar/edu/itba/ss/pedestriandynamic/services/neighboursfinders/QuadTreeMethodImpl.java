@@ -0,0 +1,298 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.Space2DMaths;
+
+import java.util.*;
+
+/**
+ * Quadtree implementation of the {@link NeighboursFinder}.
+ * <P>
+ * On each call, a quadtree is built over the particles' bounding box: any node with more than
+ * {@code leafCapacity} particles is split into four quadrants. This way, leaves are small where particles are packed
+ * (for example, near the opening) and large where the room is almost empty, instead of using the same cell size
+ * everywhere.
+ * <P>
+ * Each node saves the tight bounding box and the max radio of its particles, so the search of the neighbours of
+ * a particle discards any node whose box is farther than that particle's radio + the node's max radio + {@code rc},
+ * which supports particles of very different diameters.
+ * <P>
+ * Collision condition is the same as the one of the {@link BruteForceMethodImpl}: two particles are neighbours
+ * if their border-to-border distance is <= {@code rc}. Limits are not periodic.
+ * <P>
+ * The tree is saved in arrays that are reused between calls, so no memory is allocated once they have grown
+ * to fit the system.
+ */
+public class QuadTreeMethodImpl implements NeighboursFinder {
+  private static final int NONE = -1;
+  private static final int INITIAL_NODES_CAPACITY = 64;
+  private static final int N_CHILDREN = 4;
+  // particles at the exactly same position can not be split => stop at this depth
+  private static final int MAX_DEPTH = 32;
+
+  private final double rc;
+  private final int leafCapacity;
+
+  private Particle[] points;
+  private int nPoints;
+  /**
+   * Points' indexes, sorted so as each node's points are contiguous
+   */
+  private int[] order;
+
+  // nodes, saved as arrays; children of a node are contiguous, starting at its firstChild
+  private int nNodes;
+  private int[] nodesFrom;
+  private int[] nodesTo;
+  private int[] nodesFirstChild;
+  private double[] nodesMinX;
+  private double[] nodesMinY;
+  private double[] nodesMaxX;
+  private double[] nodesMaxY;
+  private double[] nodesMaxRadio;
+
+  private int[] stack;
+
+  /**
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   * @param leafCapacity max number of particles of a leaf, unless they can not be split
+   */
+  public QuadTreeMethodImpl(final double rc, final int leafCapacity) {
+    if (rc < 0) {
+      throw new IllegalArgumentException("rc should be >= 0");
+    }
+    if (leafCapacity < 1) {
+      throw new IllegalArgumentException("Leaf capacity should be >= 1");
+    }
+    this.rc = rc;
+    this.leafCapacity = leafCapacity;
+
+    this.points = new Particle[0];
+    this.order = new int[0];
+    this.nodesFrom = new int[INITIAL_NODES_CAPACITY];
+    this.nodesTo = new int[INITIAL_NODES_CAPACITY];
+    this.nodesFirstChild = new int[INITIAL_NODES_CAPACITY];
+    this.nodesMinX = new double[INITIAL_NODES_CAPACITY];
+    this.nodesMinY = new double[INITIAL_NODES_CAPACITY];
+    this.nodesMaxX = new double[INITIAL_NODES_CAPACITY];
+    this.nodesMaxY = new double[INITIAL_NODES_CAPACITY];
+    this.nodesMaxRadio = new double[INITIAL_NODES_CAPACITY];
+    this.stack = new int[N_CHILDREN * MAX_DEPTH + 1];
+  }
+
+  @Override
+  public Map<Particle, Collection<Particle>> run(final Collection<Particle> particles) {
+    final Map<Particle, Collection<Particle>> collisionPerParticle = new HashMap<>(particles.size());
+    for (final Particle particle : particles) {
+      // add the point to the map to be returned, with a new empty set
+      collisionPerParticle.put(particle, new HashSet<>());
+    }
+
+    build(particles);
+    forEachPair((i, j) -> {
+      collisionPerParticle.get(points[i]).add(points[j]);
+      collisionPerParticle.get(points[j]).add(points[i]);
+    });
+
+    return collisionPerParticle;
+  }
+
+  @Override
+  public void run(final Collection<Particle> particles, final CompactNeighbours neighbours) {
+    neighbours.clear();
+    build(particles);
+    forEachPair((i, j) -> neighbours.addPair(points[i].slot(), points[j].slot()));
+    neighbours.build();
+  }
+
+  /**
+   * @return number of nodes of the last built tree
+   */
+  public int nNodes() {
+    return nNodes;
+  }
+
+  private void build(final Collection<Particle> particles) {
+    nPoints = particles.size();
+    if (points.length < nPoints) {
+      points = new Particle[nPoints];
+      order = new int[nPoints];
+    }
+    particles.toArray(points);
+    for (int i = 0; i < nPoints; i++) {
+      order[i] = i;
+    }
+
+    nNodes = 0;
+    if (nPoints > 0) {
+      buildNode(newNode(0, nPoints), 0);
+    }
+  }
+
+  private void buildNode(final int node, final int depth) {
+    final int from = nodesFrom[node];
+    final int to = nodesTo[node];
+    double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    double maxRadio = 0;
+    for (int k = from; k < to; k++) {
+      final Particle point = points[order[k]];
+      minX = Math.min(minX, point.x());
+      minY = Math.min(minY, point.y());
+      maxX = Math.max(maxX, point.x());
+      maxY = Math.max(maxY, point.y());
+      maxRadio = Math.max(maxRadio, point.radio());
+    }
+    nodesMinX[node] = minX;
+    nodesMinY[node] = minY;
+    nodesMaxX[node] = maxX;
+    nodesMaxY[node] = maxY;
+    nodesMaxRadio[node] = maxRadio;
+    nodesFirstChild[node] = NONE;
+
+    if (to - from <= leafCapacity || depth >= MAX_DEPTH || (minX == maxX && minY == maxY)) {
+      return;
+    }
+
+    // split the node's points into quadrants: first by y, then each half by x
+    final double middleX = (minX + maxX) / 2;
+    final double middleY = (minY + maxY) / 2;
+    final int middle = partition(from, to, false, middleY);
+    final int lowerMiddle = partition(from, middle, true, middleX);
+    final int upperMiddle = partition(middle, to, true, middleX);
+
+    final int firstChild = newNode(from, lowerMiddle);
+    newNode(lowerMiddle, middle);
+    newNode(middle, upperMiddle);
+    newNode(upperMiddle, to);
+    nodesFirstChild[node] = firstChild;
+
+    for (int child = firstChild; child < firstChild + N_CHILDREN; child++) {
+      if (nodesFrom[child] < nodesTo[child]) {
+        buildNode(child, depth + 1);
+      } else {
+        // empty quadrant; it is never visited as its box is empty
+        nodesFirstChild[child] = NONE;
+        nodesMinX[child] = nodesMinY[child] = Double.POSITIVE_INFINITY;
+        nodesMaxX[child] = nodesMaxY[child] = Double.NEGATIVE_INFINITY;
+      }
+    }
+  }
+
+  /**
+   * Sorts the points between {@code from} and {@code to} so as the ones whose coordinate is lower than
+   * {@code middle} are placed first
+   * @return the position of the first point whose coordinate is >= {@code middle}
+   */
+  private int partition(final int from, final int to, final boolean byX, final double middle) {
+    int i = from;
+    int j = to - 1;
+    while (i <= j) {
+      final Particle point = points[order[i]];
+      if ((byX ? point.x() : point.y()) < middle) {
+        i ++;
+      } else {
+        final int aux = order[i];
+        order[i] = order[j];
+        order[j] = aux;
+        j --;
+      }
+    }
+    return i;
+  }
+
+  /**
+   * Gives each pair of neighbours of the last built tree, once, to the given consumer.
+   * <P>
+   * Instead of searching the neighbours of each particle from the root, the search is done once per leaf:
+   * each leaf is compared against itself and against the leaves that come after it and are close enough.
+   */
+  private void forEachPair(final PairConsumer consumer) {
+    for (int leaf = 0; leaf < nNodes; leaf++) {
+      if (nodesFirstChild[leaf] != NONE || nodesFrom[leaf] == nodesTo[leaf]) {
+        continue;
+      }
+      int top = 0;
+      stack[top++] = 0;
+      while (top > 0) {
+        final int node = stack[--top];
+        if (!areClose(leaf, node)) {
+          continue;
+        }
+        final int firstChild = nodesFirstChild[node];
+        if (firstChild != NONE) {
+          for (int child = firstChild + N_CHILDREN - 1; child >= firstChild; child--) {
+            stack[top++] = child;
+          }
+        } else if (node == leaf) {
+          checkLeaf(consumer, leaf);
+        } else if (node > leaf) {
+          // each pair of leaves is checked only from the first of them
+          checkLeaves(consumer, leaf, node);
+        }
+      }
+    }
+  }
+
+  private void checkLeaf(final PairConsumer consumer, final int leaf) {
+    for (int k = nodesFrom[leaf]; k < nodesTo[leaf]; k++) {
+      for (int l = k + 1; l < nodesTo[leaf]; l++) {
+        checkPair(consumer, order[k], order[l]);
+      }
+    }
+  }
+
+  private void checkLeaves(final PairConsumer consumer, final int leaf1, final int leaf2) {
+    for (int k = nodesFrom[leaf1]; k < nodesTo[leaf1]; k++) {
+      for (int l = nodesFrom[leaf2]; l < nodesTo[leaf2]; l++) {
+        checkPair(consumer, order[k], order[l]);
+      }
+    }
+  }
+
+  private void checkPair(final PairConsumer consumer, final int i, final int j) {
+    if (Space2DMaths.distanceBetween(points[i], points[j]) <= rc) {
+      // keep the pairs' indexes sorted, as the other finders do
+      if (i < j) {
+        consumer.accept(i, j);
+      } else {
+        consumer.accept(j, i);
+      }
+    }
+  }
+
+  /**
+   * @return whether any particle of {@code node1} may be a neighbour of any particle of {@code node2}
+   */
+  private boolean areClose(final int node1, final int node2) {
+    final double dx = Math.max(0, Math.max(nodesMinX[node2] - nodesMaxX[node1], nodesMinX[node1] - nodesMaxX[node2]));
+    final double dy = Math.max(0, Math.max(nodesMinY[node2] - nodesMaxY[node1], nodesMinY[node1] - nodesMaxY[node2]));
+    final double maxDistance = nodesMaxRadio[node1] + nodesMaxRadio[node2] + rc;
+    // compare with squared distances, so as not to call sqrt for each node
+    return dx * dx + dy * dy <= maxDistance * maxDistance;
+  }
+
+  private int newNode(final int from, final int to) {
+    ensureNodesCapacity(nNodes + 1);
+    nodesFrom[nNodes] = from;
+    nodesTo[nNodes] = to;
+    return nNodes++;
+  }
+
+  private void ensureNodesCapacity(final int capacity) {
+    if (nodesFrom.length >= capacity) {
+      return;
+    }
+    final int newCapacity = Math.max(capacity, 2 * nodesFrom.length);
+    nodesFrom = Arrays.copyOf(nodesFrom, newCapacity);
+    nodesTo = Arrays.copyOf(nodesTo, newCapacity);
+    nodesFirstChild = Arrays.copyOf(nodesFirstChild, newCapacity);
+    nodesMinX = Arrays.copyOf(nodesMinX, newCapacity);
+    nodesMinY = Arrays.copyOf(nodesMinY, newCapacity);
+    nodesMaxX = Arrays.copyOf(nodesMaxX, newCapacity);
+    nodesMaxY = Arrays.copyOf(nodesMaxY, newCapacity);
+    nodesMaxRadio = Arrays.copyOf(nodesMaxRadio, newCapacity);
+  }
+}
@@ -0,0 +1,168 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Uniform grid that saves, for each of its cells, the static items, as walls or discs, that a particle whose center
+ * is inside the cell may touch.
+ * <P>
+ * It is built once, as static items do not move, so as each particle needs to be tested only against the few items
+ * near its cell, instead of against all of them. Which cells are near an item is told by the given
+ * {@link NearCells}, usually through {@link #forEachCell}. Border cells are considered unbounded outwards, as
+ * particles out of the grid are placed at the nearest border cell.
+ * <P>
+ * Items are identified by their position at the given collection's iteration order, and the items of each cell are
+ * saved following that order.
+ * <pre>
+ * {@code
+ *  final int cell = index.cell(particle);
+ *  for (int k = index.from(cell) ; k < index.to(cell) ; k++) {
+ *    final int i = index.item(k);
+ *    // ...
+ *  }
+ * }
+ * </pre>
+ * @param <T> type of the indexed items
+ */
+public class StaticItemsCellIndex<T> {
+  private final int mx;
+  private final int my;
+  private final double cellWidth;
+  private final double cellHeight;
+  private final double maxRadio;
+
+  /**
+   * Position of the first item of each cell at {@code cellsItems}; the last value is the number of saved items
+   */
+  private final int[] offsets;
+  private final int[] cellsItems;
+
+  /**
+   * @param items the items to be indexed
+   * @param width width of the grid, starting at x = 0
+   * @param height height of the grid, starting at y = 0
+   * @param maxRadio max radio that a particle of the system can have
+   * @param minCellSide min side of the grid's cells
+   * @param nearCells tells the cells near each item
+   */
+  public StaticItemsCellIndex(final Collection<T> items, final double width, final double height,
+                              final double maxRadio, final double minCellSide, final NearCells<T> nearCells) {
+    if (!(width > 0) || !(height > 0)) {
+      throw new IllegalArgumentException("Grid's width and height should be > 0");
+    }
+    if (maxRadio < 0 || !(minCellSide > 0)) {
+      throw new IllegalArgumentException("Max radio should be >= 0 and min cell side should be > 0");
+    }
+
+    this.mx = Math.max(1, (int) (width / minCellSide));
+    this.my = Math.max(1, (int) (height / minCellSide));
+    this.cellWidth = width / mx;
+    this.cellHeight = height / my;
+    this.maxRadio = maxRadio;
+    this.offsets = new int[mx * my + 1];
+
+    // first pass counts each cell's items, so as to know where they start; the second one saves them
+    final List<T> itemsList = new ArrayList<>(items);
+    final int[] nextPositions = new int[mx * my];
+    for (final T item : itemsList) {
+      nearCells.forEach(item, this, cell -> offsets[cell + 1]++);
+    }
+    for (int cell = 1; cell < offsets.length; cell++) {
+      offsets[cell] += offsets[cell - 1];
+    }
+    System.arraycopy(offsets, 0, nextPositions, 0, nextPositions.length);
+    this.cellsItems = new int[offsets[offsets.length - 1]];
+    for (int i = 0; i < itemsList.size(); i++) {
+      final int item = i;
+      nearCells.forEach(itemsList.get(i), this, cell -> cellsItems[nextPositions[cell]++] = item);
+    }
+  }
+
+  /**
+   * @return the cell where the given particle's center is placed
+   */
+  public int cell(final Particle particle) {
+    return clamp((int) Math.floor(particle.y() / cellHeight), my) * mx
+            + clamp((int) Math.floor(particle.x() / cellWidth), mx);
+  }
+
+  /**
+   * @return the position of the first item of the given cell
+   */
+  public int from(final int cell) {
+    return offsets[cell];
+  }
+
+  /**
+   * @return the position after the last item of the given cell
+   */
+  public int to(final int cell) {
+    return offsets[cell + 1];
+  }
+
+  /**
+   * @param k a position from {@code from(cell)} (inclusive) to {@code to(cell)} (exclusive)
+   * @return the index of the item at the given position
+   */
+  public int item(final int k) {
+    return cellsItems[k];
+  }
+
+  /**
+   * @return number of items saved over all the cells
+   */
+  public int size() {
+    return cellsItems.length;
+  }
+
+  /**
+   * Gives {@code consumer} each cell that the given box, expanded by {@code maxRadio}, overlaps, and whose rectangle,
+   * also expanded by {@code maxRadio} and unbounded outwards if it is a border cell, {@code crosses} accepts
+   */
+  public void forEachCell(final double minX, final double minY, final double maxX, final double maxY,
+                          final RectanglePredicate crosses, final IntConsumer consumer) {
+    final int fromCx = clamp((int) Math.floor((minX - maxRadio) / cellWidth), mx);
+    final int toCx = clamp((int) Math.floor((maxX + maxRadio) / cellWidth), mx);
+    final int fromCy = clamp((int) Math.floor((minY - maxRadio) / cellHeight), my);
+    final int toCy = clamp((int) Math.floor((maxY + maxRadio) / cellHeight), my);
+
+    for (int cy = fromCy; cy <= toCy; cy++) {
+      final double cellMinY = cy == 0 ? Double.NEGATIVE_INFINITY : cy * cellHeight - maxRadio;
+      final double cellMaxY = cy == my - 1 ? Double.POSITIVE_INFINITY : (cy + 1) * cellHeight + maxRadio;
+      for (int cx = fromCx; cx <= toCx; cx++) {
+        final double cellMinX = cx == 0 ? Double.NEGATIVE_INFINITY : cx * cellWidth - maxRadio;
+        final double cellMaxX = cx == mx - 1 ? Double.POSITIVE_INFINITY : (cx + 1) * cellWidth + maxRadio;
+        if (crosses.test(cellMinX, cellMinY, cellMaxX, cellMaxY)) {
+          consumer.accept(cy * mx + cx);
+        }
+      }
+    }
+  }
+
+  private static int clamp(final int c, final int m) {
+    return Math.max(0, Math.min(m - 1, c));
+  }
+
+  /**
+   * Tells the cells where a particle touching an item may have its center
+   * @param <T> type of the items
+   */
+  public interface NearCells<T> {
+    /**
+     * Gives {@code consumer} each cell of {@code index} near the given item, once
+     */
+    void forEach(T item, StaticItemsCellIndex<T> index, IntConsumer consumer);
+  }
+
+  /**
+   * Tells whether an item crosses a cell's expanded rectangle
+   */
+  public interface RectanglePredicate {
+    boolean test(double minX, double minY, double maxX, double maxY);
+  }
+}
@@ -0,0 +1,184 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.Space2DMaths;
+
+import java.util.*;
+
+/**
+ * Sweep and prune implementation of the {@link NeighboursFinder}.
+ * <P>
+ * Each particle is projected on the x axis as the interval {@code [x - radio - rc / 2, x + radio + rc / 2]}.
+ * Two particles can only be neighbours if their intervals overlap, so, with the particles sorted by their
+ * intervals' start, each particle only needs to be compared against the following ones until an interval
+ * starting after its own end is found. Candidates whose intervals overlap are then pruned with the same collision
+ * condition as the one of the {@link BruteForceMethodImpl}: border-to-border distance <= {@code rc}.
+ * <P>
+ * The sorted order is kept between calls and re-sorted with insertion sort. As particles hardly change their
+ * order from one step to the next, this sort is almost linear. No cell size has to be chosen, so it works the same
+ * for any range of diameters.
+ * <P>
+ * Particles are identified by their {@code slot()}, so all of them should have one assigned.
+ * Limits are not periodic.
+ */
+public class SweepAndPruneMethodImpl implements NeighboursFinder {
+  private static final int INITIAL_SLOTS_CAPACITY = 128;
+
+  private final double rc;
+  private final double halfRc;
+
+  /**
+   * Slots of the current particles, sorted by their intervals' start
+   */
+  private int[] sortedSlots;
+  private int nSorted;
+  /**
+   * Intervals' start and end of each slot
+   */
+  private double[] starts;
+  private double[] ends;
+  /**
+   * Call in which each slot was last given; used to drop the particles that are no longer given
+   */
+  private long[] lastCalls;
+  private boolean[] isSorted;
+  private Particle[] particlesBySlot;
+
+  private long nCalls;
+  private long nSwaps;
+
+  /**
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   */
+  public SweepAndPruneMethodImpl(final double rc) {
+    if (rc < 0) {
+      throw new IllegalArgumentException("rc should be >= 0");
+    }
+    this.rc = rc;
+    this.halfRc = rc / 2;
+
+    this.sortedSlots = new int[INITIAL_SLOTS_CAPACITY];
+    this.starts = new double[INITIAL_SLOTS_CAPACITY];
+    this.ends = new double[INITIAL_SLOTS_CAPACITY];
+    this.lastCalls = new long[INITIAL_SLOTS_CAPACITY];
+    this.isSorted = new boolean[INITIAL_SLOTS_CAPACITY];
+    this.particlesBySlot = new Particle[INITIAL_SLOTS_CAPACITY];
+  }
+
+  @Override
+  public Map<Particle, Collection<Particle>> run(final Collection<Particle> particles) {
+    final Map<Particle, Collection<Particle>> collisionPerParticle = new HashMap<>(particles.size());
+    for (final Particle particle : particles) {
+      // add the point to the map to be returned, with a new empty set
+      collisionPerParticle.put(particle, new HashSet<>());
+    }
+
+    update(particles);
+    forEachPair((slot1, slot2) -> {
+      collisionPerParticle.get(particlesBySlot[slot1]).add(particlesBySlot[slot2]);
+      collisionPerParticle.get(particlesBySlot[slot2]).add(particlesBySlot[slot1]);
+    });
+
+    return collisionPerParticle;
+  }
+
+  @Override
+  public void run(final Collection<Particle> particles, final CompactNeighbours neighbours) {
+    neighbours.clear();
+    update(particles);
+    forEachPair(neighbours::addPair);
+    neighbours.build();
+  }
+
+  /**
+   * @return how many swaps have been done by the insertion sort, along all the calls
+   */
+  public long nSwaps() {
+    return nSwaps;
+  }
+
+  /**
+   * Updates the intervals of the given particles, adds the new ones, drops the ones that are no longer given,
+   * and sorts them again
+   */
+  private void update(final Collection<Particle> particles) {
+    nCalls ++;
+    for (final Particle particle : particles) {
+      final int slot = particle.slot();
+      if (slot < 0) {
+        throw new IllegalArgumentException("Particles should have a slot assigned: " + particle);
+      }
+      ensureCapacity(slot + 1);
+
+      particlesBySlot[slot] = particle;
+      starts[slot] = particle.x() - particle.radio() - halfRc;
+      ends[slot] = particle.x() + particle.radio() + halfRc;
+      lastCalls[slot] = nCalls;
+      if (!isSorted[slot]) {
+        // new particles are appended, and then moved to their place by the insertion sort
+        isSorted[slot] = true;
+        sortedSlots[nSorted++] = slot;
+      }
+    }
+
+    // drop the particles that were not given, keeping the order of the rest
+    int nKept = 0;
+    for (int k = 0; k < nSorted; k++) {
+      final int slot = sortedSlots[k];
+      if (lastCalls[slot] == nCalls) {
+        sortedSlots[nKept++] = slot;
+      } else {
+        isSorted[slot] = false;
+        particlesBySlot[slot] = null;
+      }
+    }
+    nSorted = nKept;
+
+    insertionSort();
+  }
+
+  private void insertionSort() {
+    for (int k = 1; k < nSorted; k++) {
+      final int slot = sortedSlots[k];
+      final double start = starts[slot];
+      int l = k - 1;
+      while (l >= 0 && starts[sortedSlots[l]] > start) {
+        sortedSlots[l + 1] = sortedSlots[l];
+        l --;
+        nSwaps ++;
+      }
+      sortedSlots[l + 1] = slot;
+    }
+  }
+
+  /**
+   * Gives each pair of neighbours' slots, once, to the given consumer
+   */
+  private void forEachPair(final PairConsumer consumer) {
+    for (int k = 0; k < nSorted; k++) {
+      final int slot1 = sortedSlots[k];
+      final double end = ends[slot1];
+      for (int l = k + 1; l < nSorted && starts[sortedSlots[l]] <= end; l++) {
+        final int slot2 = sortedSlots[l];
+        if (Space2DMaths.distanceBetween(particlesBySlot[slot1], particlesBySlot[slot2]) <= rc) {
+          consumer.accept(slot1, slot2);
+        }
+      }
+    }
+  }
+
+  private void ensureCapacity(final int nSlots) {
+    if (starts.length >= nSlots) {
+      return;
+    }
+    final int newLength = Math.max(nSlots, 2 * starts.length);
+    sortedSlots = Arrays.copyOf(sortedSlots, newLength);
+    starts = Arrays.copyOf(starts, newLength);
+    ends = Arrays.copyOf(ends, newLength);
+    lastCalls = Arrays.copyOf(lastCalls, newLength);
+    isSorted = Arrays.copyOf(isSorted, newLength);
+    particlesBySlot = Arrays.copyOf(particlesBySlot, newLength);
+  }
+}
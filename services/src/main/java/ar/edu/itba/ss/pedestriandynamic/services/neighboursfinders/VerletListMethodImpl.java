@@ -0,0 +1,206 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+
+import java.util.*;
+
+/**
+ * Verlet list implementation of the {@link NeighboursFinder}.
+ * <P>
+ * A list of candidate pairs is built with a {@link CellIndexMethodImpl} using an enlarged interaction radio,
+ * {@code rc + skin}. That list is cached and reused on the next calls, filtering from it the pairs that are
+ * really at a distance <= {@code rc}.
+ * <P>
+ * While no particle has moved more than {@code skin / 2} since the last rebuild, no pair of particles can have
+ * gotten closer than {@code skin}, so the cached list still contains every pair of neighbours.
+ * When that displacement is exceeded - or a particle that was not present at the last rebuild appears -
+ * the list is rebuilt.
+ * <P>
+ * Particles are matched between calls by equality, i.e., by id, as system's particles are rebuilt on every step.
+ * <P>
+ * On periodic limits, a particle that is wrapped to the opposite side of the domain is seen as a large displacement,
+ * so the list is conservatively rebuilt.
+ */
+public class VerletListMethodImpl implements NeighboursFinder {
+  private static final int INITIAL_PAIRS_CAPACITY = 128;
+
+  private final double rc;
+  private final double halfSkin;
+  private final CellIndexMethodImpl candidatesFinder;
+
+  /**
+   * Index of each particle at the last rebuild
+   */
+  private final Map<Particle, Integer> indexes;
+  /**
+   * Positions of each particle at the last rebuild
+   */
+  private double[] x0;
+  private double[] y0;
+  /**
+   * Candidate pairs, saved as consecutive indexes
+   */
+  private int[] candidatePairs;
+  private int nCandidatePairs;
+
+  private Particle[] currentParticles;
+  private long nRebuilds;
+
+  /**
+   * @param width width of the domain, starting at x = 0
+   * @param height height of the domain, starting at y = 0
+   * @param maxDiameter max diameter that a particle of the system can have
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   * @param skin extra distance added to {@code rc} when building the candidates list
+   */
+  public VerletListMethodImpl(final double width, final double height,
+                              final double maxDiameter, final double rc, final double skin) {
+    this(width, height, maxDiameter, rc, skin, false, false);
+  }
+
+  /**
+   * @param width width of the domain, starting at x = 0
+   * @param height height of the domain, starting at y = 0
+   * @param maxDiameter max diameter that a particle of the system can have
+   * @param rc interaction radio, i.e., max border-to-border distance between two neighbour particles
+   * @param skin extra distance added to {@code rc} when building the candidates list
+   * @param periodicX whether the domain's limits are periodic on the x axis
+   * @param periodicY whether the domain's limits are periodic on the y axis
+   * @see CellIndexMethodImpl
+   */
+  public VerletListMethodImpl(final double width, final double height,
+                              final double maxDiameter, final double rc, final double skin,
+                              final boolean periodicX, final boolean periodicY) {
+    if (!(skin > 0)) {
+      throw new IllegalArgumentException("Skin should be > 0");
+    }
+    this.rc = rc;
+    this.halfSkin = skin / 2;
+    this.candidatesFinder = new CellIndexMethodImpl(width, height, maxDiameter, rc + skin, periodicX, periodicY);
+
+    this.indexes = new HashMap<>();
+    this.x0 = new double[0];
+    this.y0 = new double[0];
+    this.candidatePairs = new int[0];
+    this.currentParticles = new Particle[0];
+  }
+
+  @Override
+  public Map<Particle, Collection<Particle>> run(final Collection<Particle> particles) {
+    final Map<Particle, Collection<Particle>> collisionPerParticle = new HashMap<>(particles.size());
+    for (final Particle particle : particles) {
+      // add the point to the map to be returned, with a new empty set
+      collisionPerParticle.put(particle, new HashSet<>());
+    }
+
+    forEachPair(particles, (i, j) -> {
+      collisionPerParticle.get(currentParticles[i]).add(currentParticles[j]);
+      collisionPerParticle.get(currentParticles[j]).add(currentParticles[i]);
+    });
+
+    return collisionPerParticle;
+  }
+
+  @Override
+  public void run(final Collection<Particle> particles, final CompactNeighbours neighbours) {
+    neighbours.clear();
+    forEachPair(particles,
+            (i, j) -> neighbours.addPair(currentParticles[i].slot(), currentParticles[j].slot()));
+    neighbours.build();
+  }
+
+  /**
+   * @return how many times the candidates list has been built
+   */
+  public long nRebuilds() {
+    return nRebuilds;
+  }
+
+  /**
+   * Rebuilds the candidates list if needed, and gives each pair of candidates that are really neighbours
+   * to the given consumer, as positions at {@code currentParticles}
+   */
+  private void forEachPair(final Collection<Particle> particles, final PairConsumer consumer) {
+    if (!matchCurrentParticles(particles) || maxDisplacement() > halfSkin) {
+      rebuild(particles);
+      matchCurrentParticles(particles);
+    }
+
+    for (int k = 0; k < nCandidatePairs; k++) {
+      final int i = candidatePairs[2 * k];
+      final int j = candidatePairs[2 * k + 1];
+      final Particle p1 = currentParticles[i];
+      final Particle p2 = currentParticles[j];
+      // pairs of particles that have already been removed from the system are skipped
+      if (p1 != null && p2 != null && candidatesFinder.distanceBetween(p1, p2) <= rc) {
+        consumer.accept(i, j);
+      }
+    }
+  }
+
+  /**
+   * Matches the given particles with the ones of the last rebuild, saving them at {@code currentParticles}
+   * @param particles the current particles
+   * @return true if all the given particles were present at the last rebuild; false otherwise
+   */
+  private boolean matchCurrentParticles(final Collection<Particle> particles) {
+    Arrays.fill(currentParticles, null);
+    for (final Particle particle : particles) {
+      final Integer index = indexes.get(particle);
+      if (index == null) {
+        return false;
+      }
+      currentParticles[index] = particle;
+    }
+    return true;
+  }
+
+  private double maxDisplacement() {
+    double maxDisplacement = 0;
+    for (int i = 0; i < currentParticles.length; i++) {
+      final Particle particle = currentParticles[i];
+      if (particle != null) {
+        final double dx = particle.x() - x0[i];
+        final double dy = particle.y() - y0[i];
+        // compare with squared distances, so as not to call sqrt for each particle
+        maxDisplacement = Math.max(maxDisplacement, dx * dx + dy * dy);
+      }
+    }
+    return Math.sqrt(maxDisplacement);
+  }
+
+  private void rebuild(final Collection<Particle> particles) {
+    nRebuilds ++;
+    final int nParticles = particles.size();
+    if (x0.length < nParticles) {
+      x0 = new double[nParticles];
+      y0 = new double[nParticles];
+    }
+    currentParticles = new Particle[nParticles];
+
+    indexes.clear();
+    int index = 0;
+    for (final Particle particle : particles) {
+      indexes.put(particle, index);
+      x0[index] = particle.x();
+      y0[index] = particle.y();
+      index ++;
+    }
+
+    // candidates finder positions match the above indexes, as both follow the collection's iteration order
+    nCandidatePairs = 0;
+    candidatesFinder.fillCells(particles);
+    candidatesFinder.forEachPair(this::addCandidatePair);
+  }
+
+  private void addCandidatePair(final int i, final int j) {
+    if (2 * nCandidatePairs + 1 >= candidatePairs.length) {
+      candidatePairs = Arrays.copyOf(candidatePairs, Math.max(2 * candidatePairs.length, INITIAL_PAIRS_CAPACITY));
+    }
+    candidatePairs[2 * nCandidatePairs] = i;
+    candidatePairs[2 * nCandidatePairs + 1] = j;
+    nCandidatePairs ++;
+  }
+}
@@ -0,0 +1,82 @@
+package ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Wall;
+
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link StaticItemsCellIndex} of walls: a wall is saved at a cell if it crosses the cell's rectangle expanded by
+ * {@code maxRadio} on each side.
+ * <pre>
+ * {@code
+ *  final int cell = wallsIndex.cell(particle);
+ *  for (int k = wallsIndex.from(cell) ; k < wallsIndex.to(cell) ; k++) {
+ *    final int w = wallsIndex.wall(k);
+ *    // ...
+ *  }
+ * }
+ * </pre>
+ */
+public class WallsCellIndex extends StaticItemsCellIndex<Wall> {
+  /**
+   * @param walls the walls to be indexed
+   * @param width width of the grid, starting at x = 0
+   * @param height height of the grid, starting at y = 0
+   * @param maxRadio max radio that a particle of the system can have
+   * @param minCellSide min side of the grid's cells
+   */
+  public WallsCellIndex(final Collection<Wall> walls, final double width, final double height,
+                        final double maxRadio, final double minCellSide) {
+    super(walls, width, height, maxRadio, minCellSide, WallsCellIndex::forEachNearCell);
+  }
+
+  /**
+   * @param k a position from {@code from(cell)} (inclusive) to {@code to(cell)} (exclusive)
+   * @return the index of the wall at the given position
+   */
+  public int wall(final int k) {
+    return item(k);
+  }
+
+  private static void forEachNearCell(final Wall wall, final StaticItemsCellIndex<Wall> index,
+                                      final IntConsumer consumer) {
+    // cells that the wall's bounding box overlaps, if the wall crosses them
+    index.forEachCell(Math.min(wall.xFrom(), wall.xTo()), Math.min(wall.yFrom(), wall.yTo()),
+            Math.max(wall.xFrom(), wall.xTo()), Math.max(wall.yFrom(), wall.yTo()),
+            (minX, minY, maxX, maxY) -> crosses(wall, minX, minY, maxX, maxY), consumer);
+  }
+
+  /**
+   * Liang-Barsky's clipping of the wall's segment against the given rectangle
+   * @return true if any point of the wall is inside the rectangle; false otherwise
+   */
+  private static boolean crosses(final Wall wall, final double minX, final double minY,
+                                 final double maxX, final double maxY) {
+    final double dx = wall.xTo() - wall.xFrom();
+    final double dy = wall.yTo() - wall.yFrom();
+    final double[] ps = {-dx, dx, -dy, dy};
+    final double[] qs = {wall.xFrom() - minX, maxX - wall.xFrom(), wall.yFrom() - minY, maxY - wall.yFrom()};
+    double tFrom = 0;
+    double tTo = 1;
+    for (int i = 0; i < ps.length; i++) {
+      if (ps[i] == 0) {
+        // parallel to this side of the rectangle => out if it is outside of it
+        if (qs[i] < 0) {
+          return false;
+        }
+      } else {
+        final double t = qs[i] / ps[i];
+        if (ps[i] < 0) {
+          tFrom = Math.max(tFrom, t);
+        } else {
+          tTo = Math.min(tTo, t);
+        }
+        if (tFrom > tTo) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,148 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.BruteForceMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class CellIndexMethodImplTest {
+  private static final double WIDTH = 20;
+  private static final double HEIGHT = 25;
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.7;
+  private static final int N_PARTICLES = 1000;
+  private static final long SEED = 1234;
+
+  @Test
+  public void runWithNoPeriodicLimitTest() {
+    final double rc = 1.5;
+    final double r = 0.5;
+    final NeighboursFinder cellIndexMethod = new CellIndexMethodImpl(6, 6, 2 * r, rc);
+
+    final Set<Particle> points = new HashSet<>();
+    points.add(Particle.builder(1, 1).radio(r).build());
+    points.add(Particle.builder(2.5, 1).radio(r).build());
+    points.add(Particle.builder(4, 1).radio(r).build());
+    points.add(Particle.builder(2.5, 2.5).radio(r).build());
+    points.add(Particle.builder(4, 5.5).radio(r).build());
+
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, rc);
+    Assert.assertEquals(bruteForceMethod.run(points), cellIndexMethod.run(points));
+  }
+
+  @Test
+  public void sameAsBruteForceTest() {
+    for (final double rc : new double[] {0, 0.1, 1}) {
+      final Collection<Particle> particles = randomParticles();
+      final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, rc);
+      final NeighboursFinder cellIndexMethod = new CellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, rc);
+
+      Assert.assertEquals(bruteForceMethod.run(particles), cellIndexMethod.run(particles));
+    }
+  }
+
+  @Test
+  public void compactNeighboursSameAsBruteForceTest() {
+    final double rc = 0.1;
+    final Collection<Particle> particles = randomParticles();
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, rc);
+    final NeighboursFinder cellIndexMethod = new CellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, rc);
+
+    final CompactNeighbours expected = new CompactNeighbours(N_PARTICLES);
+    final CompactNeighbours actual = new CompactNeighbours(N_PARTICLES);
+    bruteForceMethod.run(particles, expected);
+    // run twice, so as to check that the structure is correctly reused
+    cellIndexMethod.run(particles, actual);
+    cellIndexMethod.run(particles, actual);
+
+    Assert.assertEquals(expected.nPairs(), actual.nPairs());
+    Assert.assertEquals(neighbourSlots(expected), neighbourSlots(actual));
+  }
+
+  @Test
+  public void periodicLimitsSameAsMinimumImageTest() {
+    final double rc = 0.1;
+    final Collection<Particle> particles = randomParticles();
+    // particles touching through the limits, one of them slightly out of the domain
+    particles.add(Particle.builder(0.1, 10).radio(MAX_DIAMETER / 2).build());
+    particles.add(Particle.builder(WIDTH - 0.3, 10).radio(MAX_DIAMETER / 2).build());
+    particles.add(Particle.builder(5, -0.05).radio(MAX_DIAMETER / 2).build());
+    particles.add(Particle.builder(5, HEIGHT - 0.4).radio(MAX_DIAMETER / 2).build());
+
+    for (final boolean[] periodic : new boolean[][] {{true, false}, {false, true}, {true, true}}) {
+      final NeighboursFinder cellIndexMethod =
+              new CellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, rc, periodic[0], periodic[1]);
+      Assert.assertEquals(minimumImageNeighbours(particles, rc, periodic[0], periodic[1]),
+              cellIndexMethod.run(particles));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooShortPeriodicAxisTest() {
+    new CellIndexMethodImpl(2 * MAX_DIAMETER, HEIGHT, MAX_DIAMETER, 0, true, false);
+  }
+
+  @Test
+  public void outOfDomainParticlesTest() {
+    final double rc = 0;
+    final double r = MAX_DIAMETER / 2;
+    final Collection<Particle> particles = new HashSet<>();
+    // overlapping particles, out of the domain's borders
+    particles.add(Particle.builder(-0.2, 5).radio(r).build());
+    particles.add(Particle.builder(0.3, 5).radio(r).build());
+    particles.add(Particle.builder(WIDTH + 0.1, HEIGHT + 0.1).radio(r).build());
+    particles.add(Particle.builder(WIDTH - 0.4, HEIGHT - 0.3).radio(r).build());
+
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, rc);
+    final NeighboursFinder cellIndexMethod = new CellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, rc);
+
+    Assert.assertEquals(bruteForceMethod.run(particles), cellIndexMethod.run(particles));
+  }
+
+  private static Collection<Particle> randomParticles() {
+    return new HashSet<>(MovingParticles.randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER,
+            new Random(SEED)));
+  }
+
+  private static Map<Particle, Collection<Particle>> minimumImageNeighbours(final Collection<Particle> particles,
+                                                                          final double rc,
+                                                                          final boolean periodicX,
+                                                                          final boolean periodicY) {
+    final Map<Particle, Collection<Particle>> neighbours = new HashMap<>();
+    for (final Particle p1 : particles) {
+      final Set<Particle> p1Neighbours = new HashSet<>();
+      for (final Particle p2 : particles) {
+        double dx = p2.x() - p1.x();
+        double dy = p2.y() - p1.y();
+        if (periodicX) {
+          dx = Math.min(Math.abs(dx), WIDTH - Math.abs(dx));
+        }
+        if (periodicY) {
+          dy = Math.min(Math.abs(dy), HEIGHT - Math.abs(dy));
+        }
+        if (!p1.equals(p2) && Math.sqrt(dx * dx + dy * dy) - p1.radio() - p2.radio() <= rc) {
+          p1Neighbours.add(p2);
+        }
+      }
+      neighbours.put(p1, p1Neighbours);
+    }
+    return neighbours;
+  }
+
+  private static List<Set<Integer>> neighbourSlots(final CompactNeighbours neighbours) {
+    final List<Set<Integer>> neighbourSlots = new ArrayList<>(neighbours.nSlots());
+    for (int slot = 0; slot < neighbours.nSlots(); slot++) {
+      final Set<Integer> slotNeighbours = new HashSet<>();
+      for (int k = neighbours.from(slot); k < neighbours.to(slot); k++) {
+        slotNeighbours.add(neighbours.neighbour(k));
+      }
+      neighbourSlots.add(slotNeighbours);
+    }
+    return neighbourSlots;
+  }
+}
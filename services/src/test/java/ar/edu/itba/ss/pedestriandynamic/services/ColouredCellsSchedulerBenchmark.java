@@ -0,0 +1,123 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.ColouredCellsScheduler;
+
+import java.util.*;
+
+/**
+ * Measures how the pairs' pass scales with the number of threads when it is run over coloured cells.
+ * <P>
+ * Each pair's force is calculated once, as a social force plus a contact force if pedestrians overlap, and it is
+ * scattered to both pedestrians of the pair, as {@code PedestrianDynamicsSystemData} does when forces are
+ * evaluated per pair. The sequential pass, that needs no colouring, is given as the reference.
+ * <P>
+ * Not run as a test; run its {@code main} to get the results. Speedups can only be as high as the number of
+ * available processors, that is printed first.
+ */
+public class ColouredCellsSchedulerBenchmark {
+  private static final double SIDE = 100;
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.58;
+  private static final double[] SOCIAL_CUTOFFS = {0.5, 2};
+  private static final int[] N_PEDESTRIANS = {2000, 20000};
+  private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+  private static final double A = 2000;
+  private static final double B = 0.08;
+  private static final double KN = 1.2e5;
+  private static final int N_WARM_UP_RUNS = 200;
+  private static final int N_RUNS = 200;
+  private static final long SEED = 42;
+
+  public static void main(final String[] args) {
+    System.out.println("available processors: " + Runtime.getRuntime().availableProcessors());
+    System.out.println("pedestrians, cutoff, colours, sequential (ms/pass), "
+            + "threads, coloured (ms/pass), speedup vs sequential, speedup vs 1 thread");
+    for (final int nPedestrians : N_PEDESTRIANS) {
+      final List<Particle> particles = randomCrowd(nPedestrians);
+      final Particle[] particlesBySlot = particles.toArray(new Particle[nPedestrians]);
+      final double[] forces = new double[2 * nPedestrians];
+
+      for (final double socialCutoff : SOCIAL_CUTOFFS) {
+        final CompactNeighbours neighbours = new CompactNeighbours(nPedestrians);
+        new CellIndexMethodImpl(SIDE, SIDE, MAX_DIAMETER, socialCutoff).run(particles, neighbours);
+
+        final double sequentialTime = millisPerPass(() -> {
+          Arrays.fill(forces, 0);
+          for (final Particle particle : particles) {
+            scatter(particle, particlesBySlot, neighbours, forces);
+          }
+        });
+
+        double oneThreadTime = 0;
+        for (final int threads : THREADS) {
+          final ColouredCellsScheduler scheduler =
+                  new ColouredCellsScheduler(SIDE, SIDE, MAX_DIAMETER, socialCutoff, false, false, threads);
+          final double colouredTime = millisPerPass(() -> {
+            Arrays.fill(forces, 0);
+            scheduler.forEachParticle(particles,
+                    particle -> scatter(particle, particlesBySlot, neighbours, forces));
+          });
+          if (threads == 1) {
+            oneThreadTime = colouredTime;
+          }
+          System.out.printf("%d, %.1f, %d, %.3f, %d, %.3f, %.2f, %.2f%n", nPedestrians, socialCutoff,
+                  scheduler.nColours(), sequentialTime, threads, colouredTime,
+                  sequentialTime / colouredTime, oneThreadTime / colouredTime);
+        }
+      }
+    }
+  }
+
+  private static void scatter(final Particle particle, final Particle[] particlesBySlot,
+                              final CompactNeighbours neighbours, final double[] forces) {
+    final int slot = particle.slot();
+    for (int k = neighbours.from(slot); k < neighbours.to(slot); k++) {
+      final int neighbourSlot = neighbours.neighbour(k);
+      if (neighbourSlot <= slot) {
+        continue;
+      }
+      final Particle neighbour = particlesBySlot[neighbourSlot];
+      final double relativeX = neighbour.x() - particle.x();
+      final double relativeY = neighbour.y() - particle.y();
+      final double centersDistance = Math.sqrt(relativeX * relativeX + relativeY * relativeY);
+      final double distanceBetween = centersDistance - particle.radio() - neighbour.radio();
+      double forceModule = - A * Math.exp(- distanceBetween / B);
+      if (distanceBetween < 0) {
+        forceModule += KN * distanceBetween;
+      }
+      final double forceX = relativeX / centersDistance * forceModule;
+      final double forceY = relativeY / centersDistance * forceModule;
+      forces[2 * slot] += forceX;
+      forces[2 * slot + 1] += forceY;
+      forces[2 * neighbourSlot] -= forceX;
+      forces[2 * neighbourSlot + 1] -= forceY;
+    }
+  }
+
+  private static double millisPerPass(final Runnable pass) {
+    for (int i = 0; i < N_WARM_UP_RUNS; i++) {
+      pass.run();
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < N_RUNS; i++) {
+      pass.run();
+    }
+    return (System.nanoTime() - start) / 1e6 / N_RUNS;
+  }
+
+  // pedestrians spread over the whole square, about one per squared meter
+  private static List<Particle> randomCrowd(final int nPedestrians) {
+    final Random random = new Random(SEED);
+    final double side = Math.min(SIDE, Math.sqrt(nPedestrians));
+    final List<Particle> particles = new ArrayList<>(nPedestrians);
+    for (int i = 0; i < nPedestrians; i++) {
+      final double diameter = MIN_DIAMETER + random.nextDouble() * (MAX_DIAMETER - MIN_DIAMETER);
+      particles.add(Particle.builder(random.nextDouble() * side, random.nextDouble() * side)
+              .radio(diameter / 2).slot(i).build());
+    }
+    return particles;
+  }
+}
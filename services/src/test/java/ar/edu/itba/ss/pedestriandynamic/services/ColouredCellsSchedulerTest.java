@@ -0,0 +1,102 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.ColouredCellsScheduler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static ar.edu.itba.ss.pedestriandynamic.services.MovingParticles.randomParticles;
+
+public class ColouredCellsSchedulerTest {
+  // neither side is a multiple of 3 cells, so periodic limits need extra colours
+  private static final double WIDTH = 11.5;
+  private static final double HEIGHT = 13;
+  private static final double MIN_DIAMETER = 0.1;
+  private static final double MAX_DIAMETER = 1.5;
+  private static final double RC = 0.1;
+  private static final int N_PARTICLES = 400;
+  private static final int PARALLELISM = 4;
+  private static final double DELTA = 1e-9;
+  private static final long SEED = 1357;
+
+  @Test
+  public void sameAsSequentialScatterTest() {
+    for (final boolean periodic : new boolean[] {false, true}) {
+      final List<Particle> particles = randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER,
+              new Random(SEED));
+      final CompactNeighbours neighbours = neighbours(particles, periodic);
+
+      final double[] sequentialForces = new double[N_PARTICLES];
+      for (final Particle particle : particles) {
+        scatter(particle, neighbours, sequentialForces);
+      }
+
+      final double[] forcesWithOneThread = new double[N_PARTICLES];
+      new ColouredCellsScheduler(WIDTH, HEIGHT, MAX_DIAMETER, RC, periodic, periodic, 1)
+              .forEachParticle(particles, particle -> scatter(particle, neighbours, forcesWithOneThread));
+      final double[] forcesWithManyThreads = new double[N_PARTICLES];
+      new ColouredCellsScheduler(WIDTH, HEIGHT, MAX_DIAMETER, RC, periodic, periodic, PARALLELISM)
+              .forEachParticle(particles, particle -> scatter(particle, neighbours, forcesWithManyThreads));
+
+      // results do not depend on the number of threads
+      Assert.assertArrayEquals(forcesWithOneThread, forcesWithManyThreads, 0);
+      // and differ from the sequential ones only by rounding, as they are summed in a different order
+      Assert.assertArrayEquals(sequentialForces, forcesWithManyThreads, DELTA);
+    }
+  }
+
+  @Test
+  public void neighboursNeverRunConcurrentlyTest() {
+    for (final boolean periodic : new boolean[] {false, true}) {
+      final List<Particle> particles = randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER,
+              new Random(SEED));
+      final CompactNeighbours neighbours = neighbours(particles, periodic);
+      final AtomicIntegerArray busy = new AtomicIntegerArray(N_PARTICLES);
+      final AtomicIntegerArray visits = new AtomicIntegerArray(N_PARTICLES);
+
+      new ColouredCellsScheduler(WIDTH, HEIGHT, MAX_DIAMETER, RC, periodic, periodic, PARALLELISM)
+              .forEachParticle(particles, particle -> {
+                final int slot = particle.slot();
+                visits.incrementAndGet(slot);
+                // neither the particle nor its neighbours can be being written by another thread
+                Assert.assertEquals(0, busy.getAndIncrement(slot));
+                for (int k = neighbours.from(slot); k < neighbours.to(slot); k++) {
+                  Assert.assertEquals(0, busy.getAndIncrement(neighbours.neighbour(k)));
+                }
+                Thread.yield();
+                busy.decrementAndGet(slot);
+                for (int k = neighbours.from(slot); k < neighbours.to(slot); k++) {
+                  busy.decrementAndGet(neighbours.neighbour(k));
+                }
+              });
+
+      for (int slot = 0; slot < N_PARTICLES; slot++) {
+        Assert.assertEquals(1, visits.get(slot));
+      }
+    }
+  }
+
+  // adds a value that depends on each pair to its first particle, and subtracts it from the other one
+  private static void scatter(final Particle particle, final CompactNeighbours neighbours, final double[] forces) {
+    final int slot = particle.slot();
+    for (int k = neighbours.from(slot); k < neighbours.to(slot); k++) {
+      final int neighbourSlot = neighbours.neighbour(k);
+      if (neighbourSlot > slot) {
+        final double force = Math.sin(slot) * Math.cos(neighbourSlot) / 3;
+        forces[slot] += force;
+        forces[neighbourSlot] -= force;
+      }
+    }
+  }
+
+  private static CompactNeighbours neighbours(final List<Particle> particles, final boolean periodic) {
+    final CompactNeighbours neighbours = new CompactNeighbours(N_PARTICLES);
+    new CellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC, periodic, periodic).run(particles, neighbours);
+    return neighbours;
+  }
+}
@@ -0,0 +1,64 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Disc;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.Space2DMaths;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.DiscsCellIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class DiscsCellIndexTest {
+  private static final double WIDTH = 20;
+  private static final double HEIGHT = 26;
+  private static final double MAX_DIAMETER = 0.7;
+  private static final double MAX_DISC_RADIO = 2;
+  // particles may be out of the grid, as when they overlap a border wall
+  private static final double OUT_OF_GRID = 1;
+  private static final int N_DISCS = 200;
+  private static final int N_PARTICLES = 100000;
+  private static final long SEED = 8642;
+
+  @Test
+  public void noTouchingDiscMissedTest() {
+    final Random random = new Random(SEED);
+    final List<Disc> discs = randomDiscs(random);
+    final DiscsCellIndex discsIndex = new DiscsCellIndex(discs, WIDTH, HEIGHT, MAX_DIAMETER / 2, MAX_DIAMETER);
+
+    int nTouches = 0;
+    for (int i = 0; i < N_PARTICLES; i++) {
+      final double x = - OUT_OF_GRID + random.nextDouble() * (WIDTH + 2 * OUT_OF_GRID);
+      final double y = - OUT_OF_GRID + random.nextDouble() * (HEIGHT + 2 * OUT_OF_GRID);
+      final Particle particle = Particle.builder(x, y).radio(random.nextDouble() * MAX_DIAMETER / 2).build();
+
+      final Set<Integer> nearDiscs = new HashSet<>();
+      final int cell = discsIndex.cell(particle);
+      int previousDisc = -1;
+      for (int k = discsIndex.from(cell); k < discsIndex.to(cell); k++) {
+        // discs are given following their order
+        Assert.assertTrue(discsIndex.disc(k) > previousDisc);
+        previousDisc = discsIndex.disc(k);
+        nearDiscs.add(previousDisc);
+      }
+      for (int d = 0; d < discs.size(); d++) {
+        if (Space2DMaths.superpositionBetween(particle, discs.get(d)) > 0) {
+          Assert.assertTrue(nearDiscs.contains(d));
+          nTouches++;
+        }
+      }
+    }
+    // otherwise, the test would be pointless
+    Assert.assertTrue(nTouches > 0);
+  }
+
+  // half of them are points, as exits' extremes, and the other half, round obstacles
+  private static List<Disc> randomDiscs(final Random random) {
+    final List<Disc> discs = new ArrayList<>(N_DISCS);
+    for (int d = 0; d < N_DISCS; d++) {
+      final double radio = d % 2 == 0 ? 0 : random.nextDouble() * MAX_DISC_RADIO;
+      discs.add(Disc.builder(random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT).radio(radio).build());
+    }
+    return discs;
+  }
+}
@@ -0,0 +1,99 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.services.apis.FloorField;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FloorFieldTest {
+  private static final int NX = 101;
+  private static final int NY = 81;
+  private static final double SIDE = 0.1;
+  private static final double EPSILON = 1e-9;
+  // fast marching's first order error, which is the largest near the source
+  private static final double MAX_ERROR = 2 * SIDE;
+  private static final double MAX_DIRECTION_ERROR = 0.05;
+
+  @Test
+  public void planarFrontTest() {
+    final boolean[] sources = new boolean[NX * NY];
+    for (int i = 0; i < NX; i++) {
+      sources[i] = true;
+    }
+    final FloorField floorField = FloorField.fastMarching(NX, NY, SIDE, new boolean[NX * NY], sources);
+
+    final double[] distances = floorField.distances();
+    for (int j = 0; j < NY; j++) {
+      for (int i = 0; i < NX; i++) {
+        Assert.assertEquals(j * SIDE, distances[j * NX + i], EPSILON);
+      }
+    }
+    final double[] direction = new double[2];
+    floorField.direction(3.14, 2.71, direction);
+    Assert.assertEquals(0, direction[0], EPSILON);
+    Assert.assertEquals(-1, direction[1], EPSILON);
+  }
+
+  @Test
+  public void pointSourceTest() {
+    final boolean[] sources = new boolean[NX * NY];
+    sources[0] = true;
+    final FloorField floorField = FloorField.fastMarching(NX, NY, SIDE, new boolean[NX * NY], sources);
+
+    final double[] distances = floorField.distances();
+    for (int j = 0; j < NY; j++) {
+      for (int i = 0; i < NX; i++) {
+        final double euclideanDistance = Math.hypot(i * SIDE, j * SIDE);
+        Assert.assertEquals(euclideanDistance, distances[j * NX + i], MAX_ERROR);
+      }
+    }
+    // directions point to the source
+    final double[] direction = new double[2];
+    floorField.direction(6, 8, direction);
+    Assert.assertEquals(-0.6, direction[0], MAX_DIRECTION_ERROR);
+    Assert.assertEquals(-0.8, direction[1], MAX_DIRECTION_ERROR);
+  }
+
+  @Test
+  public void wallWithGapTest() {
+    // horizontal wall at y = 4, but for a gap from x = 7 to x = 8, and sources at the bottom
+    final boolean[] blocked = new boolean[NX * NY];
+    final boolean[] sources = new boolean[NX * NY];
+    for (int i = 0; i < NX; i++) {
+      blocked[40 * NX + i] = i < 70 || i > 80;
+      sources[i] = true;
+    }
+    final FloorField floorField = FloorField.fastMarching(NX, NY, SIDE, blocked, sources);
+
+    final double[] distances = floorField.distances();
+    Assert.assertTrue(Double.isNaN(distances[40 * NX]));
+    // from above the wall, pedestrians go around it, through the gap
+    Assert.assertTrue(distances[50 * NX + 20] > 4 + Math.hypot(5, 1) - EPSILON);
+    final double[] direction = new double[2];
+    floorField.direction(2, 5, direction);
+    Assert.assertTrue(direction[0] > 0.9);
+    // pedestrians pushed over the wall still know where to go
+    floorField.direction(2, 4, direction);
+    Assert.assertEquals(1, Math.hypot(direction[0], direction[1]), EPSILON);
+  }
+
+  @Test
+  public void noWayOutTest() {
+    // the source is enclosed by a blocked ring
+    final boolean[] blocked = new boolean[NX * NY];
+    final boolean[] sources = new boolean[NX * NY];
+    for (int i = 0; i < NX; i++) {
+      blocked[10 * NX + i] = true;
+    }
+    for (int j = 0; j < 10; j++) {
+      blocked[j * NX + 10] = true;
+    }
+    sources[0] = true;
+    final FloorField floorField = FloorField.fastMarching(NX, NY, SIDE, blocked, sources);
+
+    Assert.assertTrue(Double.isInfinite(floorField.distances()[50 * NX + 50]));
+    final double[] direction = new double[2];
+    floorField.direction(5, 5, direction);
+    Assert.assertEquals(0, direction[0], EPSILON);
+    Assert.assertEquals(0, direction[1], EPSILON);
+  }
+}
@@ -0,0 +1,56 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.BruteForceMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.IncrementalCellIndexMethodImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+import static ar.edu.itba.ss.pedestriandynamic.services.MovingParticles.assertSameAsBruteForceWhileMoving;
+import static ar.edu.itba.ss.pedestriandynamic.services.MovingParticles.randomParticles;
+
+public class IncrementalCellIndexMethodImplTest {
+  private static final double WIDTH = 10;
+  private static final double HEIGHT = 10;
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.7;
+  private static final double RC = 0;
+  private static final double MAX_STEP = 0.01;
+  private static final int N_PARTICLES = 300;
+  private static final int N_STEPS = 100;
+  private static final long SEED = 1357;
+
+  @Test
+  public void sameAsBruteForceWhileMovingTest() {
+    final Random random = new Random(SEED);
+    final IncrementalCellIndexMethodImpl incrementalCellIndexMethod =
+            new IncrementalCellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC, false, false);
+
+    final List<Particle> particles =
+            randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER, random);
+    assertSameAsBruteForceWhileMoving(incrementalCellIndexMethod, RC, particles, N_STEPS, MAX_STEP, random);
+
+    // all the particles are placed on the first call; after that, only a few of them change their cell on each step
+    Assert.assertTrue(incrementalCellIndexMethod.nRelinks() < N_PARTICLES + N_PARTICLES * N_STEPS / 10);
+  }
+
+  @Test
+  public void evictedParticlesTest() {
+    final Random random = new Random(SEED);
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, RC);
+    final IncrementalCellIndexMethodImpl incrementalCellIndexMethod =
+            new IncrementalCellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC, false, false);
+
+    final List<Particle> particles =
+            randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER, random);
+    incrementalCellIndexMethod.run(particles);
+    final List<Particle> removedParticles = particles.subList(0, N_PARTICLES / 2);
+    removedParticles.forEach(incrementalCellIndexMethod::evict);
+    removedParticles.clear();
+
+    Assert.assertEquals(bruteForceMethod.run(particles), incrementalCellIndexMethod.run(particles));
+  }
+}
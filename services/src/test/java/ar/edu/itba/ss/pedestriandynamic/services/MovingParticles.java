@@ -0,0 +1,68 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.BruteForceMethodImpl;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Particles placed at random, and moved a little on each step, as neighbours finders that keep state between runs
+ * find them on a simulation.
+ */
+/* package-private */ final class MovingParticles {
+  private MovingParticles() {
+  }
+
+  /**
+   * @return particles placed at random inside the given rectangle, starting at (0, 0), with their slots following
+   * the list's order
+   */
+  /* package-private */ static List<Particle> randomParticles(final int nParticles,
+                                                             final double width, final double height,
+                                                             final double minDiameter, final double maxDiameter,
+                                                             final Random random) {
+    final List<Particle> particles = new ArrayList<>(nParticles);
+    for (int i = 0; i < nParticles; i++) {
+      final double radio = (minDiameter + random.nextDouble() * (maxDiameter - minDiameter)) / 2;
+      particles.add(Particle.builder(random.nextDouble() * width, random.nextDouble() * height)
+              .radio(radio).slot(i).build());
+    }
+    return particles;
+  }
+
+  /**
+   * @return the given particles, each one moved at random up to {@code maxStep} on each axis
+   */
+  /* package-private */ static List<Particle> moved(final List<Particle> particles, final double maxStep,
+                                                  final Random random) {
+    final List<Particle> movedParticles = new ArrayList<>(particles.size());
+    for (final Particle particle : particles) {
+      final double dx = (2 * random.nextDouble() - 1) * maxStep;
+      final double dy = (2 * random.nextDouble() - 1) * maxStep;
+      movedParticles.add(particle.withX(particle.x() + dx).withY(particle.y() + dy));
+    }
+    return movedParticles;
+  }
+
+  /**
+   * Asserts that the given finder finds the same neighbours as the brute force method, at the given particles and
+   * after each of the {@code nSteps} steps they are moved
+   */
+  /* package-private */ static void assertSameAsBruteForceWhileMoving(final NeighboursFinder neighboursFinder,
+                                                                     final double rc,
+                                                                     final List<Particle> particles,
+                                                                     final int nSteps, final double maxStep,
+                                                                     final Random random) {
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, rc);
+    List<Particle> movingParticles = particles;
+    Assert.assertEquals(bruteForceMethod.run(movingParticles), neighboursFinder.run(movingParticles));
+    for (int step = 0; step < nSteps; step++) {
+      movingParticles = moved(movingParticles, maxStep, random);
+      Assert.assertEquals(bruteForceMethod.run(movingParticles), neighboursFinder.run(movingParticles));
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.QuadTreeMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.SweepAndPruneMethodImpl;
+
+import java.util.*;
+
+/**
+ * Compares the uniform grid, the quadtree and the sweep and prune neighbours finders while a room drains.
+ * <P>
+ * At each stage, the remaining pedestrians are packed in a half disc over the opening, as they are during
+ * an evacuation, while the rest of the room is empty. Rooms of different sizes and pedestrians with different
+ * ranges of diameters are considered, as the grid's cells depend on both of them.
+ * <P>
+ * Not run as a test; run its {@code main} to get the results.
+ */
+public class NeighboursFindersBenchmark {
+  // room sizes, as {width, height}; the opening is at the middle of the room's bottom
+  private static final double[][] ROOMS = {{20, 26}, {80, 80}};
+  // pedestrians' diameters, as {min, max}
+  private static final double[][] DIAMETERS = {{0.5, 0.7}, {0.3, 2}};
+  private static final double OPENING_Y = 5;
+  // area taken by each pedestrian at the packed crowd, relative to its squared diameter
+  private static final double AREA_PER_SQUARED_DIAMETER = 1;
+  private static final double RC = 0;
+  private static final int LEAF_CAPACITY = 8;
+  private static final int N_PEDESTRIANS = 2000;
+  private static final double[] REMAINING_FRACTIONS = {1, 0.5, 0.2, 0.05, 0.01};
+  private static final int N_WARM_UP_RUNS = 1000;
+  private static final int N_RUNS = 2000;
+  private static final long SEED = 42;
+
+  public static void main(final String[] args) {
+    System.out.println("room, diameters, pedestrians, cim (us/call), quadtree (us/call), sap (us/call), pairs");
+    for (final double[] room : ROOMS) {
+      for (final double[] diameters : DIAMETERS) {
+        final NeighboursFinder cellIndexMethod = new CellIndexMethodImpl(room[0], room[1], diameters[1], RC);
+        final NeighboursFinder quadTreeMethod = new QuadTreeMethodImpl(RC, LEAF_CAPACITY);
+        final NeighboursFinder sweepAndPruneMethod = new SweepAndPruneMethodImpl(RC);
+        final CompactNeighbours neighbours = new CompactNeighbours(N_PEDESTRIANS);
+
+        for (final double remainingFraction : REMAINING_FRACTIONS) {
+          final Collection<Particle> particles =
+                  packedCrowd((int) (N_PEDESTRIANS * remainingFraction), room, diameters);
+
+          final double cellIndexTime = microsPerCall(cellIndexMethod, particles, neighbours);
+          final int nPairs = neighbours.nPairs();
+          final double quadTreeTime = microsPerCall(quadTreeMethod, particles, neighbours);
+          if (nPairs != neighbours.nPairs()) {
+            throw new IllegalStateException("Finders found different pairs");
+          }
+          final double sweepAndPruneTime = microsPerCall(sweepAndPruneMethod, particles, neighbours);
+          if (nPairs != neighbours.nPairs()) {
+            throw new IllegalStateException("Finders found different pairs");
+          }
+
+          System.out.printf("%.0fx%.0f, %.1f-%.1f, %d, %.2f, %.2f, %.2f, %d%n", room[0], room[1],
+                  diameters[0], diameters[1], particles.size(), cellIndexTime, quadTreeTime, sweepAndPruneTime,
+                  nPairs);
+        }
+      }
+    }
+  }
+
+  private static double microsPerCall(final NeighboursFinder neighboursFinder,
+                                      final Collection<Particle> particles,
+                                      final CompactNeighbours neighbours) {
+    for (int i = 0; i < N_WARM_UP_RUNS; i++) {
+      neighboursFinder.run(particles, neighbours);
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < N_RUNS; i++) {
+      neighboursFinder.run(particles, neighbours);
+    }
+    return (System.nanoTime() - start) / 1e3 / N_RUNS;
+  }
+
+  private static Collection<Particle> packedCrowd(final int nPedestrians, final double[] room,
+                                                  final double[] diameters) {
+    final Random random = new Random(SEED);
+    final double openingX = room[0] / 2;
+    final double meanDiameter = (diameters[0] + diameters[1]) / 2;
+    // half disc whose area fits all the pedestrians
+    final double area = nPedestrians * AREA_PER_SQUARED_DIAMETER * meanDiameter * meanDiameter;
+    final double radio = Math.sqrt(2 * area / Math.PI);
+    final List<Particle> particles = new ArrayList<>(nPedestrians);
+    while (particles.size() < nPedestrians) {
+      final double x = openingX + (2 * random.nextDouble() - 1) * radio;
+      final double y = OPENING_Y + random.nextDouble() * radio;
+      if (Math.hypot(x - openingX, y - OPENING_Y) <= radio && x > 0 && x < room[0] && y < room[1]) {
+        final double diameter = diameters[0] + random.nextDouble() * (diameters[1] - diameters[0]);
+        particles.add(Particle.builder(x, y).radio(diameter / 2).slot(particles.size()).build());
+      }
+    }
+    return particles;
+  }
+}
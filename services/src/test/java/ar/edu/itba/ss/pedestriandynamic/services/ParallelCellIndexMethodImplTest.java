@@ -0,0 +1,67 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.BruteForceMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.ParallelCellIndexMethodImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class ParallelCellIndexMethodImplTest {
+  private static final double WIDTH = 20;
+  private static final double HEIGHT = 25;
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.7;
+  private static final double RC = 0.1;
+  private static final int N_PARTICLES = 2000;
+  private static final long SEED = 2468;
+
+  @Test
+  public void sameAsBruteForceTest() {
+    final Collection<Particle> particles = randomParticles();
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, RC);
+    final NeighboursFinder parallelCellIndexMethod =
+            new ParallelCellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC, 4);
+
+    Assert.assertEquals(bruteForceMethod.run(particles), parallelCellIndexMethod.run(particles));
+  }
+
+  @Test
+  public void sameOrderAsSequentialTest() {
+    final Collection<Particle> particles = randomParticles();
+    final CompactNeighbours expected = new CompactNeighbours(N_PARTICLES);
+    new CellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC).run(particles, expected);
+
+    for (final int parallelism : new int[] {1, 2, 3, 8}) {
+      final NeighboursFinder parallelCellIndexMethod =
+              new ParallelCellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC, parallelism);
+      final CompactNeighbours actual = new CompactNeighbours(N_PARTICLES);
+      // run twice, so as to check that stripes' buffers are correctly reused
+      parallelCellIndexMethod.run(particles, actual);
+      parallelCellIndexMethod.run(particles, actual);
+
+      // not only the same neighbours, but in the same order
+      Assert.assertEquals(expected.nPairs(), actual.nPairs());
+      for (int slot = 0; slot < N_PARTICLES; slot++) {
+        Assert.assertEquals(expected.from(slot), actual.from(slot));
+        Assert.assertEquals(expected.to(slot), actual.to(slot));
+        for (int k = expected.from(slot); k < expected.to(slot); k++) {
+          Assert.assertEquals(expected.neighbour(k), actual.neighbour(k));
+        }
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidParallelismTest() {
+    new ParallelCellIndexMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC, 0);
+  }
+
+  private static Collection<Particle> randomParticles() {
+    return MovingParticles.randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER, new Random(SEED));
+  }
+}
@@ -0,0 +1,69 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.BruteForceMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.QuadTreeMethodImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class QuadTreeMethodImplTest {
+  private static final double WIDTH = 20;
+  private static final double HEIGHT = 25;
+  private static final int LEAF_CAPACITY = 8;
+  private static final int N_PARTICLES = 1000;
+  private static final long SEED = 9753;
+
+  @Test
+  public void sameAsBruteForceTest() {
+    for (final double rc : new double[] {0, 0.1, 1}) {
+      final Collection<Particle> particles = randomParticles(0.5, 0.7, false);
+      final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, rc);
+      final NeighboursFinder quadTreeMethod = new QuadTreeMethodImpl(rc, LEAF_CAPACITY);
+
+      Assert.assertEquals(bruteForceMethod.run(particles), quadTreeMethod.run(particles));
+    }
+  }
+
+  @Test
+  public void packedPolydisperseParticlesTest() {
+    final double rc = 0.05;
+    // very different diameters, most of the particles packed near a corner
+    final Collection<Particle> particles = randomParticles(0.1, 2, true);
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, rc);
+    final QuadTreeMethodImpl quadTreeMethod = new QuadTreeMethodImpl(rc, LEAF_CAPACITY);
+
+    Assert.assertEquals(bruteForceMethod.run(particles), quadTreeMethod.run(particles));
+    Assert.assertTrue(quadTreeMethod.nNodes() > 1);
+  }
+
+  @Test
+  public void particlesAtSamePositionTest() {
+    final Collection<Particle> particles = new HashSet<>();
+    for (int i = 0; i < 3 * LEAF_CAPACITY; i++) {
+      particles.add(Particle.builder(1, 1).radio(0.1).build());
+    }
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, 0);
+    final NeighboursFinder quadTreeMethod = new QuadTreeMethodImpl(0, LEAF_CAPACITY);
+
+    Assert.assertEquals(bruteForceMethod.run(particles), quadTreeMethod.run(particles));
+  }
+
+  private static Collection<Particle> randomParticles(final double minDiameter, final double maxDiameter,
+                                                      final boolean packed) {
+    final Random random = new Random(SEED);
+    final Collection<Particle> particles = new HashSet<>(N_PARTICLES);
+    for (int i = 0; i < N_PARTICLES; i++) {
+      final double radio = (minDiameter + random.nextDouble() * (maxDiameter - minDiameter)) / 2;
+      // cubing a uniform value packs the particles near 0
+      final double u = random.nextDouble();
+      final double v = random.nextDouble();
+      final double x = (packed ? u * u * u : u) * WIDTH;
+      final double y = (packed ? v * v * v : v) * HEIGHT;
+      particles.add(Particle.builder(x, y).radio(radio).slot(i).build());
+    }
+    return particles;
+  }
+}
@@ -0,0 +1,65 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.SocialForceModel;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SocialForceModelTest {
+  private static final double KN = 1.2e5;
+  private static final double KT = 2.4e5;
+  private static final double A = 2000;
+  private static final double B = 0.08;
+  private static final double RADIO = 0.25;
+  private static final double DELTA = 1e-9;
+
+  private SocialForceModel model;
+
+  @Before
+  public void setUp() {
+    final StaticData staticData = StaticData.builder(2, 5, 5, 1.2, 0.5, 0.7, 80, KN, KT, A, B, 0.5, 1.2).build();
+    model = new SocialForceModel(staticData, null);
+  }
+
+  @Test
+  public void notCollidingTest() {
+    Assert.assertFalse(model.neighbourForce(2 * RADIO + 0.01, 0, RADIO, RADIO, 0, 0));
+  }
+
+  @Test
+  public void neighbourForceTest() {
+    // neighbour to the right, overlapped by 0.1, while the particle slides up along it
+    final double superposition = 0.1;
+    final double vy = 1;
+    Assert.assertTrue(model.neighbourForce(2 * RADIO - superposition, 0, RADIO, RADIO, 0, vy));
+    // pushed to the left, and its sliding is resisted
+    Assert.assertEquals(- KN * superposition, model.forceX(), DELTA);
+    Assert.assertEquals(- KT * superposition * vy, model.forceY(), DELTA);
+    Assert.assertEquals(KN * superposition, model.normalForce(), DELTA);
+  }
+
+  @Test
+  public void socialForceTest() {
+    // other pedestrian above, 1 meter apart border to border
+    final double distance = 1;
+    model.socialForce(0, 2 * RADIO + distance, RADIO, RADIO);
+    Assert.assertEquals(0, model.forceX(), DELTA);
+    Assert.assertEquals(- A * Math.exp(- distance / B), model.forceY(), DELTA);
+  }
+
+  @Test
+  public void drivingForceTest() {
+    final double mass = 80;
+    final double tau = 0.5;
+    final double drivingSpeed = 1.2;
+    // already walking along the direction at the driving speed
+    model.drivingForce(mass, tau, drivingSpeed, 0.6, -0.8, 0.6 * drivingSpeed, -0.8 * drivingSpeed);
+    Assert.assertEquals(0, model.forceX(), DELTA);
+    Assert.assertEquals(0, model.forceY(), DELTA);
+    // standing still
+    model.drivingForce(mass, tau, drivingSpeed, 0.6, -0.8, 0, 0);
+    Assert.assertEquals(0.6 * drivingSpeed * mass / tau, model.forceX(), DELTA);
+    Assert.assertEquals(-0.8 * drivingSpeed * mass / tau, model.forceY(), DELTA);
+  }
+}
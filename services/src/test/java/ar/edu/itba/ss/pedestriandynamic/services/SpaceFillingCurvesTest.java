@@ -0,0 +1,53 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.SpaceFillingCurves;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class SpaceFillingCurvesTest {
+
+  @Test
+  public void mortonKeyTest() {
+    Assert.assertEquals(0, SpaceFillingCurves.mortonKey(0, 0));
+    Assert.assertEquals(1, SpaceFillingCurves.mortonKey(1, 0));
+    Assert.assertEquals(2, SpaceFillingCurves.mortonKey(0, 1));
+    Assert.assertEquals(3, SpaceFillingCurves.mortonKey(1, 1));
+    // x = 0b101, y = 0b011 => 0b011011
+    Assert.assertEquals(0b011011, SpaceFillingCurves.mortonKey(0b101, 0b011));
+    Assert.assertEquals((1L << 30) - 1, SpaceFillingCurves.mortonKey((1 << 15) - 1, (1 << 15) - 1));
+  }
+
+  @Test
+  public void sortedByMortonKeyTest() {
+    // a 4x4 grid of particles, given row by row, from the top
+    final List<Particle> particles = new ArrayList<>();
+    for (int y = 3; y >= 0; y--) {
+      for (int x = 0; x < 4; x++) {
+        particles.add(Particle.builder(x, y).build());
+      }
+    }
+
+    final List<Particle> sortedParticles = SpaceFillingCurves.sortedByMortonKey(particles);
+
+    Assert.assertEquals(new HashSet<>(particles), new HashSet<>(sortedParticles));
+    // each quadrant is traversed before the next one, in Z order
+    final double[][] expectedFirstPositions = {{0, 0}, {1, 0}, {0, 1}, {1, 1}, {2, 0}, {3, 0}, {2, 1}, {3, 1}};
+    for (int i = 0; i < expectedFirstPositions.length; i++) {
+      Assert.assertEquals(expectedFirstPositions[i][0], sortedParticles.get(i).x(), 0);
+      Assert.assertEquals(expectedFirstPositions[i][1], sortedParticles.get(i).y(), 0);
+    }
+  }
+
+  @Test
+  public void sortedByMortonKeyWithEqualPositionsTest() {
+    final List<Particle> particles = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      particles.add(Particle.builder(1, 1).build());
+    }
+    // same key => same relative order
+    Assert.assertEquals(particles, SpaceFillingCurves.sortedByMortonKey(particles));
+  }
+}
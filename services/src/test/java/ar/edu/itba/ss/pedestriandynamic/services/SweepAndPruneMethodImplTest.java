@@ -0,0 +1,56 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.BruteForceMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.SweepAndPruneMethodImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+import static ar.edu.itba.ss.pedestriandynamic.services.MovingParticles.assertSameAsBruteForceWhileMoving;
+import static ar.edu.itba.ss.pedestriandynamic.services.MovingParticles.randomParticles;
+
+public class SweepAndPruneMethodImplTest {
+  private static final double WIDTH = 10;
+  private static final double HEIGHT = 10;
+  private static final double MIN_DIAMETER = 0.1;
+  private static final double MAX_DIAMETER = 1.5;
+  private static final double RC = 0.1;
+  private static final double MAX_STEP = 0.01;
+  private static final int N_PARTICLES = 300;
+  private static final int N_STEPS = 100;
+  private static final long SEED = 2468;
+
+  @Test
+  public void sameAsBruteForceWhileMovingTest() {
+    final Random random = new Random(SEED);
+    final SweepAndPruneMethodImpl sweepAndPruneMethod = new SweepAndPruneMethodImpl(RC);
+
+    final List<Particle> particles =
+            randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER, random);
+    sweepAndPruneMethod.run(particles);
+    final long initialSwaps = sweepAndPruneMethod.nSwaps();
+    assertSameAsBruteForceWhileMoving(sweepAndPruneMethod, RC, particles, N_STEPS, MAX_STEP, random);
+
+    // once sorted, particles hardly change their order from one step to the next
+    Assert.assertTrue(sweepAndPruneMethod.nSwaps() - initialSwaps < initialSwaps);
+  }
+
+  @Test
+  public void addedAndRemovedParticlesTest() {
+    final Random random = new Random(SEED);
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, RC);
+    final SweepAndPruneMethodImpl sweepAndPruneMethod = new SweepAndPruneMethodImpl(RC);
+
+    final List<Particle> particles =
+            randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER, random);
+    final List<Particle> firstHalf = new ArrayList<>(particles.subList(0, N_PARTICLES / 2));
+    final List<Particle> secondHalf = new ArrayList<>(particles.subList(N_PARTICLES / 2, N_PARTICLES));
+
+    Assert.assertEquals(bruteForceMethod.run(firstHalf), sweepAndPruneMethod.run(firstHalf));
+    Assert.assertEquals(bruteForceMethod.run(particles), sweepAndPruneMethod.run(particles));
+    Assert.assertEquals(bruteForceMethod.run(secondHalf), sweepAndPruneMethod.run(secondHalf));
+  }
+}
@@ -0,0 +1,74 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.services.apis.TabulatedExp;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class TabulatedExpTest {
+  private static final double[] MAX_RELATIVE_ERRORS = {1e-2, 1e-4, 1e-6, 1e-9, 1e-12};
+  // range of - distance / B for pedestrians between 1 meter overlapped and 56 meters apart, with B = 0.08;
+  // farther pedestrians' exponentials are not normal doubles, and are delegated to Math.exp
+  private static final double MIN_X = -56 / 0.08;
+  private static final double MAX_X = 1 / 0.08;
+  private static final int N_SAMPLES = 1000000;
+  // relative rounding error of the table's multiplications and interpolation
+  private static final double ROUNDING_ERROR = 1e-15;
+  private static final long SEED = 97531;
+
+  @Test
+  public void boundedRelativeErrorTest() {
+    for (final double maxRelativeError : MAX_RELATIVE_ERRORS) {
+      final TabulatedExp tabulatedExp = new TabulatedExp(maxRelativeError);
+      final Random random = new Random(SEED);
+      double worstRelativeError = 0;
+      for (int i = 0; i < N_SAMPLES; i++) {
+        final double x = MIN_X + random.nextDouble() * (MAX_X - MIN_X);
+        final double exactExp = Math.exp(x);
+        final double relativeError = (tabulatedExp.exp(x) - exactExp) / exactExp;
+        // the exponential is convex, so linear interpolation never underestimates it
+        Assert.assertTrue(relativeError >= - ROUNDING_ERROR);
+        worstRelativeError = Math.max(worstRelativeError, relativeError);
+      }
+      Assert.assertTrue(worstRelativeError <= maxRelativeError + ROUNDING_ERROR);
+      // the table is not much finer than needed
+      Assert.assertTrue(worstRelativeError > maxRelativeError / 2);
+    }
+  }
+
+  @Test
+  public void tableSizeTest() {
+    // h ~ sqrt(8 * maxRelativeError), and there is an entry at each end of each interval
+    Assert.assertEquals(1 / Math.sqrt(8e-6), new TabulatedExp(1e-6).tableSize() - 1, 2);
+  }
+
+  @Test
+  public void exactOutOfTableTest() {
+    final TabulatedExp tabulatedExp = new TabulatedExp(1e-3);
+    for (final double x : new double[] {-1000, -708.5, 709, 710, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}) {
+      Assert.assertEquals(Math.exp(x), tabulatedExp.exp(x), 0);
+    }
+    Assert.assertTrue(Double.isNaN(tabulatedExp.exp(Double.NaN)));
+    // integer arguments fall on the table's entries
+    Assert.assertEquals(Math.exp(-3), tabulatedExp.exp(-3), 0);
+  }
+
+  @Test
+  public void justBelowIntegersTest() {
+    final TabulatedExp tabulatedExp = new TabulatedExp(1e-6);
+    // x - floor(x) rounds to 1 on these, e.g., two pedestrians barely touching give - Double.MIN_VALUE
+    Assert.assertEquals(1, tabulatedExp.exp(- Double.MIN_VALUE), 1e-6);
+    Assert.assertEquals(1, tabulatedExp.exp(-1e-17), 1e-6);
+    for (int k = -707; k < 709; k++) {
+      final double x = Math.nextDown((double) k);
+      final double exactExp = Math.exp(x);
+      Assert.assertEquals(exactExp, tabulatedExp.exp(x), exactExp * (1e-6 + ROUNDING_ERROR));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooSmallErrorTest() {
+    new TabulatedExp(1e-15);
+  }
+}
@@ -0,0 +1,78 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.NeighboursFinder;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.BruteForceMethodImpl;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.VerletListMethodImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+import static ar.edu.itba.ss.pedestriandynamic.services.MovingParticles.assertSameAsBruteForceWhileMoving;
+import static ar.edu.itba.ss.pedestriandynamic.services.MovingParticles.moved;
+import static ar.edu.itba.ss.pedestriandynamic.services.MovingParticles.randomParticles;
+
+public class VerletListMethodImplTest {
+  private static final double WIDTH = 10;
+  private static final double HEIGHT = 10;
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.7;
+  private static final double RC = 0;
+  private static final double SKIN = 0.1;
+  private static final double MAX_STEP = 0.01;
+  private static final int N_PARTICLES = 300;
+  private static final int N_STEPS = 100;
+  private static final long SEED = 4321;
+
+  @Test
+  public void sameAsBruteForceWhileMovingTest() {
+    final Random random = new Random(SEED);
+    final VerletListMethodImpl verletListMethod =
+            new VerletListMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC, SKIN);
+
+    final List<Particle> particles =
+            randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER, random);
+    assertSameAsBruteForceWhileMoving(verletListMethod, RC, particles, N_STEPS, MAX_STEP, random);
+
+    // lists should have been reused most of the steps
+    Assert.assertTrue(verletListMethod.nRebuilds() < N_STEPS / 2);
+  }
+
+  @Test
+  public void compactNeighboursSameAsMapWhileMovingTest() {
+    final Random random = new Random(SEED);
+    final NeighboursFinder verletListMethod = new VerletListMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC, SKIN);
+    final CompactNeighbours neighbours = new CompactNeighbours(N_PARTICLES);
+
+    List<Particle> particles = randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER, random);
+    for (int step = 0; step < N_STEPS; step++) {
+      final Map<Particle, Collection<Particle>> expected = new BruteForceMethodImpl(false, RC).run(particles);
+      verletListMethod.run(particles, neighbours);
+      for (final Particle particle : particles) {
+        final Set<Integer> expectedSlots = new HashSet<>();
+        expected.get(particle).forEach(neighbour -> expectedSlots.add(neighbour.slot()));
+        final Set<Integer> actualSlots = new HashSet<>();
+        for (int k = neighbours.from(particle.slot()); k < neighbours.to(particle.slot()); k++) {
+          actualSlots.add(neighbours.neighbour(k));
+        }
+        Assert.assertEquals(expectedSlots, actualSlots);
+      }
+      particles = moved(particles, MAX_STEP, random);
+    }
+  }
+
+  @Test
+  public void removedParticlesTest() {
+    final Random random = new Random(SEED);
+    final NeighboursFinder bruteForceMethod = new BruteForceMethodImpl(false, RC);
+    final NeighboursFinder verletListMethod = new VerletListMethodImpl(WIDTH, HEIGHT, MAX_DIAMETER, RC, SKIN);
+
+    final List<Particle> particles = randomParticles(N_PARTICLES, WIDTH, HEIGHT, MIN_DIAMETER, MAX_DIAMETER, random);
+    verletListMethod.run(particles);
+    particles.subList(0, N_PARTICLES / 2).clear();
+
+    Assert.assertEquals(bruteForceMethod.run(particles), verletListMethod.run(particles));
+  }
+}
@@ -0,0 +1,112 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.Wall;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.Space2DMaths;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.WallsCellIndex;
+
+import java.util.*;
+
+/**
+ * Compares testing each pedestrian against all the walls with testing it only against the walls of its
+ * {@link WallsCellIndex}'s cell, as the number of walls grows.
+ * <P>
+ * The room's outline is split into more and more segments, and some pillars, i.e., small squares, are spread over it,
+ * so as walls are both long and short. Pedestrians are spread over the whole room.
+ * <P>
+ * Not run as a test; run its {@code main} to get the results.
+ */
+public class WallsCellIndexBenchmark {
+  private static final double WIDTH = 20;
+  private static final double HEIGHT = 26;
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.7;
+  private static final double PILLAR_SIDE = 0.5;
+  private static final int[] SEGMENTS_PER_SIDE = {1, 10, 100};
+  private static final int[] N_PILLARS = {0, 10, 100};
+  private static final int N_PEDESTRIANS = 2000;
+  private static final int N_WARM_UP_RUNS = 200;
+  private static final int N_RUNS = 200;
+  private static final long SEED = 42;
+
+  public static void main(final String[] args) {
+    final Random random = new Random(SEED);
+    final List<Particle> pedestrians = new ArrayList<>(N_PEDESTRIANS);
+    for (int i = 0; i < N_PEDESTRIANS; i++) {
+      final double diameter = MIN_DIAMETER + random.nextDouble() * (MAX_DIAMETER - MIN_DIAMETER);
+      pedestrians.add(Particle.builder(random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT)
+              .radio(diameter / 2).build());
+    }
+
+    System.out.println("walls, all walls (us/pass), indexed walls (us/pass), walls per cell, touches");
+    for (int i = 0; i < SEGMENTS_PER_SIDE.length; i++) {
+      final List<Wall> walls = walls(SEGMENTS_PER_SIDE[i], N_PILLARS[i], random);
+      final Wall[] wallsArray = walls.toArray(new Wall[walls.size()]);
+      final WallsCellIndex wallsIndex = new WallsCellIndex(walls, WIDTH, HEIGHT, MAX_DIAMETER / 2, MAX_DIAMETER);
+
+      final int[] touches = new int[2];
+      final double allWallsTime = microsPerPass(() -> {
+        touches[0] = 0;
+        for (final Particle pedestrian : pedestrians) {
+          for (final Wall wall : wallsArray) {
+            if (Space2DMaths.superpositionBetween(pedestrian, wall) > 0) {
+              touches[0]++;
+            }
+          }
+        }
+      });
+      final double indexedWallsTime = microsPerPass(() -> {
+        touches[1] = 0;
+        for (final Particle pedestrian : pedestrians) {
+          final int cell = wallsIndex.cell(pedestrian);
+          for (int k = wallsIndex.from(cell); k < wallsIndex.to(cell); k++) {
+            if (Space2DMaths.superpositionBetween(pedestrian, wallsArray[wallsIndex.wall(k)]) > 0) {
+              touches[1]++;
+            }
+          }
+        }
+      });
+      if (touches[0] != touches[1]) {
+        throw new IllegalStateException("Indexed walls missed some touches");
+      }
+
+      final int nCells = wallsIndex.cell(Particle.builder(WIDTH, HEIGHT).build()) + 1;
+      System.out.printf("%d, %.1f, %.1f, %.2f, %d%n", walls.size(), allWallsTime, indexedWallsTime,
+              (double) wallsIndex.size() / nCells, touches[0]);
+    }
+  }
+
+  private static List<Wall> walls(final int segmentsPerSide, final int nPillars, final Random random) {
+    final List<Wall> walls = new ArrayList<>();
+    for (int s = 0; s < segmentsPerSide; s++) {
+      final double xFrom = WIDTH * s / segmentsPerSide;
+      final double xTo = WIDTH * (s + 1) / segmentsPerSide;
+      final double yFrom = HEIGHT * s / segmentsPerSide;
+      final double yTo = HEIGHT * (s + 1) / segmentsPerSide;
+      walls.add(Wall.builder(xFrom, 0, xTo, 0).build());
+      walls.add(Wall.builder(xFrom, HEIGHT, xTo, HEIGHT).build());
+      walls.add(Wall.builder(0, yFrom, 0, yTo).build());
+      walls.add(Wall.builder(WIDTH, yFrom, WIDTH, yTo).build());
+    }
+    for (int p = 0; p < nPillars; p++) {
+      final double x = random.nextDouble() * (WIDTH - PILLAR_SIDE);
+      final double y = random.nextDouble() * (HEIGHT - PILLAR_SIDE);
+      walls.add(Wall.builder(x, y, x + PILLAR_SIDE, y).build());
+      walls.add(Wall.builder(x, y + PILLAR_SIDE, x + PILLAR_SIDE, y + PILLAR_SIDE).build());
+      walls.add(Wall.builder(x, y, x, y + PILLAR_SIDE).build());
+      walls.add(Wall.builder(x + PILLAR_SIDE, y, x + PILLAR_SIDE, y + PILLAR_SIDE).build());
+    }
+    return walls;
+  }
+
+  private static double microsPerPass(final Runnable pass) {
+    for (int i = 0; i < N_WARM_UP_RUNS; i++) {
+      pass.run();
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < N_RUNS; i++) {
+      pass.run();
+    }
+    return (System.nanoTime() - start) / 1e3 / N_RUNS;
+  }
+}
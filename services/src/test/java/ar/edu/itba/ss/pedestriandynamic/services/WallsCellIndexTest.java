@@ -0,0 +1,87 @@
+package ar.edu.itba.ss.pedestriandynamic.services;
+
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.Wall;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.Space2DMaths;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.WallsCellIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class WallsCellIndexTest {
+  private static final double WIDTH = 20;
+  private static final double HEIGHT = 26;
+  private static final double MAX_DIAMETER = 0.7;
+  private static final double MAX_WALL_LENGTH = 5;
+  // particles may be out of the grid, as when they overlap a border wall
+  private static final double OUT_OF_GRID = 1;
+  private static final int N_WALLS = 200;
+  private static final int N_PARTICLES = 100000;
+  private static final long SEED = 8642;
+
+  @Test
+  public void noTouchingWallMissedTest() {
+    final Random random = new Random(SEED);
+    final List<Wall> walls = randomWalls(random);
+    final WallsCellIndex wallsIndex = new WallsCellIndex(walls, WIDTH, HEIGHT, MAX_DIAMETER / 2, MAX_DIAMETER);
+
+    int nTouches = 0;
+    for (int i = 0; i < N_PARTICLES; i++) {
+      final double x = - OUT_OF_GRID + random.nextDouble() * (WIDTH + 2 * OUT_OF_GRID);
+      final double y = - OUT_OF_GRID + random.nextDouble() * (HEIGHT + 2 * OUT_OF_GRID);
+      final Particle particle = Particle.builder(x, y).radio(random.nextDouble() * MAX_DIAMETER / 2).build();
+
+      final Set<Integer> nearWalls = new HashSet<>();
+      final int cell = wallsIndex.cell(particle);
+      int previousWall = -1;
+      for (int k = wallsIndex.from(cell); k < wallsIndex.to(cell); k++) {
+        // walls are given following their order
+        Assert.assertTrue(wallsIndex.wall(k) > previousWall);
+        previousWall = wallsIndex.wall(k);
+        nearWalls.add(previousWall);
+      }
+      for (int w = 0; w < walls.size(); w++) {
+        if (Space2DMaths.superpositionBetween(particle, walls.get(w)) > 0) {
+          Assert.assertTrue(nearWalls.contains(w));
+          nTouches++;
+        }
+      }
+    }
+    // otherwise, the test would be pointless
+    Assert.assertTrue(nTouches > 0);
+  }
+
+  @Test
+  public void fewWallsPerCellTest() {
+    final List<Wall> walls = randomWalls(new Random(SEED));
+    final WallsCellIndex wallsIndex = new WallsCellIndex(walls, WIDTH, HEIGHT, MAX_DIAMETER / 2, MAX_DIAMETER);
+    final int nCells = wallsIndex.cell(Particle.builder(WIDTH, HEIGHT).build()) + 1;
+    // each wall is saved only at the cells around it
+    Assert.assertTrue(wallsIndex.size() < nCells * walls.size() / 10);
+  }
+
+  // horizontal, vertical and diagonal walls
+  private static List<Wall> randomWalls(final Random random) {
+    final List<Wall> walls = new ArrayList<>(N_WALLS);
+    for (int w = 0; w < N_WALLS; w++) {
+      final double xFrom = random.nextDouble() * WIDTH;
+      final double yFrom = random.nextDouble() * HEIGHT;
+      final double length = random.nextDouble() * MAX_WALL_LENGTH;
+      switch (w % 3) {
+        case 0:
+          walls.add(Wall.builder(xFrom, yFrom, xFrom + length, yFrom).build());
+          break;
+        case 1:
+          walls.add(Wall.builder(xFrom, yFrom, xFrom, yFrom + length).build());
+          break;
+        default:
+          final double angle = random.nextDouble() * 2 * Math.PI;
+          walls.add(Wall.builder(xFrom, yFrom,
+                  xFrom + length * Math.cos(angle), yFrom + length * Math.sin(angle)).build());
+          break;
+      }
+    }
+    return walls;
+  }
+}
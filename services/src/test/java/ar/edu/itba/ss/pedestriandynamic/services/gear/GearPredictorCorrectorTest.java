@@ -4,6 +4,7 @@ import ar.edu.itba.ss.pedestriandynamic.interfaces.TimeDrivenSimulationSystem;
 import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 import ar.edu.itba.ss.pedestriandynamic.services.gear.oscillator.AnalyticOscillatorSystem;
 import ar.edu.itba.ss.pedestriandynamic.services.gear.oscillator.GearOscillatorSystem;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -14,9 +15,16 @@ public class GearPredictorCorrectorTest {
   private static final double gamma = 100;
   private static final double tf = 5;
   private static final double dt = 0.001;
+  // max position's error of each gear's order, from 2 to 5, against the analytic solution
+  private static final double[] maxOrderErrors = {1e-4, 1e-6, 1e-8, 1e-10};
+  // max position's error of Verlet methods, which are of second order
+  private static final double maxVerletError = 1e-4;
+  // enough coupled oscillators so as to be evaluated by many parallel tasks
+  private static final int nParticles = 1000;
+  private static final int nParallelSteps = 500;
 
-  private TimeDrivenSimulationSystem analyticOscillator;
-  private TimeDrivenSimulationSystem gearOscillator;
+  private TimeDrivenSimulationSystem<?> analyticOscillator;
+  private TimeDrivenSimulationSystem<?> gearOscillator;
 
 
   @Before
@@ -37,4 +45,146 @@ public class GearPredictorCorrectorTest {
       assert Math.abs(aParticle.x() - gParticle.x()) < 1e-7;
     }
   }
+
+  @Test
+  public void parallelEvaluationTest() {
+    final TimeDrivenSimulationSystem<?>[] parallelGearOscillators = {
+            new GearOscillatorSystem(mass, r, k, gamma, 1),
+            new GearOscillatorSystem(mass, r, k, gamma, 4)
+    };
+    for(double systemTime = 0; systemTime < tf; systemTime += dt) {
+      gearOscillator.evolveSystem(dt);
+      final Particle gParticle = gearOscillator.getSystemData().particles().iterator().next();
+
+      for (final TimeDrivenSimulationSystem<?> parallelGearOscillator : parallelGearOscillators) {
+        parallelGearOscillator.evolveSystem(dt);
+        final Particle pParticle = parallelGearOscillator.getSystemData().particles().iterator().next();
+        // exactly the same results as the serial mode
+        Assert.assertEquals(gParticle.x(), pParticle.x(), 0);
+        Assert.assertEquals(gParticle.vx(), pParticle.vx(), 0);
+      }
+    }
+  }
+
+  @Test
+  public void parallelEvaluationOfManyParticlesTest() {
+    final int order = 5;
+    final int parallelism = 4;
+    for (final boolean slotArrays : new boolean[] {false, true}) {
+      final TimeDrivenSimulationSystem<?> serialOscillators = new GearOscillatorSystem(mass, r, k, gamma,
+              new GearPredictorCorrector<>(), slotArrays, order, nParticles);
+      final TimeDrivenSimulationSystem<?> parallelOscillators = new GearOscillatorSystem(mass, r, k, gamma,
+              new GearPredictorCorrector<>(parallelism), slotArrays, order, nParticles);
+      assertSameParticlesWhileEvolving(serialOscillators, parallelOscillators);
+    }
+    assertSameParticlesWhileEvolving(
+            new GearOscillatorSystem(mass, r, k, gamma, new VelocityVerlet<>(), true, GearNSystemData.MIN_ORDER,
+                    nParticles),
+            new GearOscillatorSystem(mass, r, k, gamma, new VelocityVerlet<>(parallelism), true,
+                    GearNSystemData.MIN_ORDER, nParticles));
+  }
+
+  @Test
+  public void slotArraysTest() {
+    final TimeDrivenSimulationSystem<?>[] slotArraysGearOscillators = {
+            new GearOscillatorSystem(mass, r, k, gamma, 1, true),
+            new GearOscillatorSystem(mass, r, k, gamma, 4, true)
+    };
+    for(double systemTime = 0; systemTime < tf; systemTime += dt) {
+      gearOscillator.evolveSystem(dt);
+      final Particle gParticle = gearOscillator.getSystemData().particles().iterator().next();
+
+      for (final TimeDrivenSimulationSystem<?> slotArraysGearOscillator : slotArraysGearOscillators) {
+        slotArraysGearOscillator.evolveSystem(dt);
+        final Particle aParticle = slotArraysGearOscillator.getSystemData().particles().iterator().next();
+        // exactly the same results as with maps
+        Assert.assertEquals(gParticle.x(), aParticle.x(), 0);
+        Assert.assertEquals(gParticle.vx(), aParticle.vx(), 0);
+        Assert.assertEquals(gParticle.forceX(), aParticle.forceX(), 0);
+      }
+    }
+  }
+
+  @Test
+  public void ordersTest() {
+    for (int order = 2; order <= 5; order++) {
+      final TimeDrivenSimulationSystem<?> analyticOscillator = new AnalyticOscillatorSystem(mass, r, k, gamma);
+      final TimeDrivenSimulationSystem<?>[] orderGearOscillators = {
+              new GearOscillatorSystem(mass, r, k, gamma, 1, false, order),
+              new GearOscillatorSystem(mass, r, k, gamma, 1, true, order)
+      };
+      double maxError = 0;
+      for(double systemTime = 0; systemTime < tf; systemTime += dt) {
+        analyticOscillator.evolveSystem(dt);
+        final Particle aParticle = analyticOscillator.getSystemData().particles().iterator().next();
+        for (final TimeDrivenSimulationSystem<?> orderGearOscillator : orderGearOscillators) {
+          orderGearOscillator.evolveSystem(dt);
+        }
+        final Particle mParticle = orderGearOscillators[0].getSystemData().particles().iterator().next();
+        final Particle sParticle = orderGearOscillators[1].getSystemData().particles().iterator().next();
+        // exactly the same results with maps and with arrays
+        Assert.assertEquals(mParticle.x(), sParticle.x(), 0);
+        maxError = Math.max(maxError, Math.abs(aParticle.x() - mParticle.x()));
+      }
+      Assert.assertTrue("Order " + order + " error: " + maxError, maxError < maxOrderErrors[order - 2]);
+    }
+  }
+
+  @Test
+  public void verletMethodsTest() {
+    final int order = GearNSystemData.MIN_ORDER;
+    final TimeDrivenSimulationSystem<?>[] verletOscillators = {
+            new GearOscillatorSystem(mass, r, k, gamma, new VelocityVerlet<>(), true, order),
+            new GearOscillatorSystem(mass, r, k, gamma, new VelocityVerlet<>(4), true, order),
+            new GearOscillatorSystem(mass, r, k, gamma, new Leapfrog<>(), true, order)
+    };
+    double maxError = 0;
+    for(double systemTime = 0; systemTime < tf; systemTime += dt) {
+      analyticOscillator.evolveSystem(dt);
+      final Particle aParticle = analyticOscillator.getSystemData().particles().iterator().next();
+      for (final TimeDrivenSimulationSystem<?> verletOscillator : verletOscillators) {
+        verletOscillator.evolveSystem(dt);
+      }
+      final Particle vParticle = verletOscillators[0].getSystemData().particles().iterator().next();
+      final Particle pParticle = verletOscillators[1].getSystemData().particles().iterator().next();
+      final Particle lParticle = verletOscillators[2].getSystemData().particles().iterator().next();
+      // exactly the same results as the serial mode
+      Assert.assertEquals(vParticle.x(), pParticle.x(), 0);
+      Assert.assertEquals(vParticle.vx(), pParticle.vx(), 0);
+      // same trajectory as the velocity Verlet's but for rounding
+      Assert.assertEquals(vParticle.x(), lParticle.x(), 1e-12);
+      Assert.assertEquals(vParticle.vx(), lParticle.vx(), 1e-10);
+      maxError = Math.max(maxError, Math.abs(aParticle.x() - vParticle.x()));
+    }
+    Assert.assertTrue("Verlet error: " + maxError, maxError < maxVerletError);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void verletMethodsNeedSlotArraysTest() {
+    new GearOscillatorSystem(mass, r, k, gamma, new VelocityVerlet<>(), false, GearNSystemData.MIN_ORDER)
+            .evolveSystem(dt);
+  }
+
+  // exactly the same results as the serial mode, for every particle
+  private static void assertSameParticlesWhileEvolving(final TimeDrivenSimulationSystem<?> serialSystem,
+                                                       final TimeDrivenSimulationSystem<?> parallelSystem) {
+    for (int step = 0; step < nParallelSteps; step++) {
+      serialSystem.evolveSystem(dt);
+      parallelSystem.evolveSystem(dt);
+    }
+    final Particle[] serialParticles = bySlot(serialSystem);
+    final Particle[] parallelParticles = bySlot(parallelSystem);
+    for (int slot = 0; slot < nParticles; slot++) {
+      Assert.assertEquals(serialParticles[slot].x(), parallelParticles[slot].x(), 0);
+      Assert.assertEquals(serialParticles[slot].vx(), parallelParticles[slot].vx(), 0);
+    }
+  }
+
+  private static Particle[] bySlot(final TimeDrivenSimulationSystem<?> system) {
+    final Particle[] particles = new Particle[nParticles];
+    for (final Particle particle : system.getSystemData().particles()) {
+      particles[particle.slot()] = particle;
+    }
+    return particles;
+  }
 }
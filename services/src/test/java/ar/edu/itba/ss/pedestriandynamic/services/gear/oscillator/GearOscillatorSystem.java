@@ -5,7 +5,7 @@ import ar.edu.itba.ss.pedestriandynamic.interfaces.SystemData;
 import ar.edu.itba.ss.pedestriandynamic.interfaces.TimeDrivenSimulationSystem;
 import ar.edu.itba.ss.pedestriandynamic.models.Particle;
 import ar.edu.itba.ss.pedestriandynamic.models.Vector2D;
-import ar.edu.itba.ss.pedestriandynamic.services.gear.Gear5SystemData;
+import ar.edu.itba.ss.pedestriandynamic.services.gear.GearNSystemData;
 import ar.edu.itba.ss.pedestriandynamic.services.gear.GearPredictorCorrector;
 
 import java.util.Collection;
@@ -14,11 +14,67 @@ import java.util.HashSet;
 import java.util.Map;
 
 public class GearOscillatorSystem implements TimeDrivenSimulationSystem {
+  private static final int ORDER = 5;
+  // spring constant between consecutive oscillators, relative to the one of each oscillator
+  private static final double COUPLING = 0.1;
 
-  private final NumericIntegrationMethod<Gear5SystemData> numericIntegrationMethod;
-  private final Gear5SystemData systemData;
+  private final NumericIntegrationMethod<GearNSystemData> numericIntegrationMethod;
+  private final GearNSystemData systemData;
 
   public GearOscillatorSystem(final double mass, final double r, final double k, final double gamma) {
+    this(mass, r, k, gamma, new GearPredictorCorrector<>(), false, ORDER);
+  }
+
+  /**
+   * @param parallelism number of threads used to evaluate the system's particles
+   */
+  public GearOscillatorSystem(final double mass, final double r, final double k, final double gamma,
+                              final int parallelism) {
+    this(mass, r, k, gamma, new GearPredictorCorrector<>(parallelism), false, ORDER);
+  }
+
+  /**
+   * @param parallelism number of threads used to evaluate the system's particles
+   * @param slotArrays whether the particle's derivatives are saved at arrays indexed by slot, instead of at maps
+   */
+  public GearOscillatorSystem(final double mass, final double r, final double k, final double gamma,
+                              final int parallelism, final boolean slotArrays) {
+    this(mass, r, k, gamma, parallelism, slotArrays, ORDER);
+  }
+
+  /**
+   * @param parallelism number of threads used to evaluate the system's particles
+   * @param slotArrays whether the particle's derivatives are saved at arrays indexed by slot, instead of at maps
+   * @param order order of the gear predictor corrector
+   */
+  public GearOscillatorSystem(final double mass, final double r, final double k, final double gamma,
+                              final int parallelism, final boolean slotArrays, final int order) {
+    this(mass, r, k, gamma, parallelism > 1
+            ? new GearPredictorCorrector<>(parallelism) : new GearPredictorCorrector<>(), slotArrays, order);
+  }
+
+  /**
+   * @param numericIntegrationMethod method with which the system is integrated, not necessarily a gear
+   * @param slotArrays whether the particle's derivatives are saved at arrays indexed by slot, instead of at maps
+   * @param order order of the gear predictor corrector, i.e., of the particle's derivatives saved
+   */
+  public GearOscillatorSystem(final double mass, final double r, final double k, final double gamma,
+                              final NumericIntegrationMethod<GearNSystemData> numericIntegrationMethod,
+                              final boolean slotArrays, final int order) {
+    this(mass, r, k, gamma, numericIntegrationMethod, slotArrays, order, 1);
+  }
+
+  /**
+   * @param numericIntegrationMethod method with which the system is integrated, not necessarily a gear
+   * @param slotArrays whether the particles' derivatives are saved at arrays indexed by slot, instead of at maps
+   * @param order order of the gear predictor corrector, i.e., of the particles' derivatives saved
+   * @param nParticles number of oscillators, each one starting farther than the previous one, and coupled to the
+   *                   previous and next ones by springs, so as each particle's force depends on other particles'
+   *                   predicted values
+   */
+  public GearOscillatorSystem(final double mass, final double r, final double k, final double gamma,
+                              final NumericIntegrationMethod<GearNSystemData> numericIntegrationMethod,
+                              final boolean slotArrays, final int order, final int nParticles) {
 
     /*
       template steps:
@@ -30,18 +86,19 @@ public class GearOscillatorSystem implements TimeDrivenSimulationSystem {
     // Calculate particle's initial values
     final double beta = gamma / (2 * mass);
     final double initialVx = -beta;
-    final Particle particle = Particle.builder(r, 0)
-            .mass(mass)
-            .vx(initialVx)
-            .build();
-
     final Collection<Particle> particles = new HashSet<>();
-    particles.add(particle);
+    for (int slot = 0; slot < nParticles; slot++) {
+      particles.add(Particle.builder(r * (1 + (double) slot / nParticles), 0)
+              .mass(mass)
+              .vx(initialVx)
+              .slot(slot)
+              .build());
+    }
 
     // Numeric Integration Method initialization
-    this.systemData = new OscillatorGear5SystemData(particles, k, gamma);
+    this.systemData = new OscillatorGearSystemData(particles, k, gamma, slotArrays, order);
 
-    this.numericIntegrationMethod = new GearPredictorCorrector<>();
+    this.numericIntegrationMethod = numericIntegrationMethod;
   }
 
   @Override
@@ -54,17 +111,20 @@ public class GearOscillatorSystem implements TimeDrivenSimulationSystem {
     numericIntegrationMethod.evolveSystem(this.systemData, dt);
   }
 
-  private static class OscillatorGear5SystemData extends Gear5SystemData {
+  private static class OscillatorGearSystemData extends GearNSystemData {
     private final double k;
     private final double gamma;
+    private final Particle[] predictedParticlesBySlot;
 
-    private OscillatorGear5SystemData(final Collection<Particle> particles,
-                                     final double k, final double gamma) {
-      super(particles);
+    private OscillatorGearSystemData(final Collection<Particle> particles,
+                                     final double k, final double gamma, final boolean slotArrays,
+                                     final int order) {
+      super(particles, order, slotArrays);
 
       // Save constant parameters
       this.k = k;
       this.gamma = gamma;
+      this.predictedParticlesBySlot = new Particle[particles.size()];
 
       particles.forEach(this::initParticle);
     }
@@ -93,7 +153,23 @@ public class GearOscillatorSystem implements TimeDrivenSimulationSystem {
       final Vector2D term1 = rPredicted0.times(-k);
       final Vector2D rPredicted1 = getPredictedR(particle, 1);
       final Vector2D term2 = rPredicted1.times(gamma);
-      return term1.sub(term2);
+      final Vector2D force = term1.sub(term2);
+      if (predictedParticlesBySlot.length == 1) {
+        return force;
+      }
+      // springs to the previous and next oscillators, if any
+      double couplingForceX = 0;
+      for (final int neighbourSlot : new int[] {particle.slot() - 1, particle.slot() + 1}) {
+        if (neighbourSlot >= 0 && neighbourSlot < predictedParticlesBySlot.length) {
+          couplingForceX += COUPLING * k * (predictedParticlesBySlot[neighbourSlot].x() - rPredicted0.x());
+        }
+      }
+      return force.add(Vector2D.builder(couplingForceX, 0).build());
+    }
+
+    @Override
+    protected void predicted(final Particle predictedParticle) {
+      predictedParticlesBySlot[predictedParticle.slot()] = predictedParticle;
     }
   }
 }
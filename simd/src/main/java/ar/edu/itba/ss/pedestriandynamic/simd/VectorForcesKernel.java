@@ -0,0 +1,369 @@
+package ar.edu.itba.ss.pedestriandynamic.simd;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.ForcesKernel;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.ParticlesArrays;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Forces' kernel that calculates as many forces at once as lanes of doubles the CPU's vectors have, with the
+ * Vector API.
+ * <P>
+ * Pairs of neighbours are taken in the order they are saved at {@link CompactNeighbours}, so as each vector holds
+ * consecutive pairs, whatever the particles they belong to are. First, the values of both particles of each pair are
+ * copied to contiguous arrays, one pair after the other, by a scalar loop: gathering them by slot with the Vector API
+ * is much slower than that on current JVMs. Then, each pair's force is calculated over vectors, and saved by pair.
+ * At last, each particle's pairs' forces are summed one after the other, as the {@code ScalarForcesKernel} does.
+ * Arrays of pairs are padded up to a multiple of the vectors' length, and padding pairs' forces are not summed.
+ * <P>
+ * Operations are the same, and are done in the same order, as the ones of the {@code ScalarForcesKernel}, so
+ * particles' and driving forces are exactly the same; social forces differ by rounding, as exponentials are calculated
+ * by the Vector API, and so do their sums when there is no social cutoff, as each pedestrian's social forces are summed
+ * by lanes.
+ * <P>
+ * It is not thread safe, as it saves the pairs' values at its own arrays.
+ */
+public class VectorForcesKernel implements ForcesKernel {
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+  private static final int INITIAL_PAIRS_CAPACITY = 128;
+
+  private static final double PEDESTRIAN = 1;
+  private static final double NOT_PEDESTRIAN = 0;
+
+  /*
+   * Values of each pair of neighbours, saved at the same positions as CompactNeighbours does: the relative position
+   * of the neighbour, the relative velocity of the particle, the radios of both and, for social forces, whether both
+   * are pedestrians
+   */
+  private double[] pairsRelativeX = new double[INITIAL_PAIRS_CAPACITY];
+  private double[] pairsRelativeY = new double[INITIAL_PAIRS_CAPACITY];
+  private double[] pairsRelativeVelocityX = new double[INITIAL_PAIRS_CAPACITY];
+  private double[] pairsRelativeVelocityY = new double[INITIAL_PAIRS_CAPACITY];
+  private double[] pairsRadio = new double[INITIAL_PAIRS_CAPACITY];
+  private double[] pairsNeighbourRadio = new double[INITIAL_PAIRS_CAPACITY];
+  private double[] pairsPedestrians = new double[INITIAL_PAIRS_CAPACITY];
+  /*
+   * Force that the neighbour applies to the particle, and its normal force's module, of each pair
+   */
+  private double[] pairForcesX = new double[INITIAL_PAIRS_CAPACITY];
+  private double[] pairForcesY = new double[INITIAL_PAIRS_CAPACITY];
+  private double[] pairNormalForces = new double[INITIAL_PAIRS_CAPACITY];
+  /**
+   * Whether each slot is a pedestrian, as a double, so as it can be loaded as a vector
+   */
+  private double[] pedestrianFlags = new double[0];
+
+  @Override
+  public void forces(final StaticData staticData, final ParticlesArrays particles,
+                     final CompactNeighbours neighbours, final CompactNeighbours socialNeighbours) {
+    final int nSlots = particles.nSlots();
+    if (pedestrianFlags.length != nSlots) {
+      pedestrianFlags = new double[nSlots];
+    }
+    final boolean[] pedestrian = particles.pedestrian();
+    for (int i = 0; i < nSlots; i++) {
+      pedestrianFlags[i] = pedestrian[i] ? PEDESTRIAN : NOT_PEDESTRIAN;
+    }
+    final double[] forceX = particles.forceX();
+    final double[] forceY = particles.forceY();
+    final double[] normalForce = particles.normalForce();
+
+    // particles' force
+    contactForces(staticData, gatherContactPairs(particles, neighbours));
+    for (int i = 0; i < nSlots; i++) {
+      double particlesForceX = 0;
+      double particlesForceY = 0;
+      double normalForceModule = 0;
+      for (int k = neighbours.from(i); k < neighbours.to(i); k++) {
+        normalForceModule += pairNormalForces[k];
+        particlesForceX += pairForcesX[k];
+        particlesForceY += pairForcesY[k];
+      }
+      normalForce[i] = normalForceModule;
+      forceX[i] = particlesForceX;
+      forceY[i] = particlesForceY;
+    }
+
+    // social force
+    if (socialNeighbours == null) {
+      allPairsSocialForces(staticData, particles);
+    } else {
+      socialForces(staticData, gatherSocialPairs(particles, socialNeighbours));
+      for (int i = 0; i < nSlots; i++) {
+        double socialForceX = 0;
+        double socialForceY = 0;
+        for (int k = socialNeighbours.from(i); k < socialNeighbours.to(i); k++) {
+          socialForceX += pairForcesX[k];
+          socialForceY += pairForcesY[k];
+        }
+        forceX[i] += socialForceX;
+        forceY[i] += socialForceY;
+      }
+    }
+
+    // driving force
+    drivingForces(particles);
+  }
+
+  /**
+   * Saves the values of each pair of predicted neighbours
+   * @return number of pairs' positions, padded up to a multiple of the vectors' length
+   */
+  private int gatherContactPairs(final ParticlesArrays particles, final CompactNeighbours neighbours) {
+    final int nPaddedPairs = ensurePairsCapacity(particles.nSlots(), neighbours);
+    final double[] x = particles.x();
+    final double[] y = particles.y();
+    final double[] vx = particles.vx();
+    final double[] vy = particles.vy();
+    final double[] radio = particles.radio();
+    for (int i = 0; i < particles.nSlots(); i++) {
+      for (int k = neighbours.from(i); k < neighbours.to(i); k++) {
+        final int j = neighbours.neighbour(k);
+        pairsRelativeX[k] = x[j] - x[i];
+        pairsRelativeY[k] = y[j] - y[i];
+        pairsRelativeVelocityX[k] = vx[i] - vx[j];
+        pairsRelativeVelocityY[k] = vy[i] - vy[j];
+        pairsRadio[k] = radio[i];
+        pairsNeighbourRadio[k] = radio[j];
+      }
+    }
+    return nPaddedPairs;
+  }
+
+  /**
+   * Saves the values of each pair of social neighbours, between the predicted particle and its current neighbour
+   * @return number of pairs' positions, padded up to a multiple of the vectors' length
+   */
+  private int gatherSocialPairs(final ParticlesArrays particles, final CompactNeighbours socialNeighbours) {
+    final int nPaddedPairs = ensurePairsCapacity(particles.nSlots(), socialNeighbours);
+    final double[] x = particles.x();
+    final double[] y = particles.y();
+    final double[] socialX = particles.socialX();
+    final double[] socialY = particles.socialY();
+    final double[] radio = particles.radio();
+    for (int i = 0; i < particles.nSlots(); i++) {
+      for (int k = socialNeighbours.from(i); k < socialNeighbours.to(i); k++) {
+        final int j = socialNeighbours.neighbour(k);
+        pairsRelativeX[k] = socialX[j] - x[i];
+        pairsRelativeY[k] = socialY[j] - y[i];
+        pairsRadio[k] = radio[i];
+        pairsNeighbourRadio[k] = radio[j];
+        pairsPedestrians[k] = pedestrianFlags[i] * pedestrianFlags[j];
+      }
+    }
+    return nPaddedPairs;
+  }
+
+  /**
+   * Grows the pairs' arrays, if needed, so as they fit the given neighbours' pairs, padded
+   * @return number of pairs' positions, padded up to a multiple of the vectors' length
+   */
+  private int ensurePairsCapacity(final int nSlots, final CompactNeighbours neighbours) {
+    final int nPairs = nSlots == 0 ? 0 : neighbours.to(nSlots - 1);
+    final int nPaddedPairs = SPECIES.loopBound(nPairs + SPECIES.length() - 1);
+    if (pairsRelativeX.length < nPaddedPairs) {
+      final int capacity = Math.max(nPaddedPairs, 2 * pairsRelativeX.length);
+      pairsRelativeX = new double[capacity];
+      pairsRelativeY = new double[capacity];
+      pairsRelativeVelocityX = new double[capacity];
+      pairsRelativeVelocityY = new double[capacity];
+      pairsRadio = new double[capacity];
+      pairsNeighbourRadio = new double[capacity];
+      pairsPedestrians = new double[capacity];
+      pairForcesX = new double[capacity];
+      pairForcesY = new double[capacity];
+      pairNormalForces = new double[capacity];
+    }
+    return nPaddedPairs;
+  }
+
+  /**
+   * Calculates the (normal + tangential) force of each pair of neighbours; it is 0 if they are not colliding
+   */
+  private void contactForces(final StaticData staticData, final int nPairs) {
+    final double minusKn = - staticData.kn();
+    final double minusKt = - staticData.kt();
+    final DoubleVector zero = DoubleVector.zero(SPECIES);
+
+    for (int k = 0; k < nPairs; k += SPECIES.length()) {
+      final DoubleVector relativeX = DoubleVector.fromArray(SPECIES, pairsRelativeX, k);
+      final DoubleVector relativeY = DoubleVector.fromArray(SPECIES, pairsRelativeY, k);
+      final DoubleVector centersDistance = relativeX.mul(relativeX).add(relativeY.mul(relativeY))
+              .lanewise(VectorOperators.SQRT);
+      final DoubleVector superposition = centersDistance
+              .sub(DoubleVector.fromArray(SPECIES, pairsRadio, k))
+              .sub(DoubleVector.fromArray(SPECIES, pairsNeighbourRadio, k))
+              .neg();
+      final VectorMask<Double> colliding = superposition.compare(VectorOperators.GE, 0);
+      if (!colliding.anyTrue()) {
+        zero.intoArray(pairNormalForces, k);
+        zero.intoArray(pairForcesX, k);
+        zero.intoArray(pairForcesY, k);
+        continue;
+      }
+
+      final DoubleVector normalX = relativeX.div(centersDistance);
+      final DoubleVector normalY = relativeY.div(centersDistance);
+      final DoubleVector tangentialX = normalY.neg();
+      final DoubleVector tangentialY = normalX;
+      final DoubleVector relativeVelocityX = DoubleVector.fromArray(SPECIES, pairsRelativeVelocityX, k);
+      final DoubleVector relativeVelocityY = DoubleVector.fromArray(SPECIES, pairsRelativeVelocityY, k);
+
+      final DoubleVector normalModule = superposition.mul(minusKn);
+      final DoubleVector normalForceX = normalX.mul(normalModule);
+      final DoubleVector normalForceY = normalY.mul(normalModule);
+      final DoubleVector tangentialRelativeVelocity = relativeVelocityX.mul(tangentialX)
+              .add(relativeVelocityY.mul(tangentialY));
+      final DoubleVector tangentialModule = superposition.mul(minusKt).mul(tangentialRelativeVelocity);
+
+      zero.blend(normalForceX.mul(normalForceX).add(normalForceY.mul(normalForceY)).lanewise(VectorOperators.SQRT),
+              colliding).intoArray(pairNormalForces, k);
+      zero.blend(normalForceX.add(tangentialX.mul(tangentialModule)), colliding).intoArray(pairForcesX, k);
+      zero.blend(normalForceY.add(tangentialY.mul(tangentialModule)), colliding).intoArray(pairForcesY, k);
+    }
+  }
+
+  /**
+   * Calculates the social force of each pair of social neighbours; it is 0 unless both are pedestrians
+   */
+  private void socialForces(final StaticData staticData, final int nPairs) {
+    final double minusA = - staticData.A();
+    final double B = staticData.B();
+    final DoubleVector zero = DoubleVector.zero(SPECIES);
+
+    for (int k = 0; k < nPairs; k += SPECIES.length()) {
+      final VectorMask<Double> pedestrians = DoubleVector.fromArray(SPECIES, pairsPedestrians, k)
+              .compare(VectorOperators.EQ, PEDESTRIAN);
+      final DoubleVector relativeX = DoubleVector.fromArray(SPECIES, pairsRelativeX, k);
+      final DoubleVector relativeY = DoubleVector.fromArray(SPECIES, pairsRelativeY, k);
+      final DoubleVector centersDistance = relativeX.mul(relativeX).add(relativeY.mul(relativeY))
+              .lanewise(VectorOperators.SQRT);
+      final DoubleVector socialForceModule = socialForceModule(centersDistance,
+              DoubleVector.fromArray(SPECIES, pairsRadio, k), DoubleVector.fromArray(SPECIES, pairsNeighbourRadio, k),
+              minusA, B);
+
+      zero.blend(relativeX.div(centersDistance).mul(socialForceModule), pedestrians).intoArray(pairForcesX, k);
+      zero.blend(relativeY.div(centersDistance).mul(socialForceModule), pedestrians).intoArray(pairForcesY, k);
+    }
+  }
+
+  /**
+   * Calculates the social force between each pedestrian and all the other ones, adding it to its force.
+   * Other pedestrians are taken by their slots' order, so their values are already contiguous; the last ones, that
+   * do not fill a vector, are taken one at a time
+   */
+  private void allPairsSocialForces(final StaticData staticData, final ParticlesArrays particles) {
+    final int nSlots = particles.nSlots();
+    final int bound = SPECIES.loopBound(nSlots);
+    final double minusA = - staticData.A();
+    final double B = staticData.B();
+    final double[] socialX = particles.socialX();
+    final double[] socialY = particles.socialY();
+    final double[] radio = particles.radio();
+    final DoubleVector zero = DoubleVector.zero(SPECIES);
+
+    for (int i = 0; i < nSlots; i++) {
+      if (pedestrianFlags[i] != PEDESTRIAN) {
+        continue;
+      }
+      // a pedestrian does not push itself
+      pedestrianFlags[i] = NOT_PEDESTRIAN;
+      final double x = particles.x()[i];
+      final double y = particles.y()[i];
+      final DoubleVector particleX = DoubleVector.broadcast(SPECIES, x);
+      final DoubleVector particleY = DoubleVector.broadcast(SPECIES, y);
+      final DoubleVector particleRadio = DoubleVector.broadcast(SPECIES, radio[i]);
+      DoubleVector socialForcesX = zero;
+      DoubleVector socialForcesY = zero;
+      for (int j = 0; j < bound; j += SPECIES.length()) {
+        final VectorMask<Double> pedestrians = DoubleVector.fromArray(SPECIES, pedestrianFlags, j)
+                .compare(VectorOperators.EQ, PEDESTRIAN);
+        if (!pedestrians.anyTrue()) {
+          continue;
+        }
+        final DoubleVector relativeX = DoubleVector.fromArray(SPECIES, socialX, j).sub(particleX);
+        final DoubleVector relativeY = DoubleVector.fromArray(SPECIES, socialY, j).sub(particleY);
+        final DoubleVector centersDistance = relativeX.mul(relativeX).add(relativeY.mul(relativeY))
+                .lanewise(VectorOperators.SQRT);
+        final DoubleVector socialForceModule = socialForceModule(centersDistance, particleRadio,
+                DoubleVector.fromArray(SPECIES, radio, j), minusA, B);
+
+        socialForcesX = socialForcesX.add(
+                zero.blend(relativeX.div(centersDistance).mul(socialForceModule), pedestrians));
+        socialForcesY = socialForcesY.add(
+                zero.blend(relativeY.div(centersDistance).mul(socialForceModule), pedestrians));
+      }
+      double socialForceX = socialForcesX.reduceLanes(VectorOperators.ADD);
+      double socialForceY = socialForcesY.reduceLanes(VectorOperators.ADD);
+      for (int j = bound; j < nSlots; j++) {
+        if (pedestrianFlags[j] == PEDESTRIAN) {
+          final double relativeX = socialX[j] - x;
+          final double relativeY = socialY[j] - y;
+          final double centersDistance = Math.sqrt(relativeX * relativeX + relativeY * relativeY);
+          final double socialForceModule = minusA * Math.exp(- (centersDistance - radio[i] - radio[j]) / B);
+          socialForceX += relativeX / centersDistance * socialForceModule;
+          socialForceY += relativeY / centersDistance * socialForceModule;
+        }
+      }
+      pedestrianFlags[i] = PEDESTRIAN;
+      particles.forceX()[i] += socialForceX;
+      particles.forceY()[i] += socialForceY;
+    }
+  }
+
+  /**
+   * @return module of each social force, given the distance between the particles' centers and their radios
+   */
+  private static DoubleVector socialForceModule(final DoubleVector centersDistance,
+                                                final DoubleVector radio, final DoubleVector neighbourRadio,
+                                                final double minusA, final double B) {
+    // border-to-border distance
+    final DoubleVector distanceBetween = centersDistance.sub(radio).sub(neighbourRadio);
+    return distanceBetween.neg().div(B).lanewise(VectorOperators.EXP).mul(minusA);
+  }
+
+  /**
+   * Adds the driving force of each pedestrian, along its desired direction, to its force.
+   * The last pedestrians, that do not fill a vector, are taken one at a time
+   */
+  private void drivingForces(final ParticlesArrays particles) {
+    final int nSlots = particles.nSlots();
+    final int bound = SPECIES.loopBound(nSlots);
+    final double[] mass = particles.mass();
+    final double[] tau = particles.tau();
+    final double[] drivingSpeed = particles.drivingSpeed();
+    final double[] directionX = particles.directionX();
+    final double[] directionY = particles.directionY();
+    final double[] vx = particles.vx();
+    final double[] vy = particles.vy();
+    final double[] forceX = particles.forceX();
+    final double[] forceY = particles.forceY();
+    final DoubleVector zero = DoubleVector.zero(SPECIES);
+
+    for (int i = 0; i < bound; i += SPECIES.length()) {
+      final VectorMask<Double> pedestrians = DoubleVector.fromArray(SPECIES, pedestrianFlags, i)
+              .compare(VectorOperators.EQ, PEDESTRIAN);
+      final DoubleVector drivingForceModule = DoubleVector.fromArray(SPECIES, mass, i)
+              .div(DoubleVector.fromArray(SPECIES, tau, i));
+      final DoubleVector speed = DoubleVector.fromArray(SPECIES, drivingSpeed, i);
+      final DoubleVector drivingForceX = DoubleVector.fromArray(SPECIES, directionX, i).mul(speed)
+              .sub(DoubleVector.fromArray(SPECIES, vx, i)).mul(drivingForceModule);
+      final DoubleVector drivingForceY = DoubleVector.fromArray(SPECIES, directionY, i).mul(speed)
+              .sub(DoubleVector.fromArray(SPECIES, vy, i)).mul(drivingForceModule);
+
+      DoubleVector.fromArray(SPECIES, forceX, i).add(zero.blend(drivingForceX, pedestrians)).intoArray(forceX, i);
+      DoubleVector.fromArray(SPECIES, forceY, i).add(zero.blend(drivingForceY, pedestrians)).intoArray(forceY, i);
+    }
+    for (int i = bound; i < nSlots; i++) {
+      if (pedestrianFlags[i] == PEDESTRIAN) {
+        final double drivingForceModule = mass[i] / tau[i];
+        forceX[i] += (directionX[i] * drivingSpeed[i] - vx[i]) * drivingForceModule;
+        forceY[i] += (directionY[i] * drivingSpeed[i] - vy[i]) * drivingForceModule;
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package ar.edu.itba.ss.pedestriandynamic.simd;
+
+import ar.edu.itba.ss.pedestriandynamic.interfaces.ForcesKernel;
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.ParticlesArrays;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.services.apis.SocialForceModel;
+import ar.edu.itba.ss.pedestriandynamic.services.kernels.ScalarForcesKernel;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl;
+import jdk.incubator.vector.DoubleVector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the {@link VectorForcesKernel} with the {@link ScalarForcesKernel}, which calculates the same forces one at
+ * a time with the {@link SocialForceModel}, the same code as the primitive forces of
+ * {@code PedestrianDynamicsSystemData} use.
+ * <P>
+ * Pedestrians are spread over a square, about two per squared meter, so as many of them overlap. Neighbours are
+ * found once, with the cell index method, and are not counted on the kernels' times. Social forces are considered
+ * within each cutoff, and between all pairs of pedestrians for the smallest crowd.
+ * <P>
+ * Not run as a test; run its {@code main}, with {@code --add-modules jdk.incubator.vector}, to get the results.
+ * The vectors' length, in doubles, that is printed first, depends on the CPU.
+ */
+public class ForcesKernelBenchmark {
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.58;
+  private static final double DENSITY = 2;
+  private static final double MAX_SPEED = 1.5;
+  private static final double[] SOCIAL_CUTOFFS = {0.5, 2};
+  private static final int[] N_PEDESTRIANS = {2000, 20000};
+  private static final int N_WARM_UP_RUNS = 200;
+  private static final int N_RUNS = 200;
+  private static final long SEED = 42;
+
+  public static void main(final String[] args) {
+    System.out.println("doubles per vector: " + DoubleVector.SPECIES_PREFERRED.length());
+    System.out.println("pedestrians, cutoff, contact pairs, social pairs, scalar (ms/pass), simd (ms/pass), speedup");
+    for (final int nPedestrians : N_PEDESTRIANS) {
+      final double side = Math.sqrt(nPedestrians / DENSITY);
+      final StaticData staticData = StaticData.builder(nPedestrians, side, side, 1.2, MIN_DIAMETER, MAX_DIAMETER,
+              80, 1.2e5, 2.4e5, 2000, 0.08, 0.5, 1.2).build();
+      final List<Particle> particles = randomCrowd(nPedestrians, side);
+      final ParticlesArrays particlesArrays = new ParticlesArrays(nPedestrians);
+      final Random random = new Random(SEED);
+      for (final Particle particle : particles) {
+        particlesArrays.set(particle);
+        particlesArrays.setSocial(particle);
+        final double angle = random.nextDouble() * 2 * Math.PI;
+        particlesArrays.setDirection(particle.slot(), Math.cos(angle), Math.sin(angle));
+      }
+      final CompactNeighbours neighbours = new CompactNeighbours(nPedestrians);
+      new CellIndexMethodImpl(side, side, MAX_DIAMETER, 0).run(particles, neighbours);
+
+      for (final double socialCutoff : SOCIAL_CUTOFFS) {
+        final CompactNeighbours socialNeighbours = new CompactNeighbours(nPedestrians);
+        new CellIndexMethodImpl(side, side, MAX_DIAMETER, socialCutoff).run(particles, socialNeighbours);
+        print(nPedestrians, String.valueOf(socialCutoff), neighbours, socialNeighbours.nPairs(),
+                staticData, particlesArrays, socialNeighbours);
+      }
+      if (nPedestrians == N_PEDESTRIANS[0]) {
+        print(nPedestrians, "none", neighbours, (long) nPedestrians * (nPedestrians - 1) / 2,
+                staticData, particlesArrays, null);
+      }
+    }
+  }
+
+  private static void print(final int nPedestrians, final String socialCutoff, final CompactNeighbours neighbours,
+                            final long nSocialPairs, final StaticData staticData,
+                            final ParticlesArrays particles, final CompactNeighbours socialNeighbours) {
+    final double scalarTime = millisPerPass(new ScalarForcesKernel(), staticData, particles,
+            neighbours, socialNeighbours);
+    final double simdTime = millisPerPass(new VectorForcesKernel(), staticData, particles,
+            neighbours, socialNeighbours);
+    System.out.printf("%d, %s, %d, %d, %.3f, %.3f, %.2f%n", nPedestrians, socialCutoff, neighbours.nPairs(),
+            nSocialPairs, scalarTime, simdTime, scalarTime / simdTime);
+  }
+
+  private static double millisPerPass(final ForcesKernel kernel, final StaticData staticData,
+                                      final ParticlesArrays particles, final CompactNeighbours neighbours,
+                                      final CompactNeighbours socialNeighbours) {
+    for (int i = 0; i < N_WARM_UP_RUNS; i++) {
+      kernel.forces(staticData, particles, neighbours, socialNeighbours);
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < N_RUNS; i++) {
+      kernel.forces(staticData, particles, neighbours, socialNeighbours);
+    }
+    return (System.nanoTime() - start) / 1e6 / N_RUNS;
+  }
+
+  private static List<Particle> randomCrowd(final int nPedestrians, final double side) {
+    final Random random = new Random(SEED);
+    final List<Particle> particles = new ArrayList<>(nPedestrians);
+    for (int i = 0; i < nPedestrians; i++) {
+      final double diameter = MIN_DIAMETER + random.nextDouble() * (MAX_DIAMETER - MIN_DIAMETER);
+      particles.add(Particle.builder(random.nextDouble() * side, random.nextDouble() * side)
+              .radio(diameter / 2).slot(i).mass(80).tau(0.5).drivingSpeed(1.2)
+              .vx((2 * random.nextDouble() - 1) * MAX_SPEED).vy((2 * random.nextDouble() - 1) * MAX_SPEED)
+              .build());
+    }
+    return particles;
+  }
+}
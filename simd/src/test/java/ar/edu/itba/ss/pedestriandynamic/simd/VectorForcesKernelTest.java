@@ -0,0 +1,125 @@
+package ar.edu.itba.ss.pedestriandynamic.simd;
+
+import ar.edu.itba.ss.pedestriandynamic.models.CompactNeighbours;
+import ar.edu.itba.ss.pedestriandynamic.models.Particle;
+import ar.edu.itba.ss.pedestriandynamic.models.ParticleType;
+import ar.edu.itba.ss.pedestriandynamic.models.ParticlesArrays;
+import ar.edu.itba.ss.pedestriandynamic.models.StaticData;
+import ar.edu.itba.ss.pedestriandynamic.services.kernels.ScalarForcesKernel;
+import ar.edu.itba.ss.pedestriandynamic.services.neighboursfinders.CellIndexMethodImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class VectorForcesKernelTest {
+  private static final double SIDE = 20;
+  private static final double MIN_DIAMETER = 0.5;
+  private static final double MAX_DIAMETER = 0.58;
+  private static final double SOCIAL_CUTOFF = 1;
+  private static final int N_PARTICLES = 1000;
+  private static final double MAX_SPEED = 1.5;
+  private static final double MAX_SHIFT = 0.01;
+  // exponentials of the Vector API may differ from Math.exp's ones by rounding
+  private static final double MAX_RELATIVE_ERROR = 1e-12;
+  private static final long SEED = 42;
+
+  private StaticData staticData;
+  private ParticlesArrays particles;
+  private CompactNeighbours neighbours;
+  private CompactNeighbours socialNeighbours;
+
+  @Before
+  public void setUp() {
+    staticData = StaticData.builder(N_PARTICLES, SIDE, SIDE, 1.2, MIN_DIAMETER, MAX_DIAMETER, 80, 1.2e5, 2.4e5, 2000,
+            0.08, 0.5, 1.2).build();
+
+    // a dense crowd, so as many pedestrians overlap, with some particles that are not pedestrians and some empty slots
+    final Random random = new Random(SEED);
+    final List<Particle> predictedParticles = new ArrayList<>(N_PARTICLES);
+    final List<Particle> currentParticles = new ArrayList<>(N_PARTICLES);
+    for (int slot = 0; slot < N_PARTICLES; slot++) {
+      if (slot % 50 == 0) {
+        continue;
+      }
+      final double diameter = MIN_DIAMETER + random.nextDouble() * (MAX_DIAMETER - MIN_DIAMETER);
+      final Particle particle = Particle.builder(random.nextDouble() * SIDE, random.nextDouble() * SIDE)
+              .radio(diameter / 2).slot(slot).mass(80).tau(0.5).drivingSpeed(1.2)
+              .type(slot % 7 == 0 ? ParticleType.WALL : ParticleType.PEDESTRIAN)
+              .vx((2 * random.nextDouble() - 1) * MAX_SPEED).vy((2 * random.nextDouble() - 1) * MAX_SPEED)
+              .build();
+      currentParticles.add(particle);
+      predictedParticles.add(particle
+              .withX(particle.x() + (2 * random.nextDouble() - 1) * MAX_SHIFT)
+              .withY(particle.y() + (2 * random.nextDouble() - 1) * MAX_SHIFT));
+    }
+
+    particles = new ParticlesArrays(N_PARTICLES);
+    for (final Particle particle : currentParticles) {
+      particles.setSocial(particle);
+    }
+    for (final Particle particle : predictedParticles) {
+      particles.set(particle);
+      final double angle = random.nextDouble() * 2 * Math.PI;
+      particles.setDirection(particle.slot(), Math.cos(angle), Math.sin(angle));
+    }
+
+    neighbours = new CompactNeighbours(N_PARTICLES);
+    new CellIndexMethodImpl(SIDE, SIDE, MAX_DIAMETER, 0).run(predictedParticles, neighbours);
+    socialNeighbours = new CompactNeighbours(N_PARTICLES);
+    new CellIndexMethodImpl(SIDE, SIDE, MAX_DIAMETER, SOCIAL_CUTOFF).run(currentParticles, socialNeighbours);
+  }
+
+  @Test
+  public void socialCutoffTest() {
+    assertSameForces(socialNeighbours);
+  }
+
+  @Test
+  public void allPairsTest() {
+    assertSameForces(null);
+  }
+
+  @Test
+  public void particlesAtSamePositionTest() {
+    final ParticlesArrays sameParticles = new ParticlesArrays(2);
+    sameParticles.set(Particle.builder(1, 1).radio(0.25).slot(0).build());
+    sameParticles.set(Particle.builder(1, 1).radio(0.25).slot(1).build());
+    final CompactNeighbours sameNeighbours = new CompactNeighbours(2);
+    sameNeighbours.addPair(0, 1);
+    sameNeighbours.build();
+
+    new VectorForcesKernel().forces(staticData, sameParticles, sameNeighbours, sameNeighbours);
+    Assert.assertTrue(Double.isNaN(sameParticles.forceX()[0]));
+    Assert.assertTrue(Double.isNaN(sameParticles.forceX()[1]));
+  }
+
+  private void assertSameForces(final CompactNeighbours socialNeighbours) {
+    new ScalarForcesKernel().forces(staticData, particles, neighbours, socialNeighbours);
+    final double[] scalarForceX = particles.forceX().clone();
+    final double[] scalarForceY = particles.forceY().clone();
+    final double[] scalarNormalForce = particles.normalForce().clone();
+
+    // the kernel is run twice, so as its arrays are reused
+    final VectorForcesKernel kernel = new VectorForcesKernel();
+    kernel.forces(staticData, particles, neighbours, socialNeighbours);
+    kernel.forces(staticData, particles, neighbours, socialNeighbours);
+
+    int nColliding = 0;
+    for (int slot = 0; slot < N_PARTICLES; slot++) {
+      // particles' forces are calculated with exactly the same operations
+      Assert.assertEquals(scalarNormalForce[slot], particles.normalForce()[slot], 0);
+      final double maxError = MAX_RELATIVE_ERROR * Math.max(1, Math.max(scalarNormalForce[slot],
+              Math.hypot(scalarForceX[slot], scalarForceY[slot])));
+      Assert.assertEquals(scalarForceX[slot], particles.forceX()[slot], maxError);
+      Assert.assertEquals(scalarForceY[slot], particles.forceY()[slot], maxError);
+      if (scalarNormalForce[slot] > 0) {
+        nColliding ++;
+      }
+    }
+    Assert.assertTrue(nColliding > 0);
+  }
+}